@@ -0,0 +1,15 @@
+#!/usr/bin/env bash
+# 쿠폰 발급 JMH 벤치마크를 스레드 수별로 실행
+# 사용법: ./run-benchmarks.sh [benchmark 정규식]   (예: ./run-benchmarks.sh CouponIssueBenchmark)
+# 결과: coupon-service-benchmark/build/results/jmh/results-t{스레드 수}.json
+set -euo pipefail
+
+INCLUDES="${1:-.*}"
+THREAD_COUNTS="${THREAD_COUNTS:-1 4 16}"
+
+cd "$(dirname "$0")/.."
+
+for threads in ${THREAD_COUNTS}; do
+  echo "=== threads=${threads} includes=${INCLUDES} ==="
+  ./gradlew :coupon-service-benchmark:jmh -PjmhThreads="${threads}" -PjmhIncludes="${INCLUDES}"
+done
@@ -0,0 +1,107 @@
+package com.fastcampus.couponservice.benchmark;
+
+import com.fastcampus.couponservice.CouponServiceApplication;
+import com.fastcampus.couponservice.config.UserIdInterceptor;
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.dto.v2.CouponPolicyDto;
+import com.fastcampus.couponservice.service.v2.CouponPolicyService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+import org.springframework.mock.web.MockHttpServletRequest;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 벤치마크용 coupon-service 실행 환경
+ * H2(in-memory), spring-kafka-test 의 embedded Kafka, embedded Redis 위에 애플리케이션 컨텍스트를 띄운다.
+ * 발급 결과를 DB에 저장하는 Kafka consumer 는 측정 대상이 아니므로 멈춰 둔다.
+ */
+public class CouponBenchmarkEnvironment {
+    private static final String ISSUE_TOPIC = "coupon-issue-requests";
+
+    private final AtomicLong userIdSequence = new AtomicLong();
+
+    private RedisServer redisServer;
+    private EmbeddedKafkaKraftBroker kafkaBroker;
+    private ConfigurableApplicationContext context;
+
+    public void start() throws IOException {
+        int redisPort = freePort();
+        redisServer = new RedisServer(redisPort);
+        redisServer.start();
+
+        kafkaBroker = new EmbeddedKafkaKraftBroker(1, 1, ISSUE_TOPIC);
+        kafkaBroker.afterPropertiesSet();
+
+        context = new SpringApplicationBuilder(CouponServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:coupon-benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.jpa.show-sql=false",
+                        "spring.jpa.properties.hibernate.format_sql=false",
+                        "spring.data.redis.host=localhost",
+                        "spring.data.redis.port=" + redisPort,
+                        "spring.kafka.bootstrap-servers=" + kafkaBroker.getBrokersAsString(),
+                        "eureka.client.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+
+        context.getBean(KafkaListenerEndpointRegistry.class).stop();
+    }
+
+    public void stop() throws IOException {
+        if (context != null) {
+            context.close();
+        }
+        if (kafkaBroker != null) {
+            kafkaBroker.destroy();
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    /**
+     * 측정 중 소진되지 않도록 충분한 수량의 쿠폰 정책 생성 (DB + Redis 수량/정책 정보)
+     */
+    public CouponPolicy createPolicy() throws IOException {
+        CouponPolicyService couponPolicyService = getBean(CouponPolicyService.class);
+        return couponPolicyService.createCouponPolicy(CouponPolicyDto.CreateRequest.builder()
+                .name("벤치마크 쿠폰")
+                .description("JMH 벤치마크용 쿠폰 정책")
+                .discountType(CouponPolicy.DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(Integer.MAX_VALUE)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build());
+    }
+
+    /**
+     * 호출마다 새로운 사용자로 요청 스레드의 사용자 ID를 설정 (중복 발급 검사에 걸리지 않도록)
+     */
+    public void nextUser(UserIdInterceptor userIdInterceptor) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-USER-ID", String.valueOf(userIdSequence.incrementAndGet()));
+        userIdInterceptor.preHandle(request, null, null);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
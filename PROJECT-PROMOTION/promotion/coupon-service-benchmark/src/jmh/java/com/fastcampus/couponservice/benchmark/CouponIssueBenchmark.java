@@ -0,0 +1,83 @@
+package com.fastcampus.couponservice.benchmark;
+
+import com.fastcampus.couponservice.config.UserIdInterceptor;
+import com.fastcampus.couponservice.domain.Coupon;
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.service.code.CouponCodeGenerator;
+import com.fastcampus.couponservice.service.v2.CouponRedisService;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 버전별 쿠폰 발급 경로 처리량/지연시간
+ * - v1: DB 조건부 UPDATE(기본 COUNTER 모드) + 쿠폰 INSERT
+ * - v2: Redis 수량 차감(Lua 스크립트) + 쿠폰 INSERT
+ * - v3: Redis 수량 차감 + Kafka 발급 요청 전송
+ * - 쿠폰 코드 생성 (Redis 시퀀스 구간 할당 포함)
+ * 스레드 수는 -PjmhThreads 로 지정한다 (run-benchmarks.sh 참고).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CouponIssueBenchmark {
+
+    private CouponBenchmarkEnvironment environment;
+    private UserIdInterceptor userIdInterceptor;
+    private com.fastcampus.couponservice.service.v1.CouponService couponServiceV1;
+    private CouponRedisService couponRedisService;
+    private com.fastcampus.couponservice.service.v3.CouponService couponServiceV3;
+    private CouponCodeGenerator couponCodeGenerator;
+
+    private com.fastcampus.couponservice.dto.v1.CouponDto.IssueRequest v1Request;
+    private com.fastcampus.couponservice.dto.v3.CouponDto.IssueRequest v3Request;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        environment = new CouponBenchmarkEnvironment();
+        environment.start();
+
+        userIdInterceptor = environment.getBean(UserIdInterceptor.class);
+        couponServiceV1 = environment.getBean(com.fastcampus.couponservice.service.v1.CouponService.class);
+        couponRedisService = environment.getBean(CouponRedisService.class);
+        couponServiceV3 = environment.getBean(com.fastcampus.couponservice.service.v3.CouponService.class);
+        couponCodeGenerator = environment.getBean(CouponCodeGenerator.class);
+
+        CouponPolicy couponPolicy = environment.createPolicy();
+        v1Request = com.fastcampus.couponservice.dto.v1.CouponDto.IssueRequest.builder()
+                .couponPolicyId(couponPolicy.getId())
+                .build();
+        v3Request = com.fastcampus.couponservice.dto.v3.CouponDto.IssueRequest.builder()
+                .couponPolicyId(couponPolicy.getId())
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        environment.stop();
+    }
+
+    @Benchmark
+    public Coupon v1IssueCoupon() {
+        environment.nextUser(userIdInterceptor);
+        return couponServiceV1.issueCoupon(v1Request);
+    }
+
+    @Benchmark
+    public Coupon v2IssueCoupon() {
+        environment.nextUser(userIdInterceptor);
+        return couponRedisService.issueCoupon(v1Request);
+    }
+
+    @Benchmark
+    public void v3RequestCouponIssue() {
+        environment.nextUser(userIdInterceptor);
+        couponServiceV3.requestCouponIssue(v3Request);
+    }
+
+    @Benchmark
+    public String generateCouponCode() {
+        return couponCodeGenerator.generate();
+    }
+}
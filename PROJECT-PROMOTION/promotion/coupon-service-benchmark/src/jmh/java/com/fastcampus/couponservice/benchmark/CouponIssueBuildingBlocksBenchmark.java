@@ -0,0 +1,111 @@
+package com.fastcampus.couponservice.benchmark;
+
+import com.fastcampus.couponservice.aop.CouponMetered;
+import com.fastcampus.couponservice.aop.CouponMetricsAspect;
+import com.fastcampus.couponservice.domain.Coupon;
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.dto.v1.CouponDto;
+import com.fastcampus.couponservice.service.code.SequenceCouponCodeGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 발급 경로를 구성하는 단위 작업 비용 (외부 인프라 없이 측정)
+ * - 쿠폰 코드 생성 (시퀀스 인코딩, 이전 UUID 방식과 비교)
+ * - Redis 에 저장된 쿠폰 정책 JSON 파싱
+ * - Coupon -> CouponDto.Response 변환
+ * - CouponMetricsAspect 프록시 호출 (직접 호출과 비교)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CouponIssueBuildingBlocksBenchmark {
+
+    private long codeSequence;
+
+    private ObjectMapper objectMapper;
+    private String policyJson;
+    private Coupon coupon;
+
+    private MeteredTarget directTarget;
+    private MeteredTarget meteredTarget;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        CouponPolicy couponPolicy = CouponPolicy.builder()
+                .id(1L)
+                .name("벤치마크 쿠폰")
+                .description("JMH 벤치마크용 쿠폰 정책")
+                .discountType(CouponPolicy.DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(1000)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+        objectMapper = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+        policyJson = objectMapper.writeValueAsString(couponPolicy);
+
+        coupon = Coupon.builder()
+                .id(1L)
+                .couponPolicy(couponPolicy)
+                .userId(1L)
+                .couponCode("ABCDEF123456")
+                .build();
+
+        directTarget = new MeteredTarget();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new MeteredTarget());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new CouponMetricsAspect(new SimpleMeterRegistry()));
+        meteredTarget = proxyFactory.getProxy();
+    }
+
+    @Benchmark
+    public String encodeCouponCode() {
+        return SequenceCouponCodeGenerator.encode(codeSequence++);
+    }
+
+    @Benchmark
+    public String uuidCouponCode() {
+        return UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
+    }
+
+    @Benchmark
+    public CouponPolicy parsePolicyJson() throws Exception {
+        return objectMapper.readValue(policyJson, CouponPolicy.class);
+    }
+
+    @Benchmark
+    public CouponDto.Response mapCouponResponse() {
+        return CouponDto.Response.from(coupon);
+    }
+
+    @Benchmark
+    public long issueWithoutAspect() {
+        return directTarget.issue(1L);
+    }
+
+    @Benchmark
+    public long issueWithMetricsAspect() {
+        return meteredTarget.issue(1L);
+    }
+
+    /**
+     * 측정 대상 작업 없이 aspect 자체 비용만 보기 위한 대상
+     */
+    public static class MeteredTarget {
+        @CouponMetered(version = "benchmark")
+        public long issue(long policyId) {
+            return policyId;
+        }
+    }
+}
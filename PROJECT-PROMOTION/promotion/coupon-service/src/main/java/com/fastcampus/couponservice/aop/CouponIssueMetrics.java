@@ -0,0 +1,204 @@
+package com.fastcampus.couponservice.aop;
+
+import com.fastcampus.couponservice.service.v2.CouponIssueMode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 쿠폰 발급 과정 중 수량 차감 구간의 메트릭
+ * CouponMetricsAspect 와 같은 version 태그를 사용하여 발급 방식(mode)별 비교가 가능하도록 한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CouponIssueMetrics {
+    private final MeterRegistry registry;
+
+    // 요청마다 meter 를 조회/등록하지 않도록 태그 값별로 캐시
+    // version 별 구간 Timer (Phase.ordinal() 순서)
+    private final Map<String, Timer[]> phaseTimers = new ConcurrentHashMap<>();
+    // version 별 락 대기 Timer (획득 실패, 성공 순서)
+    private final Map<String, Timer[]> lockWaitTimers = new ConcurrentHashMap<>();
+    // version 별 수량 차감 Timer (CouponIssueMode.ordinal() 순서)
+    private final Map<String, Timer[]> stockTimers = new ConcurrentHashMap<>();
+    // 정책별 임대 Counter (LeaseEvent.ordinal() 순서)
+    private final Map<Long, Counter[]> leaseCounters = new ConcurrentHashMap<>();
+    // 정책별 동시 처리 제한 결과 Counter (결과 태그별)
+    private final Map<Long, Map<String, Counter>> admissionCounters = new ConcurrentHashMap<>();
+    private final Map<Long, Timer> admissionQueueTimers = new ConcurrentHashMap<>();
+
+    private enum LeaseEvent {
+        LEASED("coupon.stock.lease.leased"),
+        SERVED("coupon.stock.lease.served"),
+        RETURNED("coupon.stock.lease.returned");
+
+        private final String name;
+
+        LeaseEvent(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * 발급 처리 구간
+     */
+    public enum Phase {
+        LOCK_WAIT("lock_wait"),
+        LOCK_HOLD("lock_hold"),
+        REDIS("redis"),
+        DB_WRITE("db_write"),
+        KAFKA_SEND("kafka_send"),
+        SPOOL_APPEND("spool_append");
+
+        private final String tag;
+
+        Phase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * 발급 처리 구간별 소요 시간 (percentile histogram 으로 느린 발급이 어느 구간에서 생겼는지 확인)
+     */
+    public void recordPhase(String version, Phase phase, long nanos) {
+        phaseTimers.computeIfAbsent(version, this::createPhaseTimers)[phase.ordinal()]
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 분산 락 획득 대기 시간
+     */
+    public void recordLockWait(String version, boolean acquired, long nanos) {
+        lockWaitTimers.computeIfAbsent(version, this::createLockWaitTimers)[acquired ? 1 : 0]
+                .record(nanos, TimeUnit.NANOSECONDS);
+        recordPhase(version, Phase.LOCK_WAIT, nanos);
+    }
+
+    /**
+     * 수량 차감에 걸린 시간 (LOCK: 락 대기 ~ 차감, SCRIPT: 스크립트 호출)
+     */
+    public void recordStockDuration(String version, CouponIssueMode mode, long nanos) {
+        stockTimers.computeIfAbsent(version, this::createStockTimers)[mode.ordinal()]
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Redis에서 인스턴스로 임대한 수량
+     */
+    public void recordLeaseLeased(Long policyId, long quantity) {
+        leaseCounters.computeIfAbsent(policyId, this::createLeaseCounters)[LeaseEvent.LEASED.ordinal()].increment(quantity);
+    }
+
+    /**
+     * 임대 수량에서 발급한 수량
+     */
+    public void recordLeaseServed(Long policyId) {
+        leaseCounters.computeIfAbsent(policyId, this::createLeaseCounters)[LeaseEvent.SERVED.ordinal()].increment();
+    }
+
+    /**
+     * 사용하지 않고 Redis로 반환한 임대 수량
+     */
+    public void recordLeaseReturned(Long policyId, long quantity) {
+        leaseCounters.computeIfAbsent(policyId, this::createLeaseCounters)[LeaseEvent.RETURNED.ordinal()].increment(quantity);
+    }
+
+    /**
+     * 발급 동시 처리 제한 결과 (admitted: 바로 처리, queued: 대기 후 처리, shed: 거절)
+     */
+    public void recordAdmission(Long policyId, String result) {
+        admissionCounters.computeIfAbsent(policyId, id -> new ConcurrentHashMap<>())
+                .computeIfAbsent(result, tag -> Counter.builder("coupon.issue.admission")
+                        .tag("policyId", String.valueOf(policyId))
+                        .tag("result", tag)
+                        .register(registry))
+                .increment();
+    }
+
+    /**
+     * 발급 동시 처리 제한 대기열에서 기다린 시간
+     */
+    public void recordAdmissionQueueWait(Long policyId, long nanos) {
+        admissionQueueTimers.computeIfAbsent(policyId, id -> Timer.builder("coupon.issue.admission.queue.wait")
+                        .tag("policyId", String.valueOf(id))
+                        .register(registry))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 정책별 현재 동시 처리 한도
+     */
+    public <T> void registerAdmissionLimit(Long policyId, T admission, ToDoubleFunction<T> limit) {
+        Gauge.builder("coupon.issue.admission.limit", admission, limit)
+                .tag("policyId", String.valueOf(policyId))
+                .register(registry);
+    }
+
+    /**
+     * 정책의 동시 처리 제한 meter 제거 (오래 요청이 없어 제한 상태를 정리한 정책)
+     */
+    public void removeAdmissionMeters(Long policyId) {
+        admissionCounters.remove(policyId);
+        admissionQueueTimers.remove(policyId);
+        String tag = String.valueOf(policyId);
+        for (String name : List.of("coupon.issue.admission", "coupon.issue.admission.queue.wait", "coupon.issue.admission.limit")) {
+            registry.find(name).tag("policyId", tag).meters().forEach(registry::remove);
+        }
+    }
+
+    private Timer[] createPhaseTimers(String version) {
+        Phase[] phases = Phase.values();
+        Timer[] timers = new Timer[phases.length];
+        for (Phase phase : phases) {
+            timers[phase.ordinal()] = Timer.builder("coupon.issue.phase")
+                    .tag("version", version)
+                    .tag("phase", phase.tag)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+        return timers;
+    }
+
+    private Timer[] createLockWaitTimers(String version) {
+        Timer[] timers = new Timer[2];
+        for (int acquired = 0; acquired < timers.length; acquired++) {
+            timers[acquired] = Timer.builder("coupon.issue.lock.wait")
+                    .tag("version", version)
+                    .tag("acquired", String.valueOf(acquired == 1))
+                    .register(registry);
+        }
+        return timers;
+    }
+
+    private Timer[] createStockTimers(String version) {
+        CouponIssueMode[] modes = CouponIssueMode.values();
+        Timer[] timers = new Timer[modes.length];
+        for (CouponIssueMode mode : modes) {
+            timers[mode.ordinal()] = Timer.builder("coupon.issue.stock.duration")
+                    .tag("version", version)
+                    .tag("mode", mode.name().toLowerCase())
+                    .register(registry);
+        }
+        return timers;
+    }
+
+    private Counter[] createLeaseCounters(Long policyId) {
+        LeaseEvent[] events = LeaseEvent.values();
+        Counter[] counters = new Counter[events.length];
+        for (LeaseEvent event : events) {
+            counters[event.ordinal()] = Counter.builder(event.name)
+                    .tag("policyId", String.valueOf(policyId))
+                    .register(registry);
+        }
+        return counters;
+    }
+}
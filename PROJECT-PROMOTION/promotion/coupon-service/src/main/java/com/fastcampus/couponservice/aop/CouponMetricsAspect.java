@@ -9,55 +9,89 @@ import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @CouponMetered 메서드의 성공/실패 횟수와 처리 시간
+ * 메서드별 Counter/Timer 는 첫 호출 때 한 번만 등록하고 이후에는 캐시된 meter 를 사용한다.
+ */
 @Aspect
 @Component
 @RequiredArgsConstructor
 public class CouponMetricsAspect {
     private final MeterRegistry registry;
+    private final Map<Method, OperationMeters> meters = new ConcurrentHashMap<>();
 
     @Around("@annotation(CouponMetered)")
     public Object measureCouponOperation(ProceedingJoinPoint joinPoint) throws Throwable {
-        Timer.Sample sample = Timer.start();
-        String version = extractVersion(joinPoint);
-        String operation = extractOperation(joinPoint);
-        
+        long startTime = System.nanoTime();
+        OperationMeters operationMeters = meters.computeIfAbsent(
+            ((MethodSignature) joinPoint.getSignature()).getMethod(), this::createMeters);
+
         try {
             Object result = joinPoint.proceed();
-            
+
+            // Mono 를 반환하는 v4 는 구독이 끝나는 시점에 기록
+            if (result instanceof Mono<?> mono) {
+                return mono
+                    .doOnSuccess(value -> operationMeters.success(startTime))
+                    .doOnError(operationMeters::failure);
+            }
+
+            operationMeters.success(startTime);
+            return result;
+        } catch (Exception e) {
+            operationMeters.failure(e);
+            throw e;
+        }
+    }
+
+    private OperationMeters createMeters(Method method) {
+        return new OperationMeters(registry, method.getAnnotation(CouponMetered.class).version(), method.getName());
+    }
+
+    private static class OperationMeters {
+        private final MeterRegistry registry;
+        private final String version;
+        private final String operation;
+        private final Counter success;
+        private final Timer duration;
+        private final Map<Class<?>, Counter> failures = new ConcurrentHashMap<>();
+
+        private OperationMeters(MeterRegistry registry, String version, String operation) {
+            this.registry = registry;
+            this.version = version;
+            this.operation = operation;
             // 쿠폰 발급 성공 메트릭
-            Counter.builder("coupon.operation.success")
+            this.success = Counter.builder("coupon.operation.success")
                 .tag("version", version)
                 .tag("operation", operation)
-                .register(registry)
-                .increment();
-                
-            sample.stop(Timer.builder("coupon.operation.duration")
+                .register(registry);
+            this.duration = Timer.builder("coupon.operation.duration")
                 .tag("version", version)
                 .tag("operation", operation)
-                .register(registry));
-                
-            return result;
-        } catch (Exception e) {
+                .publishPercentileHistogram()
+                .register(registry);
+        }
+
+        private void success(long startTime) {
+            success.increment();
+            duration.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+
+        private void failure(Throwable e) {
             // 쿠폰 발급 실패 메트릭
-            Counter.builder("coupon.operation.failure")
-                .tag("version", version)
-                .tag("operation", operation)
-                .tag("error", e.getClass().getSimpleName())
-                .register(registry)
+            failures.computeIfAbsent(e.getClass(), type -> Counter.builder("coupon.operation.failure")
+                    .tag("version", version)
+                    .tag("operation", operation)
+                    .tag("error", type.getSimpleName())
+                    .register(registry))
                 .increment();
-            throw e;
         }
     }
-    
-    private String extractVersion(ProceedingJoinPoint joinPoint) {
-        CouponMetered annotation = ((MethodSignature) joinPoint.getSignature())
-            .getMethod()
-            .getAnnotation(CouponMetered.class);
-        return annotation.version();
-    }
-    
-    private String extractOperation(ProceedingJoinPoint joinPoint) {
-        return joinPoint.getSignature().getName();
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,58 @@
+package com.fastcampus.couponservice.config;
+
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.utils.Utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 쿠폰 발급 요청 파티셔너
+ * 키를 "정책ID:salt" 로 보내면 정책의 기준 파티션에서 salt 만큼 떨어진 파티션으로 보낸다.
+ * 기본 파티셔너처럼 키 전체를 해시하면 salt 끼리 같은 파티션에 몰릴 수 있으므로,
+ * 인기 정책 하나의 요청이 salt 개수(최대 파티션 수)만큼의 파티션에 빠짐없이 나뉘도록 직접 계산한다.
+ * 같은 사용자는 항상 같은 salt 를 받으므로 사용자별 요청 순서는 유지된다.
+ */
+public class CouponIssuePartitioner implements Partitioner {
+    private static final char SALT_DELIMITER = ':';
+
+    /**
+     * 정책 ID 와 사용자 해시 salt 로 메시지 키 생성
+     */
+    public static String key(Long policyId, Long userId, int salts) {
+        if (salts <= 1 || userId == null) {
+            return String.valueOf(policyId);
+        }
+        int salt = Math.floorMod(Long.hashCode(userId * 0x9E3779B97F4A7C15L), salts);
+        return policyId + String.valueOf(SALT_DELIMITER) + salt;
+    }
+
+    @Override
+    public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes, Cluster cluster) {
+        int numPartitions = cluster.partitionCountForTopic(topic);
+        if (keyBytes == null) {
+            return ThreadLocalRandom.current().nextInt(numPartitions);
+        }
+
+        String keyString = key.toString();
+        int delimiter = keyString.lastIndexOf(SALT_DELIMITER);
+        if (delimiter < 0) {
+            return Utils.toPositive(Utils.murmur2(keyBytes)) % numPartitions;
+        }
+
+        byte[] policyBytes = keyString.substring(0, delimiter).getBytes(StandardCharsets.UTF_8);
+        int salt = Integer.parseInt(keyString.substring(delimiter + 1));
+        int basePartition = Utils.toPositive(Utils.murmur2(policyBytes)) % numPartitions;
+        return (basePartition + salt) % numPartitions;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -1,36 +1,76 @@
 package com.fastcampus.couponservice.config;
 
 import com.fastcampus.couponservice.dto.v3.CouponDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.util.backoff.ExponentialBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
 
 @Configuration
+@RequiredArgsConstructor
 public class KafkaConfig {
-    private static final String BOOTSTRAP_SERVERS = "localhost:9092";
-    private static final String GROUP_ID = "coupon-service";
+    public static final String COUPON_ISSUE_TOPIC = "coupon-issue-requests";
+    public static final String GROUP_ID = "coupon-service";
+    private static final int MAX_POLL_RECORDS = 100;
+    private static final long RETRY_INITIAL_INTERVAL_MS = 1_000L;
+    private static final long RETRY_MAX_INTERVAL_MS = 30_000L;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${spring.kafka.bootstrap-servers:localhost:9092}")
+    private String bootstrapServers = "localhost:9092";
+
+    // 발급 요청 토픽의 파티션 수 (컨슈머 동시성과 프로듀서 키 salt 개수도 이 값을 따른다)
+    @Value("${coupon.kafka.issue-partitions:6}")
+    private int issuePartitions = 6;
+
+    /**
+     * 발급 요청 토픽 (기존 토픽의 파티션이 더 적으면 KafkaAdmin 이 파티션을 늘린다)
+     */
+    @Bean
+    public NewTopic couponIssueRequestsTopic() {
+        return TopicBuilder.name(COUPON_ISSUE_TOPIC)
+                .partitions(issuePartitions)
+                .build();
+    }
 
     @Bean
     public ProducerFactory<String, CouponDto.IssueMessage> couponProducerFactory() {
         Map<String, Object> config = new HashMap<>();
-        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, BOOTSTRAP_SERVERS);
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
         config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
         config.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, true); // 헤더에 타입 정보 추가
-        // 안정성을 위한 추가 설정
+        // 멱등 프로듀서: 재전송해도 브로커에서 중복이 걸러지고, in-flight 5 까지 파티션 내 순서가 유지된다
         config.put(ProducerConfig.ACKS_CONFIG, "all");
-        config.put(ProducerConfig.RETRIES_CONFIG, 3);
-        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 1);
+        config.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        config.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        // 스풀 relay 가 묶음으로 보내므로 배치/압축으로 처리량 확보
+        config.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        config.put(ProducerConfig.BATCH_SIZE_CONFIG, 64 * 1024);
+        config.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+        // 인기 정책의 요청을 여러 파티션으로 분산 ("정책ID:salt" 키)
+        config.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, CouponIssuePartitioner.class);
         return new DefaultKafkaProducerFactory<>(config);
     }
 
@@ -42,7 +82,7 @@ public class KafkaConfig {
     @Bean
     public ConsumerFactory<String, CouponDto.IssueMessage> couponConsumerFactory() {
         Map<String, Object> config = new HashMap<>();
-        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, BOOTSTRAP_SERVERS);
+        config.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         config.put(ConsumerConfig.GROUP_ID_CONFIG, GROUP_ID);
         config.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         config.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
@@ -50,27 +90,46 @@ public class KafkaConfig {
         // 안정성을 위한 추가 설정
         config.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         config.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
-        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 100);
+        config.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, MAX_POLL_RECORDS);
 
         JsonDeserializer<CouponDto.IssueMessage> jsonDeserializer = new JsonDeserializer<>(CouponDto.IssueMessage.class);
         jsonDeserializer.addTrustedPackages("*");
         jsonDeserializer.setUseTypeMapperForKey(true); // 타입 매핑 활성화
         jsonDeserializer.setRemoveTypeHeaders(false);  // 헤더 유지
 
-        return new DefaultKafkaConsumerFactory<>(
+        DefaultKafkaConsumerFactory<String, CouponDto.IssueMessage> consumerFactory = new DefaultKafkaConsumerFactory<>(
                 config,
                 new StringDeserializer(),
                 jsonDeserializer
         );
+        // 컨슈머 클라이언트 메트릭 등록 (kafka.consumer.fetch.manager.records.lag 등 파티션별 lag 포함)
+        consumerFactory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return consumerFactory;
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, CouponDto.IssueMessage> couponKafkaListenerContainerFactory() {
+    public ConcurrentKafkaListenerContainerFactory<String, CouponDto.IssueMessage> couponKafkaListenerContainerFactory(Environment environment) {
         ConcurrentKafkaListenerContainerFactory<String, CouponDto.IssueMessage> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(couponConsumerFactory());
-        // 동시성 설정
-        factory.setConcurrency(3);
+        // 파티션 수만큼 컨슈머 스레드를 두어 모든 파티션이 동시에 소비되도록 함
+        // (인스턴스가 여러 대면 남는 스레드는 파티션을 할당받지 못하고 대기)
+        factory.setConcurrency(issuePartitions);
+        // poll 한 번에 받은 메시지(최대 MAX_POLL_RECORDS)를 묶어서 전달하고,
+        // 리스너가 정상 반환된 뒤(트랜잭션 커밋 이후)에 배치 단위로 오프셋 커밋
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        // 리스너가 던진 일시적 장애(BatchListenerFailedException)는 실패한 메시지 앞까지 커밋하고 나머지를 다시 받는다.
+        // 요청 시점에 수량이 이미 차감되었으므로 건너뛰지 않고 DB 가 복구될 때까지 간격을 늘려가며 재시도한다.
+        ExponentialBackOff backOff = new ExponentialBackOff(RETRY_INITIAL_INTERVAL_MS, ExponentialBackOff.DEFAULT_MULTIPLIER);
+        backOff.setMaxInterval(RETRY_MAX_INTERVAL_MS);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(backOff));
+        // spring.threads.virtual.enabled=true 로 JDK 21 이상에서 실행하면 리스너도 가상 스레드에서 실행
+        if (Threading.VIRTUAL.isActive(environment)) {
+            SimpleAsyncTaskExecutor listenerExecutor = new SimpleAsyncTaskExecutor("coupon-kafka-");
+            listenerExecutor.setVirtualThreads(true);
+            factory.getContainerProperties().setListenerTaskExecutor(listenerExecutor);
+        }
         return factory;
     }
 }
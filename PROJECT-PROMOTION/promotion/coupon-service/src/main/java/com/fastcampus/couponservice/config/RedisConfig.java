@@ -6,6 +6,9 @@ import org.redisson.config.Config;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.util.StringUtils;
+
+import java.util.Arrays;
 
 @Configuration
 public class RedisConfig {
@@ -16,11 +19,25 @@ public class RedisConfig {
     @Value("${spring.data.redis.port}")
     private int port;
 
+    // 설정 시 Redis Cluster 로 접속 (예: host1:7000,host2:7001)
+    @Value("${spring.data.redis.cluster.nodes:}")
+    private String clusterNodes;
+
     @Bean
     public RedissonClient redissonClient() {
         Config config = new Config();
-        config.useSingleServer()
-                .setAddress("redis://" + host + ":" + port);
+        if (StringUtils.hasText(clusterNodes)) {
+            config.useClusterServers()
+                    .addNodeAddress(Arrays.stream(clusterNodes.split(","))
+                            .map(String::trim)
+                            .map(node -> "redis://" + node)
+                            .toArray(String[]::new));
+        } else {
+            config.useSingleServer()
+                    .setAddress("redis://" + host + ":" + port);
+        }
+        // Lua 스크립트를 EVALSHA로 호출하여 매 요청마다 스크립트 본문을 전송하지 않도록 함
+        config.setUseScriptCache(true);
         return Redisson.create(config);
     }
 }
@@ -3,10 +3,15 @@ package com.fastcampus.couponservice.config;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 
+/**
+ * X-USER-ID 헤더의 사용자 ID를 요청 스레드에 보관
+ * 가상 스레드 모드에서는 요청마다 새 스레드가 만들어지므로 ThreadLocal 값이 다른 요청으로 새지 않으며,
+ * afterCompletion 에서 항상 제거해 플랫폼 스레드 풀에서도 재사용되지 않도록 한다.
+ */
 @Component
-public class UserIdInterceptor implements HandlerInterceptor {
+public class UserIdInterceptor implements AsyncHandlerInterceptor {
     private static final String USER_ID_HEADER = "X-USER-ID";
     private static final ThreadLocal<Long> currentUserId = new ThreadLocal<>();
 
@@ -24,6 +29,14 @@ public class UserIdInterceptor implements HandlerInterceptor {
         }
     }
 
+    /**
+     * 비동기(Mono 등) 응답은 afterCompletion 이 다른 스레드에서 호출되므로 최초 요청 스레드에서 먼저 제거
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        currentUserId.remove();
+    }
+
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
         currentUserId.remove();
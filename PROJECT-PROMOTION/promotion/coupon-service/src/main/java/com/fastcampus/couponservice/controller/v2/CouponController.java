@@ -1,6 +1,7 @@
 package com.fastcampus.couponservice.controller.v2;
 
 import com.fastcampus.couponservice.dto.v1.CouponDto;
+import com.fastcampus.couponservice.service.v2.CouponIssueAdmission;
 import com.fastcampus.couponservice.service.v2.CouponService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -12,10 +13,12 @@ import org.springframework.web.bind.annotation.*;
 public class CouponController {
     
     private final CouponService couponService;
+    private final CouponIssueAdmission couponIssueAdmission;
     
     @PostMapping("/issue")
     public ResponseEntity<CouponDto.Response> issueCoupon(@RequestBody CouponDto.IssueRequest request) {
-        return ResponseEntity.ok(couponService.issueCoupon(request));
+        return ResponseEntity.ok(couponIssueAdmission.execute(request.getCouponPolicyId(),
+                () -> couponService.issueCoupon(request)));
     }
     
     @PostMapping("/{couponId}/use")
@@ -28,6 +28,20 @@ public class CouponPolicyController {
         return ResponseEntity.ok(CouponPolicyDto.Response.from(couponPolicyService.getCouponPolicy(id)));
     }
 
+    @PatchMapping("/{id}/end-time")
+    public ResponseEntity<CouponPolicyDto.Response> updateEndTime(@PathVariable Long id,
+                                                                  @RequestBody CouponPolicyDto.UpdateEndTimeRequest request) throws JsonProcessingException {
+        return ResponseEntity.ok(CouponPolicyDto.Response.from(couponPolicyService.updateEndTime(id, request.getEndTime())));
+    }
+
+    @GetMapping("/{id}/remaining")
+    public ResponseEntity<CouponPolicyDto.QuantityResponse> getRemainingQuantity(@PathVariable Long id) {
+        return ResponseEntity.ok(CouponPolicyDto.QuantityResponse.builder()
+                .policyId(id)
+                .remainingQuantity(couponPolicyService.getRemainingQuantity(id))
+                .build());
+    }
+
     @GetMapping
     public ResponseEntity<List<CouponPolicyDto.Response>> getAllCouponPolicies() {
         return ResponseEntity.ok(couponPolicyService.getAllCouponPolicies().stream()
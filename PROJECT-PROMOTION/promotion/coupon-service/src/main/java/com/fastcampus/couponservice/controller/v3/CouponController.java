@@ -1,23 +1,73 @@
 package com.fastcampus.couponservice.controller.v3;
 
+import com.fastcampus.couponservice.config.UserIdInterceptor;
+import com.fastcampus.couponservice.domain.Coupon;
 import com.fastcampus.couponservice.dto.v3.CouponDto;
+import com.fastcampus.couponservice.service.v2.CouponIssueAdmission;
+import com.fastcampus.couponservice.service.v3.CouponDiscountService;
+import com.fastcampus.couponservice.service.v3.CouponIssueTicketService;
 import com.fastcampus.couponservice.service.v3.CouponService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
+import java.time.Duration;
 import java.util.List;
 
 @RestController("couponControllerV3")
 @RequiredArgsConstructor
 @RequestMapping("/api/v3/coupons")
 public class CouponController {
+    private static final long MAX_WAIT_SECONDS = 30;
+
     private final CouponService couponService;
+    private final CouponIssueAdmission couponIssueAdmission;
+    private final CouponDiscountService couponDiscountService;
+    private final CouponIssueTicketService couponIssueTicketService;
 
     @PostMapping("/issue")
-    public ResponseEntity<Void> issueCoupon(@RequestBody CouponDto.IssueRequest request) {
-        couponService.requestCouponIssue(request);
-        return ResponseEntity.accepted().build();
+    public ResponseEntity<CouponDto.IssueTicketResponse> issueCoupon(@RequestBody CouponDto.IssueRequest request) {
+        String ticketId = couponIssueAdmission.execute(request.getCouponPolicyId(), () -> couponService.requestCouponIssue(request));
+        return ResponseEntity.accepted().body(CouponDto.IssueTicketResponse.pending(ticketId));
+    }
+
+    /**
+     * 발급 결과 long-poll 조회: 결과가 저장되는 즉시 응답하고, waitSeconds 안에 처리되지 않으면 202 + PENDING
+     */
+    @GetMapping("/issue/{ticketId}")
+    public DeferredResult<ResponseEntity<CouponDto.IssueTicketResponse>> getIssueResult(
+            @PathVariable String ticketId,
+            @RequestParam(defaultValue = "10") long waitSeconds
+    ) {
+        Duration timeout = Duration.ofSeconds(Math.max(1, Math.min(waitSeconds, MAX_WAIT_SECONDS)));
+        return couponIssueTicketService.awaitResult(ticketId, UserIdInterceptor.getCurrentUserId(), timeout);
+    }
+
+    @GetMapping
+    public ResponseEntity<CouponDto.WalletResponse> getCoupons(
+            @RequestParam(defaultValue = "AVAILABLE") Coupon.Status status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        return ResponseEntity.ok(couponService.getCoupons(status, cursor, size));
+    }
+
+    @GetMapping("/wallet")
+    public ResponseEntity<List<CouponDto.WalletItem>> getUsableCoupons() {
+        return ResponseEntity.ok(couponService.getUsableCoupons());
+    }
+
+    @GetMapping("/best-discount")
+    public ResponseEntity<CouponDto.BestDiscountResponse> getBestDiscount(@RequestParam long orderAmount) {
+        return ResponseEntity.ok(couponDiscountService.getBestDiscount(orderAmount));
+    }
+
+    @PostMapping("/best-discount/batch")
+    public ResponseEntity<List<CouponDto.BestDiscountResponse>> getBestDiscounts(
+            @RequestBody CouponDto.BestDiscountBatchRequest request
+    ) {
+        return ResponseEntity.ok(couponDiscountService.getBestDiscounts(request.getOrderAmounts()));
     }
 
     @PostMapping("/{couponId}/use")
@@ -29,6 +79,12 @@ public class CouponController {
         return ResponseEntity.ok(response);
     }
 
+    @PostMapping("/redeem")
+    public ResponseEntity<CouponDto.CouponResponse> redeemCoupon(@RequestBody CouponDto.RedeemRequest request) {
+        Coupon coupon = couponService.redeemCoupon(request.getCouponCode(), request.getOrderId());
+        return ResponseEntity.ok(CouponDto.CouponResponse.from(coupon));
+    }
+
     @PostMapping("/{couponId}/cancel")
     public ResponseEntity<Void> cancelCoupon(@PathVariable Long couponId) {
         CouponDto.CouponResponse response = CouponDto.CouponResponse.from(couponService.cancelCoupon(couponId));
@@ -0,0 +1,30 @@
+package com.fastcampus.couponservice.controller.v3;
+
+import com.fastcampus.couponservice.dto.v3.CouponGrantDto;
+import com.fastcampus.couponservice.job.CouponGrantLauncher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/v3/coupon-grants")
+@RequiredArgsConstructor
+public class CouponGrantController {
+    private final CouponGrantLauncher couponGrantLauncher;
+
+    @PostMapping
+    public ResponseEntity<CouponGrantDto.GrantResponse> grantCoupons(@RequestBody CouponGrantDto.GrantRequest request) {
+        return ResponseEntity.accepted().body(CouponGrantDto.GrantResponse.from(
+                couponGrantLauncher.launch(request.getPolicyId(), request.getUserFiles(), request.getSourcePolicyId())));
+    }
+
+    @PostMapping("/{executionId}/restart")
+    public ResponseEntity<CouponGrantDto.GrantResponse> restartGrant(@PathVariable Long executionId) {
+        return ResponseEntity.accepted().body(CouponGrantDto.GrantResponse.from(couponGrantLauncher.restart(executionId)));
+    }
+
+    @GetMapping("/{executionId}")
+    public ResponseEntity<CouponGrantDto.GrantResponse> getGrant(@PathVariable Long executionId) {
+        return ResponseEntity.ok(CouponGrantDto.GrantResponse.from(couponGrantLauncher.getExecution(executionId)));
+    }
+}
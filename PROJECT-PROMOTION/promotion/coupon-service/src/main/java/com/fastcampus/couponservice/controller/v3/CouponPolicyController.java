@@ -28,6 +28,14 @@ public class CouponPolicyController {
         return ResponseEntity.ok(CouponPolicyDto.Response.from(couponPolicyService.getCouponPolicy(id)));
     }
 
+    @GetMapping("/{id}/remaining")
+    public ResponseEntity<CouponPolicyDto.QuantityResponse> getRemainingQuantity(@PathVariable Long id) {
+        return ResponseEntity.ok(CouponPolicyDto.QuantityResponse.builder()
+                .policyId(id)
+                .remainingQuantity(couponPolicyService.getRemainingQuantity(id))
+                .build());
+    }
+
     @GetMapping
     public ResponseEntity<List<CouponPolicyDto.Response>> getAllCouponPolicies() {
         return ResponseEntity.ok(couponPolicyService.getAllCouponPolicies().stream()
@@ -0,0 +1,27 @@
+package com.fastcampus.couponservice.controller.v4;
+
+import com.fastcampus.couponservice.config.UserIdInterceptor;
+import com.fastcampus.couponservice.dto.v3.CouponDto;
+import com.fastcampus.couponservice.service.v4.CouponService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+@RestController("couponControllerV4")
+@RequiredArgsConstructor
+@RequestMapping("/api/v4/coupons")
+public class CouponController {
+    private final CouponService couponService;
+
+    /**
+     * Mono 를 반환하면 Spring MVC 가 비동기로 처리하므로 Tomcat 요청 스레드는 발급 완료를 기다리지 않는다.
+     * 사용자 ID 는 ThreadLocal 이 유효한 요청 스레드에서 미리 꺼내 전달한다.
+     */
+    @PostMapping("/issue")
+    public Mono<ResponseEntity<Void>> issueCoupon(@RequestBody CouponDto.IssueRequest request) {
+        Long userId = UserIdInterceptor.getCurrentUserId();
+        return couponService.requestCouponIssue(request, userId)
+                .then(Mono.fromSupplier(() -> ResponseEntity.accepted().<Void>build()));
+    }
+}
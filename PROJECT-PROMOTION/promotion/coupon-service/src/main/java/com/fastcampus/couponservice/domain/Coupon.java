@@ -10,7 +10,16 @@ import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
+/**
+ * 발급된 쿠폰
+ * uk_coupon_code 는 기존 DB 에 중복된 이전 형식 코드가 있으면 만들어지지 않으므로 먼저 db/dedupe-legacy-coupon-codes.sql 을 실행한다.
+ */
 @Entity
+@Table(name = "coupon", indexes = {
+        @Index(name = "idx_coupon_user_status_created", columnList = "user_id, status, created_at, id"),
+        @Index(name = "idx_coupon_policy", columnList = "coupon_policy_id"),
+        @Index(name = "uk_coupon_code", columnList = "coupon_code", unique = true)
+})
 @Getter
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class Coupon {
@@ -22,8 +31,10 @@ public class Coupon {
         CANCELLED
     }
 
+    // IDENTITY 는 INSERT 마다 키를 받아와야 해서 JDBC 배치가 불가능하므로 시퀀스를 미리 할당받아 사용
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "coupon_seq_generator")
+    @SequenceGenerator(name = "coupon_seq_generator", sequenceName = "coupon_seq", allocationSize = 100)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -49,6 +60,11 @@ public class Coupon {
         this.status = Status.AVAILABLE;
     }
 
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
     public void use(Long orderId) {
         if (status == Status.USED) {
             throw new CouponAlreadyUsedException("이미 사용된 쿠폰입니다.");
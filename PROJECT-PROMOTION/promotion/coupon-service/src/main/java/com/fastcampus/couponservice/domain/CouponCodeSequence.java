@@ -0,0 +1,38 @@
+package com.fastcampus.couponservice.domain;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * 쿠폰 코드 시퀀스의 다음 번호
+ * 인스턴스가 행을 잠그고 구간 크기만큼 늘려 번호 구간을 할당받는다.
+ */
+@Entity
+@Table(name = "coupon_code_sequence")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class CouponCodeSequence {
+
+    @Id
+    private String name;
+
+    private long nextValue;
+
+    public CouponCodeSequence(String name, long nextValue) {
+        this.name = name;
+        this.nextValue = nextValue;
+    }
+
+    /**
+     * @return 할당한 구간의 시작 번호
+     */
+    public long advance(long size) {
+        long start = nextValue;
+        nextValue += size;
+        return start;
+    }
+}
@@ -6,6 +6,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
@@ -43,6 +44,12 @@ public class CouponPolicy {
     @Column(nullable = false)
     private Integer totalQuantity;
 
+    // v1 COUNTER 모드에서만 증가 (기존 정책은 db/backfill-policy-issued-quantity.sql 로 발급 수를 채운다)
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer issuedQuantity = 0;
+
     @Column(nullable = false)
     private LocalDateTime startTime;
 
@@ -58,7 +65,19 @@ public class CouponPolicy {
 
     public enum DiscountType {
         FIXED_AMOUNT,    // 정액 할인
-        PERCENTAGE      // 정률 할인
+        PERCENTAGE;     // 정률 할인
+
+        /**
+         * 주문 금액에 대한 할인 금액 (최대 할인 금액과 주문 금액을 넘지 않음)
+         * @param maximumDiscountAmount 0 이하이면 상한 없음
+         */
+        public long calculateDiscount(long orderAmount, int discountValue, int maximumDiscountAmount) {
+            long discount = this == PERCENTAGE ? orderAmount * discountValue / 100 : discountValue;
+            if (maximumDiscountAmount > 0) {
+                discount = Math.min(discount, maximumDiscountAmount);
+            }
+            return Math.max(0, Math.min(discount, orderAmount));
+        }
     }
 
     @PrePersist
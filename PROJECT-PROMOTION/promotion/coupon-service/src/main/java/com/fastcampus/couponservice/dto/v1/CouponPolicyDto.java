@@ -86,6 +86,7 @@ public class CouponPolicyDto {
                     .minimumOrderAmount(couponPolicy.getMinimumOrderAmount())
                     .maximumDiscountAmount(couponPolicy.getMaximumDiscountAmount())
                     .totalQuantity(couponPolicy.getTotalQuantity())
+                    .issuedQuantity(couponPolicy.getIssuedQuantity())
                     .startTime(couponPolicy.getStartTime())
                     .endTime(couponPolicy.getEndTime())
                     .createdAt(couponPolicy.getCreatedAt())
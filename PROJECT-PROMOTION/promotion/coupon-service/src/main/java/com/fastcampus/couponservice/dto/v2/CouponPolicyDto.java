@@ -4,8 +4,10 @@ import com.fastcampus.couponservice.domain.CouponPolicy;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
@@ -70,7 +72,6 @@ public class CouponPolicyDto {
         private Integer minimumOrderAmount;
         private Integer maximumDiscountAmount;
         private Integer totalQuantity;
-        private Integer issuedQuantity;
         private LocalDateTime startTime;
         private LocalDateTime endTime;
         private LocalDateTime createdAt;
@@ -93,4 +94,20 @@ public class CouponPolicyDto {
                     .build();
         }
     }
+
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class UpdateEndTimeRequest {
+        @NotNull(message = "종료 시간은 필수입니다.")
+        private LocalDateTime endTime;
+    }
+
+    @Getter
+    @Builder
+    public static class QuantityResponse {
+        private Long policyId;
+        private Long remainingQuantity;
+    }
 }
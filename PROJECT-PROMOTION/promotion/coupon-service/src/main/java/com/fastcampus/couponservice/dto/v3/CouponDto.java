@@ -2,12 +2,17 @@ package com.fastcampus.couponservice.dto.v3;
 
 import com.fastcampus.couponservice.domain.Coupon;
 import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.repository.CouponWalletItem;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
 
 public class CouponDto {
     @Getter
@@ -23,10 +28,91 @@ public class CouponDto {
     @NoArgsConstructor
     @AllArgsConstructor
     public static class IssueMessage {
+        private String requestId;
         private Long policyId;
         private Long userId;
     }
 
+    public enum IssueStatus {
+        PENDING, ISSUED, FAILED
+    }
+
+    /**
+     * 발급 실패 사유 코드 (티켓 조회 응답에 그대로 노출되므로 예외 메시지 대신 고정된 코드를 사용)
+     */
+    public enum IssueFailureReason {
+        POLICY_NOT_FOUND, INVALID_REQUEST, INTERNAL_ERROR
+    }
+
+    /**
+     * 컨슈머가 Redis 에 저장하는 발급 요청 처리 결과
+     */
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IssueResult {
+        private String requestId;
+        private Long userId;
+        private IssueStatus status;
+        private Long couponId;
+        private String reason;
+
+        public static IssueResult issued(IssueMessage message, Long couponId) {
+            return IssueResult.builder()
+                    .requestId(message.getRequestId())
+                    .userId(message.getUserId())
+                    .status(IssueStatus.ISSUED)
+                    .couponId(couponId)
+                    .build();
+        }
+
+        public static IssueResult failed(IssueMessage message, IssueFailureReason reason) {
+            return IssueResult.builder()
+                    .requestId(message.getRequestId())
+                    .userId(message.getUserId())
+                    .status(IssueStatus.FAILED)
+                    .reason(reason.name())
+                    .build();
+        }
+    }
+
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class IssueTicketResponse {
+        private String ticketId;
+        private IssueStatus status;
+        private Long couponId;
+        private String reason;
+
+        public static IssueTicketResponse pending(String ticketId) {
+            return IssueTicketResponse.builder()
+                    .ticketId(ticketId)
+                    .status(IssueStatus.PENDING)
+                    .build();
+        }
+
+        public static IssueTicketResponse from(IssueResult result) {
+            return IssueTicketResponse.builder()
+                    .ticketId(result.getRequestId())
+                    .status(result.getStatus())
+                    .couponId(result.getCouponId())
+                    .reason(result.getReason())
+                    .build();
+        }
+    }
+
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RedeemRequest {
+        private String couponCode;
+        private Long orderId;
+    }
+
     @Getter
     @Builder
     public static class CouponResponse {
@@ -61,4 +147,128 @@ public class CouponDto {
                     .build();
         }
     }
+
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class WalletItem {
+        private Long id;
+        private String couponCode;
+        private Coupon.Status status;
+        private CouponPolicy.DiscountType discountType;
+        private Integer discountValue;
+        private Integer minimumOrderAmount;
+        private Integer maximumDiscountAmount;
+        private LocalDateTime validFrom;
+        private LocalDateTime validUntil;
+        private Long orderId;
+        private LocalDateTime usedAt;
+        private LocalDateTime issuedAt;
+
+        public static WalletItem from(CouponWalletItem item) {
+            return WalletItem.builder()
+                    .id(item.getId())
+                    .couponCode(item.getCouponCode())
+                    .status(item.getStatus())
+                    .discountType(item.getDiscountType())
+                    .discountValue(item.getDiscountValue())
+                    .minimumOrderAmount(item.getMinimumOrderAmount())
+                    .maximumDiscountAmount(item.getMaximumDiscountAmount())
+                    .validFrom(item.getValidFrom())
+                    .validUntil(item.getValidUntil())
+                    .orderId(item.getOrderId())
+                    .usedAt(item.getUsedAt())
+                    .issuedAt(item.getCreatedAt())
+                    .build();
+        }
+
+        public static WalletItem from(Coupon coupon) {
+            CouponPolicy policy = coupon.getCouponPolicy();
+            return WalletItem.builder()
+                    .id(coupon.getId())
+                    .couponCode(coupon.getCouponCode())
+                    .status(coupon.getStatus())
+                    .discountType(policy.getDiscountType())
+                    .discountValue(policy.getDiscountValue())
+                    .minimumOrderAmount(policy.getMinimumOrderAmount())
+                    .maximumDiscountAmount(policy.getMaximumDiscountAmount())
+                    .validFrom(policy.getStartTime())
+                    .validUntil(policy.getEndTime())
+                    .orderId(coupon.getOrderId())
+                    .usedAt(coupon.getUsedAt())
+                    .issuedAt(coupon.getCreatedAt())
+                    .build();
+        }
+    }
+
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BestDiscountBatchRequest {
+        private List<Long> orderAmounts;
+    }
+
+    /**
+     * 주문 금액에 적용할 수 있는 쿠폰 한 장의 할인 결과
+     */
+    @Getter
+    @Builder
+    public static class DiscountItem {
+        private Long couponId;
+        private String couponCode;
+        private CouponPolicy.DiscountType discountType;
+        private Integer discountValue;
+        private long discountAmount;
+        private long paymentAmount;
+        private LocalDateTime validUntil;
+    }
+
+    /**
+     * 주문 금액별 할인 순위 (할인 금액이 큰 순, 같으면 만료가 빠른 순)
+     * recommendedCouponId 는 장바구니의 다른 주문과 겹치지 않게 고른 쿠폰이다.
+     */
+    @Getter
+    @Builder
+    public static class BestDiscountResponse {
+        private long orderAmount;
+        private Long recommendedCouponId;
+        private List<DiscountItem> discounts;
+    }
+
+    @Getter
+    @Builder
+    public static class WalletResponse {
+        private List<WalletItem> coupons;
+        private String nextCursor;
+        private boolean hasNext;
+    }
+
+    /**
+     * 쿠폰함 페이지 커서 (마지막 쿠폰의 발급 시각과 ID)
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class WalletCursor {
+        private static final String DELIMITER = "_";
+
+        private LocalDateTime createdAt;
+        private Long id;
+
+        public String encode() {
+            String raw = createdAt + DELIMITER + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        public static WalletCursor decode(String cursor) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int index = raw.lastIndexOf(DELIMITER);
+                return new WalletCursor(LocalDateTime.parse(raw.substring(0, index)), Long.valueOf(raw.substring(index + 1)));
+            } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+                throw new IllegalArgumentException("잘못된 커서입니다.");
+            }
+        }
+    }
 }
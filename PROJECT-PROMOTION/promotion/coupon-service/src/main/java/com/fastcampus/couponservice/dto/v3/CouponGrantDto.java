@@ -0,0 +1,49 @@
+package com.fastcampus.couponservice.dto.v3;
+
+import com.fastcampus.couponservice.job.CouponGrantJobConfig;
+import com.fastcampus.couponservice.job.CouponGrantReserveTasklet;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.StepExecution;
+
+public class CouponGrantDto {
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class GrantRequest {
+        private Long policyId;
+        private String userFiles;
+        private Long sourcePolicyId;
+    }
+
+    @Getter
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class GrantResponse {
+        private Long executionId;
+        private Long policyId;
+        private String status;
+        private String exitCode;
+        private long reservedQuantity;
+        private long grantedQuantity;
+
+        public static GrantResponse from(JobExecution execution) {
+            return GrantResponse.builder()
+                    .executionId(execution.getId())
+                    .policyId(execution.getJobParameters().getLong(CouponGrantJobConfig.POLICY_ID))
+                    .status(execution.getStatus().name())
+                    .exitCode(execution.getExitStatus().getExitCode())
+                    .reservedQuantity(execution.getExecutionContext().getLong(CouponGrantReserveTasklet.RESERVED_QUANTITY, 0L))
+                    .grantedQuantity(execution.getStepExecutions().stream()
+                            .filter(step -> step.getStepName().startsWith(CouponGrantJobConfig.WORKER_STEP + ":"))
+                            .mapToLong(StepExecution::getWriteCount)
+                            .sum())
+                    .build();
+        }
+    }
+}
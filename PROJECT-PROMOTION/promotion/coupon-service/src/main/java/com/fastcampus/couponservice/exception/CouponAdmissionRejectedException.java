@@ -0,0 +1,13 @@
+package com.fastcampus.couponservice.exception;
+
+import lombok.Getter;
+
+@Getter
+public class CouponAdmissionRejectedException extends RuntimeException {
+    private final long retryAfterSeconds;
+
+    public CouponAdmissionRejectedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
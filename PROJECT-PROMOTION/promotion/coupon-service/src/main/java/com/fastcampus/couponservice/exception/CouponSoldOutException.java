@@ -0,0 +1,7 @@
+package com.fastcampus.couponservice.exception;
+
+public class CouponSoldOutException extends CouponIssueException {
+    public CouponSoldOutException(String message) {
+        super(message);
+    }
+}
@@ -1,6 +1,7 @@
 package com.fastcampus.couponservice.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -50,6 +51,15 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse("만료된 쿠폰입니다", e.getMessage()));
     }
 
+    @ExceptionHandler(CouponAdmissionRejectedException.class)
+    public ResponseEntity<ErrorResponse> handleCouponAdmissionRejectedException(CouponAdmissionRejectedException e) {
+        log.warn("요청이 많아 처리할 수 없습니다: {}", e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(new ErrorResponse("요청이 많아 처리할 수 없습니다", e.getMessage()));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ErrorResponse> handleException(Exception e) {
         log.error("서버 오류가 발생했습니다: ", e);
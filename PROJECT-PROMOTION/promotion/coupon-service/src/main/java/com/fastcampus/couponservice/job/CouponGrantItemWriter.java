@@ -0,0 +1,110 @@
+package com.fastcampus.couponservice.job;
+
+import com.fastcampus.couponservice.domain.Coupon;
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.repository.CouponPolicyRepository;
+import com.fastcampus.couponservice.repository.CouponRepository;
+import com.fastcampus.couponservice.service.code.CouponCodeFilter;
+import com.fastcampus.couponservice.service.code.CouponCodeGenerator;
+import com.fastcampus.couponservice.service.v2.CouponIssueScript;
+import com.fastcampus.couponservice.service.v3.CouponWalletService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 청크 단위 쿠폰 저장
+ * 쿠폰은 saveAll 로 JDBC 배치 INSERT 하고, 쿠폰함/발급 이력/코드 필터는 청크 트랜잭션이 커밋된 뒤에
+ * 청크마다 한 번씩 파이프라인으로 갱신한다. 롤백된 청크는 재시작 시 다시 처리되므로 캐시에 남지 않는다.
+ * 파일 원천의 중복 줄과 이미 정책 쿠폰을 받은 사용자는 저장 전에 청크에서 제외한다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CouponGrantItemWriter implements ItemWriter<Long> {
+    private final Long policyId;
+    private final CouponRepository couponRepository;
+    private final CouponPolicyRepository couponPolicyRepository;
+    private final CouponCodeGenerator couponCodeGenerator;
+    private final CouponCodeFilter couponCodeFilter;
+    private final CouponWalletService couponWalletService;
+    private final CouponIssueScript couponIssueScript;
+
+    private CouponPolicy couponPolicy;
+
+    @Override
+    public void write(Chunk<? extends Long> chunk) {
+        CouponPolicy policy = getCouponPolicy();
+        List<Long> userIds = excludeHolders(chunk);
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<Coupon> coupons = userIds.stream()
+                .map(userId -> Coupon.builder()
+                        .couponPolicy(policy)
+                        .userId(userId)
+                        .couponCode(couponCodeGenerator.generate())
+                        .build())
+                .toList();
+        List<Coupon> savedCoupons = couponRepository.saveAll(coupons);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                updateCaches(policy, userIds, savedCoupons);
+            }
+        });
+    }
+
+    /**
+     * 청크 안의 중복 사용자와 이미 정책 쿠폰을 보유한 사용자를 청크에서 제거
+     * 제거한 사용자는 쓰기 건수(writeCount)에서 빠지므로 Job 이 끝날 때 차감했던 수량이 반환된다.
+     * 앞선 청크는 커밋된 뒤라 DB 조회로 걸러지고, 같은 청크 안의 중복은 여기서 걸러진다.
+     * 파일마다 파티션이 병렬로 실행되므로 여러 파일에 걸친 중복은 커밋 시점이 겹치면 걸러지지 않는다. (파일은 사용자 기준으로 나누어 만든다)
+     */
+    private List<Long> excludeHolders(Chunk<? extends Long> chunk) {
+        Set<Long> excluded = new HashSet<>(couponRepository.findHolderUserIds(policyId, new HashSet<>(chunk.getItems())));
+        List<Long> userIds = new ArrayList<>();
+        int skipped = 0;
+        for (Iterator<? extends Long> iterator = chunk.iterator(); iterator.hasNext(); ) {
+            Long userId = iterator.next();
+            if (excluded.add(userId)) {
+                userIds.add(userId);
+            } else {
+                iterator.remove();
+                skipped++;
+            }
+        }
+        if (skipped > 0) {
+            log.info("Skipped duplicate or existing coupon holders: policyId={}, count={}", policyId, skipped);
+        }
+        return userIds;
+    }
+
+    private void updateCaches(CouponPolicy policy, List<Long> userIds, List<Coupon> savedCoupons) {
+        try {
+            couponIssueScript.markIssued(policy, userIds);
+        } catch (Exception e) {
+            log.error("Failed to mark bulk granted users: policyId={}, count={}", policyId, userIds.size(), e);
+        }
+        couponWalletService.addCoupons(savedCoupons);
+        couponCodeFilter.addAll(savedCoupons.stream().map(Coupon::getCouponCode).toList());
+    }
+
+    // 스텝(파티션)마다 한 번만 조회
+    private CouponPolicy getCouponPolicy() {
+        if (couponPolicy == null) {
+            couponPolicy = couponPolicyRepository.findById(policyId)
+                    .orElseThrow(() -> new IllegalArgumentException("쿠폰 정책을 찾을 수 없습니다."));
+        }
+        return couponPolicy;
+    }
+}
@@ -0,0 +1,177 @@
+package com.fastcampus.couponservice.job;
+
+import com.fastcampus.couponservice.repository.CouponPolicyRepository;
+import com.fastcampus.couponservice.repository.CouponRepository;
+import com.fastcampus.couponservice.service.code.CouponCodeFilter;
+import com.fastcampus.couponservice.service.code.CouponCodeGenerator;
+import com.fastcampus.couponservice.service.v2.CouponIssueScript;
+import com.fastcampus.couponservice.service.v2.CouponStockService;
+import com.fastcampus.couponservice.service.v3.CouponWalletService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.configuration.annotation.StepScope;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.job.DefaultJobParametersValidator;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.database.Order;
+import org.springframework.batch.item.database.builder.JdbcPagingItemReaderBuilder;
+import org.springframework.batch.item.file.builder.FlatFileItemReaderBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.UrlResource;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.net.MalformedURLException;
+import java.util.Map;
+
+/**
+ * 사용자 세그먼트 대상 쿠폰 대량 발급 Job
+ *
+ * 실행 순서:
+ * 1. couponGrantReserveStep: 대상 사용자 수를 세어 Redis 수량을 한 번에 차감 (단건 발급처럼 사용자마다 락/스크립트를 호출하지 않음)
+ * 2. couponGrantPartitionStep: 대상 사용자를 파티션으로 나누어 병렬로 청크 단위 JDBC 배치 INSERT
+ *
+ * 파티션별 reader 위치가 청크 커밋마다 저장되므로 실패한 Job 을 같은 파라미터로 다시 실행하면
+ * 완료된 파티션은 건너뛰고 실패한 파티션은 마지막으로 커밋된 청크 다음부터 이어서 처리한다.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class CouponGrantJobConfig {
+    public static final String JOB_NAME = "couponGrantJob";
+    public static final String POLICY_ID = "policyId";
+    public static final String USER_FILES = "userFiles";
+    public static final String SOURCE_POLICY_ID = "sourcePolicyId";
+    public static final String REQUESTED_AT = "requestedAt";
+    public static final String WORKER_STEP = "couponGrantWorkerStep";
+
+    private final JobRepository jobRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final JobExplorer jobExplorer;
+    private final DataSource dataSource;
+    private final CouponGrantSource couponGrantSource;
+    private final CouponRepository couponRepository;
+    private final CouponPolicyRepository couponPolicyRepository;
+    private final CouponCodeGenerator couponCodeGenerator;
+    private final CouponCodeFilter couponCodeFilter;
+    private final CouponWalletService couponWalletService;
+    private final CouponIssueScript couponIssueScript;
+    private final CouponStockService couponStockService;
+
+    @Value("${coupon.grant.grid-size:4}")
+    private int gridSize = 4;
+
+    @Value("${coupon.grant.chunk-size:1000}")
+    private int chunkSize = 1000;
+
+    @Bean
+    public Job couponGrantJob() {
+        return new JobBuilder(JOB_NAME, jobRepository)
+                .validator(new DefaultJobParametersValidator(
+                        new String[]{POLICY_ID, REQUESTED_AT},
+                        new String[]{USER_FILES, SOURCE_POLICY_ID}))
+                .listener(new CouponGrantJobListener(jobExplorer, couponStockService))
+                .start(couponGrantReserveStep())
+                .next(couponGrantPartitionStep())
+                .build();
+    }
+
+    @Bean
+    public Step couponGrantReserveStep() {
+        return new StepBuilder("couponGrantReserveStep", jobRepository)
+                .tasklet(new CouponGrantReserveTasklet(couponGrantSource, couponPolicyRepository, couponStockService),
+                        transactionManager)
+                .build();
+    }
+
+    @Bean
+    public Step couponGrantPartitionStep() {
+        SimpleAsyncTaskExecutor partitionExecutor = new SimpleAsyncTaskExecutor("coupon-grant-");
+        partitionExecutor.setConcurrencyLimit(gridSize);
+        return new StepBuilder("couponGrantPartitionStep", jobRepository)
+                .partitioner(WORKER_STEP, couponGrantPartitioner(null, null))
+                .step(couponGrantWorkerStep())
+                .gridSize(gridSize)
+                .taskExecutor(partitionExecutor)
+                .build();
+    }
+
+    @Bean
+    public Step couponGrantWorkerStep() {
+        return new StepBuilder(WORKER_STEP, jobRepository)
+                .<Long, Long>chunk(chunkSize, transactionManager)
+                .reader(couponGrantUserReader(null, null, null, null, null))
+                .writer(couponGrantItemWriter(null))
+                .build();
+    }
+
+    @Bean
+    @JobScope
+    public CouponGrantPartitioner couponGrantPartitioner(
+            @Value("#{jobParameters['" + USER_FILES + "']}") String userFiles,
+            @Value("#{jobParameters['" + SOURCE_POLICY_ID + "']}") Long sourcePolicyId) {
+        return new CouponGrantPartitioner(couponGrantSource, userFiles, sourcePolicyId);
+    }
+
+    /**
+     * 파티션의 대상 사용자 Reader
+     * 파일은 읽은 줄 수, 쿼리는 마지막으로 읽은 user_id 가 청크 커밋마다 저장되어 재시작 위치가 된다.
+     */
+    @Bean
+    @StepScope
+    public ItemStreamReader<Long> couponGrantUserReader(
+            @Value("#{stepExecutionContext['" + CouponGrantPartitioner.FILE_NAME + "']}") String fileName,
+            @Value("#{stepExecutionContext['" + CouponGrantPartitioner.MIN_USER_ID + "']}") Long minUserId,
+            @Value("#{stepExecutionContext['" + CouponGrantPartitioner.MAX_USER_ID + "']}") Long maxUserId,
+            @Value("#{jobParameters['" + SOURCE_POLICY_ID + "']}") Long sourcePolicyId,
+            @Value("#{jobParameters['" + POLICY_ID + "']}") Long policyId) {
+        if (fileName != null) {
+            UrlResource resource = toResource(fileName);
+            return new FlatFileItemReaderBuilder<Long>()
+                    .name("couponGrantFileReader")
+                    .resource(resource)
+                    .comments(CouponGrantSource.COMMENT_PREFIX)
+                    .lineMapper((line, lineNumber) -> CouponGrantSource.parseUserId(line, resource, lineNumber))
+                    .build();
+        }
+
+        return new JdbcPagingItemReaderBuilder<Long>()
+                .name("couponGrantQueryReader")
+                .dataSource(dataSource)
+                .selectClause("SELECT DISTINCT user_id")
+                .fromClause("FROM coupon")
+                .whereClause(CouponGrantSource.SOURCE_WHERE_CLAUSE + " AND user_id BETWEEN :minUserId AND :maxUserId")
+                .sortKeys(Map.of("user_id", Order.ASCENDING))
+                .parameterValues(Map.of(
+                        "sourcePolicyId", sourcePolicyId,
+                        "policyId", policyId,
+                        "minUserId", minUserId,
+                        "maxUserId", maxUserId))
+                .rowMapper((rs, rowNum) -> rs.getLong(1))
+                .pageSize(chunkSize)
+                .build();
+    }
+
+    @Bean
+    @StepScope
+    public CouponGrantItemWriter couponGrantItemWriter(
+            @Value("#{jobParameters['" + POLICY_ID + "']}") Long policyId) {
+        return new CouponGrantItemWriter(policyId, couponRepository, couponPolicyRepository,
+                couponCodeGenerator, couponCodeFilter, couponWalletService, couponIssueScript);
+    }
+
+    private UrlResource toResource(String fileName) {
+        try {
+            return new UrlResource(fileName);
+        } catch (MalformedURLException e) {
+            throw new IllegalArgumentException("잘못된 파일 경로입니다: " + fileName, e);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.fastcampus.couponservice.job;
+
+import com.fastcampus.couponservice.service.v2.CouponStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.explore.JobExplorer;
+
+import java.util.List;
+
+/**
+ * 대량 발급 완료 시 차감했지만 발급하지 않은 수량(이미 받은 사용자 제외 등)을 Redis 로 반환
+ * 재시작된 Job 은 이전 실행에서 커밋된 청크까지 합산한다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CouponGrantJobListener implements JobExecutionListener {
+    private final JobExplorer jobExplorer;
+    private final CouponStockService couponStockService;
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        if (jobExecution.getStatus() != BatchStatus.COMPLETED) {
+            return;
+        }
+
+        Long policyId = jobExecution.getJobParameters().getLong(CouponGrantJobConfig.POLICY_ID);
+        long reserved = jobExecution.getExecutionContext().getLong(CouponGrantReserveTasklet.RESERVED_QUANTITY, 0L);
+        long granted = countGranted(jobExplorer.getJobExecutions(jobExecution.getJobInstance()));
+
+        log.info("Coupon bulk grant completed: policyId={}, reserved={}, granted={}", policyId, reserved, granted);
+        couponStockService.releaseBulk(policyId, reserved - granted);
+    }
+
+    /**
+     * 같은 Job 인스턴스의 모든 실행에서 워커 스텝이 커밋한 발급 수
+     */
+    static long countGranted(List<JobExecution> executions) {
+        return executions.stream()
+                .flatMap(execution -> execution.getStepExecutions().stream())
+                .filter(stepExecution -> stepExecution.getStepName().startsWith(CouponGrantJobConfig.WORKER_STEP + ":"))
+                .mapToLong(stepExecution -> stepExecution.getWriteCount())
+                .sum();
+    }
+}
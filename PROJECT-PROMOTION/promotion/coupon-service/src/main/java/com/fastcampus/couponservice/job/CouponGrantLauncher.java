@@ -0,0 +1,138 @@
+package com.fastcampus.couponservice.job;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 대량 발급 Job 실행기
+ * 수백만 건 발급은 요청 시간 안에 끝나지 않으므로 별도 스레드에서 실행하고 실행 ID 만 돌려준다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CouponGrantLauncher {
+    private static final Set<BatchStatus> RESTARTABLE_STATUSES = Set.of(BatchStatus.FAILED, BatchStatus.STOPPED);
+    // 인스턴스의 마지막 실행이 완료/포기되지 않은 대량 발급 Job (실행 중, 실패, 중지)
+    private static final String UNFINISHED_INSTANCES = "SELECT e.JOB_INSTANCE_ID FROM BATCH_JOB_EXECUTION e " +
+            "JOIN BATCH_JOB_INSTANCE i ON i.JOB_INSTANCE_ID = e.JOB_INSTANCE_ID " +
+            "WHERE i.JOB_NAME = ? AND e.STATUS NOT IN ('COMPLETED', 'ABANDONED') " +
+            "AND e.JOB_EXECUTION_ID = (SELECT MAX(JOB_EXECUTION_ID) FROM BATCH_JOB_EXECUTION " +
+            "WHERE JOB_INSTANCE_ID = e.JOB_INSTANCE_ID)";
+
+    private final Job couponGrantJob;
+    private final JobRepository jobRepository;
+    private final JobExplorer jobExplorer;
+    private final JdbcTemplate jdbcTemplate;
+    private final CouponGrantSource couponGrantSource;
+
+    private TaskExecutorJobLauncher jobLauncher;
+
+    @PostConstruct
+    public void init() throws Exception {
+        jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(jobRepository);
+        jobLauncher.setTaskExecutor(new SimpleAsyncTaskExecutor("coupon-grant-job-"));
+        jobLauncher.afterPropertiesSet();
+    }
+
+    /**
+     * 대상 사용자 원천은 파일(userFiles) 또는 다른 정책의 보유자(sourcePolicyId) 중 하나만 지정한다.
+     * 파일 경로는 Job 을 시작하기 전에 기본 디렉터리 안의 파일인지 확인한다.
+     */
+    public JobExecution launch(Long policyId, String userFiles, Long sourcePolicyId) {
+        if (policyId == null) {
+            throw new IllegalArgumentException("쿠폰 정책 ID는 필수입니다.");
+        }
+        boolean hasFiles = userFiles != null && !userFiles.isBlank();
+        if (hasFiles == (sourcePolicyId != null)) {
+            throw new IllegalArgumentException("대상 사용자 파일과 원천 정책 중 하나만 지정해야 합니다.");
+        }
+
+        JobParametersBuilder builder = new JobParametersBuilder()
+                .addLong(CouponGrantJobConfig.POLICY_ID, policyId)
+                .addLong(CouponGrantJobConfig.REQUESTED_AT, System.currentTimeMillis());
+        if (hasFiles) {
+            couponGrantSource.resolveFiles(userFiles.trim());
+            builder.addString(CouponGrantJobConfig.USER_FILES, userFiles.trim());
+        } else {
+            builder.addLong(CouponGrantJobConfig.SOURCE_POLICY_ID, sourcePolicyId);
+        }
+        return run(builder.toJobParameters());
+    }
+
+    /**
+     * 실패/중지된 실행을 같은 파라미터로 다시 실행 (완료된 파티션은 건너뛰고 마지막 커밋 청크부터 이어서 처리)
+     */
+    public JobExecution restart(Long executionId) {
+        JobExecution execution = getExecution(executionId);
+        if (!RESTARTABLE_STATUSES.contains(execution.getStatus())) {
+            throw new IllegalStateException("실패하거나 중지된 실행만 재시작할 수 있습니다: " + execution.getStatus());
+        }
+        return run(execution.getJobParameters());
+    }
+
+    public JobExecution getExecution(Long executionId) {
+        JobExecution execution = jobExplorer.getJobExecution(executionId);
+        if (execution == null || !CouponGrantJobConfig.JOB_NAME.equals(execution.getJobInstance().getJobName())) {
+            throw new IllegalArgumentException("대량 발급 실행을 찾을 수 없습니다: " + executionId);
+        }
+        return execution;
+    }
+
+    /**
+     * 완료되지 않은(실행 중, 실패, 중지) 대량 발급이 차감해 두고 아직 쿠폰으로 저장하지 않은 정책별 수량
+     * 완료될 때 반환되는 수량이므로 수량 대사에서는 처리 중인 수량으로 본다.
+     * 완료되지 않은 인스턴스만 한 번의 쿼리로 찾으므로 완료된 Job 이 쌓여도 비용이 늘지 않는다.
+     * 포기(ABANDONED)한 실행의 차감 수량은 반환되지 않으므로 대사에서 복구되도록 제외한다.
+     */
+    public Map<Long, Long> getOutstandingReservations() {
+        Map<Long, Long> outstanding = new HashMap<>();
+        List<Long> instanceIds = jdbcTemplate.queryForList(UNFINISHED_INSTANCES, Long.class, CouponGrantJobConfig.JOB_NAME);
+        for (Long instanceId : instanceIds) {
+            JobInstance instance = jobExplorer.getJobInstance(instanceId);
+            List<JobExecution> executions = instance != null ? jobExplorer.getJobExecutions(instance) : List.of();
+            if (executions.isEmpty()) {
+                continue;
+            }
+
+            long reserved = executions.stream()
+                    .mapToLong(execution -> execution.getExecutionContext().getLong(CouponGrantReserveTasklet.RESERVED_QUANTITY, 0L))
+                    .max()
+                    .orElse(0L);
+            long remaining = reserved - CouponGrantJobListener.countGranted(executions);
+            if (remaining > 0) {
+                Long policyId = executions.get(0).getJobParameters().getLong(CouponGrantJobConfig.POLICY_ID);
+                outstanding.merge(policyId, remaining, Long::sum);
+            }
+        }
+        return outstanding;
+    }
+
+    private JobExecution run(JobParameters parameters) {
+        try {
+            return jobLauncher.run(couponGrantJob, parameters);
+        } catch (JobParametersInvalidException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        } catch (JobExecutionException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+}
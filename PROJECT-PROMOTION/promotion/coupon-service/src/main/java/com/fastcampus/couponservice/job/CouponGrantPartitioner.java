@@ -0,0 +1,73 @@
+package com.fastcampus.couponservice.job;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 대량 발급 파티션 분할
+ * 파일 원천은 파일마다, 쿼리 원천은 사용자 ID 구간을 gridSize 개로 나누어 파티션을 만든다.
+ */
+@RequiredArgsConstructor
+public class CouponGrantPartitioner implements Partitioner {
+    static final String FILE_NAME = "fileName";
+    static final String MIN_USER_ID = "minUserId";
+    static final String MAX_USER_ID = "maxUserId";
+    private static final String PARTITION = "partition";
+
+    private final CouponGrantSource couponGrantSource;
+    private final String userFiles;
+    private final Long sourcePolicyId;
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        return userFiles != null ? partitionFiles() : partitionUserRange(gridSize);
+    }
+
+    private Map<String, ExecutionContext> partitionFiles() {
+        List<Resource> resources = couponGrantSource.resolveFiles(userFiles);
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        for (int i = 0; i < resources.size(); i++) {
+            ExecutionContext context = new ExecutionContext();
+            try {
+                context.putString(FILE_NAME, resources.get(i).getURL().toExternalForm());
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            partitions.put(PARTITION + i, context);
+        }
+        return partitions;
+    }
+
+    private Map<String, ExecutionContext> partitionUserRange(int gridSize) {
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        long[] range = couponGrantSource.sourceUserRange(sourcePolicyId);
+        if (range == null) {
+            partitions.put(PARTITION + 0, userRange(1L, 0L));
+            return partitions;
+        }
+
+        long min = range[0];
+        long max = range[1];
+        long size = (max - min) / gridSize + 1;
+        int index = 0;
+        for (long start = min; start <= max; start += size) {
+            partitions.put(PARTITION + index++, userRange(start, Math.min(start + size - 1, max)));
+        }
+        return partitions;
+    }
+
+    private ExecutionContext userRange(long minUserId, long maxUserId) {
+        ExecutionContext context = new ExecutionContext();
+        context.putLong(MIN_USER_ID, minUserId);
+        context.putLong(MAX_USER_ID, maxUserId);
+        return context;
+    }
+}
@@ -0,0 +1,53 @@
+package com.fastcampus.couponservice.job;
+
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.repository.CouponPolicyRepository;
+import com.fastcampus.couponservice.service.v2.CouponStockService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepContribution;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+
+/**
+ * 대량 발급 대상 수를 세어 Redis 수량을 한 번에 차감
+ * 차감한 수량은 Job ExecutionContext 에 저장되고, 재시작 시에는 이 스텝이 다시 실행되지 않는다.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class CouponGrantReserveTasklet implements Tasklet {
+    public static final String RESERVED_QUANTITY = "reservedQuantity";
+
+    private final CouponGrantSource couponGrantSource;
+    private final CouponPolicyRepository couponPolicyRepository;
+    private final CouponStockService couponStockService;
+
+    @Override
+    public RepeatStatus execute(StepContribution contribution, ChunkContext chunkContext) {
+        JobParameters parameters = contribution.getStepExecution().getJobParameters();
+        Long policyId = parameters.getLong(CouponGrantJobConfig.POLICY_ID);
+        String userFiles = parameters.getString(CouponGrantJobConfig.USER_FILES);
+        Long sourcePolicyId = parameters.getLong(CouponGrantJobConfig.SOURCE_POLICY_ID);
+
+        CouponPolicy couponPolicy = couponPolicyRepository.findById(policyId)
+                .orElseThrow(() -> new IllegalArgumentException("쿠폰 정책을 찾을 수 없습니다."));
+        if (!couponPolicy.isValidPeriod()) {
+            throw new IllegalStateException("쿠폰 발급 기간이 아닙니다.");
+        }
+
+        long quantity = userFiles != null
+                ? couponGrantSource.countFileUsers(couponGrantSource.resolveFiles(userFiles))
+                : couponGrantSource.countSourceUsers(sourcePolicyId, policyId);
+        if (quantity > 0) {
+            couponStockService.reserveBulk(policyId, quantity);
+        }
+
+        ExecutionContext jobContext = contribution.getStepExecution().getJobExecution().getExecutionContext();
+        jobContext.putLong(RESERVED_QUANTITY, quantity);
+        log.info("Reserved coupon stock for bulk grant: policyId={}, quantity={}", policyId, quantity);
+        return RepeatStatus.FINISHED;
+    }
+}
@@ -0,0 +1,127 @@
+package com.fastcampus.couponservice.job;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 대량 발급 대상 사용자 원천
+ * - 파일: 한 줄에 사용자 ID 하나, '#' 으로 시작하는 줄은 주석 (리소스 패턴으로 여러 파일 지정 가능, 파일마다 파티션 하나)
+ *   경로는 coupon.grant.base-dir 기준 상대 경로만 허용하고, 그 밖의 파일이나 URL 은 읽지 않는다.
+ *   중복 줄과 이미 대상 정책을 받은 사용자는 CouponGrantItemWriter 에서 제외한다.
+ * - 쿼리: 다른 쿠폰 정책(sourcePolicyId)을 발급받은 사용자 중 대상 정책을 아직 받지 않은 사용자
+ */
+@Component
+@RequiredArgsConstructor
+public class CouponGrantSource {
+    static final String COMMENT_PREFIX = "#";
+
+    static final String SOURCE_WHERE_CLAUSE = "WHERE coupon_policy_id = :sourcePolicyId " +
+            "AND user_id NOT IN (SELECT user_id FROM coupon WHERE coupon_policy_id = :policyId)";
+
+    private static final String COUNT_SOURCE_USERS = "SELECT COUNT(DISTINCT user_id) FROM coupon " +
+            "WHERE coupon_policy_id = ? AND user_id NOT IN (SELECT user_id FROM coupon WHERE coupon_policy_id = ?)";
+    private static final String SOURCE_USER_RANGE = "SELECT MIN(user_id), MAX(user_id) FROM coupon WHERE coupon_policy_id = ?";
+    // URL 스킴(file:, http:, classpath: 등), 절대 경로, 상위 디렉터리 이동
+    private static final Pattern UNSAFE_PATH = Pattern.compile("(^[/\\\\])|:|(^|[/\\\\])\\.\\.([/\\\\]|$)");
+
+    private final ResourcePatternResolver resourcePatternResolver;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${coupon.grant.base-dir:}")
+    private String baseDir = "";
+
+    /**
+     * 기본 디렉터리 기준 상대 경로(패턴)로 대상 파일 조회
+     * 심볼릭 링크로 기본 디렉터리 밖을 가리키는 파일도 거절한다.
+     */
+    public List<Resource> resolveFiles(String userFiles) {
+        if (baseDir == null || baseDir.isBlank()) {
+            throw new IllegalStateException("대량 발급 대상 파일 디렉터리(coupon.grant.base-dir)가 설정되지 않았습니다.");
+        }
+        if (userFiles == null || userFiles.isBlank() || UNSAFE_PATH.matcher(userFiles).find()) {
+            throw new IllegalArgumentException("대량 발급 대상 파일은 기본 디렉터리 기준 상대 경로로 지정해야 합니다: " + userFiles);
+        }
+
+        try {
+            Path base = Path.of(baseDir).toRealPath();
+            Resource[] resources = resourcePatternResolver.getResources("file:" + base + "/" + userFiles);
+            List<Resource> files = new ArrayList<>();
+            for (Resource resource : resources) {
+                if (!resource.exists()) {
+                    continue;
+                }
+                if (!resource.getFile().toPath().toRealPath().startsWith(base)) {
+                    throw new IllegalArgumentException("대량 발급 대상 파일이 기본 디렉터리 밖에 있습니다: " + userFiles);
+                }
+                files.add(resource);
+            }
+            if (files.isEmpty()) {
+                throw new IllegalArgumentException("대량 발급 대상 파일을 찾을 수 없습니다: " + userFiles);
+            }
+            return files;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 파일의 사용자 수 (형식이 잘못된 줄이 있으면 수량을 차감하기 전에 실패)
+     */
+    public long countFileUsers(List<Resource> resources) {
+        long count = 0;
+        for (Resource resource : resources) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                int lineNumber = 0;
+                while ((line = reader.readLine()) != null) {
+                    lineNumber++;
+                    if (line.startsWith(COMMENT_PREFIX)) {
+                        continue;
+                    }
+                    parseUserId(line, resource, lineNumber);
+                    count++;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return count;
+    }
+
+    public long countSourceUsers(Long sourcePolicyId, Long policyId) {
+        Long count = jdbcTemplate.queryForObject(COUNT_SOURCE_USERS, Long.class, sourcePolicyId, policyId);
+        return count == null ? 0L : count;
+    }
+
+    /**
+     * 원천 정책 발급 사용자 ID 의 최소/최대값 (없으면 null)
+     */
+    public long[] sourceUserRange(Long sourcePolicyId) {
+        return jdbcTemplate.queryForObject(SOURCE_USER_RANGE, (rs, rowNum) -> {
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new long[]{min, rs.getLong(2)};
+        }, sourcePolicyId);
+    }
+
+    static Long parseUserId(String line, Resource resource, int lineNumber) {
+        try {
+            return Long.valueOf(line.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("잘못된 사용자 ID 입니다: " + resource.getDescription() + ":" + lineNumber);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.fastcampus.couponservice.repository;
+
+import com.fastcampus.couponservice.domain.CouponCodeSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface CouponCodeSequenceRepository extends JpaRepository<CouponCodeSequence, String> {
+
+    /**
+     * 구간 할당을 위해 행 락을 잡고 조회 (인스턴스 간 할당은 이 락으로 직렬화)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM CouponCodeSequence s WHERE s.name = :name")
+    Optional<CouponCodeSequence> findForUpdate(@Param("name") String name);
+}
@@ -0,0 +1,9 @@
+package com.fastcampus.couponservice.repository;
+
+/**
+ * 정책별 발급 쿠폰 수 집계 projection
+ */
+public interface CouponIssuedCount {
+    Long getPolicyId();
+    Long getIssuedCount();
+}
@@ -1,12 +1,17 @@
 package com.fastcampus.couponservice.repository;
 
 import com.fastcampus.couponservice.domain.CouponPolicy;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import jakarta.persistence.LockModeType;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface CouponPolicyRepository extends JpaRepository<CouponPolicy, Long> {
@@ -14,4 +19,21 @@ public interface CouponPolicyRepository extends JpaRepository<CouponPolicy, Long
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     @Query("SELECT cp FROM CouponPolicy cp WHERE cp.id = :id")
     Optional<CouponPolicy> findByIdWithLock(Long id);
+
+    /**
+     * 발급 기간 안이고 수량이 남아 있을 때만 발급 수량을 1 증가
+     * 행 락은 UPDATE 문이 실행되는 동안만 잡히므로 COUNT 조회 없이 수량을 확보할 수 있다.
+     * @return 증가에 성공하면 1, 기간이 아니거나 소진되었으면 0
+     */
+    @Modifying
+    @Query("UPDATE CouponPolicy cp SET cp.issuedQuantity = cp.issuedQuantity + 1 " +
+            "WHERE cp.id = :id AND cp.issuedQuantity < cp.totalQuantity " +
+            "AND cp.startTime <= :now AND cp.endTime >= :now")
+    int increaseIssuedQuantity(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    /**
+     * 발급 기간이 끝나지 않은 정책을 ID 순서로 조회 (수량 대사 커서)
+     */
+    @Query("SELECT cp FROM CouponPolicy cp WHERE cp.id > :cursor AND cp.endTime >= :now ORDER BY cp.id")
+    List<CouponPolicy> findActiveAfter(@Param("cursor") Long cursor, @Param("now") LocalDateTime now, Pageable pageable);
 }
@@ -2,32 +2,134 @@ package com.fastcampus.couponservice.repository;
 
 import com.fastcampus.couponservice.domain.Coupon;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
-import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
 
 public interface CouponRepository extends JpaRepository<Coupon, Long> {
     Optional<Coupon> findByIdAndUserId(Long id, Long userId);
 
+    /**
+     * 쿠폰 코드로 조회 (uk_coupon_code 유니크 인덱스 사용)
+     */
+    Optional<Coupon> findByCouponCode(String couponCode);
+
     @Query("SELECT COUNT(c) FROM Coupon c WHERE c.couponPolicy.id = :policyId")
     Long countByCouponPolicyId(@Param("policyId") Long policyId);
 
+    /**
+     * 정책별 발급 쿠폰 수 (idx_coupon_policy 인덱스만 읽는 집계 쿼리)
+     */
+    @Query("SELECT c.couponPolicy.id AS policyId, COUNT(c) AS issuedCount FROM Coupon c " +
+            "WHERE c.couponPolicy.id IN :policyIds GROUP BY c.couponPolicy.id")
+    List<CouponIssuedCount> countIssuedByPolicyIds(@Param("policyIds") Collection<Long> policyIds);
+
+    /**
+     * 주어진 사용자 중 정책 쿠폰을 이미 보유한 사용자 ID
+     */
+    @Query("SELECT c.userId FROM Coupon c WHERE c.couponPolicy.id = :policyId AND c.userId IN :userIds")
+    List<Long> findHolderUserIds(@Param("policyId") Long policyId, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * 정책 쿠폰을 보유한 사용자 ID 를 cursor 다음부터 ID 순서로 조회 (발급 사용자 집합 초기 적재)
+     */
+    @Query("SELECT DISTINCT c.userId FROM Coupon c WHERE c.couponPolicy.id = :policyId AND c.userId > :cursor ORDER BY c.userId")
+    List<Long> findHolderUserIdsAfter(@Param("policyId") Long policyId, @Param("cursor") Long cursor, Pageable pageable);
+
     Page<Coupon> findByUserIdAndStatusOrderByCreatedAtDesc(Long userId, Coupon.Status status, Pageable pageable);
 
     /**
-     * PESSIMISTIC_WRITE 를 사용하는 이유는 데이터의 일관성을 보장하기 위함
-     * 동시에 여러 트랜잭션이 동일한 데이터를 수정하려고 할 때 충돌을 방지하고, 데이터 무결성을 유지하기 위해 사용
+     * 쿠폰함 첫 페이지 (user_id, status, created_at, id) 인덱스 순서대로 조회
+     */
+    @Query("SELECT c.id AS id, c.userId AS userId, c.couponCode AS couponCode, c.status AS status, " +
+            "c.orderId AS orderId, c.usedAt AS usedAt, c.createdAt AS createdAt, " +
+            "p.discountType AS discountType, p.discountValue AS discountValue, " +
+            "p.minimumOrderAmount AS minimumOrderAmount, p.maximumDiscountAmount AS maximumDiscountAmount, " +
+            "p.startTime AS validFrom, p.endTime AS validUntil " +
+            "FROM Coupon c JOIN c.couponPolicy p " +
+            "WHERE c.userId = :userId AND c.status = :status " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CouponWalletItem> findWalletFirstPage(@Param("userId") Long userId,
+                                               @Param("status") Coupon.Status status,
+                                               Pageable pageable);
+
+    /**
+     * 쿠폰함 다음 페이지 (커서 이후의 쿠폰만 조회하므로 OFFSET 없이 일정한 비용)
+     */
+    @Query("SELECT c.id AS id, c.userId AS userId, c.couponCode AS couponCode, c.status AS status, " +
+            "c.orderId AS orderId, c.usedAt AS usedAt, c.createdAt AS createdAt, " +
+            "p.discountType AS discountType, p.discountValue AS discountValue, " +
+            "p.minimumOrderAmount AS minimumOrderAmount, p.maximumDiscountAmount AS maximumDiscountAmount, " +
+            "p.startTime AS validFrom, p.endTime AS validUntil " +
+            "FROM Coupon c JOIN c.couponPolicy p " +
+            "WHERE c.userId = :userId AND c.status = :status " +
+            "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CouponWalletItem> findWalletPageAfter(@Param("userId") Long userId,
+                                               @Param("status") Coupon.Status status,
+                                               @Param("createdAt") LocalDateTime createdAt,
+                                               @Param("id") Long id,
+                                               Pageable pageable);
+
+    /**
+     * 쿠폰함 read model 재구성용 전체 조회
+     */
+    @Query("SELECT c.id AS id, c.userId AS userId, c.couponCode AS couponCode, c.status AS status, " +
+            "c.orderId AS orderId, c.usedAt AS usedAt, c.createdAt AS createdAt, " +
+            "p.discountType AS discountType, p.discountValue AS discountValue, " +
+            "p.minimumOrderAmount AS minimumOrderAmount, p.maximumDiscountAmount AS maximumDiscountAmount, " +
+            "p.startTime AS validFrom, p.endTime AS validUntil " +
+            "FROM Coupon c JOIN c.couponPolicy p " +
+            "WHERE c.userId = :userId AND c.status IN :statuses " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<CouponWalletItem> findWalletByStatuses(@Param("userId") Long userId,
+                                                @Param("statuses") List<Coupon.Status> statuses);
+
+    /**
+     * 사용 가능한 쿠폰(발급 또는 취소 상태)이고 정책 유효 기간 안일 때만 사용 처리
+     * 조회 없이 UPDATE 문 하나로 상태를 확인하고 바꾸므로 행 락은 UPDATE 가 실행되는 동안만 잡힌다.
+     * @return 사용 처리에 성공하면 1, 없거나 다른 사용자의 쿠폰, 이미 사용됨, 기간이 아니면 0
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Coupon c SET c.status = com.fastcampus.couponservice.domain.Coupon.Status.USED, " +
+            "c.orderId = :orderId, c.usedAt = :now " +
+            "WHERE c.id = :id AND c.userId = :userId " +
+            "AND c.status IN (com.fastcampus.couponservice.domain.Coupon.Status.AVAILABLE, " +
+            "com.fastcampus.couponservice.domain.Coupon.Status.CANCELLED) " +
+            "AND EXISTS (SELECT 1 FROM CouponPolicy p WHERE p.id = c.couponPolicy.id " +
+            "AND p.startTime <= :now AND p.endTime >= :now)")
+    int markUsed(@Param("id") Long id, @Param("userId") Long userId,
+                 @Param("orderId") Long orderId, @Param("now") LocalDateTime now);
+
+    /**
+     * 사용된 쿠폰일 때만 취소 처리
+     * @return 취소에 성공하면 1, 없거나 다른 사용자의 쿠폰, 사용되지 않았으면 0
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Coupon c SET c.status = com.fastcampus.couponservice.domain.Coupon.Status.CANCELLED, " +
+            "c.orderId = null, c.usedAt = null " +
+            "WHERE c.id = :id AND c.userId = :userId " +
+            "AND c.status = com.fastcampus.couponservice.domain.Coupon.Status.USED")
+    int markCancelled(@Param("id") Long id, @Param("userId") Long userId);
+
+    /**
+     * 쿠폰 코드 필터 재구성용 전체 코드 조회 (트랜잭션 안에서 스트림으로 읽음)
      */
-    @Lock(LockModeType.PESSIMISTIC_WRITE)
-    @Query("SELECT c FROM Coupon c WHERE c.id = :id")
-    Optional<Coupon> findByIdWithLock(@Param("id") Long id);
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.couponCode FROM Coupon c")
+    Stream<String> streamAllCouponCodes();
 
 }
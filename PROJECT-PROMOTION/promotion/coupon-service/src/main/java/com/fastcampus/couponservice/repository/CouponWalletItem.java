@@ -0,0 +1,26 @@
+package com.fastcampus.couponservice.repository;
+
+import com.fastcampus.couponservice.domain.Coupon;
+import com.fastcampus.couponservice.domain.CouponPolicy;
+
+import java.time.LocalDateTime;
+
+/**
+ * 쿠폰함 조회용 projection
+ * 쿠폰과 정책 필드를 한 번의 조인 쿼리로 읽어 쿠폰마다 정책을 지연 로딩하지 않도록 한다.
+ */
+public interface CouponWalletItem {
+    Long getId();
+    Long getUserId();
+    String getCouponCode();
+    Coupon.Status getStatus();
+    Long getOrderId();
+    LocalDateTime getUsedAt();
+    LocalDateTime getCreatedAt();
+    CouponPolicy.DiscountType getDiscountType();
+    Integer getDiscountValue();
+    Integer getMinimumOrderAmount();
+    Integer getMaximumDiscountAmount();
+    LocalDateTime getValidFrom();
+    LocalDateTime getValidUntil();
+}
@@ -0,0 +1,57 @@
+package com.fastcampus.couponservice.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 트랜잭션 결과에 따라 실행할 Redis 캐시/수량 작업 등록
+ * DB 에 반영되지 않은 발급/사용/취소가 Redis 에 남거나, 롤백된 발급의 차감 수량이 남지 않도록 한다.
+ */
+@Slf4j
+public final class TransactionCallbacks {
+
+    private TransactionCallbacks() {
+    }
+
+    /**
+     * 트랜잭션이 커밋된 뒤 실행 (트랜잭션 밖에서 호출되면 바로 실행)
+     * DB 에는 이미 반영되었으므로 작업이 실패해도 호출자에게 예외를 전파하지 않는다.
+     * (전파하면 호출자가 커밋된 발급을 실패로 보고 수량을 되돌린다)
+     */
+    public static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            runAfterCommit(action);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                runAfterCommit(action);
+            }
+        });
+    }
+
+    private static void runAfterCommit(Runnable action) {
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.error("Failed to run after-commit action: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 트랜잭션이 롤백된 뒤 실행 (커밋 시점의 INSERT 실패도 포함)
+     * @throws IllegalStateException 트랜잭션 밖에서 호출된 경우
+     */
+    public static void afterRollback(Runnable action) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    action.run();
+                }
+            }
+        });
+    }
+}
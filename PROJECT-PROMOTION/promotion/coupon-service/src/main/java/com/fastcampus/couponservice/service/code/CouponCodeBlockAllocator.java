@@ -0,0 +1,78 @@
+package com.fastcampus.couponservice.service.code;
+
+import com.fastcampus.couponservice.domain.CouponCodeSequence;
+import com.fastcampus.couponservice.repository.CouponCodeSequenceRepository;
+import com.fastcampus.couponservice.repository.CouponRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 쿠폰 코드 번호 구간 할당
+ * 다음 번호를 DB 에 저장하므로 Redis 재시작/장애 조치 후에도 이미 발급한 번호로 되돌아가지 않는다.
+ * - 할당은 blockSize 개마다 한 번이라 행 락 경합은 발급 처리량과 관계없이 작다
+ * - 시퀀스 행이 없으면 (최초 전환) 발급된 코드의 최대 번호 + 여유분과 이전 Redis 시퀀스 중 큰 값부터 시작한다.
+ *   Redis 시퀀스로 할당하는 이전 버전 인스턴스가 남아 있으면 서로의 구간이 겹치므로 모두 내린 뒤 전환해야 한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponCodeBlockAllocator {
+    static final String SEQUENCE_NAME = "coupon_code";
+    static final String LEGACY_SEQUENCE_KEY = "coupon:code:sequence";
+    // 16진수로만 된 코드를 건너뛰므로 최대 번호 근처에 건너뛴 코드가 있어도 겹치지 않도록 더하는 여유분
+    static final long SEED_MARGIN = 1_000_000L;
+    private static final Pattern HEX_ONLY = Pattern.compile("[0-9A-Fa-f]+");
+
+    private final CouponCodeSequenceRepository couponCodeSequenceRepository;
+    private final CouponRepository couponRepository;
+    private final RedissonClient redissonClient;
+
+    /**
+     * size 개의 번호를 할당 (발급 트랜잭션과 관계없이 바로 커밋)
+     * @return 구간의 시작 번호, [start, start + size) 를 사용
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public long allocate(long size) {
+        CouponCodeSequence sequence = couponCodeSequenceRepository.findForUpdate(SEQUENCE_NAME)
+                .orElseGet(this::createSequence);
+        return sequence.advance(size);
+    }
+
+    private CouponCodeSequence createSequence() {
+        long maxIssued = maxIssuedSequence();
+        long legacy = legacySequence();
+        long start = Math.max(maxIssued < 0 ? 0L : maxIssued + 1 + SEED_MARGIN, legacy);
+        log.info("Coupon code sequence created: start={}, maxIssued={}, legacy={}", start, maxIssued, legacy);
+        return couponCodeSequenceRepository.save(new CouponCodeSequence(SEQUENCE_NAME, start));
+    }
+
+    /**
+     * 발급된 코드 중 현재 형식 코드의 최대 번호
+     * 이전 v3 코드(UUID 16진수 12자리)는 1/32 확률로 검증 문자까지 맞아 임의의 큰 번호로 해석되므로 16진수로만 된 코드는 제외한다.
+     * 현재 형식 코드가 16진수로만 될 확률은 1/4096 이라 최대 번호 근처의 코드가 여유분만큼 연달아 제외될 일은 없다.
+     */
+    private long maxIssuedSequence() {
+        try (Stream<String> couponCodes = couponRepository.streamAllCouponCodes()) {
+            return couponCodes.filter(couponCode -> !HEX_ONLY.matcher(couponCode).matches())
+                    .mapToLong(SequenceCouponCodeGenerator::decode)
+                    .max()
+                    .orElse(-1L);
+        }
+    }
+
+    private long legacySequence() {
+        try {
+            return redissonClient.getAtomicLong(LEGACY_SEQUENCE_KEY).get();
+        } catch (Exception e) {
+            log.warn("Failed to read legacy coupon code sequence, using issued codes only: {}", e.getMessage());
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+package com.fastcampus.couponservice.service.code;
+
+import com.fastcampus.couponservice.repository.CouponRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 발급된 쿠폰 코드의 Bloom filter
+ * 코드 입력(redeem) 요청 중 발급된 적 없는 코드를 Redis/DB 조회 없이 거절한다.
+ * - 기동 시 DB 의 전체 쿠폰 코드로 다시 만들고, 이후 발급분은 Redis pub/sub 으로 모든 인스턴스에 추가
+ * - 필터에 없다고 판단한 코드는 확실히 발급되지 않은 코드이고, 있다고 판단한 코드는 fpp 확률로 오탐일 수 있다
+ * - 재구성이 끝나기 전에는 모든 코드를 통과시켜 DB 조회로 판단한다
+ * - 시퀀스 생성기 이전의 코드(UUID 16진수 8/12자리)는 형식 검사 없이 필터로만 판단한다
+ */
+@Slf4j
+@Component
+public class CouponCodeFilter {
+    private static final String ISSUED_TOPIC = "coupon:code:issued";
+    private static final String CODE_DELIMITER = ",";
+    // 메시지 앞에 발행한 인스턴스 ID 를 붙여 자신이 보낸 메시지는 다시 넣지 않음 ("인스턴스ID|코드,코드")
+    private static final String SOURCE_DELIMITER = "|";
+    // v1/v2 UUID 앞 8자리, v3 UUID 12자리, 중복 정리 후 붙은 "-쿠폰ID"
+    private static final Pattern LEGACY_CODE = Pattern.compile("([0-9A-Fa-f]{8}|[0-9A-Fa-f]{12})(-[0-9]+)?");
+
+    private final RedissonClient redissonClient;
+    private final CouponRepository couponRepository;
+    private final CouponCodeGenerator couponCodeGenerator;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final BitArray bits;
+    private final int hashCount;
+    private final AtomicLong insertions = new AtomicLong();
+    private final Counter malformed;
+    private final Counter rejected;
+    private final Counter passed;
+    private final Counter falsePositive;
+    private volatile boolean ready;
+    private int listenerId = -1;
+
+    public CouponCodeFilter(RedissonClient redissonClient,
+                            CouponRepository couponRepository,
+                            CouponCodeGenerator couponCodeGenerator,
+                            MeterRegistry meterRegistry,
+                            @Value("${coupon.code.filter.expected-insertions:1000000}") long expectedInsertions,
+                            @Value("${coupon.code.filter.fpp:0.001}") double fpp) {
+        if (expectedInsertions <= 0 || fpp <= 0 || fpp >= 1) {
+            throw new IllegalArgumentException("쿠폰 코드 필터 설정이 올바르지 않습니다.");
+        }
+        this.redissonClient = redissonClient;
+        this.couponRepository = couponRepository;
+        this.couponCodeGenerator = couponCodeGenerator;
+        // m = -n ln(p) / (ln 2)^2, k = m / n * ln 2
+        long bitSize = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+        this.bits = new BitArray(bitSize);
+        this.hashCount = Math.max(1, (int) Math.round((double) bits.bitSize / expectedInsertions * Math.log(2)));
+
+        Gauge.builder("coupon.code.filter.bits", bits, bitArray -> bitArray.bitSize)
+                .register(meterRegistry);
+        Gauge.builder("coupon.code.filter.insertions", insertions, AtomicLong::get)
+                .register(meterRegistry);
+        Gauge.builder("coupon.code.filter.expected.fpp", this, CouponCodeFilter::expectedFpp)
+                .register(meterRegistry);
+        this.malformed = checkCounter(meterRegistry, "malformed");
+        this.rejected = checkCounter(meterRegistry, "rejected");
+        this.passed = checkCounter(meterRegistry, "passed");
+        this.falsePositive = checkCounter(meterRegistry, "false_positive");
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        String ownPrefix = instanceId + SOURCE_DELIMITER;
+        listenerId = topic().addListener(String.class, (channel, message) -> {
+            if (message.startsWith(ownPrefix)) {
+                return;
+            }
+            String couponCodes = message.substring(message.indexOf(SOURCE_DELIMITER) + 1);
+            for (String couponCode : couponCodes.split(CODE_DELIMITER)) {
+                put(couponCode);
+            }
+        });
+    }
+
+    /**
+     * DB 에 저장된 쿠폰 코드로 필터를 채움
+     * 구독을 먼저 시작한 뒤 읽으므로 재구성 중에 발급된 코드도 빠지지 않는다.
+     */
+    @Transactional(readOnly = true)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long startTime = System.nanoTime();
+        try (Stream<String> couponCodes = couponRepository.streamAllCouponCodes()) {
+            couponCodes.forEach(this::put);
+        }
+        ready = true;
+        log.info("Coupon code filter rebuilt: insertions={}, bits={}, hashes={}, elapsedMs={}",
+                insertions.get(), bits.bitSize, hashCount, (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (listenerId != -1) {
+            topic().removeListener(listenerId);
+        }
+    }
+
+    /**
+     * 발급된 코드를 필터에 추가하고 다른 인스턴스에 전파
+     * @param couponCodes 발급된 쿠폰 코드
+     */
+    public void addAll(Collection<String> couponCodes) {
+        if (couponCodes.isEmpty()) {
+            return;
+        }
+        couponCodes.forEach(this::put);
+        topic().publishAsync(instanceId + SOURCE_DELIMITER + String.join(CODE_DELIMITER, couponCodes));
+    }
+
+    public void add(String couponCode) {
+        addAll(List.of(couponCode));
+    }
+
+    /**
+     * 발급된 적이 있을 수 있는 코드인지 확인
+     * @return false 이면 형식이 잘못됐거나 발급된 적 없는 코드
+     */
+    public boolean mightContain(String couponCode) {
+        if (!couponCodeGenerator.isWellFormed(couponCode) && !isLegacy(couponCode)) {
+            malformed.increment();
+            return false;
+        }
+        if (ready && !contains(couponCode)) {
+            rejected.increment();
+            return false;
+        }
+        passed.increment();
+        return true;
+    }
+
+    /**
+     * 시퀀스 생성기 이전에 발급된 형식의 코드인지 확인 (DB 재구성 시 필터에 들어가 있음)
+     */
+    public static boolean isLegacy(String couponCode) {
+        return couponCode != null && LEGACY_CODE.matcher(couponCode).matches();
+    }
+
+    /**
+     * 필터를 통과했지만 DB 에 없는 코드 (오탐)
+     */
+    public void recordFalsePositive() {
+        falsePositive.increment();
+    }
+
+    boolean isReady() {
+        return ready;
+    }
+
+    double expectedFpp() {
+        return Math.pow(1 - Math.exp(-(double) hashCount * insertions.get() / bits.bitSize), hashCount);
+    }
+
+    private void put(String couponCode) {
+        long hash1 = hash(couponCode);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            bits.set(Math.floorMod(hash1 + i * hash2, bits.bitSize));
+        }
+        insertions.incrementAndGet();
+    }
+
+    private boolean contains(String couponCode) {
+        long hash1 = hash(couponCode);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L) | 1L;
+        for (int i = 0; i < hashCount; i++) {
+            if (!bits.get(Math.floorMod(hash1 + i * hash2, bits.bitSize))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // FNV-1a 64bit 후 MurmurHash3 finalizer 로 비트를 고르게 섞음
+    private static long hash(String couponCode) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < couponCode.length(); i++) {
+            hash ^= Character.toUpperCase(couponCode.charAt(i));
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xFF51AFD7ED558CCDL;
+        value ^= value >>> 33;
+        value *= 0xC4CEB9FE1A85EC53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private Counter checkCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("coupon.code.filter.checks")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private RTopic topic() {
+        return redissonClient.getTopic(ISSUED_TOPIC, StringCodec.INSTANCE);
+    }
+
+    private static class BitArray {
+        private final long bitSize;
+        private final AtomicLongArray words;
+
+        private BitArray(long bitSize) {
+            int wordCount = (int) Math.ceil(bitSize / 64.0);
+            this.words = new AtomicLongArray(wordCount);
+            this.bitSize = (long) wordCount * 64;
+        }
+
+        private void set(long index) {
+            int wordIndex = (int) (index >>> 6);
+            long mask = 1L << index;
+            long word;
+            do {
+                word = words.get(wordIndex);
+                if ((word & mask) != 0) {
+                    return;
+                }
+            } while (!words.compareAndSet(wordIndex, word, word | mask));
+        }
+
+        private boolean get(long index) {
+            return (words.get((int) (index >>> 6)) & (1L << index)) != 0;
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.fastcampus.couponservice.service.code;
+
+/**
+ * 쿠폰 코드 생성기
+ * 발급 경로(v1 ~ v3)에서 공통으로 사용하며, 생성한 코드는 서로 겹치지 않아야 한다.
+ */
+public interface CouponCodeGenerator {
+
+    String generate();
+
+    /**
+     * 코드 형식 검사 (DB 조회 전에 잘못 입력된 코드를 거르는 용도)
+     */
+    default boolean isWellFormed(String couponCode) {
+        return couponCode != null && !couponCode.isBlank();
+    }
+}
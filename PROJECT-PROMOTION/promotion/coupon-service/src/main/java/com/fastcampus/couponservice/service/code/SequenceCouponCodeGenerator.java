@@ -0,0 +1,234 @@
+package com.fastcampus.couponservice.service.code;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 전역 시퀀스 기반 쿠폰 코드 생성기
+ * - DB 시퀀스에서 blockSize 단위로 번호 구간을 미리 할당받아 인스턴스 간 중복 없이 생성 (CouponCodeBlockAllocator)
+ * - 번호는 55bit 안에서 일대일 변환(홀수 곱셈 + XOR)으로 섞어 연속 발급된 코드가 추측되지 않도록 함
+ * - Crockford Base32 11자리 + 검증 문자 1자리 (I, L, O, U 제외로 입력 오류를 줄임)
+ * - 남은 번호가 prefetchThreshold 이하가 되면 다음 구간을 비동기로 미리 할당받아 발급 경로에서 DB 를 기다리지 않음
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SequenceCouponCodeGenerator implements CouponCodeGenerator {
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int BITS_PER_CHAR = 5;
+    private static final int PAYLOAD_LENGTH = 11;
+    private static final int CODE_LENGTH = PAYLOAD_LENGTH + 1;
+    private static final long PAYLOAD_MASK = (1L << (BITS_PER_CHAR * PAYLOAD_LENGTH)) - 1;
+    // 홀수를 곱하는 연산은 2^n 을 법으로 일대일 대응이므로 서로 다른 번호는 서로 다른 코드가 된다
+    private static final long SCRAMBLE_MULTIPLIER = 0x2545F4914F6CDD1DL & PAYLOAD_MASK | 1L;
+    private static final long SCRAMBLE_XOR = 0x3C6EF372FE94F82BL & PAYLOAD_MASK;
+    private static final long SCRAMBLE_INVERSE = inverse(SCRAMBLE_MULTIPLIER);
+    private static final int[] ALPHABET_INDEX = alphabetIndex();
+
+    private static final SequenceBlock EMPTY_BLOCK = new SequenceBlock(0L, 0L);
+
+    private final CouponCodeBlockAllocator couponCodeBlockAllocator;
+
+    @Value("${coupon.code.block-size:1000}")
+    private long blockSize = 1000;
+
+    @Value("${coupon.code.prefetch-threshold:200}")
+    private long prefetchThreshold = 200;
+
+    private final ReentrantLock blockLock = new ReentrantLock();
+    private final AtomicBoolean prefetching = new AtomicBoolean();
+    private final ExecutorService prefetchExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "coupon-code-prefetch");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile SequenceBlock current = EMPTY_BLOCK;
+    private volatile SequenceBlock prefetched;
+
+    @Override
+    public String generate() {
+        while (true) {
+            SequenceBlock block = current;
+            long sequence = block.next.getAndIncrement();
+            if (sequence < block.end) {
+                if (block.end - sequence == prefetchThreshold) {
+                    prefetchAsync();
+                }
+                return encode(sequence);
+            }
+            switchBlock(block);
+        }
+    }
+
+    @Override
+    public boolean isWellFormed(String couponCode) {
+        return digits(couponCode) != null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        prefetchExecutor.shutdownNow();
+    }
+
+    /**
+     * 시퀀스 번호를 쿠폰 코드로 변환
+     */
+    public static String encode(long sequence) {
+        long scrambled = ((sequence * SCRAMBLE_MULTIPLIER) & PAYLOAD_MASK) ^ SCRAMBLE_XOR;
+
+        int[] digits = new int[CODE_LENGTH];
+        for (int i = PAYLOAD_LENGTH - 1; i >= 0; i--) {
+            digits[i] = (int) (scrambled & (ALPHABET.length - 1));
+            scrambled >>>= BITS_PER_CHAR;
+        }
+        digits[PAYLOAD_LENGTH] = checkDigit(digits, PAYLOAD_LENGTH);
+
+        char[] code = new char[CODE_LENGTH];
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            code[i] = ALPHABET[digits[i]];
+        }
+        return new String(code);
+    }
+
+    /**
+     * 쿠폰 코드를 시퀀스 번호로 되돌림
+     * @return 형식이 잘못된 코드이면 -1
+     */
+    public static long decode(String couponCode) {
+        int[] digits = digits(couponCode);
+        if (digits == null) {
+            return -1L;
+        }
+        long scrambled = 0;
+        for (int i = 0; i < PAYLOAD_LENGTH; i++) {
+            scrambled = (scrambled << BITS_PER_CHAR) | digits[i];
+        }
+        return ((scrambled ^ SCRAMBLE_XOR) * SCRAMBLE_INVERSE) & PAYLOAD_MASK;
+    }
+
+    /**
+     * @return 형식과 검증 문자가 맞으면 글자별 값, 아니면 null
+     */
+    private static int[] digits(String couponCode) {
+        if (couponCode == null || couponCode.length() != CODE_LENGTH) {
+            return null;
+        }
+        int[] digits = new int[CODE_LENGTH];
+        for (int i = 0; i < CODE_LENGTH; i++) {
+            char c = Character.toUpperCase(couponCode.charAt(i));
+            int digit = c < ALPHABET_INDEX.length ? ALPHABET_INDEX[c] : -1;
+            if (digit < 0) {
+                return null;
+            }
+            digits[i] = digit;
+        }
+        return checkDigit(digits, PAYLOAD_LENGTH) == digits[PAYLOAD_LENGTH] ? digits : null;
+    }
+
+    /**
+     * Luhn mod N 검증 문자 (한 글자 오타, 인접한 두 글자 자리 바뀜을 검출)
+     */
+    private static int checkDigit(int[] digits, int length) {
+        int base = ALPHABET.length;
+        int factor = 2;
+        int sum = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            int addend = factor * digits[i];
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / base + addend % base;
+        }
+        return (base - sum % base) % base;
+    }
+
+    private void switchBlock(SequenceBlock exhausted) {
+        blockLock.lock();
+        try {
+            if (current != exhausted) {
+                return;
+            }
+            SequenceBlock next = prefetched;
+            prefetched = null;
+            current = next != null ? next : allocateBlock();
+        } finally {
+            blockLock.unlock();
+        }
+    }
+
+    private void prefetchAsync() {
+        if (!prefetching.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            prefetchExecutor.execute(() -> {
+                try {
+                    blockLock.lock();
+                    try {
+                        if (prefetched == null) {
+                            prefetched = allocateBlock();
+                        }
+                    } finally {
+                        blockLock.unlock();
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to prefetch coupon code block", e);
+                } finally {
+                    prefetching.set(false);
+                }
+            });
+        } catch (Exception e) {
+            prefetching.set(false);
+            log.warn("Coupon code block prefetch rejected", e);
+        }
+    }
+
+    private SequenceBlock allocateBlock() {
+        long start;
+        try {
+            start = couponCodeBlockAllocator.allocate(blockSize);
+        } catch (DataIntegrityViolationException e) {
+            // 시퀀스 행을 처음 만들 때 다른 인스턴스가 먼저 만들었으면 그 행에서 다시 할당
+            start = couponCodeBlockAllocator.allocate(blockSize);
+        }
+        return new SequenceBlock(start, start + blockSize);
+    }
+
+    // 홀수의 2^64 법 역원 (Newton 반복마다 맞는 비트 수가 두 배가 됨)
+    private static long inverse(long odd) {
+        long inverse = odd;
+        for (int i = 0; i < 5; i++) {
+            inverse *= 2 - odd * inverse;
+        }
+        return inverse & PAYLOAD_MASK;
+    }
+
+    private static int[] alphabetIndex() {
+        int[] index = new int['z' + 1];
+        Arrays.fill(index, -1);
+        for (int i = 0; i < ALPHABET.length; i++) {
+            index[ALPHABET[i]] = i;
+        }
+        return index;
+    }
+
+    private static class SequenceBlock {
+        private final long end;
+        private final AtomicLong next;
+
+        private SequenceBlock(long start, long end) {
+            this.end = end;
+            this.next = new AtomicLong(start);
+        }
+    }
+}
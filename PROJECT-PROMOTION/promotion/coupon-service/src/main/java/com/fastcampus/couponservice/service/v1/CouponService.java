@@ -1,5 +1,6 @@
 package com.fastcampus.couponservice.service.v1;
 
+import com.fastcampus.couponservice.aop.CouponIssueMetrics;
 import com.fastcampus.couponservice.aop.CouponMetered;
 import com.fastcampus.couponservice.config.UserIdInterceptor;
 import com.fastcampus.couponservice.domain.Coupon;
@@ -9,14 +10,18 @@ import com.fastcampus.couponservice.exception.CouponIssueException;
 import com.fastcampus.couponservice.exception.CouponNotFoundException;
 import com.fastcampus.couponservice.repository.CouponPolicyRepository;
 import com.fastcampus.couponservice.repository.CouponRepository;
+import com.fastcampus.couponservice.service.TransactionCallbacks;
+import com.fastcampus.couponservice.service.code.CouponCodeFilter;
+import com.fastcampus.couponservice.service.code.CouponCodeGenerator;
+import com.fastcampus.couponservice.service.v3.CouponWalletService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.UUID;
 
 @Service
 @RequiredArgsConstructor
@@ -24,10 +29,13 @@ public class CouponService {
 
     private final CouponRepository couponRepository;
     private final CouponPolicyRepository couponPolicyRepository;
+    private final CouponIssueMetrics couponIssueMetrics;
+    private final CouponCodeGenerator couponCodeGenerator;
+    private final CouponCodeFilter couponCodeFilter;
+    private final CouponWalletService couponWalletService;
 
-    private String generateCouponCode() {
-        return UUID.randomUUID().toString().substring(0, 8);
-    }
+    @Value("${coupon.v1.stock-mode:COUNTER}")
+    private CouponStockMode stockMode = CouponStockMode.COUNTER;
 
     /**
      * 1. Race Condition 발생 가능성
@@ -47,11 +55,53 @@ public class CouponService {
      * 4. 정확한 수량 보장의 어려움
      * 분산 환경에서 여러 서버가 동시에 쿠폰을 발급할 경우
      * DB 레벨의 락만으로는 정확한 수량 제어가 어려움
+     *
+     * COUNTER 모드(기본)는 정책의 issuedQuantity 를 조건부 UPDATE 로 증가시켜 1, 2번 문제를 피한다.
      */
     @Transactional
     @CouponMetered(version = "v1")
     public Coupon issueCoupon(CouponDto.IssueRequest request) {
-        CouponPolicy couponPolicy = couponPolicyRepository.findByIdWithLock(request.getCouponPolicyId())
+        CouponPolicy couponPolicy = stockMode == CouponStockMode.COUNTER
+                ? claimWithCounter(request.getCouponPolicyId())
+                : claimWithCount(request.getCouponPolicyId());
+
+        Coupon coupon = Coupon.builder()
+                .couponPolicy(couponPolicy)
+                .userId(UserIdInterceptor.getCurrentUserId())
+                .couponCode(couponCodeGenerator.generate())
+                .build();
+
+        long dbStartTime = System.nanoTime();
+        Coupon savedCoupon;
+        try {
+            // 시퀀스 ID 는 INSERT 를 커밋까지 미루므로 바로 flush 해 DB 쓰기 시간과 제약 위반을 요청 안에서 확인
+            savedCoupon = couponRepository.saveAndFlush(coupon);
+        } finally {
+            couponIssueMetrics.recordPhase("v1", CouponIssueMetrics.Phase.DB_WRITE, System.nanoTime() - dbStartTime);
+        }
+        TransactionCallbacks.afterCommit(() -> {
+            couponCodeFilter.add(savedCoupon.getCouponCode());
+            couponWalletService.addCoupon(savedCoupon);
+        });
+        return savedCoupon;
+    }
+
+    private CouponPolicy claimWithCounter(Long policyId) {
+        int updated = couponPolicyRepository.increaseIssuedQuantity(policyId, LocalDateTime.now());
+        CouponPolicy couponPolicy = couponPolicyRepository.findById(policyId)
+                .orElseThrow(() -> new CouponIssueException("쿠폰 정책을 찾을 수 없습니다."));
+
+        if (updated == 0) {
+            if (!couponPolicy.isValidPeriod()) {
+                throw new CouponIssueException("쿠폰 발급 기간이 아닙니다.");
+            }
+            throw new CouponIssueException("쿠폰이 모두 소진되었습니다.");
+        }
+        return couponPolicy;
+    }
+
+    private CouponPolicy claimWithCount(Long policyId) {
+        CouponPolicy couponPolicy = couponPolicyRepository.findByIdWithLock(policyId)
                 .orElseThrow(() -> new CouponIssueException("쿠폰 정책을 찾을 수 없습니다."));
 
         LocalDateTime now = LocalDateTime.now();
@@ -63,14 +113,7 @@ public class CouponService {
         if (issuedCouponCount >= couponPolicy.getTotalQuantity()) {
             throw new CouponIssueException("쿠폰이 모두 소진되었습니다.");
         }
-
-        Coupon coupon = Coupon.builder()
-                .couponPolicy(couponPolicy)
-                .userId(UserIdInterceptor.getCurrentUserId())
-                .couponCode(generateCouponCode())
-                .build();
-
-        return couponRepository.save(coupon);
+        return couponPolicy;
     }
 
     @Transactional
@@ -81,6 +124,7 @@ public class CouponService {
                 .orElseThrow(() -> new CouponNotFoundException("쿠폰을 찾을 수 없거나 접근 권한이 없습니다."));
 
         coupon.use(orderId);
+        TransactionCallbacks.afterCommit(() -> couponWalletService.removeCoupon(coupon));
 
         return coupon;
     }
@@ -93,6 +137,7 @@ public class CouponService {
                 .orElseThrow(() -> new CouponNotFoundException("쿠폰을 찾을 수 없거나 접근 권한이 없습니다."));
 
         coupon.cancel();
+        TransactionCallbacks.afterCommit(() -> couponWalletService.addCoupon(coupon));
         return coupon;
     }
 
@@ -0,0 +1,16 @@
+package com.fastcampus.couponservice.service.v1;
+
+/**
+ * v1(DB 전용) 쿠폰 발급 시 잔여 수량을 확인하는 방식
+ */
+public enum CouponStockMode {
+    /**
+     * 정책에 비관적 락을 건 뒤 발급된 쿠폰 수를 COUNT 로 확인 (발급 수가 늘수록 느려짐)
+     */
+    COUNT,
+    /**
+     * 정책의 issuedQuantity 를 조건부 UPDATE 한 번으로 증가 (발급 수와 무관하게 일정한 지연)
+     * COUNT 모드로 발급된 쿠폰은 issuedQuantity 에 반영되지 않으므로 캠페인 도중에 모드를 바꾸지 않는다.
+     */
+    COUNTER
+}
@@ -0,0 +1,206 @@
+package com.fastcampus.couponservice.service.v2;
+
+import com.fastcampus.couponservice.aop.CouponIssueMetrics;
+import com.fastcampus.couponservice.exception.CouponAdmissionRejectedException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * 정책별 쿠폰 발급 동시 처리 수 제한
+ * 한도를 넘는 요청은 짧은 대기열에서 queue-timeout 동안만 기다리고, 대기열이 가득 찼거나 시간이 지나면
+ * 429(Retry-After)로 바로 거절해 요청 스레드가 분산 락이나 Redis 응답을 오래 기다리며 쌓이지 않도록 한다.
+ *
+ * 한도는 발급 처리 시간에 따라 조정한다 (AIMD).
+ * - 처리 시간이 target-latency 를 넘으면 한도를 backoff-ratio 만큼 줄임
+ * - 처리 시간이 목표 이내이고 대기 중인 요청이 있으면 한도를 1 늘림
+ *
+ * 제한 상태와 meter 는 존재하는 정책에만 만들고(정책 near cache 로 확인), idle-timeout 동안 요청이 없으면 제거한다.
+ */
+@Component
+@RequiredArgsConstructor
+public class CouponIssueAdmission {
+    private static final double BACKOFF_RATIO = 0.9;
+
+    private final CouponIssueMetrics couponIssueMetrics;
+    private final CouponPolicyService couponPolicyService;
+
+    @Value("${coupon.issue.admission.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${coupon.issue.admission.initial-limit:20}")
+    private int initialLimit = 20;
+
+    @Value("${coupon.issue.admission.min-limit:2}")
+    private int minLimit = 2;
+
+    @Value("${coupon.issue.admission.max-limit:200}")
+    private int maxLimit = 200;
+
+    @Value("${coupon.issue.admission.max-queue:50}")
+    private int maxQueue = 50;
+
+    @Value("${coupon.issue.admission.queue-timeout:100ms}")
+    private Duration queueTimeout = Duration.ofMillis(100);
+
+    @Value("${coupon.issue.admission.target-latency:50ms}")
+    private Duration targetLatency = Duration.ofMillis(50);
+
+    @Value("${coupon.issue.admission.retry-after:1s}")
+    private Duration retryAfter = Duration.ofSeconds(1);
+
+    @Value("${coupon.issue.admission.idle-timeout:10m}")
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    private Cache<Long, PolicyAdmission> admissions;
+
+    @PostConstruct
+    public void init() {
+        admissions = Caffeine.newBuilder()
+                .expireAfterAccess(idleTimeout)
+                .removalListener(this::onRemoval)
+                .build();
+    }
+
+    /**
+     * 동시 처리 한도 안에서 발급 작업 실행
+     * @param policyId 쿠폰 정책 ID
+     * @param task 발급 작업
+     * @throws CouponAdmissionRejectedException 한도와 대기열이 모두 가득 찬 경우
+     * @throws com.fastcampus.couponservice.exception.CouponPolicyNotFoundException 존재하지 않는 정책인 경우
+     */
+    public <T> T execute(Long policyId, Supplier<T> task) {
+        if (!enabled) {
+            return task.get();
+        }
+
+        // 임의의 정책 ID 로 제한 상태와 meter 가 계속 늘어나지 않도록 정책이 있는지 먼저 확인
+        couponPolicyService.getCouponPolicy(policyId);
+        PolicyAdmission admission = admissions.get(policyId, this::createAdmission);
+        admission.acquire();
+        long startTime = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            admission.release(System.nanoTime() - startTime);
+        }
+    }
+
+    public void execute(Long policyId, Runnable task) {
+        execute(policyId, () -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * 현재 동시 처리 한도 (정책에 대한 요청이 없었으면 초기 한도)
+     */
+    public int getLimit(Long policyId) {
+        PolicyAdmission admission = admissions.getIfPresent(policyId);
+        return admission != null ? admission.currentLimit() : initialLimit;
+    }
+
+    private PolicyAdmission createAdmission(Long policyId) {
+        PolicyAdmission admission = new PolicyAdmission(policyId);
+        couponIssueMetrics.registerAdmissionLimit(policyId, admission, PolicyAdmission::currentLimit);
+        return admission;
+    }
+
+    private void onRemoval(Long policyId, PolicyAdmission admission, RemovalCause cause) {
+        // 제거 직후 같은 정책의 요청으로 다시 만들어졌으면 새 gauge 를 지우지 않는다
+        if (policyId != null && admissions.getIfPresent(policyId) == null) {
+            couponIssueMetrics.removeAdmissionMeters(policyId);
+        }
+    }
+
+    private CouponAdmissionRejectedException reject() {
+        return new CouponAdmissionRejectedException(
+                "쿠폰 발급 요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요.",
+                Math.max(1L, retryAfter.toSeconds()));
+    }
+
+    private final class PolicyAdmission {
+        private final Long policyId;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition released = lock.newCondition();
+        private double limit = initialLimit;
+        private int inFlight;
+        private int waiting;
+
+        private PolicyAdmission(Long policyId) {
+            this.policyId = policyId;
+        }
+
+        private void acquire() {
+            lock.lock();
+            try {
+                if (inFlight < currentLimit()) {
+                    inFlight++;
+                    couponIssueMetrics.recordAdmission(policyId, "admitted");
+                    return;
+                }
+                if (waiting >= maxQueue) {
+                    couponIssueMetrics.recordAdmission(policyId, "shed");
+                    throw reject();
+                }
+
+                waiting++;
+                long startTime = System.nanoTime();
+                long remaining = queueTimeout.toNanos();
+                try {
+                    while (inFlight >= currentLimit()) {
+                        if (remaining <= 0) {
+                            couponIssueMetrics.recordAdmission(policyId, "shed");
+                            throw reject();
+                        }
+                        remaining = released.awaitNanos(remaining);
+                    }
+                    inFlight++;
+                    couponIssueMetrics.recordAdmission(policyId, "queued");
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    couponIssueMetrics.recordAdmission(policyId, "shed");
+                    throw reject();
+                } finally {
+                    waiting--;
+                    couponIssueMetrics.recordAdmissionQueueWait(policyId, System.nanoTime() - startTime);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void release(long latencyNanos) {
+            lock.lock();
+            try {
+                inFlight--;
+                if (latencyNanos > targetLatency.toNanos()) {
+                    limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+                    released.signal();
+                } else if (waiting > 0 && limit < maxLimit) {
+                    limit = Math.min(maxLimit, limit + 1);
+                    released.signalAll();
+                } else {
+                    released.signal();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private int currentLimit() {
+            return (int) limit;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.fastcampus.couponservice.service.v2;
+
+/**
+ * 쿠폰 발급 시 수량 차감 방식
+ * - LOCK: 정책별 분산 락(RLock)을 획득한 뒤 수량을 차감하는 기존 방식
+ * - SCRIPT: 발급 기간, 사용자 중복 발급, 수량 차감을 하나의 Lua 스크립트로 처리
+ * - LEASE: 인스턴스가 Redis 수량을 일정 단위로 미리 임대받아 메모리에서 차감 (사용자 중복 발급은 검사하지 않음)
+ */
+public enum CouponIssueMode {
+    LOCK,
+    SCRIPT,
+    LEASE
+}
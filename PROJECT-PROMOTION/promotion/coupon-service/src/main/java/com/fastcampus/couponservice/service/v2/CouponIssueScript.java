@@ -0,0 +1,490 @@
+package com.fastcampus.couponservice.service.v2;
+
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.exception.CouponIssueException;
+import com.fastcampus.couponservice.exception.CouponSoldOutException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.BatchResult;
+import org.redisson.api.RBatch;
+import org.redisson.api.RBucket;
+import org.redisson.api.RScript;
+import org.redisson.api.RSetAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.RedissonReactiveClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 쿠폰 발급 가능 여부 확인과 수량 차감을 Redis 서버에서 한 번에 처리하는 Lua 스크립트
+ * 분산 락 없이 단일 왕복으로 발급 기간, 사용자별 중복 발급, 잔여 수량을 원자적으로 검증한다.
+ *
+ * coupon.issue.stock-shards 가 2 이상이면 수량을 여러 키로 나누어 저장한다.
+ * 사용자는 userId 해시로 정해진 샤드(home shard)에서 먼저 차감하고, 해당 샤드가 소진되면 다른 샤드에서 차감한다.
+ * 중복 발급 여부는 항상 home shard 의 사용자 집합으로 판단한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponIssueScript {
+    private static final long ISSUED_USERS_RETENTION_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private static final long SOLD_OUT = -1L;
+    private static final long NOT_IN_PERIOD = -2L;
+    private static final long ALREADY_ISSUED = -3L;
+
+    /**
+     * KEYS[1]: 잔여 수량, KEYS[2]: 발급받은 사용자 집합
+     * ARGV[1]: 사용자 ID, ARGV[2]: 발급 시작 시각(ms), ARGV[3]: 발급 종료 시각(ms), ARGV[4]: 사용자 집합 만료 시각(ms)
+     * 반환값: 발급 후 잔여 수량, 실패 시 음수 코드
+     */
+    private static final String ISSUE_SCRIPT = """
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            if now < tonumber(ARGV[2]) or now > tonumber(ARGV[3]) then
+                return -2
+            end
+            if redis.call('SISMEMBER', KEYS[2], ARGV[1]) == 1 then
+                return -3
+            end
+            local remaining = tonumber(redis.call('GET', KEYS[1]) or '0')
+            if remaining <= 0 then
+                return -1
+            end
+            redis.call('SADD', KEYS[2], ARGV[1])
+            redis.call('PEXPIREAT', KEYS[2], ARGV[4])
+            return redis.call('DECR', KEYS[1])
+            """;
+
+    /**
+     * 다른 샤드에서 수량만 차감
+     * KEYS[1]: 잔여 수량
+     */
+    private static final String DECREMENT_SCRIPT = """
+            local remaining = tonumber(redis.call('GET', KEYS[1]) or '0')
+            if remaining <= 0 then
+                return -1
+            end
+            return redis.call('DECR', KEYS[1])
+            """;
+
+    /**
+     * 다른 샤드에서 차감한 뒤 home shard 의 사용자 집합에 발급 이력 기록
+     * KEYS[1]: 발급받은 사용자 집합, ARGV[1]: 사용자 ID, ARGV[2]: 사용자 집합 만료 시각(ms)
+     */
+    private static final String CLAIM_USER_SCRIPT = """
+            if redis.call('SADD', KEYS[1], ARGV[1]) == 0 then
+                return 0
+            end
+            redis.call('PEXPIREAT', KEYS[1], ARGV[2])
+            return 1
+            """;
+
+    /**
+     * 발급 이후 DB 저장 등이 실패했을 때 차감한 수량과 사용자 발급 이력을 되돌린다.
+     */
+    private static final String RELEASE_SCRIPT = """
+            if redis.call('SREM', KEYS[2], ARGV[1]) == 1 then
+                return redis.call('INCR', KEYS[1])
+            end
+            return -1
+            """;
+
+    /**
+     * 대량 발급용으로 남은 수량에서 최대 ARGV[1] 만큼 차감
+     * KEYS[1]: 잔여 수량, 반환값: 실제로 차감한 수량
+     */
+    private static final String TAKE_SCRIPT = """
+            local remaining = tonumber(redis.call('GET', KEYS[1]) or '0')
+            if remaining <= 0 then
+                return 0
+            end
+            local taken = math.min(remaining, tonumber(ARGV[1]))
+            redis.call('DECRBY', KEYS[1], taken)
+            return taken
+            """;
+
+    /**
+     * 수량 대사에서 확인한 값이 그대로일 때만 수량을 바꾼다. (확인 후 발급된 요청이 있으면 다음 대사에서 다시 계산)
+     * KEYS[1]: 잔여 수량, ARGV[1]: 확인한 수량 (키가 없었으면 빈 문자열), ARGV[2]: 바꿀 수량
+     * 반환값: 바꿨으면 1, 그 사이 값이 바뀌었으면 0
+     */
+    private static final String COMPARE_AND_SET_SCRIPT = """
+            if (redis.call('GET', KEYS[1]) or '') ~= ARGV[1] then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[2])
+            return 1
+            """;
+
+    private final RedissonClient redissonClient;
+
+    @Value("${coupon.issue.stock-shards:1}")
+    private int stockShards = 1;
+
+    /**
+     * 쿠폰 정책의 초기 수량 설정 (샤딩 시 수량을 샤드별로 균등 분배)
+     * @param policyId 쿠폰 정책 ID
+     * @param totalQuantity 총 발급 수량
+     */
+    public void initialize(Long policyId, int totalQuantity) {
+        if (stockShards <= 1) {
+            redissonClient.getAtomicLong(CouponStockKeys.quantity(policyId)).set(totalQuantity);
+            return;
+        }
+
+        RBatch batch = redissonClient.createBatch();
+        for (int shard = 0; shard < stockShards; shard++) {
+            long quantity = totalQuantity / stockShards + (shard < totalQuantity % stockShards ? 1 : 0);
+            batch.getAtomicLong(CouponStockKeys.quantity(policyId, shard)).setAsync(quantity);
+        }
+        batch.execute();
+    }
+
+    /**
+     * 쿠폰 발급 수량을 차감
+     * @param couponPolicy 발급할 쿠폰 정책
+     * @param userId 발급받을 사용자 ID
+     * @return 차감한 샤드의 잔여 수량
+     */
+    public long issue(CouponPolicy couponPolicy, Long userId) {
+        Long policyId = couponPolicy.getId();
+        int homeShard = homeShard(userId);
+        long startMillis = toEpochMillis(couponPolicy.getStartTime());
+        long endMillis = toEpochMillis(couponPolicy.getEndTime());
+        long expireAtMillis = endMillis + ISSUED_USERS_RETENTION_MILLIS;
+
+        Long result = eval(
+                ISSUE_SCRIPT,
+                List.of(quantityKey(policyId, homeShard), issuedUsersKey(policyId, homeShard)),
+                String.valueOf(userId),
+                String.valueOf(startMillis),
+                String.valueOf(endMillis),
+                String.valueOf(expireAtMillis));
+
+        if (result == NOT_IN_PERIOD) {
+            throw new IllegalStateException("쿠폰 발급 기간이 아닙니다.");
+        }
+        if (result == ALREADY_ISSUED) {
+            throw new CouponIssueException("이미 발급받은 쿠폰입니다.");
+        }
+        if (result == SOLD_OUT) {
+            return issueFromSiblingShard(policyId, userId, homeShard, expireAtMillis);
+        }
+        return result;
+    }
+
+    /**
+     * issue 와 같은 스크립트를 RedissonReactiveClient 로 실행 (호출 스레드를 블로킹하지 않음)
+     * @param couponPolicy 발급할 쿠폰 정책
+     * @param userId 발급받을 사용자 ID
+     * @return 차감한 샤드의 잔여 수량
+     */
+    public Mono<Long> issueReactive(CouponPolicy couponPolicy, Long userId) {
+        Long policyId = couponPolicy.getId();
+        int homeShard = homeShard(userId);
+        long startMillis = toEpochMillis(couponPolicy.getStartTime());
+        long endMillis = toEpochMillis(couponPolicy.getEndTime());
+        long expireAtMillis = endMillis + ISSUED_USERS_RETENTION_MILLIS;
+
+        return evalReactive(
+                ISSUE_SCRIPT,
+                List.of(quantityKey(policyId, homeShard), issuedUsersKey(policyId, homeShard)),
+                String.valueOf(userId),
+                String.valueOf(startMillis),
+                String.valueOf(endMillis),
+                String.valueOf(expireAtMillis))
+                .flatMap(result -> {
+                    if (result == NOT_IN_PERIOD) {
+                        return Mono.error(new IllegalStateException("쿠폰 발급 기간이 아닙니다."));
+                    }
+                    if (result == ALREADY_ISSUED) {
+                        return Mono.error(new CouponIssueException("이미 발급받은 쿠폰입니다."));
+                    }
+                    if (result == SOLD_OUT) {
+                        return issueFromSiblingShardReactive(policyId, userId, homeShard, expireAtMillis);
+                    }
+                    return Mono.just(result);
+                });
+    }
+
+    /**
+     * release 의 reactive 버전
+     */
+    public Mono<Void> releaseReactive(Long policyId, Long userId) {
+        int homeShard = homeShard(userId);
+        return evalReactive(
+                RELEASE_SCRIPT,
+                List.of(quantityKey(policyId, homeShard), issuedUsersKey(policyId, homeShard)),
+                String.valueOf(userId))
+                .doOnNext(result -> {
+                    if (result < 0) {
+                        log.warn("Nothing to release: policyId={}, userId={}", policyId, userId);
+                    }
+                })
+                .then();
+    }
+
+    /**
+     * 발급 처리 실패 시 차감한 수량을 복구 (샤딩 시 home shard 로 복구)
+     * @param policyId 쿠폰 정책 ID
+     * @param userId 사용자 ID
+     */
+    public void release(Long policyId, Long userId) {
+        int homeShard = homeShard(userId);
+        Long result = eval(
+                RELEASE_SCRIPT,
+                List.of(quantityKey(policyId, homeShard), issuedUsersKey(policyId, homeShard)),
+                String.valueOf(userId));
+
+        if (result < 0) {
+            log.warn("Nothing to release: policyId={}, userId={}", policyId, userId);
+        }
+    }
+
+    /**
+     * 대량 발급 수량을 한 번에 차감 (샤딩 시 샤드마다 남은 만큼 차례로 차감)
+     * 전체 수량을 확보하지 못하면 차감한 수량을 되돌리고 실패한다.
+     * @param policyId 쿠폰 정책 ID
+     * @param quantity 차감할 수량
+     */
+    public void reserveBulk(Long policyId, long quantity) {
+        int shards = Math.max(stockShards, 1);
+        long[] taken = new long[shards];
+        long total = 0;
+        for (int shard = 0; shard < shards && total < quantity; shard++) {
+            taken[shard] = eval(TAKE_SCRIPT, List.of(quantityKey(policyId, shard)), String.valueOf(quantity - total));
+            total += taken[shard];
+        }
+        if (total >= quantity) {
+            return;
+        }
+
+        RBatch batch = redissonClient.createBatch();
+        for (int shard = 0; shard < shards; shard++) {
+            if (taken[shard] > 0) {
+                batch.getAtomicLong(quantityKey(policyId, shard)).addAndGetAsync(taken[shard]);
+            }
+        }
+        batch.execute();
+        throw new CouponSoldOutException("대량 발급에 필요한 쿠폰 수량이 부족합니다. 필요 수량: " + quantity + ", 잔여 수량: " + total);
+    }
+
+    /**
+     * 대량 발급에서 사용하지 않은 수량을 반환 (샤딩 시 샤드별로 나누어 반환)
+     * @param policyId 쿠폰 정책 ID
+     * @param quantity 반환할 수량
+     */
+    public void releaseBulk(Long policyId, long quantity) {
+        int shards = Math.max(stockShards, 1);
+        RBatch batch = redissonClient.createBatch();
+        for (int shard = 0; shard < shards; shard++) {
+            long share = quantity / shards + (shard < quantity % shards ? 1 : 0);
+            if (share > 0) {
+                batch.getAtomicLong(quantityKey(policyId, shard)).addAndGetAsync(share);
+            }
+        }
+        batch.execute();
+    }
+
+    /**
+     * 대량 발급된 사용자를 발급 이력 집합에 파이프라인으로 기록해 이후 단건 발급 API 의 중복 발급을 막는다.
+     * @param couponPolicy 쿠폰 정책
+     * @param userIds 발급받은 사용자 ID
+     */
+    public void markIssued(CouponPolicy couponPolicy, Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        Long policyId = couponPolicy.getId();
+        Instant expireAt = Instant.ofEpochMilli(toEpochMillis(couponPolicy.getEndTime()) + ISSUED_USERS_RETENTION_MILLIS);
+        Map<Integer, List<String>> usersByShard = userIds.stream()
+                .collect(Collectors.groupingBy(this::homeShard,
+                        Collectors.mapping(String::valueOf, Collectors.toList())));
+
+        RBatch batch = redissonClient.createBatch();
+        usersByShard.forEach((shard, users) -> {
+            RSetAsync<String> issuedUsers = batch.getSet(issuedUsersKey(policyId, shard), StringCodec.INSTANCE);
+            issuedUsers.addAllAsync(users);
+            issuedUsers.expireAsync(expireAt);
+        });
+        batch.execute();
+    }
+
+    /**
+     * 기존 발급 사용자를 사용자 집합에 채웠는지 확인
+     * @param policyId 쿠폰 정책 ID
+     */
+    public boolean isIssuedUsersSeeded(Long policyId) {
+        return redissonClient.getBucket(CouponStockKeys.issuedUsersSeeded(policyId), StringCodec.INSTANCE).isExists();
+    }
+
+    /**
+     * 기존 발급 사용자를 모두 채웠다고 표시 (사용자 집합과 같은 시각에 만료)
+     * @param couponPolicy 쿠폰 정책
+     */
+    public void markIssuedUsersSeeded(CouponPolicy couponPolicy) {
+        Instant expireAt = Instant.ofEpochMilli(toEpochMillis(couponPolicy.getEndTime()) + ISSUED_USERS_RETENTION_MILLIS);
+        RBucket<String> seeded = redissonClient.getBucket(CouponStockKeys.issuedUsersSeeded(couponPolicy.getId()), StringCodec.INSTANCE);
+        seeded.set("1");
+        seeded.expire(expireAt);
+    }
+
+    /**
+     * 모든 샤드의 잔여 수량 합계
+     * @param policyId 쿠폰 정책 ID
+     */
+    public long getRemainingQuantity(Long policyId) {
+        if (stockShards <= 1) {
+            return redissonClient.getAtomicLong(CouponStockKeys.quantity(policyId)).get();
+        }
+
+        RBatch batch = redissonClient.createBatch();
+        for (int shard = 0; shard < stockShards; shard++) {
+            batch.getAtomicLong(CouponStockKeys.quantity(policyId, shard)).getAsync();
+        }
+        BatchResult<?> result = batch.execute();
+        return result.getResponses().stream()
+                .mapToLong(response -> Math.max(0L, ((Number) response).longValue()))
+                .sum();
+    }
+
+    /**
+     * 정책들의 샤드별 잔여 수량을 한 번의 파이프라인으로 조회
+     * @param policyIds 쿠폰 정책 ID
+     * @return 정책 ID 별 샤드 수량 배열 (키가 없는 샤드는 null)
+     */
+    public Map<Long, Long[]> readQuantities(List<Long> policyIds) {
+        int shards = Math.max(stockShards, 1);
+        RBatch batch = redissonClient.createBatch();
+        for (Long policyId : policyIds) {
+            for (int shard = 0; shard < shards; shard++) {
+                batch.<String>getBucket(quantityKey(policyId, shard), StringCodec.INSTANCE).getAsync();
+            }
+        }
+        List<?> responses = batch.execute().getResponses();
+
+        Map<Long, Long[]> quantities = new LinkedHashMap<>();
+        for (int i = 0; i < policyIds.size(); i++) {
+            Long[] shardQuantities = new Long[shards];
+            for (int shard = 0; shard < shards; shard++) {
+                Object response = responses.get(i * shards + shard);
+                shardQuantities[shard] = response != null ? Long.valueOf(response.toString()) : null;
+            }
+            quantities.put(policyIds.get(i), shardQuantities);
+        }
+        return quantities;
+    }
+
+    /**
+     * 샤드의 잔여 수량이 expected 일 때만 quantity 로 변경
+     * @param expected 확인한 수량 (키가 없었으면 null)
+     * @return 변경했으면 true, 그 사이 발급 등으로 값이 바뀌었으면 false
+     */
+    public boolean compareAndSetQuantity(Long policyId, int shard, Long expected, long quantity) {
+        Long result = eval(
+                COMPARE_AND_SET_SCRIPT,
+                List.of(quantityKey(policyId, shard)),
+                expected != null ? String.valueOf(expected) : "",
+                String.valueOf(quantity));
+        return result == 1L;
+    }
+
+    public int getStockShards() {
+        return stockShards;
+    }
+
+    private long issueFromSiblingShard(Long policyId, Long userId, int homeShard, long expireAtMillis) {
+        for (int offset = 1; offset < stockShards; offset++) {
+            int shard = (homeShard + offset) % stockShards;
+            Long remaining = eval(DECREMENT_SCRIPT, List.of(quantityKey(policyId, shard)));
+            if (remaining < 0) {
+                continue;
+            }
+
+            Long claimed = eval(
+                    CLAIM_USER_SCRIPT,
+                    List.of(issuedUsersKey(policyId, homeShard)),
+                    String.valueOf(userId),
+                    String.valueOf(expireAtMillis));
+            if (claimed == 0) {
+                redissonClient.getAtomicLong(quantityKey(policyId, shard)).incrementAndGet();
+                throw new CouponIssueException("이미 발급받은 쿠폰입니다.");
+            }
+            return remaining;
+        }
+        throw new CouponSoldOutException("쿠폰이 모두 소진되었습니다.");
+    }
+
+    private Mono<Long> issueFromSiblingShardReactive(Long policyId, Long userId, int homeShard, long expireAtMillis) {
+        return Flux.range(1, Math.max(stockShards - 1, 0))
+                .map(offset -> (homeShard + offset) % stockShards)
+                .concatMap(shard -> evalReactive(DECREMENT_SCRIPT, List.of(quantityKey(policyId, shard)))
+                        .filter(remaining -> remaining >= 0)
+                        .map(remaining -> new long[]{shard, remaining}))
+                .next()
+                .switchIfEmpty(Mono.error(() -> new CouponSoldOutException("쿠폰이 모두 소진되었습니다.")))
+                .flatMap(decremented -> evalReactive(
+                        CLAIM_USER_SCRIPT,
+                        List.of(issuedUsersKey(policyId, homeShard)),
+                        String.valueOf(userId),
+                        String.valueOf(expireAtMillis))
+                        .flatMap(claimed -> {
+                            if (claimed == 0) {
+                                return redissonClient.reactive()
+                                        .getAtomicLong(quantityKey(policyId, (int) decremented[0]))
+                                        .incrementAndGet()
+                                        .then(Mono.error(new CouponIssueException("이미 발급받은 쿠폰입니다.")));
+                            }
+                            return Mono.just(decremented[1]);
+                        }));
+    }
+
+    private Mono<Long> evalReactive(String script, List<Object> keys, Object... values) {
+        RedissonReactiveClient reactiveClient = redissonClient.reactive();
+        return reactiveClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                script,
+                RScript.ReturnType.INTEGER,
+                keys,
+                values);
+    }
+
+    private Long eval(String script, List<Object> keys, Object... values) {
+        return redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                script,
+                RScript.ReturnType.INTEGER,
+                keys,
+                values);
+    }
+
+    private int homeShard(Long userId) {
+        return stockShards <= 1 ? 0 : Math.floorMod(Long.hashCode(userId), stockShards);
+    }
+
+    private String quantityKey(Long policyId, int shard) {
+        return stockShards <= 1 ? CouponStockKeys.quantity(policyId) : CouponStockKeys.quantity(policyId, shard);
+    }
+
+    private String issuedUsersKey(Long policyId, int shard) {
+        return stockShards <= 1 ? CouponStockKeys.issuedUsers(policyId) : CouponStockKeys.issuedUsers(policyId, shard);
+    }
+
+    private long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
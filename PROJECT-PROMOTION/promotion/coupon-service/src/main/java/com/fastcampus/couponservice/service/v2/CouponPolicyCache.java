@@ -0,0 +1,93 @@
+package com.fastcampus.couponservice.service.v2;
+
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Redis 에 저장된 쿠폰 정책을 파싱한 결과를 인스턴스 메모리에 보관하는 near cache
+ * 정책이 생성되거나 종료 시각이 바뀌면 Redis pub/sub 으로 모든 인스턴스의 캐시를 무효화한다.
+ */
+@Slf4j
+@Component
+public class CouponPolicyCache {
+    private static final String INVALIDATION_TOPIC = "coupon:policy:invalidation";
+
+    private final RedissonClient redissonClient;
+    private final Cache<Long, CouponPolicy> cache;
+    private int listenerId = -1;
+
+    public CouponPolicyCache(RedissonClient redissonClient,
+                             MeterRegistry meterRegistry,
+                             @Value("${coupon.policy.cache.max-size:1000}") long maxSize,
+                             @Value("${coupon.policy.cache.ttl:30s}") Duration ttl) {
+        this.redissonClient = redissonClient;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "coupon.policy");
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerId = invalidationTopic().addListener(String.class, (channel, policyId) -> {
+            log.debug("Invalidate cached coupon policy: policyId={}", policyId);
+            cache.invalidate(Long.valueOf(policyId));
+        });
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (listenerId != -1) {
+            invalidationTopic().removeListener(listenerId);
+        }
+    }
+
+    /**
+     * 캐시된 정책을 반환하고, 없으면 loader 로 읽어와 캐시에 저장
+     * @param policyId 쿠폰 정책 ID
+     * @param loader 캐시 미스 시 정책을 읽어오는 함수
+     */
+    public CouponPolicy get(Long policyId, Function<Long, CouponPolicy> loader) {
+        return cache.get(policyId, loader);
+    }
+
+    /**
+     * 캐시된 정책 (없으면 null)
+     */
+    public CouponPolicy getIfPresent(Long policyId) {
+        return cache.getIfPresent(policyId);
+    }
+
+    public void put(Long policyId, CouponPolicy couponPolicy) {
+        cache.put(policyId, couponPolicy);
+    }
+
+    /**
+     * 이 인스턴스의 캐시를 비우고 다른 인스턴스에도 무효화를 전파
+     * @param policyId 쿠폰 정책 ID
+     */
+    public void invalidate(Long policyId) {
+        cache.invalidate(policyId);
+        invalidationTopic().publish(String.valueOf(policyId));
+    }
+
+    private RTopic invalidationTopic() {
+        return redissonClient.getTopic(INVALIDATION_TOPIC, StringCodec.INSTANCE);
+    }
+}
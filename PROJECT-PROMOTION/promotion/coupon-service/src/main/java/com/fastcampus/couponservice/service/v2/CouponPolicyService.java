@@ -8,12 +8,12 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RAtomicLong;
 import org.redisson.api.RBucket;
 import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service("couponPolicyServiceV2")
@@ -24,8 +24,9 @@ public class CouponPolicyService {
     private final CouponPolicyRepository couponPolicyRepository;
     private final RedissonClient redissonClient;
     private final ObjectMapper objectMapper;
+    private final CouponStockService couponStockService;
+    private final CouponPolicyCache couponPolicyCache;
 
-    private static final String COUPON_QUANTITY_KEY = "coupon:quantity:";
     private static final String COUPON_POLICY_KEY = "coupon:policy:";
 
     @Transactional
@@ -35,20 +36,48 @@ public class CouponPolicyService {
         CouponPolicy savedPolicy = couponPolicyRepository.save(couponPolicy);
 
         // Redis에 초기 수량 설정
-        String quantityKey = COUPON_QUANTITY_KEY + savedPolicy.getId();
-        RAtomicLong atomicQuantity = redissonClient.getAtomicLong(quantityKey);
-        atomicQuantity.set(savedPolicy.getTotalQuantity());
+        couponStockService.initialize(savedPolicy.getId(), savedPolicy.getTotalQuantity());
 
         // Redis에 정책 정보 저장
-        String policyKey = COUPON_POLICY_KEY + savedPolicy.getId();
-        String policyJson = objectMapper.writeValueAsString(CouponPolicyDto.Response.from(savedPolicy));
-        RBucket<String> bucket = redissonClient.getBucket(policyKey);
-        bucket.set(policyJson);
+        savePolicyToRedis(savedPolicy);
+
+        return savedPolicy;
+    }
+
+    /**
+     * 쿠폰 정책의 종료 시각 변경 (발급 기간 연장/조기 종료)
+     */
+    @Transactional
+    public CouponPolicy updateEndTime(Long id, LocalDateTime endTime) throws JsonProcessingException {
+        CouponPolicy couponPolicy = couponPolicyRepository.findById(id)
+                .orElseThrow(() -> new CouponPolicyNotFoundException("쿠폰 정책을 찾을 수 없습니다."));
+        if (!endTime.isAfter(couponPolicy.getStartTime())) {
+            throw new IllegalArgumentException("종료 시간은 시작 시간 이후여야 합니다.");
+        }
+
+        couponPolicy.setEndTime(endTime);
+        CouponPolicy savedPolicy = couponPolicyRepository.saveAndFlush(couponPolicy);
+        savePolicyToRedis(savedPolicy);
 
         return savedPolicy;
     }
 
+    /**
+     * 발급 경로에서 호출되므로 near cache 에서 먼저 조회하고, 미스일 때만 Redis/DB 에서 읽는다.
+     */
     public CouponPolicy getCouponPolicy(Long id) {
+        return couponPolicyCache.get(id, this::loadCouponPolicy);
+    }
+
+    private void savePolicyToRedis(CouponPolicy couponPolicy) throws JsonProcessingException {
+        String policyKey = COUPON_POLICY_KEY + couponPolicy.getId();
+        String policyJson = objectMapper.writeValueAsString(CouponPolicyDto.Response.from(couponPolicy));
+        RBucket<String> bucket = redissonClient.getBucket(policyKey);
+        bucket.set(policyJson);
+        couponPolicyCache.invalidate(couponPolicy.getId());
+    }
+
+    private CouponPolicy loadCouponPolicy(Long id) {
         String policyKey = COUPON_POLICY_KEY + id;
         RBucket<String> bucket = redissonClient.getBucket(policyKey);
         String policyJson = bucket.get();
@@ -64,6 +93,10 @@ public class CouponPolicyService {
                 .orElseThrow(() -> new CouponPolicyNotFoundException("쿠폰 정책을 찾을 수 없습니다."));
     }
 
+    public long getRemainingQuantity(Long id) {
+        return couponStockService.getRemainingQuantity(id);
+    }
+
     @Transactional(readOnly = true)
     public List<CouponPolicy> getAllCouponPolicies() {
         return couponPolicyRepository.findAll();
@@ -1,5 +1,6 @@
 package com.fastcampus.couponservice.service.v2;
 
+import com.fastcampus.couponservice.aop.CouponIssueMetrics;
 import com.fastcampus.couponservice.aop.CouponMetered;
 import com.fastcampus.couponservice.config.UserIdInterceptor;
 import com.fastcampus.couponservice.domain.Coupon;
@@ -7,13 +8,18 @@ import com.fastcampus.couponservice.domain.CouponPolicy;
 import com.fastcampus.couponservice.dto.v1.CouponDto;
 import com.fastcampus.couponservice.dto.v1.CouponPolicyDto;
 import com.fastcampus.couponservice.exception.CouponIssueException;
+import com.fastcampus.couponservice.exception.CouponSoldOutException;
 import com.fastcampus.couponservice.repository.CouponPolicyRepository;
 import com.fastcampus.couponservice.repository.CouponRepository;
+import com.fastcampus.couponservice.service.TransactionCallbacks;
+import com.fastcampus.couponservice.service.code.CouponCodeFilter;
+import com.fastcampus.couponservice.service.code.CouponCodeGenerator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RAtomicLong;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,24 +34,62 @@ public class CouponRedisService {
     private final RedissonClient redissonClient;
     private final CouponRepository couponRepository;
     private final CouponPolicyService couponPolicyService;
+    private final CouponStockService couponStockService;
+    private final CouponIssueMetrics couponIssueMetrics;
+    private final CouponCodeGenerator couponCodeGenerator;
+    private final CouponCodeFilter couponCodeFilter;
     
-    private static final String COUPON_QUANTITY_KEY = "coupon:quantity:";
+    private static final String VERSION = "v2";
     private static final String COUPON_LOCK_KEY = "coupon:lock:";
     private static final long LOCK_WAIT_TIME = 3;
     private static final long LOCK_LEASE_TIME = 5;
+
+    @Value("${coupon.issue.mode:SCRIPT}")
+    private CouponIssueMode issueMode = CouponIssueMode.SCRIPT;
     
     @Transactional
-    @CouponMetered(version = "v2")
+    @CouponMetered(version = VERSION)
     public Coupon issueCoupon(CouponDto.IssueRequest request) {
-        String quantityKey = COUPON_QUANTITY_KEY + request.getCouponPolicyId();
+        if (issueMode == CouponIssueMode.LOCK) {
+            return issueCouponWithLock(request);
+        }
+        return issueCouponWithoutLock(request);
+    }
+
+    /**
+     * 분산 락 없이 수량을 차감 (SCRIPT: Lua 스크립트, LEASE: 인스턴스 임대 수량)
+     * 트랜잭션이 롤백되면(저장, 커밋 실패 포함) 차감한 수량과 발급 사용자 기록을 복구한다.
+     */
+    private Coupon issueCouponWithoutLock(CouponDto.IssueRequest request) {
+        CouponPolicy couponPolicy = couponPolicyService.getCouponPolicy(request.getCouponPolicyId());
+        Long userId = UserIdInterceptor.getCurrentUserId();
+
+        couponStockService.reserve(VERSION, couponPolicy, userId);
+        TransactionCallbacks.afterRollback(() -> couponStockService.release(couponPolicy, userId));
+
+        return saveCoupon(Coupon.builder()
+                .couponPolicy(couponPolicy)
+                .userId(userId)
+                .couponCode(couponCodeGenerator.generate())
+                .build());
+    }
+
+    private Coupon issueCouponWithLock(CouponDto.IssueRequest request) {
+        couponStockService.checkSoldOut(request.getCouponPolicyId());
+
+        String quantityKey = CouponStockKeys.quantity(request.getCouponPolicyId());
         String lockKey = COUPON_LOCK_KEY + request.getCouponPolicyId();
         RLock lock = redissonClient.getLock(lockKey);
+        long startTime = System.nanoTime();
+        long lockedAt = 0L;
         
         try {
             boolean isLocked = lock.tryLock(LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
+            couponIssueMetrics.recordLockWait(VERSION, isLocked, System.nanoTime() - startTime);
             if (!isLocked) {
                 throw new CouponIssueException("쿠폰 발급 요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요.");
             }
+            lockedAt = System.nanoTime();
 
             CouponPolicy couponPolicy = couponPolicyService.getCouponPolicy(request.getCouponPolicyId());
             
@@ -55,19 +99,29 @@ public class CouponRedisService {
             }
             
             // 수량 체크 및 감소
+            long redisStartTime = System.nanoTime();
             RAtomicLong atomicQuantity = redissonClient.getAtomicLong(quantityKey);
             long remainingQuantity = atomicQuantity.decrementAndGet();
+            couponIssueMetrics.recordPhase(VERSION, CouponIssueMetrics.Phase.REDIS, System.nanoTime() - redisStartTime);
             
+            if (remainingQuantity <= 0) {
+                couponStockService.markSoldOut(request.getCouponPolicyId());
+            }
             if (remainingQuantity < 0) {
                 atomicQuantity.incrementAndGet();
-                throw new CouponIssueException("쿠폰이 모두 소진되었습니다.");
+                throw new CouponSoldOutException("쿠폰이 모두 소진되었습니다.");
             }
+            TransactionCallbacks.afterRollback(() -> {
+                atomicQuantity.incrementAndGet();
+                couponStockService.clearSoldOut(request.getCouponPolicyId());
+            });
+            couponIssueMetrics.recordStockDuration(VERSION, CouponIssueMode.LOCK, System.nanoTime() - startTime);
             
             // 쿠폰 발급
-            return couponRepository.save(Coupon.builder()
+            return saveCoupon(Coupon.builder()
                     .couponPolicy(couponPolicy)
                     .userId(UserIdInterceptor.getCurrentUserId())
-                    .couponCode(generateCouponCode())
+                    .couponCode(couponCodeGenerator.generate())
                     .build());
             
         } catch (InterruptedException e) {
@@ -76,11 +130,23 @@ public class CouponRedisService {
         } finally {
             if (lock.isHeldByCurrentThread()) {
                 lock.unlock();
+                couponIssueMetrics.recordPhase(VERSION, CouponIssueMetrics.Phase.LOCK_HOLD, System.nanoTime() - lockedAt);
             }
         }
     }
     
-    private String generateCouponCode() {
-        return java.util.UUID.randomUUID().toString().substring(0, 8);
+    /**
+     * 시퀀스 ID 는 INSERT 를 커밋까지 미루므로 바로 flush 해 유니크 제약 위반 등을 요청 안에서 확인
+     */
+    private Coupon saveCoupon(Coupon coupon) {
+        long startTime = System.nanoTime();
+        Coupon savedCoupon;
+        try {
+            savedCoupon = couponRepository.saveAndFlush(coupon);
+        } finally {
+            couponIssueMetrics.recordPhase(VERSION, CouponIssueMetrics.Phase.DB_WRITE, System.nanoTime() - startTime);
+        }
+        TransactionCallbacks.afterCommit(() -> couponCodeFilter.add(savedCoupon.getCouponCode()));
+        return savedCoupon;
     }
 }
@@ -1,9 +1,12 @@
 package com.fastcampus.couponservice.service.v2;
 
+import com.fastcampus.couponservice.config.UserIdInterceptor;
 import com.fastcampus.couponservice.domain.Coupon;
 import com.fastcampus.couponservice.dto.v1.CouponDto;
 import com.fastcampus.couponservice.exception.CouponNotFoundException;
 import com.fastcampus.couponservice.repository.CouponRepository;
+import com.fastcampus.couponservice.service.TransactionCallbacks;
+import com.fastcampus.couponservice.service.v3.CouponWalletService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -15,33 +18,33 @@ public class CouponService {
     private final CouponRepository couponRepository;
     private final CouponRedisService couponRedisService;
     private final CouponStateService couponStateService;
+    private final CouponUsageService couponUsageService;
+    private final CouponWalletService couponWalletService;
     
     @Transactional
     public CouponDto.Response issueCoupon(CouponDto.IssueRequest request) {
         Coupon coupon = couponRedisService.issueCoupon(request);
         couponStateService.updateCouponState(couponRepository.findById(coupon.getId())
                 .orElseThrow(() -> new CouponNotFoundException("쿠폰을 찾을 수 없습니다.")));
+        // 쿠폰함(v3 read model)은 커밋된 경우에만 갱신
+        TransactionCallbacks.afterCommit(() -> couponWalletService.addCoupon(coupon));
         return CouponDto.Response.from(coupon);
     }
     
     @Transactional
     public CouponDto.Response useCoupon(Long couponId, Long orderId) {
-        Coupon coupon = couponRepository.findByIdWithLock(couponId)
-                .orElseThrow(() -> new CouponNotFoundException("쿠폰을 찾을 수 없습니다."));
-        
-        coupon.use(orderId);
+        Coupon coupon = couponUsageService.use(couponId, UserIdInterceptor.getCurrentUserId(), orderId);
         couponStateService.updateCouponState(coupon);
+        TransactionCallbacks.afterCommit(() -> couponWalletService.removeCoupon(coupon));
         
         return CouponDto.Response.from(coupon);
     }
     
     @Transactional
     public CouponDto.Response cancelCoupon(Long couponId) {
-        Coupon coupon = couponRepository.findByIdWithLock(couponId)
-                .orElseThrow(() -> new CouponNotFoundException("쿠폰을 찾을 수 없습니다."));
-        
-        coupon.cancel();
+        Coupon coupon = couponUsageService.cancel(couponId, UserIdInterceptor.getCurrentUserId());
         couponStateService.updateCouponState(coupon);
+        TransactionCallbacks.afterCommit(() -> couponWalletService.addCoupon(coupon));
         
         return CouponDto.Response.from(coupon);
     }
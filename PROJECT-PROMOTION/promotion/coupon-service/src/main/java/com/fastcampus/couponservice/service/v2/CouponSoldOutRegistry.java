@@ -0,0 +1,105 @@
+package com.fastcampus.couponservice.service.v2;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 소진된 쿠폰 정책 목록을 인스턴스 메모리에 보관
+ * 한 인스턴스가 수량 소진을 확인하면 Redis pub/sub 으로 모든 인스턴스에 알리고,
+ * 이후 요청은 락이나 Redis 호출 없이 바로 거절한다.
+ * 새로 뜬 인스턴스는 Redis 의 소진 정책 집합을 읽어 현재 상태를 맞춘다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponSoldOutRegistry {
+    private static final String SOLD_OUT_KEY = "coupon:sold-out";
+    private static final String SOLD_OUT_TOPIC = "coupon:sold-out:events";
+    private static final String SOLD_OUT = "SOLD_OUT:";
+    private static final String AVAILABLE = "AVAILABLE:";
+
+    private final RedissonClient redissonClient;
+    private final Set<Long> soldOutPolicies = ConcurrentHashMap.newKeySet();
+    private int listenerId = -1;
+
+    @PostConstruct
+    public void sync() {
+        // 구독을 먼저 시작한 뒤 현재 상태를 읽어야 그 사이에 발행된 이벤트를 놓치지 않는다
+        listenerId = topic().addListener(String.class, (channel, message) -> apply(message));
+        redissonClient.<String>getSet(SOLD_OUT_KEY, StringCodec.INSTANCE).readAll()
+                .forEach(policyId -> soldOutPolicies.add(Long.valueOf(policyId)));
+        log.info("Synced sold-out coupon policies: {}", soldOutPolicies);
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (listenerId != -1) {
+            topic().removeListener(listenerId);
+        }
+    }
+
+    public boolean isSoldOut(Long policyId) {
+        return soldOutPolicies.contains(policyId);
+    }
+
+    /**
+     * 정책을 소진 상태로 표시하고 다른 인스턴스에 전파 (이미 표시된 경우 무시)
+     * 전파는 비동기로 실행하므로 Redisson netty 스레드(v4 reactive 콜백)에서도 호출할 수 있다.
+     * 전파에 실패하면 로컬 표시도 지워 다음 소진 확인 때 다시 전파한다.
+     * @param policyId 쿠폰 정책 ID
+     */
+    public void markSoldOut(Long policyId) {
+        if (!soldOutPolicies.add(policyId)) {
+            return;
+        }
+        RBatch batch = redissonClient.createBatch();
+        batch.getSet(SOLD_OUT_KEY, StringCodec.INSTANCE).addAsync(String.valueOf(policyId));
+        batch.getTopic(SOLD_OUT_TOPIC, StringCodec.INSTANCE).publishAsync(SOLD_OUT + policyId);
+        batch.executeAsync().whenComplete((result, e) -> {
+            if (e != null) {
+                soldOutPolicies.remove(policyId);
+                log.error("Failed to broadcast sold-out coupon policy: policyId={}", policyId, e);
+                return;
+            }
+            log.info("Coupon policy sold out: policyId={}", policyId);
+        });
+    }
+
+    /**
+     * 수량이 복구된 정책의 소진 표시를 해제하고 다른 인스턴스에 전파
+     * @param policyId 쿠폰 정책 ID
+     */
+    public void clearSoldOut(Long policyId) {
+        soldOutPolicies.remove(policyId);
+        RBatch batch = redissonClient.createBatch();
+        batch.getSet(SOLD_OUT_KEY, StringCodec.INSTANCE).removeAsync(String.valueOf(policyId));
+        batch.getTopic(SOLD_OUT_TOPIC, StringCodec.INSTANCE).publishAsync(AVAILABLE + policyId);
+        batch.executeAsync().whenComplete((result, e) -> {
+            if (e != null) {
+                log.error("Failed to broadcast available coupon policy: policyId={}", policyId, e);
+            }
+        });
+    }
+
+    private void apply(String message) {
+        if (message.startsWith(SOLD_OUT)) {
+            soldOutPolicies.add(Long.valueOf(message.substring(SOLD_OUT.length())));
+        } else if (message.startsWith(AVAILABLE)) {
+            soldOutPolicies.remove(Long.valueOf(message.substring(AVAILABLE.length())));
+        }
+    }
+
+    private RTopic topic() {
+        return redissonClient.getTopic(SOLD_OUT_TOPIC, StringCodec.INSTANCE);
+    }
+}
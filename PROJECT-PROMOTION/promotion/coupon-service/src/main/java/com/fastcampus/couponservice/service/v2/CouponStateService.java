@@ -1,23 +1,49 @@
 package com.fastcampus.couponservice.service.v2;
 
 import com.fastcampus.couponservice.domain.Coupon;
+import com.fastcampus.couponservice.domain.CouponPolicy;
 import com.fastcampus.couponservice.dto.v1.CouponDto;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RBucket;
+import org.redisson.api.RBatch;
+import org.redisson.api.RMapAsync;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 쿠폰 상태 캐시
+ * 쿠폰마다 달라지는 값만 짧은 필드명의 Redis hash 로 저장하고, 할인 정보 등 정책 필드는 정책 ID 로 참조한다.
+ * 정책 종료 시각 이후에는 조회될 일이 드물므로 종료 시각 + STATE_RETENTION 에 만료된다.
+ * 이전 형식(쿠폰 전체 JSON 문자열, 만료 없음)으로 남아 있는 키는 조회 시 캐시 미스로 처리해 다시 저장되게 한다.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class CouponStateService {
     
     private final RedissonClient redissonClient;
-    private final ObjectMapper objectMapper;
+    private final CouponPolicyService couponPolicyService;
     
     private static final String COUPON_STATE_KEY = "coupon:state:";
+    private static final Duration STATE_RETENTION = Duration.ofDays(1);
+    private static final Duration MIN_STATE_TTL = Duration.ofHours(1);
+    private static final String WRONG_TYPE_ERROR = "WRONGTYPE";
+
+    static final String USER_ID = "u";
+    static final String POLICY_ID = "p";
+    static final String COUPON_CODE = "c";
+    static final String STATUS = "s";
+    static final String ORDER_ID = "o";
+    static final String USED_AT = "t";
     
     /**
      * 쿠폰 상태를 Redis에 저장
@@ -26,9 +52,12 @@ public class CouponStateService {
     public void updateCouponState(Coupon coupon) {
         try {
             String stateKey = COUPON_STATE_KEY + coupon.getId();
-            String couponJson = objectMapper.writeValueAsString(CouponDto.Response.from(coupon));
-            RBucket<String> bucket = redissonClient.getBucket(stateKey);
-            bucket.set(couponJson);
+            RBatch batch = redissonClient.createBatch();
+            RMapAsync<String, String> state = batch.getMap(stateKey, StringCodec.INSTANCE);
+            state.deleteAsync();
+            state.putAllAsync(encode(coupon));
+            state.expireAsync(expireAt(coupon.getCouponPolicy()));
+            batch.execute();
 
             log.info("Coupon state updated: {}", coupon.getId());
 
@@ -46,17 +75,76 @@ public class CouponStateService {
     public CouponDto.Response getCouponState(Long couponId) {
         try {
             String stateKey = COUPON_STATE_KEY + couponId;
-            RBucket<String> bucket = redissonClient.getBucket(stateKey);
-            String couponJson = bucket.get();
+            Map<String, String> state = readState(stateKey);
 
-            if (couponJson == null) {
+            if (state.isEmpty()) {
                 return null;
             }
 
-            return objectMapper.readValue(couponJson, CouponDto.Response.class);
+            CouponPolicy policy = couponPolicyService.getCouponPolicy(Long.valueOf(state.get(POLICY_ID)));
+            return decode(couponId, state, policy);
         } catch (Exception e) {
             log.error("Error getting coupon state: {}", e.getMessage(), e);
             throw new RuntimeException("쿠폰 상태 조회 중 오류가 발생했습니다.", e);
         }
     }
+
+    /**
+     * hash 가 아닌 이전 형식의 키는 빈 상태로 반환 (updateCouponState 가 키를 지우고 hash 로 다시 저장한다)
+     */
+    private Map<String, String> readState(String stateKey) {
+        try {
+            return redissonClient.<String, String>getMap(stateKey, StringCodec.INSTANCE).readAllMap();
+        } catch (RedisException e) {
+            if (e.getMessage() == null || !e.getMessage().startsWith(WRONG_TYPE_ERROR)) {
+                throw e;
+            }
+            log.info("Legacy coupon state found, treating as cache miss: {}", stateKey);
+            return Map.of();
+        }
+    }
+
+    static Map<String, String> encode(Coupon coupon) {
+        Map<String, String> state = new HashMap<>();
+        state.put(USER_ID, String.valueOf(coupon.getUserId()));
+        state.put(POLICY_ID, String.valueOf(coupon.getCouponPolicy().getId()));
+        state.put(COUPON_CODE, coupon.getCouponCode());
+        state.put(STATUS, coupon.getStatus().name());
+        if (coupon.getOrderId() != null) {
+            state.put(ORDER_ID, String.valueOf(coupon.getOrderId()));
+        }
+        if (coupon.getUsedAt() != null) {
+            state.put(USED_AT, String.valueOf(toEpochSecond(coupon.getUsedAt())));
+        }
+        return state;
+    }
+
+    static CouponDto.Response decode(Long couponId, Map<String, String> state, CouponPolicy policy) {
+        String orderId = state.get(ORDER_ID);
+        String usedAt = state.get(USED_AT);
+        return CouponDto.Response.builder()
+                .id(couponId)
+                .userId(Long.valueOf(state.get(USER_ID)))
+                .couponCode(state.get(COUPON_CODE))
+                .discountType(policy.getDiscountType())
+                .discountValue(policy.getDiscountValue())
+                .minimumOrderAmount(policy.getMinimumOrderAmount())
+                .maximumDiscountAmount(policy.getMaximumDiscountAmount())
+                .validFrom(policy.getStartTime())
+                .validUntil(policy.getEndTime())
+                .status(Coupon.Status.valueOf(state.get(STATUS)))
+                .orderId(orderId == null ? null : Long.valueOf(orderId))
+                .usedAt(usedAt == null ? null : LocalDateTime.ofInstant(Instant.ofEpochSecond(Long.parseLong(usedAt)), ZoneId.systemDefault()))
+                .build();
+    }
+
+    private Instant expireAt(CouponPolicy policy) {
+        Instant retainUntil = policy.getEndTime().atZone(ZoneId.systemDefault()).toInstant().plus(STATE_RETENTION);
+        Instant minimum = Instant.now().plus(MIN_STATE_TTL);
+        return retainUntil.isAfter(minimum) ? retainUntil : minimum;
+    }
+
+    private static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
 }
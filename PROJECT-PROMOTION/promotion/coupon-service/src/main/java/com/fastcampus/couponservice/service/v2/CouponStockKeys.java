@@ -0,0 +1,37 @@
+package com.fastcampus.couponservice.service.v2;
+
+/**
+ * 쿠폰 수량 관련 Redis 키
+ * Lua 스크립트가 함께 사용하는 키는 Redis Cluster 에서 같은 슬롯에 배정되도록 해시 태그({...})를 사용한다.
+ * 샤딩된 수량은 샤드마다 해시 태그가 달라 여러 슬롯(노드)으로 분산된다.
+ */
+public final class CouponStockKeys {
+    private static final String COUPON_QUANTITY_KEY = "coupon:quantity:";
+    private static final String COUPON_ISSUED_USERS_KEY = "coupon:issued-users:";
+
+    private CouponStockKeys() {
+    }
+
+    public static String quantity(Long policyId) {
+        return COUPON_QUANTITY_KEY + "{" + policyId + "}";
+    }
+
+    public static String quantity(Long policyId, int shard) {
+        return COUPON_QUANTITY_KEY + "{" + policyId + ":" + shard + "}";
+    }
+
+    public static String issuedUsers(Long policyId) {
+        return COUPON_ISSUED_USERS_KEY + "{" + policyId + "}";
+    }
+
+    public static String issuedUsers(Long policyId, int shard) {
+        return COUPON_ISSUED_USERS_KEY + "{" + policyId + ":" + shard + "}";
+    }
+
+    /**
+     * DB 의 기존 발급 사용자를 사용자 집합에 채웠다는 표시 (CouponIssuedUsersSeeder)
+     */
+    public static String issuedUsersSeeded(Long policyId) {
+        return COUPON_ISSUED_USERS_KEY + "{" + policyId + "}:seeded";
+    }
+}
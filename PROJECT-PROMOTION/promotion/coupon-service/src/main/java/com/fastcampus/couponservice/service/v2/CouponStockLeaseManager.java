@@ -0,0 +1,257 @@
+package com.fastcampus.couponservice.service.v2;
+
+import com.fastcampus.couponservice.aop.CouponIssueMetrics;
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.exception.CouponSoldOutException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 인스턴스별 쿠폰 수량 임대 관리
+ * Redis의 쿠폰 수량 키에서 일정 단위(leaseSize)씩 수량을 미리 차감해 로컬에 보관하고,
+ * 발급 요청은 로컬 수량에서 처리한다. 임대받은 수량만 발급하므로 전체 발급 수량은 총 수량을 넘지 않는다.
+ * - 잔여 임대 수량이 refillThreshold 이하가 되면 비동기로 추가 임대
+ * - 발급 기간이 끝났거나 애플리케이션이 종료되면 사용하지 않은 수량을 Redis로 반환
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponStockLeaseManager {
+    private static final long DEPLETED_RECHECK_MILLIS = 1000L;
+    private static final long EXPIRED_LEASE_SWEEP_SECONDS = 10L;
+
+    /**
+     * KEYS[1]: 잔여 수량, ARGV[1]: 임대 요청 수량
+     * 반환값: 실제로 임대한 수량 (잔여 수량이 없으면 0)
+     */
+    private static final String LEASE_SCRIPT = """
+            local remaining = tonumber(redis.call('GET', KEYS[1]) or '0')
+            if remaining <= 0 then
+                return 0
+            end
+            local leased = math.min(remaining, tonumber(ARGV[1]))
+            redis.call('DECRBY', KEYS[1], leased)
+            return leased
+            """;
+
+    private final RedissonClient redissonClient;
+    private final CouponIssueMetrics couponIssueMetrics;
+    private final CouponSoldOutRegistry couponSoldOutRegistry;
+
+    @Value("${coupon.issue.lease.size:50}")
+    private long leaseSize = 50;
+
+    @Value("${coupon.issue.lease.refill-threshold:10}")
+    private long refillThreshold = 10;
+
+    private final Map<Long, StockLease> leases = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService leaseExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "coupon-stock-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void startExpiredLeaseSweeper() {
+        leaseExecutor.scheduleWithFixedDelay(this::returnExpiredLeases,
+                EXPIRED_LEASE_SWEEP_SECONDS, EXPIRED_LEASE_SWEEP_SECONDS, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 로컬 임대 수량에서 쿠폰 1장을 차감
+     * @param couponPolicy 발급할 쿠폰 정책
+     */
+    public void acquire(CouponPolicy couponPolicy) {
+        if (!couponPolicy.isValidPeriod()) {
+            throw new IllegalStateException("쿠폰 발급 기간이 아닙니다.");
+        }
+
+        StockLease lease = leases.computeIfAbsent(couponPolicy.getId(),
+                policyId -> new StockLease(policyId, couponPolicy.getEndTime()));
+
+        while (true) {
+            long available = lease.available.get();
+            if (available > 0) {
+                if (lease.available.compareAndSet(available, available - 1)) {
+                    couponIssueMetrics.recordLeaseServed(lease.policyId);
+                    if (available - 1 <= refillThreshold) {
+                        refillAsync(lease);
+                    }
+                    return;
+                }
+                continue;
+            }
+
+            if (!refill(lease)) {
+                throw new CouponSoldOutException("쿠폰이 모두 소진되었습니다.");
+            }
+        }
+    }
+
+    /**
+     * 발급 처리 실패 시 차감한 수량을 로컬 임대 수량으로 되돌림
+     * @param policyId 쿠폰 정책 ID
+     */
+    public void release(Long policyId) {
+        StockLease lease = leases.get(policyId);
+        if (lease != null) {
+            lease.available.incrementAndGet();
+            return;
+        }
+        redissonClient.getAtomicLong(CouponStockKeys.quantity(policyId)).incrementAndGet();
+    }
+
+    /**
+     * 로컬에 남아 있는 임대 수량
+     */
+    public long getAvailable(Long policyId) {
+        StockLease lease = leases.get(policyId);
+        return lease != null ? lease.available.get() : 0L;
+    }
+
+    @PreDestroy
+    public void returnAllLeases() {
+        leaseExecutor.shutdownNow();
+        leases.values().forEach(this::removeLease);
+    }
+
+    void returnExpiredLeases() {
+        LocalDateTime now = LocalDateTime.now();
+        leases.values().stream()
+                .filter(lease -> now.isAfter(lease.endTime))
+                .forEach(this::removeLease);
+    }
+
+    /**
+     * 임대를 맵에서 제거하고 남은 수량을 반환
+     * 추가 임대와 같은 락 안에서 제거해, 제거 이후에 임대받은 수량이 빠진 임대에 쌓이지 않게 한다.
+     */
+    private void removeLease(StockLease lease) {
+        lease.refillLock.lock();
+        try {
+            if (leases.remove(lease.policyId, lease)) {
+                returnLease(lease);
+            }
+        } finally {
+            lease.refillLock.unlock();
+        }
+    }
+
+    private void returnLease(StockLease lease) {
+        if (lease == null) {
+            return;
+        }
+        long unused = lease.available.getAndSet(0);
+        if (unused <= 0) {
+            return;
+        }
+        try {
+            redissonClient.getAtomicLong(CouponStockKeys.quantity(lease.policyId)).addAndGet(unused);
+            couponIssueMetrics.recordLeaseReturned(lease.policyId, unused);
+            // 발급 기간 중에 반환된 수량은 다른 인스턴스가 다시 임대할 수 있어야 한다
+            if (!LocalDateTime.now().isAfter(lease.endTime)) {
+                couponSoldOutRegistry.clearSoldOut(lease.policyId);
+            }
+            log.info("Returned coupon stock lease: policyId={}, quantity={}", lease.policyId, unused);
+        } catch (Exception e) {
+            log.error("Failed to return coupon stock lease: policyId={}, quantity={}", lease.policyId, unused, e);
+        }
+    }
+
+    private void refillAsync(StockLease lease) {
+        if (!lease.refilling.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            leaseExecutor.execute(() -> {
+                try {
+                    if (lease.available.get() <= refillThreshold) {
+                        refill(lease);
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to refill coupon stock lease: policyId={}", lease.policyId, e);
+                } finally {
+                    lease.refilling.set(false);
+                }
+            });
+        } catch (Exception e) {
+            lease.refilling.set(false);
+            log.warn("Coupon stock lease refill rejected: policyId={}", lease.policyId, e);
+        }
+    }
+
+    /**
+     * Redis에서 수량을 임대받아 로컬 임대 수량에 추가
+     * @return 사용할 수 있는 로컬 수량이 있으면 true
+     */
+    private boolean refill(StockLease lease) {
+        lease.refillLock.lock();
+        try {
+            // 다른 스레드가 이미 충분히 채운 경우
+            if (lease.available.get() > Math.max(refillThreshold, 0)) {
+                return true;
+            }
+            if (System.currentTimeMillis() < lease.depletedUntil) {
+                return lease.available.get() > 0;
+            }
+
+            Long leased = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                    RScript.Mode.READ_WRITE,
+                    LEASE_SCRIPT,
+                    RScript.ReturnType.INTEGER,
+                    List.of(CouponStockKeys.quantity(lease.policyId)),
+                    String.valueOf(leaseSize));
+
+            if (leased == null || leased <= 0) {
+                // 다른 인스턴스가 반환할 수 있으므로 잠시 후 다시 확인
+                lease.depletedUntil = System.currentTimeMillis() + DEPLETED_RECHECK_MILLIS;
+                return lease.available.get() > 0;
+            }
+
+            // 임대받는 사이 만료/종료 정리로 맵에서 빠졌으면 아무도 반환하지 않으므로 바로 Redis 로 돌려준다
+            if (leases.get(lease.policyId) != lease) {
+                redissonClient.getAtomicLong(CouponStockKeys.quantity(lease.policyId)).addAndGet(leased);
+                log.info("Returned coupon stock leased after lease removal: policyId={}, quantity={}", lease.policyId, leased);
+                return lease.available.get() > 0;
+            }
+
+            lease.available.addAndGet(leased);
+            couponIssueMetrics.recordLeaseLeased(lease.policyId, leased);
+            return true;
+        } finally {
+            lease.refillLock.unlock();
+        }
+    }
+
+    private static class StockLease {
+        private final Long policyId;
+        private final LocalDateTime endTime;
+        private final AtomicLong available = new AtomicLong();
+        private final AtomicBoolean refilling = new AtomicBoolean();
+        private final ReentrantLock refillLock = new ReentrantLock();
+        private volatile long depletedUntil;
+
+        private StockLease(Long policyId, LocalDateTime endTime) {
+            this.policyId = policyId;
+            this.endTime = endTime;
+        }
+    }
+}
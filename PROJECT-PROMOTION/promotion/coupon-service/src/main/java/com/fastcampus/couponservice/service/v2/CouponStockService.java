@@ -0,0 +1,155 @@
+package com.fastcampus.couponservice.service.v2;
+
+import com.fastcampus.couponservice.aop.CouponIssueMetrics;
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.exception.CouponSoldOutException;
+import lombok.RequiredArgsConstructor;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 락을 사용하지 않는 쿠폰 수량 차감
+ * coupon.issue.mode 에 따라 Lua 스크립트(SCRIPT) 또는 인스턴스 임대 수량(LEASE)에서 차감한다.
+ * LOCK 모드는 호출하는 서비스에서 분산 락 경로로 처리한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class CouponStockService {
+    private final CouponIssueScript couponIssueScript;
+    private final CouponStockLeaseManager couponStockLeaseManager;
+    private final CouponIssueMetrics couponIssueMetrics;
+    private final CouponSoldOutRegistry couponSoldOutRegistry;
+
+    @Value("${coupon.issue.mode:SCRIPT}")
+    private CouponIssueMode issueMode = CouponIssueMode.SCRIPT;
+
+    @PostConstruct
+    public void validateStockShards() {
+        if (issueMode != CouponIssueMode.SCRIPT && couponIssueScript.getStockShards() > 1) {
+            throw new IllegalStateException("coupon.issue.stock-shards 는 SCRIPT 모드에서만 사용할 수 있습니다.");
+        }
+    }
+
+    /**
+     * 쿠폰 정책의 초기 수량을 Redis에 설정
+     * @param policyId 쿠폰 정책 ID
+     * @param totalQuantity 총 발급 수량
+     */
+    public void initialize(Long policyId, int totalQuantity) {
+        couponIssueScript.initialize(policyId, totalQuantity);
+    }
+
+    /**
+     * Redis에 남아 있는 수량 (샤딩 시 모든 샤드 합계, LEASE 모드의 인스턴스 임대분은 제외)
+     * @param policyId 쿠폰 정책 ID
+     */
+    public long getRemainingQuantity(Long policyId) {
+        return couponIssueScript.getRemainingQuantity(policyId);
+    }
+
+    /**
+     * 다른 인스턴스에서 소진을 확인한 정책이면 Redis를 호출하지 않고 바로 거절
+     * @param policyId 쿠폰 정책 ID
+     */
+    public void checkSoldOut(Long policyId) {
+        if (couponSoldOutRegistry.isSoldOut(policyId)) {
+            throw new CouponSoldOutException("쿠폰이 모두 소진되었습니다.");
+        }
+    }
+
+    public void markSoldOut(Long policyId) {
+        couponSoldOutRegistry.markSoldOut(policyId);
+    }
+
+    public void clearSoldOut(Long policyId) {
+        couponSoldOutRegistry.clearSoldOut(policyId);
+    }
+
+    /**
+     * 쿠폰 1장 수량 차감
+     * @param version 메트릭 태그로 사용할 API 버전
+     * @param couponPolicy 발급할 쿠폰 정책
+     * @param userId 발급받을 사용자 ID
+     */
+    public void reserve(String version, CouponPolicy couponPolicy, Long userId) {
+        Long policyId = couponPolicy.getId();
+        // LEASE 모드에서는 Redis 수량이 0이어도 로컬 임대분이 남아 있을 수 있다
+        if (issueMode != CouponIssueMode.LEASE || couponStockLeaseManager.getAvailable(policyId) == 0) {
+            checkSoldOut(policyId);
+        }
+
+        long startTime = System.nanoTime();
+        try {
+            if (issueMode == CouponIssueMode.LEASE) {
+                couponStockLeaseManager.acquire(couponPolicy);
+            } else {
+                long remaining;
+                try {
+                    remaining = couponIssueScript.issue(couponPolicy, userId);
+                } finally {
+                    couponIssueMetrics.recordPhase(version, CouponIssueMetrics.Phase.REDIS, System.nanoTime() - startTime);
+                }
+                // 샤딩 시에는 한 샤드가 0이어도 다른 샤드에 수량이 남아 있을 수 있다
+                if (remaining == 0 && couponIssueScript.getStockShards() <= 1) {
+                    markSoldOut(policyId);
+                }
+            }
+        } catch (CouponSoldOutException e) {
+            markSoldOut(policyId);
+            throw e;
+        } finally {
+            couponIssueMetrics.recordStockDuration(version, issueMode, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * 대량 발급 수량을 한 번에 차감
+     * LEASE 모드에서도 Redis 에 남은(임대되지 않은) 수량에서 차감한다.
+     * @param policyId 쿠폰 정책 ID
+     * @param quantity 발급할 수량
+     */
+    public void reserveBulk(Long policyId, long quantity) {
+        checkSoldOut(policyId);
+        couponIssueScript.reserveBulk(policyId, quantity);
+        if (couponIssueScript.getRemainingQuantity(policyId) == 0) {
+            markSoldOut(policyId);
+        }
+    }
+
+    /**
+     * 대량 발급에서 사용하지 않은 수량 반환
+     * @param policyId 쿠폰 정책 ID
+     * @param quantity 반환할 수량
+     */
+    public void releaseBulk(Long policyId, long quantity) {
+        if (quantity <= 0) {
+            return;
+        }
+        couponIssueScript.releaseBulk(policyId, quantity);
+        couponSoldOutRegistry.clearSoldOut(policyId);
+    }
+
+    /**
+     * 발급 처리 실패 시 차감한 수량 복구
+     * @param couponPolicy 쿠폰 정책
+     * @param userId 사용자 ID
+     */
+    public void release(CouponPolicy couponPolicy, Long userId) {
+        release(couponPolicy.getId(), userId);
+    }
+
+    /**
+     * 발급 처리 실패 시 차감한 수량 복구 (정책을 조회할 수 없는 비동기 발급 실패 처리용)
+     * @param policyId 쿠폰 정책 ID
+     * @param userId 사용자 ID
+     */
+    public void release(Long policyId, Long userId) {
+        if (issueMode == CouponIssueMode.LEASE) {
+            couponStockLeaseManager.release(policyId);
+        } else {
+            couponIssueScript.release(policyId, userId);
+        }
+        couponSoldOutRegistry.clearSoldOut(policyId);
+    }
+}
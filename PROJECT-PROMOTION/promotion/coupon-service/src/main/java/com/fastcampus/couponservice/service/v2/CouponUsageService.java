@@ -0,0 +1,69 @@
+package com.fastcampus.couponservice.service.v2;
+
+import com.fastcampus.couponservice.domain.Coupon;
+import com.fastcampus.couponservice.exception.CouponAlreadyUsedException;
+import com.fastcampus.couponservice.exception.CouponExpiredException;
+import com.fastcampus.couponservice.exception.CouponNotFoundException;
+import com.fastcampus.couponservice.repository.CouponRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+/**
+ * 쿠폰 사용/취소 상태 전이
+ * 조회 후 비관적 락을 잡는 대신 조건부 UPDATE 한 번으로 상태를 바꾸고(비교 후 교체),
+ * 변경된 행이 없을 때만 다시 조회해 실패 사유를 구분한다.
+ * 동시에 같은 쿠폰을 사용하면 UPDATE 하나만 성공하고 나머지는 이미 사용된 쿠폰으로 실패한다.
+ */
+@Service
+@RequiredArgsConstructor
+public class CouponUsageService {
+
+    private final CouponRepository couponRepository;
+
+    /**
+     * 사용자의 쿠폰을 사용 처리
+     * @return 사용 처리된 쿠폰
+     */
+    @Transactional
+    public Coupon use(Long couponId, Long userId, Long orderId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (couponRepository.markUsed(couponId, userId, orderId, now) == 0) {
+            throw useFailure(couponId, userId);
+        }
+        return getCoupon(couponId);
+    }
+
+    /**
+     * 사용자의 사용된 쿠폰을 취소 처리
+     * @return 취소 처리된 쿠폰
+     */
+    @Transactional
+    public Coupon cancel(Long couponId, Long userId) {
+        if (couponRepository.markCancelled(couponId, userId) == 0) {
+            getOwnedCoupon(couponId, userId);
+            throw new IllegalStateException("사용되지 않은 쿠폰은 취소할 수 없습니다.");
+        }
+        return getCoupon(couponId);
+    }
+
+    private RuntimeException useFailure(Long couponId, Long userId) {
+        Coupon coupon = getOwnedCoupon(couponId, userId);
+        if (coupon.isUsed()) {
+            return new CouponAlreadyUsedException("이미 사용된 쿠폰입니다.");
+        }
+        return new CouponExpiredException("만료된 쿠폰입니다.");
+    }
+
+    private Coupon getOwnedCoupon(Long couponId, Long userId) {
+        return couponRepository.findByIdAndUserId(couponId, userId)
+                .orElseThrow(() -> new CouponNotFoundException("쿠폰을 찾을 수 없습니다."));
+    }
+
+    private Coupon getCoupon(Long couponId) {
+        return couponRepository.findById(couponId)
+                .orElseThrow(() -> new CouponNotFoundException("쿠폰을 찾을 수 없습니다."));
+    }
+}
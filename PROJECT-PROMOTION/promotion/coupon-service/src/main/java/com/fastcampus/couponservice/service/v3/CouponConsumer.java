@@ -1,24 +1,138 @@
 package com.fastcampus.couponservice.service.v3;
 
+import com.fastcampus.couponservice.config.KafkaConfig;
+import com.fastcampus.couponservice.domain.Coupon;
 import com.fastcampus.couponservice.dto.v3.CouponDto;
+import com.fastcampus.couponservice.exception.CouponPolicyNotFoundException;
+import com.fastcampus.couponservice.service.v2.CouponStockService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class CouponConsumer {
     private final CouponService couponService;
+    private final CouponIssueTicketService couponIssueTicketService;
+    private final CouponIssueDeduplicator couponIssueDeduplicator;
+    private final CouponStockService couponStockService;
+    private final MeterRegistry meterRegistry;
+
+    // 파티션별 처리 건수 Counter (rate 로 파티션별 소진 속도 확인)
+    private final Map<Integer, Counter> drainedCounters = new ConcurrentHashMap<>();
+
+    @KafkaListener(topics = KafkaConfig.COUPON_ISSUE_TOPIC, groupId = KafkaConfig.GROUP_ID, containerFactory = "couponKafkaListenerContainerFactory")
+    public void consumeCouponIssueRequests(List<CouponDto.IssueMessage> messages,
+                                           @Header(KafkaHeaders.RECEIVED_PARTITION) List<Integer> partitions) {
+        log.info("Received {} coupon issue requests", messages.size());
+        recordDrained(partitions);
+        // 재전달/재전송된 요청은 쿠폰을 다시 만들지 않도록 먼저 걸러낸다
+        List<CouponDto.IssueMessage> uniqueMessages = couponIssueDeduplicator.filterDuplicates(messages);
+        if (uniqueMessages.isEmpty()) {
+            return;
+        }
+
+        List<CouponDto.IssueResult> results = new ArrayList<>(uniqueMessages.size());
+        try {
+            List<Coupon> coupons = couponService.issueCoupons(uniqueMessages);
+            for (int i = 0; i < uniqueMessages.size(); i++) {
+                results.add(CouponDto.IssueResult.issued(uniqueMessages.get(i), coupons.get(i).getId()));
+            }
+        } catch (Exception e) {
+            // 배치 트랜잭션이 롤백되면 메시지별로 다시 처리해 실패한 요청만 걸러낸다
+            log.error("Failed to process coupon issue batch, retrying one by one: {}", e.getMessage(), e);
+            results.clear();
+            for (CouponDto.IssueMessage message : uniqueMessages) {
+                try {
+                    results.add(consumeCouponIssueRequest(message));
+                } catch (RuntimeException retryable) {
+                    // 일시적인 DB 장애: 앞선 요청의 결과만 기록하고, 이 요청부터 오프셋을 되돌려 에러 핸들러가 재전달하게 한다
+                    saveResults(results);
+                    throw new BatchListenerFailedException("Retrying coupon issue request: requestId=" + message.getRequestId(),
+                            retryable, messages.indexOf(message));
+                }
+            }
+        }
+        saveResults(results);
+    }
+
+    private void saveResults(List<CouponDto.IssueResult> results) {
+        // 트랜잭션 커밋 이후에 기록해야 클라이언트가 조회했을 때 쿠폰이 존재하고, 롤백된 요청은 재전달 시 다시 처리된다
+        couponIssueDeduplicator.markProcessed(results.stream()
+                .filter(result -> result.getStatus() == CouponDto.IssueStatus.ISSUED)
+                .map(CouponDto.IssueResult::getRequestId)
+                .toList());
+        couponIssueTicketService.saveResults(results);
+    }
 
-    @KafkaListener(topics = "coupon-issue-requests", groupId = "coupon-service", containerFactory = "couponKafkaListenerContainerFactory")
-    public void consumeCouponIssueRequest(CouponDto.IssueMessage message) {
+    private void recordDrained(List<Integer> partitions) {
+        for (Integer partition : partitions) {
+            drainedCounters.computeIfAbsent(partition, this::drainedCounter).increment();
+        }
+    }
+
+    private Counter drainedCounter(Integer partition) {
+        return Counter.builder("coupon.issue.consumer.drained")
+                .tag("topic", KafkaConfig.COUPON_ISSUE_TOPIC)
+                .tag("partition", String.valueOf(partition))
+                .register(meterRegistry);
+    }
+
+    /**
+     * 요청 하나를 별도 트랜잭션으로 처리
+     * 다시 시도해도 발급될 수 없는 요청은 차감된 수량을 되돌리고 실패로 기록한다.
+     * @throws RuntimeException 재시도하면 처리될 수 있는 일시적인 DB 장애
+     */
+    private CouponDto.IssueResult consumeCouponIssueRequest(CouponDto.IssueMessage message) {
         try {
-            log.info("Received coupon issue request: {}", message);
-            couponService.issueCoupon(message);
+            return CouponDto.IssueResult.issued(message, couponService.issueCoupon(message).getId());
+        } catch (CouponPolicyNotFoundException e) {
+            log.warn("Coupon policy not found for issue request: requestId={}, policyId={}", message.getRequestId(), message.getPolicyId());
+            return fail(message, CouponDto.IssueFailureReason.POLICY_NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            log.warn("Rejected coupon issue request: requestId={}, reason={}", message.getRequestId(), e.getMessage());
+            return fail(message, CouponDto.IssueFailureReason.INVALID_REQUEST);
+        } catch (RuntimeException e) {
+            if (isRetryable(e)) {
+                log.warn("Transient failure on coupon issue request: requestId={}, reason={}", message.getRequestId(), e.getMessage());
+                throw e;
+            }
+            // 예외 메시지(SQL, 내부 상태 등)는 로그에만 남기고 클라이언트에는 사유 코드만 전달
+            log.error("Failed to process coupon issue request: requestId={}", message.getRequestId(), e);
+            return fail(message, CouponDto.IssueFailureReason.INTERNAL_ERROR);
+        }
+    }
+
+    private CouponDto.IssueResult fail(CouponDto.IssueMessage message, CouponDto.IssueFailureReason reason) {
+        // 요청 시점에 차감한 수량과 발급 사용자 기록을 되돌려 다른 사용자/재요청이 발급받을 수 있게 한다
+        try {
+            couponStockService.release(message.getPolicyId(), message.getUserId());
         } catch (Exception e) {
-            log.error("Failed to process coupon issue request: {}", e.getMessage(), e);
+            log.error("Failed to release coupon stock: requestId={}, policyId={}", message.getRequestId(), message.getPolicyId(), e);
         }
+        return CouponDto.IssueResult.failed(message, reason);
+    }
+
+    private static boolean isRetryable(Exception e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
     }
 }
@@ -0,0 +1,131 @@
+package com.fastcampus.couponservice.service.v3;
+
+import com.fastcampus.couponservice.config.UserIdInterceptor;
+import com.fastcampus.couponservice.dto.v3.CouponDto;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 결제 화면용 최대 할인 쿠폰 계산
+ * 쿠폰함 read model 에 함께 저장된 정책 정보(할인 방식, 최소 주문 금액, 최대 할인 금액, 유효 기간)로
+ * 사용자의 모든 사용 가능 쿠폰을 메모리에서 계산하므로 쿠폰 수와 관계없이 Redis 호출은 한 번이다.
+ */
+@Service
+@RequiredArgsConstructor
+public class CouponDiscountService {
+    private static final int MAX_BATCH_ORDERS = 50;
+    private static final Comparator<CouponDto.DiscountItem> RANKING = Comparator
+            .comparingLong(CouponDto.DiscountItem::getDiscountAmount).reversed()
+            .thenComparing(CouponDto.DiscountItem::getValidUntil, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(CouponDto.DiscountItem::getCouponId);
+
+    private final CouponWalletService couponWalletService;
+
+    /**
+     * 주문 금액에 적용 가능한 쿠폰을 할인 금액 순으로 반환
+     * @param orderAmount 주문 금액
+     */
+    public CouponDto.BestDiscountResponse getBestDiscount(long orderAmount) {
+        return getBestDiscounts(List.of(orderAmount)).get(0);
+    }
+
+    /**
+     * 장바구니의 여러 주문에 대한 할인 순위
+     * 쿠폰 한 장은 주문 하나에만 쓸 수 있으므로 할인 금액이 큰 (주문, 쿠폰) 조합부터 차례로 추천 쿠폰을 정한다.
+     * @param orderAmounts 주문 금액 목록
+     */
+    public List<CouponDto.BestDiscountResponse> getBestDiscounts(List<Long> orderAmounts) {
+        if (orderAmounts == null || orderAmounts.isEmpty() || orderAmounts.size() > MAX_BATCH_ORDERS) {
+            throw new IllegalArgumentException("주문 금액은 1개 이상 " + MAX_BATCH_ORDERS + "개 이하여야 합니다.");
+        }
+        if (orderAmounts.stream().anyMatch(orderAmount -> orderAmount == null || orderAmount < 0)) {
+            throw new IllegalArgumentException("주문 금액은 0 이상이어야 합니다.");
+        }
+
+        List<CouponDto.WalletItem> wallet = couponWalletService.getUsableCoupons(UserIdInterceptor.getCurrentUserId());
+        LocalDateTime now = LocalDateTime.now();
+
+        List<List<CouponDto.DiscountItem>> rankings = new ArrayList<>(orderAmounts.size());
+        for (Long orderAmount : orderAmounts) {
+            rankings.add(wallet.stream()
+                    .filter(item -> isApplicable(item, orderAmount, now))
+                    .map(item -> toDiscountItem(item, orderAmount))
+                    .sorted(RANKING)
+                    .toList());
+        }
+
+        Map<Integer, Long> recommended = recommend(rankings);
+        List<CouponDto.BestDiscountResponse> responses = new ArrayList<>(orderAmounts.size());
+        for (int i = 0; i < orderAmounts.size(); i++) {
+            responses.add(CouponDto.BestDiscountResponse.builder()
+                    .orderAmount(orderAmounts.get(i))
+                    .recommendedCouponId(recommended.get(i))
+                    .discounts(rankings.get(i))
+                    .build());
+        }
+        return responses;
+    }
+
+    private Map<Integer, Long> recommend(List<List<CouponDto.DiscountItem>> rankings) {
+        List<Candidate> candidates = new ArrayList<>();
+        for (int i = 0; i < rankings.size(); i++) {
+            for (CouponDto.DiscountItem item : rankings.get(i)) {
+                candidates.add(new Candidate(i, item));
+            }
+        }
+        candidates.sort(Comparator.comparing(Candidate::item, RANKING));
+
+        Map<Integer, Long> recommended = new HashMap<>();
+        Set<Long> usedCoupons = new HashSet<>();
+        for (Candidate candidate : candidates) {
+            if (candidate.item().getDiscountAmount() == 0
+                    || recommended.containsKey(candidate.orderIndex())
+                    || usedCoupons.contains(candidate.item().getCouponId())) {
+                continue;
+            }
+            recommended.put(candidate.orderIndex(), candidate.item().getCouponId());
+            usedCoupons.add(candidate.item().getCouponId());
+        }
+        return recommended;
+    }
+
+    private boolean isApplicable(CouponDto.WalletItem item, long orderAmount, LocalDateTime now) {
+        if (item.getValidFrom() != null && now.isBefore(item.getValidFrom())) {
+            return false;
+        }
+        if (item.getValidUntil() != null && now.isAfter(item.getValidUntil())) {
+            return false;
+        }
+        return orderAmount >= valueOf(item.getMinimumOrderAmount());
+    }
+
+    private CouponDto.DiscountItem toDiscountItem(CouponDto.WalletItem item, long orderAmount) {
+        long discountAmount = item.getDiscountType().calculateDiscount(
+                orderAmount, valueOf(item.getDiscountValue()), valueOf(item.getMaximumDiscountAmount()));
+        return CouponDto.DiscountItem.builder()
+                .couponId(item.getId())
+                .couponCode(item.getCouponCode())
+                .discountType(item.getDiscountType())
+                .discountValue(item.getDiscountValue())
+                .discountAmount(discountAmount)
+                .paymentAmount(orderAmount - discountAmount)
+                .validUntil(item.getValidUntil())
+                .build();
+    }
+
+    private static int valueOf(Integer value) {
+        return value == null ? 0 : value;
+    }
+
+    private record Candidate(int orderIndex, CouponDto.DiscountItem item) {
+    }
+}
@@ -0,0 +1,169 @@
+package com.fastcampus.couponservice.service.v3;
+
+import com.fastcampus.couponservice.config.KafkaConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.ListOffsetsResult;
+import org.apache.kafka.clients.admin.OffsetSpec;
+import org.apache.kafka.clients.admin.TopicDescription;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 수량은 차감했지만 아직 쿠폰으로 저장되지 않았을 수 있는 v3 발급 요청 수
+ * 발급 요청 토픽의 컨슈머 그룹 lag 와 모든 인스턴스 스풀에 남은 요청 수의 합이다.
+ * 정책별로 나누지 않은 토픽 전체 값이므로 수량 대사에서는 정책마다 보수적인 상한으로 사용한다.
+ * - 각 인스턴스는 스풀 ID 별로 전달 대기 건수를 Redis 에 report-interval 마다 기록한다. (report-ttl 동안 갱신이 없으면 만료)
+ * - 정상 종료 시 남은 요청이 있으면 만료 없이 기록해, 같은 스풀로 다시 기동해 전달할 때까지 다른 인스턴스가 수량을 늘리지 않게 한다.
+ * - 비정상 종료된 인스턴스의 기록은 report-ttl 뒤에 만료되므로 그보다 오래 내려가 있으면 그 스풀의 요청은 보이지 않는다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponIssueBacklog {
+    private static final String SPOOL_PENDING_KEY = "coupon:spool:pending";
+
+    private final KafkaAdmin kafkaAdmin;
+    private final CouponIssueSpool couponIssueSpool;
+    private final RedissonClient redissonClient;
+
+    @Value("${coupon.stock.reconcile.lag-timeout:5s}")
+    private Duration lagTimeout = Duration.ofSeconds(5);
+
+    @Value("${coupon.spool.report-interval:5s}")
+    private Duration reportInterval = Duration.ofSeconds(5);
+
+    @Value("${coupon.spool.report-ttl:10m}")
+    private Duration reportTtl = Duration.ofMinutes(10);
+
+    private final ScheduledExecutorService reportExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "coupon-spool-report");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private AdminClient adminClient;
+
+    @PostConstruct
+    public void init() {
+        adminClient = AdminClient.create(kafkaAdmin.getConfigurationProperties());
+        if (couponIssueSpool.isEnabled()) {
+            long intervalMillis = reportInterval.toMillis();
+            reportExecutor.scheduleWithFixedDelay(this::reportSpoolPending, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        reportExecutor.shutdownNow();
+        if (couponIssueSpool.isEnabled()) {
+            try {
+                long pending = couponIssueSpool.getPendingRecords();
+                if (pending > 0) {
+                    spoolPending().fastPut(couponIssueSpool.getSpoolId(), String.valueOf(pending));
+                } else {
+                    spoolPending().fastRemove(couponIssueSpool.getSpoolId());
+                }
+            } catch (Exception e) {
+                log.warn("Failed to report coupon issue spool backlog on shutdown: {}", e.getMessage());
+            }
+        }
+        if (adminClient != null) {
+            adminClient.close(lagTimeout);
+        }
+    }
+
+    void reportSpoolPending() {
+        try {
+            spoolPending().fastPut(couponIssueSpool.getSpoolId(), String.valueOf(couponIssueSpool.getPendingRecords()),
+                    reportTtl.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            log.warn("Failed to report coupon issue spool backlog: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return 처리 중인 요청 수, Kafka lag 나 다른 인스턴스의 스풀 대기 건수를 확인하지 못하면 empty
+     */
+    public OptionalLong getInFlight() {
+        try {
+            return OptionalLong.of(getConsumerLag() + getSpoolPending());
+        } catch (Exception e) {
+            log.warn("Failed to read coupon issue backlog: {}", e.getMessage());
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * 모든 인스턴스 스풀의 전달 대기 건수 (이 인스턴스는 기록된 값 대신 현재 값을 사용)
+     */
+    long getSpoolPending() {
+        String spoolId = couponIssueSpool.getSpoolId();
+        long pending = couponIssueSpool.getPendingRecords();
+        for (Map.Entry<String, String> entry : spoolPending().readAllMap().entrySet()) {
+            if (!entry.getKey().equals(spoolId)) {
+                pending += Long.parseLong(entry.getValue());
+            }
+        }
+        return pending;
+    }
+
+    private RMapCache<String, String> spoolPending() {
+        return redissonClient.getMapCache(SPOOL_PENDING_KEY, StringCodec.INSTANCE);
+    }
+
+    /**
+     * 파티션별 (마지막 오프셋 - 커밋된 오프셋) 합계
+     * 커밋된 오프셋이 없는 파티션은 처음부터 소비하므로 시작 오프셋을 기준으로 계산한다.
+     */
+    private long getConsumerLag() throws Exception {
+        long timeoutMillis = lagTimeout.toMillis();
+        TopicDescription topic = adminClient.describeTopics(List.of(KafkaConfig.COUPON_ISSUE_TOPIC))
+                .allTopicNames().get(timeoutMillis, TimeUnit.MILLISECONDS)
+                .get(KafkaConfig.COUPON_ISSUE_TOPIC);
+        Map<TopicPartition, OffsetAndMetadata> committed = adminClient.listConsumerGroupOffsets(KafkaConfig.GROUP_ID)
+                .partitionsToOffsetAndMetadata().get(timeoutMillis, TimeUnit.MILLISECONDS);
+
+        Map<TopicPartition, OffsetSpec> latestSpecs = new HashMap<>();
+        Map<TopicPartition, OffsetSpec> earliestSpecs = new HashMap<>();
+        topic.partitions().forEach(partitionInfo -> {
+            TopicPartition partition = new TopicPartition(KafkaConfig.COUPON_ISSUE_TOPIC, partitionInfo.partition());
+            latestSpecs.put(partition, OffsetSpec.latest());
+            if (committed.get(partition) == null) {
+                earliestSpecs.put(partition, OffsetSpec.earliest());
+            }
+        });
+
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> latest = adminClient.listOffsets(latestSpecs)
+                .all().get(timeoutMillis, TimeUnit.MILLISECONDS);
+        Map<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> earliest = earliestSpecs.isEmpty()
+                ? Map.of()
+                : adminClient.listOffsets(earliestSpecs).all().get(timeoutMillis, TimeUnit.MILLISECONDS);
+
+        long lag = 0;
+        for (Map.Entry<TopicPartition, ListOffsetsResult.ListOffsetsResultInfo> entry : latest.entrySet()) {
+            OffsetAndMetadata offset = committed.get(entry.getKey());
+            long consumed = offset != null ? offset.offset() : earliest.get(entry.getKey()).offset();
+            lag += Math.max(0, entry.getValue().offset() - consumed);
+        }
+        return lag;
+    }
+}
@@ -0,0 +1,163 @@
+package com.fastcampus.couponservice.service.v3;
+
+import com.fastcampus.couponservice.dto.v3.CouponDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RScript;
+import org.redisson.api.RSetAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 발급 요청 중복 처리 방지 (Kafka 재전달, 스풀 재전송)
+ * 처리한 요청 ID 를 시간 버킷별 Redis Set 에 보관하고, 최근 window 동안의 버킷만 확인한다.
+ * 버킷은 window 가 지나면 만료되므로 보관하는 ID 수는 window 동안의 처리량으로 제한된다.
+ * - 확인: poll 단위로 Lua 스크립트 한 번 (버킷 키는 해시 태그로 같은 슬롯에 배정)
+ * - 기록: 트랜잭션 커밋 후 발급된 요청만 파이프라인으로 추가 (롤백된 요청은 재전달 시 다시 처리)
+ * Redis 를 사용할 수 없으면 중복 확인 없이 처리한다.
+ */
+@Slf4j
+@Component
+public class CouponIssueDeduplicator {
+    private static final String DEDUPE_KEY_PREFIX = "coupon:issue-dedupe:{requests}:";
+
+    /**
+     * KEYS: 확인할 버킷 키들, ARGV: 요청 ID 들
+     * 반환값: 이미 처리된 요청 ID 목록
+     */
+    private static final String CHECK_SCRIPT = """
+            local seen = {}
+            for i = 1, #ARGV do
+                for j = 1, #KEYS do
+                    if redis.call('SISMEMBER', KEYS[j], ARGV[i]) == 1 then
+                        table.insert(seen, ARGV[i])
+                        break
+                    end
+                end
+            end
+            return seen
+            """;
+
+    private final RedissonClient redissonClient;
+    private final Counter duplicateCounter;
+    private final Counter unavailableCounter;
+
+    @Value("${coupon.issue.dedupe.window:10m}")
+    private Duration window = Duration.ofMinutes(10);
+
+    @Value("${coupon.issue.dedupe.bucket:1m}")
+    private Duration bucket = Duration.ofMinutes(1);
+
+    public CouponIssueDeduplicator(RedissonClient redissonClient, MeterRegistry meterRegistry) {
+        this.redissonClient = redissonClient;
+        this.duplicateCounter = Counter.builder("coupon.issue.consumer.duplicates")
+                .description("중복으로 판단해 처리하지 않은 발급 요청 수")
+                .register(meterRegistry);
+        this.unavailableCounter = Counter.builder("coupon.issue.dedupe.unavailable")
+                .description("Redis 오류로 중복 확인 없이 처리한 poll 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 이미 처리된 요청과 같은 poll 안의 중복 요청을 제외 (요청 ID 가 없는 메시지는 그대로 처리)
+     */
+    public List<CouponDto.IssueMessage> filterDuplicates(List<CouponDto.IssueMessage> messages) {
+        List<CouponDto.IssueMessage> unique = new ArrayList<>(messages.size());
+        Map<String, CouponDto.IssueMessage> byRequestId = new LinkedHashMap<>();
+        for (CouponDto.IssueMessage message : messages) {
+            if (message.getRequestId() == null) {
+                unique.add(message);
+            } else {
+                byRequestId.putIfAbsent(message.getRequestId(), message);
+            }
+        }
+
+        Set<String> processed = findProcessed(byRequestId.keySet());
+        byRequestId.forEach((requestId, message) -> {
+            if (!processed.contains(requestId)) {
+                unique.add(message);
+            }
+        });
+
+        int duplicates = messages.size() - unique.size();
+        if (duplicates > 0) {
+            duplicateCounter.increment(duplicates);
+            log.warn("Dropped {} duplicated coupon issue requests", duplicates);
+        }
+        return unique;
+    }
+
+    /**
+     * 발급이 커밋된 요청 ID 를 현재 버킷에 기록
+     */
+    public void markProcessed(List<String> requestIds) {
+        List<String> ids = requestIds.stream().filter(Objects::nonNull).toList();
+        if (ids.isEmpty()) {
+            return;
+        }
+
+        long bucketMillis = bucket.toMillis();
+        long currentBucket = System.currentTimeMillis() / bucketMillis;
+        try {
+            RBatch batch = redissonClient.createBatch();
+            RSetAsync<String> set = batch.getSet(bucketKey(currentBucket), StringCodec.INSTANCE);
+            set.addAllAsync(ids);
+            set.expireAsync(Instant.ofEpochMilli((currentBucket + 1) * bucketMillis + window.toMillis()));
+            batch.execute();
+        } catch (Exception e) {
+            log.error("Failed to mark processed coupon issue requests: count={}", ids.size(), e);
+        }
+    }
+
+    private Set<String> findProcessed(Set<String> requestIds) {
+        if (requestIds.isEmpty()) {
+            return Set.of();
+        }
+
+        try {
+            List<String> seen = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                    RScript.Mode.READ_ONLY,
+                    CHECK_SCRIPT,
+                    RScript.ReturnType.MULTI,
+                    windowKeys(),
+                    requestIds.toArray());
+            return new HashSet<>(seen);
+        } catch (Exception e) {
+            unavailableCounter.increment();
+            log.error("Failed to check duplicated coupon issue requests, processing without dedupe: {}", e.getMessage());
+            return Set.of();
+        }
+    }
+
+    /**
+     * 현재 버킷부터 window 만큼의 과거 버킷 키
+     */
+    private List<Object> windowKeys() {
+        long bucketMillis = bucket.toMillis();
+        long currentBucket = System.currentTimeMillis() / bucketMillis;
+        long buckets = (window.toMillis() + bucketMillis - 1) / bucketMillis;
+        List<Object> keys = new ArrayList<>();
+        for (long i = 0; i <= buckets; i++) {
+            keys.add(bucketKey(currentBucket - i));
+        }
+        return keys;
+    }
+
+    private String bucketKey(long bucketIndex) {
+        return DEDUPE_KEY_PREFIX + bucketIndex;
+    }
+}
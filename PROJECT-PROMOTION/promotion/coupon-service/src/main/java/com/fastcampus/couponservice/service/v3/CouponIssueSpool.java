@@ -0,0 +1,453 @@
+package com.fastcampus.couponservice.service.v3;
+
+import com.fastcampus.couponservice.dto.v3.CouponDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * 쿠폰 발급 요청 로컬 스풀 (append-only 메모리 매핑 세그먼트 로그)
+ * 수량을 차감한 발급 요청을 Kafka 로 보내기 전에 먼저 로컬 디스크에 기록하고, CouponIssueSpoolRelay 가 모아서 Kafka 로 전달한다.
+ * Kafka 가 느리거나 내려가도 발급 요청 응답 시간은 스풀 기록 시간만큼만 걸리며, 전달되지 않은 요청은 재시작 후 이어서 전달된다.
+ *
+ * 레코드: [길이(int)][CRC32(int)][IssueMessage JSON]
+ * - 길이를 마지막에 기록하므로 기록 도중 종료되면 길이가 0으로 남아 로그의 끝으로 판단한다.
+ * - 세그먼트 끝에 레코드가 들어가지 않으면 END_OF_SEGMENT 를 기록하고 다음 세그먼트로 넘어간다.
+ * - 위치는 (세그먼트 번호 * 세그먼트 크기 + 세그먼트 내 오프셋) 으로 표현하고, Kafka 전달이 확인된 위치를 checkpoint 파일에 기록한다.
+ *
+ * 메모리 매핑 기록은 프로세스가 종료되어도 페이지 캐시에 남지만, OS 장애까지 견디려면 sync 를 켜서 레코드마다 force 한다.
+ *
+ * 디렉터리(coupon.spool.dir)는 재시작/재배포 후에도 남는 영구 볼륨이어야 하므로 기본값 없이 설정해야 한다.
+ * 두 프로세스가 같은 디렉터리에 기록하면 로그가 깨지므로 열 때 lock 파일에 FileLock 을 잡는다.
+ * 디렉터리마다 ID 를 만들어 두고, 재시작해도 같은 ID 로 다른 인스턴스에 전달 대기 건수를 알린다. (CouponIssueBacklog)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponIssueSpool {
+    private static final int HEADER_SIZE = Integer.BYTES * 2;
+    private static final int END_OF_SEGMENT = -1;
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final String LOCK_FILE = "lock";
+    private static final String ID_FILE = "id";
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${coupon.spool.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${coupon.spool.dir:}")
+    private String dir = "";
+
+    @Value("${coupon.spool.segment-size:64MB}")
+    private DataSize segmentSize = DataSize.ofMegabytes(64);
+
+    @Value("${coupon.spool.sync:false}")
+    private boolean sync = false;
+
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicLong pendingRecords = new AtomicLong();
+
+    private Path directory;
+    private String spoolId;
+    private FileChannel lockChannel;
+    private FileLock directoryLock;
+    private int segmentBytes;
+    private MappedByteBuffer checkpoint;
+    private FileChannel checkpointChannel;
+    private Segment writeSegment;
+    private volatile long writePosition;
+    private volatile long committedPosition;
+    private Counter skippedCounter;
+
+    /**
+     * 전달된 레코드 묶음
+     * @param nextPosition 묶음의 마지막 레코드 다음 위치 (전달 확인 후 commit 에 사용)
+     * @param records 읽은 레코드 수 (역직렬화하지 못해 건너뛴 레코드 포함)
+     */
+    public record Batch(List<CouponDto.IssueMessage> messages, long nextPosition, int records) {
+        public Batch(List<CouponDto.IssueMessage> messages, long nextPosition) {
+            this(messages, nextPosition, messages.size());
+        }
+
+        // 건너뛴 레코드만 있어도 commit 해야 위치가 넘어간다
+        public boolean isEmpty() {
+            return records == 0;
+        }
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (dir == null || dir.isBlank()) {
+            throw new IllegalStateException("coupon.spool.dir 에 재시작 후에도 남는 스풀 디렉터리를 설정해야 합니다.");
+        }
+        directory = Path.of(dir);
+        segmentBytes = Math.toIntExact(segmentSize.toBytes());
+        Files.createDirectories(directory);
+        if (directory.toAbsolutePath().startsWith(Path.of(System.getProperty("java.io.tmpdir")).toAbsolutePath())) {
+            log.warn("Coupon issue spool is under the temporary directory and may be lost on reboot: dir={}", directory);
+        }
+        lockDirectory();
+        spoolId = readOrCreateId();
+
+        checkpointChannel = FileChannel.open(directory.resolve(CHECKPOINT_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        checkpoint = checkpointChannel.map(FileChannel.MapMode.READ_WRITE, 0, Long.BYTES * 2);
+
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX)).toList()) {
+                long index = Long.parseLong(file.getFileName().toString().replace(SEGMENT_SUFFIX, ""));
+                segments.put(index, Segment.open(file, index, segmentBytes));
+            }
+        }
+        recover();
+
+        Gauge.builder("coupon.spool.pending", pendingRecords, AtomicLong::get)
+                .description("Kafka 로 전달되지 않은 발급 요청 수")
+                .register(meterRegistry);
+        Gauge.builder("coupon.spool.segments", segments, Map::size)
+                .register(meterRegistry);
+        skippedCounter = Counter.builder("coupon.spool.skipped")
+                .description("CRC 는 맞지만 역직렬화하지 못해 건너뛴 발급 요청 수")
+                .register(meterRegistry);
+        log.info("Coupon issue spool opened: dir={}, segments={}, pending={}", directory, segments.size(), pendingRecords.get());
+    }
+
+    /**
+     * 다른 프로세스(같은 디렉터리를 설정한 두 번째 인스턴스 등)가 사용 중이면 열지 않는다.
+     */
+    private void lockDirectory() throws IOException {
+        lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            directoryLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            directoryLock = null;
+        }
+        if (directoryLock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("다른 프로세스가 사용 중인 스풀 디렉터리입니다: " + directory);
+        }
+    }
+
+    private String readOrCreateId() throws IOException {
+        Path idFile = directory.resolve(ID_FILE);
+        if (Files.exists(idFile)) {
+            String id = Files.readString(idFile, StandardCharsets.UTF_8).trim();
+            if (!id.isEmpty()) {
+                return id;
+            }
+        }
+        String id = UUID.randomUUID().toString();
+        Files.writeString(idFile, id, StandardCharsets.UTF_8);
+        return id;
+    }
+
+    /**
+     * checkpoint 부터 로그 끝까지 읽어 기록 위치와 전달 대기 건수를 복구
+     * checkpoint 가 손상되었으면 남아 있는 가장 오래된 세그먼트부터 다시 전달한다. (중복은 컨슈머가 거른다)
+     */
+    private void recover() {
+        if (segments.isEmpty()) {
+            long position = Math.max(readCheckpoint(), 0L);
+            long index = (position + segmentBytes - 1) / segmentBytes;
+            segments.put(index, Segment.create(segmentPath(index), index, segmentBytes));
+        }
+
+        long position = Math.max(readCheckpoint(), segments.firstKey() * segmentBytes);
+        committedPosition = position;
+        long count = 0;
+        long start;
+        while ((start = recordStart(position, Long.MAX_VALUE)) >= 0) {
+            position = start + HEADER_SIZE + recordLength(start);
+            count++;
+        }
+        writeSegment = segments.lastEntry().getValue();
+        writePosition = Math.max(position, writeSegment.index * segmentBytes);
+        pendingRecords.set(count);
+    }
+
+    private long readCheckpoint() {
+        long position = checkpoint.getLong(0);
+        return checkpoint.getLong(Long.BYTES) == ~position ? position : -1L;
+    }
+
+    /**
+     * 발급 요청을 스풀에 기록
+     */
+    public void append(CouponDto.IssueMessage message) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(message);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if (payload.length > segmentBytes - HEADER_SIZE) {
+            throw new IllegalArgumentException("스풀 세그먼트보다 큰 메시지는 기록할 수 없습니다.");
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        writeLock.lock();
+        try {
+            int offset = (int) (writePosition - writeSegment.index * segmentBytes);
+            if (offset + HEADER_SIZE + payload.length > segmentBytes) {
+                if (offset + Integer.BYTES <= segmentBytes) {
+                    writeSegment.buffer.putInt(offset, END_OF_SEGMENT);
+                }
+                writeSegment = roll(writeSegment.index + 1);
+                offset = 0;
+            }
+
+            MappedByteBuffer buffer = writeSegment.buffer;
+            buffer.put(offset + HEADER_SIZE, payload);
+            buffer.putInt(offset + Integer.BYTES, (int) crc.getValue());
+            buffer.putInt(offset, payload.length);
+            if (sync) {
+                buffer.force(offset, HEADER_SIZE + payload.length);
+            }
+            writePosition = writeSegment.index * segmentBytes + offset + HEADER_SIZE + payload.length;
+            pendingRecords.incrementAndGet();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * 마지막 commit 위치부터 최대 maxRecords 건을 읽음 (단일 relay 스레드에서만 호출)
+     */
+    public Batch read(int maxRecords) {
+        List<CouponDto.IssueMessage> messages = new ArrayList<>();
+        long position = committedPosition;
+        long limit = writePosition;
+        int records = 0;
+        long start;
+        while (records < maxRecords && (start = recordStart(position, limit)) >= 0) {
+            int length = recordLength(start);
+            CouponDto.IssueMessage message = readMessage(start, length);
+            if (message != null) {
+                messages.add(message);
+            }
+            records++;
+            position = start + HEADER_SIZE + length;
+        }
+        return new Batch(messages, position, records);
+    }
+
+    /**
+     * Kafka 전달이 확인된 위치까지 checkpoint 를 옮기고, 모두 전달된 세그먼트는 삭제
+     */
+    public void commit(Batch batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long position = batch.nextPosition();
+        checkpoint.putLong(0, position);
+        checkpoint.putLong(Long.BYTES, ~position);
+        if (sync) {
+            checkpoint.force();
+        }
+        committedPosition = position;
+        pendingRecords.addAndGet(-batch.records());
+
+        long committedIndex = position / segmentBytes;
+        for (Segment segment : segments.headMap(committedIndex).values()) {
+            segments.remove(segment.index);
+            segment.delete();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getPendingRecords() {
+        return pendingRecords.get();
+    }
+
+    /**
+     * 스풀 디렉터리 ID (재시작해도 유지, 비활성화되어 있으면 null)
+     */
+    public String getSpoolId() {
+        return spoolId;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!enabled) {
+            return;
+        }
+        writeLock.lock();
+        try {
+            segments.values().forEach(Segment::close);
+            checkpoint.force();
+            checkpointChannel.close();
+            directoryLock.release();
+            lockChannel.close();
+        } catch (IOException e) {
+            log.warn("Failed to close coupon issue spool: {}", e.getMessage());
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * position 이후 첫 레코드의 시작 위치 (limit 안에 온전한 레코드가 없으면 -1)
+     * 세그먼트 끝 표시를 만나면 다음 세그먼트로 넘어간다. 마지막 세그먼트가 아닌 곳의 손상된 레코드는
+     * 기록 중인 레코드일 수 없으므로 경고를 남기고 다음 세그먼트로 건너뛴다.
+     */
+    private long recordStart(long position, long limit) {
+        while (position < limit) {
+            long index = position / segmentBytes;
+            int offset = (int) (position % segmentBytes);
+            Segment segment = segments.get(index);
+            Long nextIndex = segments.higherKey(index);
+            if (segment == null) {
+                if (nextIndex == null) {
+                    return -1;
+                }
+                position = nextIndex * segmentBytes;
+                continue;
+            }
+
+            boolean endOfSegment = offset + HEADER_SIZE > segmentBytes || segment.buffer.getInt(offset) == END_OF_SEGMENT;
+            if (!endOfSegment && isValid(segment.buffer, offset)) {
+                return position + HEADER_SIZE + segment.buffer.getInt(offset) <= limit ? position : -1;
+            }
+            if (nextIndex == null) {
+                return -1;
+            }
+            if (!endOfSegment) {
+                log.warn("Skipping corrupted coupon issue spool record: segment={}, offset={}", index, offset);
+            }
+            position = nextIndex * segmentBytes;
+        }
+        return -1;
+    }
+
+    private int recordLength(long start) {
+        return segments.get(start / segmentBytes).buffer.getInt((int) (start % segmentBytes));
+    }
+
+    /**
+     * 레코드를 역직렬화 (CRC 는 맞지만 읽을 수 없는 레코드는 null)
+     * 다시 읽어도 같은 결과이므로 relay 가 같은 위치에서 멈추지 않도록 건너뛰고, 내용은 로그로 남긴다.
+     */
+    private CouponDto.IssueMessage readMessage(long start, int length) {
+        byte[] payload = new byte[length];
+        segments.get(start / segmentBytes).buffer.get((int) (start % segmentBytes) + HEADER_SIZE, payload);
+        try {
+            return objectMapper.readValue(payload, CouponDto.IssueMessage.class);
+        } catch (IOException e) {
+            skippedCounter.increment();
+            log.error("Skipping unreadable coupon issue spool record: position={}, payload={}",
+                    start, new String(payload, StandardCharsets.UTF_8), e);
+            return null;
+        }
+    }
+
+    private boolean isValid(MappedByteBuffer buffer, int offset) {
+        int length = buffer.getInt(offset);
+        if (length <= 0 || offset + HEADER_SIZE + length > segmentBytes) {
+            return false;
+        }
+        byte[] payload = new byte[length];
+        buffer.get(offset + HEADER_SIZE, payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return buffer.getInt(offset + Integer.BYTES) == (int) crc.getValue();
+    }
+
+    private Segment roll(long index) {
+        Segment segment = Segment.create(segmentPath(index), index, segmentBytes);
+        segments.put(index, segment);
+        return segment;
+    }
+
+    private Path segmentPath(long index) {
+        return directory.resolve(String.format("%020d%s", index, SEGMENT_SUFFIX));
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final long index;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+
+        private Segment(Path path, long index, FileChannel channel, int size) throws IOException {
+            this.path = path;
+            this.index = index;
+            this.channel = channel;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        static Segment create(Path path, long index, int size) {
+            return open(path, index, size, StandardOpenOption.CREATE_NEW);
+        }
+
+        static Segment open(Path path, long index, int size) {
+            return open(path, index, size, StandardOpenOption.CREATE);
+        }
+
+        private static Segment open(Path path, long index, int size, StandardOpenOption createOption) {
+            try {
+                FileChannel channel = FileChannel.open(path, createOption, StandardOpenOption.READ, StandardOpenOption.WRITE);
+                return new Segment(path, index, channel, size);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void close() {
+            try {
+                buffer.force();
+                channel.close();
+            } catch (IOException e) {
+                log.warn("Failed to close coupon issue spool segment {}: {}", path, e.getMessage());
+            }
+        }
+
+        void delete() {
+            close();
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("Failed to delete coupon issue spool segment {}: {}", path, e.getMessage());
+            }
+        }
+    }
+}
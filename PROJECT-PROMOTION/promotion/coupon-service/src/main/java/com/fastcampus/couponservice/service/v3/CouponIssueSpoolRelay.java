@@ -0,0 +1,115 @@
+package com.fastcampus.couponservice.service.v3;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 스풀에 기록된 발급 요청을 Kafka 로 전달
+ * 한 번에 batchSize 건씩 비동기로 보내고 모두 확인되면 checkpoint 를 옮긴다.
+ * 전송에 실패하면 같은 묶음을 다음 주기에 다시 보내므로 중복 전달될 수 있다. (at-least-once)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponIssueSpoolRelay {
+    private static final String VERSION = "v3";
+
+    private final CouponIssueSpool couponIssueSpool;
+    private final CouponProducer couponProducer;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${coupon.spool.relay.batch-size:500}")
+    private int batchSize = 500;
+
+    @Value("${coupon.spool.relay.interval:5ms}")
+    private Duration interval = Duration.ofMillis(5);
+
+    @Value("${coupon.spool.relay.send-timeout:10s}")
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    @Value("${coupon.spool.relay.retry-backoff:1s}")
+    private Duration retryBackoff = Duration.ofSeconds(1);
+
+    private final ScheduledExecutorService relayExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "coupon-spool-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private Counter relayedCounter;
+    private Counter failedCounter;
+
+    @PostConstruct
+    public void start() {
+        if (!couponIssueSpool.isEnabled()) {
+            return;
+        }
+        relayedCounter = meterRegistry.counter("coupon.spool.relay", "result", "relayed");
+        failedCounter = meterRegistry.counter("coupon.spool.relay", "result", "failed");
+        // 재시작 시 남아 있는 요청도 첫 주기에서 바로 전달
+        relayExecutor.schedule(this::relay, 0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 스풀이 빌 때까지 묶음 단위로 전달하고, 비었거나 실패하면 다음 주기를 예약
+     */
+    void relay() {
+        long delayMillis = interval.toMillis();
+        try {
+            // 가득 찬 묶음을 보냈으면 기다리지 않고 다음 묶음을 보낸다
+            boolean full;
+            do {
+                full = relayBatch();
+            } while (full);
+        } catch (Exception e) {
+            log.error("Failed to relay spooled coupon issue requests, retrying in {}: {}", retryBackoff, e.getMessage());
+            delayMillis = retryBackoff.toMillis();
+        } finally {
+            if (!relayExecutor.isShutdown()) {
+                relayExecutor.schedule(this::relay, delayMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * @return 묶음이 가득 차 바로 이어서 보낼 요청이 더 있을 수 있으면 true
+     */
+    boolean relayBatch() throws Exception {
+        CouponIssueSpool.Batch batch = couponIssueSpool.read(batchSize);
+        if (batch.isEmpty()) {
+            return false;
+        }
+
+        try {
+            CompletableFuture.allOf(batch.messages().stream()
+                            .map(message -> couponProducer.sendCouponIssueRequestAsync(VERSION, message))
+                            .toArray(CompletableFuture[]::new))
+                    .get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            failedCounter.increment(batch.messages().size());
+            throw e;
+        }
+
+        couponIssueSpool.commit(batch);
+        relayedCounter.increment(batch.messages().size());
+        return batch.records() == batchSize;
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        relayExecutor.shutdown();
+        relayExecutor.awaitTermination(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+}
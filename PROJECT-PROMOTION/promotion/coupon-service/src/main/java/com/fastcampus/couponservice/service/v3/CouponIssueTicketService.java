@@ -0,0 +1,159 @@
+package com.fastcampus.couponservice.service.v3;
+
+import com.fastcampus.couponservice.dto.v3.CouponDto;
+import com.fastcampus.couponservice.exception.CouponNotFoundException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 비동기 발급 요청(티켓)의 처리 결과 조회
+ * 컨슈머가 처리 결과를 짧은 TTL 의 Redis 키에 저장하고 pub/sub 으로 알리면,
+ * 결과를 기다리던 long-poll 요청이 어느 인스턴스에 있든 바로 응답한다.
+ * 클라이언트가 쿠폰함 목록을 반복 조회(DB 조회)하지 않아도 발급 여부를 알 수 있다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponIssueTicketService {
+    private static final String RESULT_KEY_PREFIX = "coupon:issue-result:";
+    private static final String RESULT_TOPIC = "coupon:issue-result:events";
+    private static final TypeReference<List<CouponDto.IssueResult>> RESULT_LIST_TYPE = new TypeReference<>() {};
+
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+
+    @Value("${coupon.issue.result.ttl:10m}")
+    private Duration resultTtl = Duration.ofMinutes(10);
+
+    // 티켓 ID 별로 이 인스턴스에서 결과를 기다리는 요청
+    private final Map<String, Set<Waiter>> waiters = new ConcurrentHashMap<>();
+    private int listenerId = -1;
+
+    private record Waiter(Long userId, DeferredResult<ResponseEntity<CouponDto.IssueTicketResponse>> deferredResult) {
+    }
+
+    @PostConstruct
+    public void subscribe() {
+        listenerId = topic().addListener(String.class, (channel, message) -> onResults(message));
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        if (listenerId != -1) {
+            topic().removeListener(listenerId);
+        }
+    }
+
+    /**
+     * 처리 결과를 한 번의 파이프라인으로 저장하고 대기 중인 요청에 알림
+     * @param results 발급 처리 결과 (요청 ID 가 없는 결과는 무시)
+     */
+    public void saveResults(List<CouponDto.IssueResult> results) {
+        List<CouponDto.IssueResult> ticketResults = results.stream()
+                .filter(result -> result.getRequestId() != null)
+                .toList();
+        if (ticketResults.isEmpty()) {
+            return;
+        }
+
+        try {
+            RBatch batch = redissonClient.createBatch();
+            for (CouponDto.IssueResult result : ticketResults) {
+                batch.<String>getBucket(RESULT_KEY_PREFIX + result.getRequestId(), StringCodec.INSTANCE)
+                        .setAsync(objectMapper.writeValueAsString(result), resultTtl.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            batch.getTopic(RESULT_TOPIC, StringCodec.INSTANCE).publishAsync(objectMapper.writeValueAsString(ticketResults));
+            batch.execute();
+        } catch (Exception e) {
+            // 결과를 저장하지 못해도 발급은 이미 커밋되었으므로 메시지를 다시 처리하지 않는다 (클라이언트는 쿠폰함으로 확인)
+            log.error("Failed to save coupon issue results: count={}", ticketResults.size(), e);
+        }
+    }
+
+    public Optional<CouponDto.IssueResult> getResult(String ticketId) {
+        String json = redissonClient.<String>getBucket(RESULT_KEY_PREFIX + ticketId, StringCodec.INSTANCE).get();
+        if (json == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(json, CouponDto.IssueResult.class));
+        } catch (JsonProcessingException e) {
+            log.error("Failed to parse coupon issue result: ticketId={}", ticketId, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * 결과가 저장될 때까지 최대 timeout 동안 기다렸다가 응답 (시간 안에 처리되지 않으면 202 + PENDING)
+     * @param ticketId 발급 요청 시 받은 티켓 ID
+     * @param userId 조회하는 사용자 ID (다른 사용자의 티켓은 찾을 수 없음으로 응답)
+     */
+    public DeferredResult<ResponseEntity<CouponDto.IssueTicketResponse>> awaitResult(String ticketId, Long userId, Duration timeout) {
+        DeferredResult<ResponseEntity<CouponDto.IssueTicketResponse>> deferredResult = new DeferredResult<>(
+                timeout.toMillis(), () -> ResponseEntity.accepted().body(CouponDto.IssueTicketResponse.pending(ticketId)));
+        Waiter waiter = new Waiter(userId, deferredResult);
+        waiters.compute(ticketId, (id, ticketWaiters) -> {
+            Set<Waiter> registered = ticketWaiters != null ? ticketWaiters : ConcurrentHashMap.newKeySet();
+            registered.add(waiter);
+            return registered;
+        });
+        deferredResult.onCompletion(() -> removeWaiter(ticketId, waiter));
+
+        // 대기를 등록한 뒤 결과를 확인해야 그 사이에 저장된 결과를 놓치지 않는다
+        getResult(ticketId).ifPresent(result -> complete(waiter, result));
+        return deferredResult;
+    }
+
+    private void onResults(String message) {
+        try {
+            for (CouponDto.IssueResult result : objectMapper.readValue(message, RESULT_LIST_TYPE)) {
+                Set<Waiter> ticketWaiters = waiters.get(result.getRequestId());
+                if (ticketWaiters != null) {
+                    ticketWaiters.forEach(waiter -> complete(waiter, result));
+                }
+            }
+        } catch (JsonProcessingException e) {
+            log.error("Failed to parse coupon issue result event", e);
+        }
+    }
+
+    private void complete(Waiter waiter, CouponDto.IssueResult result) {
+        if (!result.getUserId().equals(waiter.userId())) {
+            waiter.deferredResult().setErrorResult(new CouponNotFoundException("발급 요청을 찾을 수 없습니다."));
+            return;
+        }
+        waiter.deferredResult().setResult(ResponseEntity.ok(CouponDto.IssueTicketResponse.from(result)));
+    }
+
+    private void removeWaiter(String ticketId, Waiter waiter) {
+        waiters.computeIfPresent(ticketId, (id, ticketWaiters) -> {
+            ticketWaiters.remove(waiter);
+            return ticketWaiters.isEmpty() ? null : ticketWaiters;
+        });
+    }
+
+    private RTopic topic() {
+        return redissonClient.getTopic(RESULT_TOPIC, StringCodec.INSTANCE);
+    }
+}
@@ -0,0 +1,92 @@
+package com.fastcampus.couponservice.service.v3;
+
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.repository.CouponPolicyRepository;
+import com.fastcampus.couponservice.repository.CouponRepository;
+import com.fastcampus.couponservice.service.v2.CouponIssueScript;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 발급 사용자 집합(coupon:issued-users:{정책ID}) 초기 적재
+ * 사용자 집합은 Lua 발급 경로와 함께 생겼으므로, 그 전에 DB 로만 발급받은 사용자는 들어 있지 않다.
+ * 그대로 두면 이미 쿠폰을 받은 사용자가 SCRIPT/LEASE 경로로 한 번 더 발급받을 수 있어,
+ * 기동 시 트래픽을 받기 전에 발급 기간이 끝나지 않은 정책마다 DB 의 보유 사용자를 한 번 채우고 완료 표시를 남긴다.
+ * - 채우는 동안 다른 인스턴스가 발급한 사용자는 스크립트가 직접 추가하므로 SADD 로 그대로 합쳐진다.
+ * - 완료 표시 전에 중단되면 다음 기동 때 처음부터 다시 채운다. (이미 있는 사용자는 다시 추가해도 같다)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponIssuedUsersSeeder {
+    private final CouponPolicyRepository couponPolicyRepository;
+    private final CouponRepository couponRepository;
+    private final CouponIssueScript couponIssueScript;
+
+    @Value("${coupon.issue.issued-users-seed.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${coupon.issue.issued-users-seed.batch-size:1000}")
+    private int batchSize = 1000;
+
+    @PostConstruct
+    public void seed() {
+        if (!enabled) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        int seededPolicies = 0;
+        long cursor = 0L;
+        List<CouponPolicy> policies;
+        do {
+            policies = couponPolicyRepository.findActiveAfter(cursor, LocalDateTime.now(), PageRequest.of(0, batchSize));
+            for (CouponPolicy policy : policies) {
+                try {
+                    if (seed(policy)) {
+                        seededPolicies++;
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to seed issued users: policyId={}", policy.getId(), e);
+                }
+            }
+            if (!policies.isEmpty()) {
+                cursor = policies.get(policies.size() - 1).getId();
+            }
+        } while (policies.size() == batchSize);
+        log.info("Issued users seeded on startup: policies={}, elapsedMs={}",
+                seededPolicies, (System.nanoTime() - startTime) / 1_000_000);
+    }
+
+    /**
+     * @return 이번에 채웠으면 true, 이미 채워져 있으면 false
+     */
+    boolean seed(CouponPolicy policy) {
+        Long policyId = policy.getId();
+        if (couponIssueScript.isIssuedUsersSeeded(policyId)) {
+            return false;
+        }
+
+        long users = 0;
+        long cursor = Long.MIN_VALUE;
+        List<Long> userIds;
+        do {
+            userIds = couponRepository.findHolderUserIdsAfter(policyId, cursor, PageRequest.of(0, batchSize));
+            couponIssueScript.markIssued(policy, userIds);
+            users += userIds.size();
+            if (!userIds.isEmpty()) {
+                cursor = userIds.get(userIds.size() - 1);
+            }
+        } while (userIds.size() == batchSize);
+
+        couponIssueScript.markIssuedUsersSeeded(policy);
+        log.info("Issued users seeded: policyId={}, users={}", policyId, users);
+        return true;
+    }
+}
@@ -1,21 +1,76 @@
 package com.fastcampus.couponservice.service.v3;
 
+import com.fastcampus.couponservice.aop.CouponIssueMetrics;
+import com.fastcampus.couponservice.config.CouponIssuePartitioner;
+import com.fastcampus.couponservice.config.KafkaConfig;
 import com.fastcampus.couponservice.dto.v3.CouponDto;
+import com.fastcampus.couponservice.exception.CouponIssueException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class CouponProducer {
-    private static final String TOPIC = "coupon-issue-requests";
+    private static final String TOPIC = KafkaConfig.COUPON_ISSUE_TOPIC;
+    private static final String VERSION = "v3";
     private final KafkaTemplate<String, CouponDto.IssueMessage> kafkaTemplate;
+    private final CouponIssueMetrics couponIssueMetrics;
+    private final CouponIssueSpool couponIssueSpool;
+
+    // 정책 하나의 요청을 나눌 키 salt 개수 (토픽 파티션 수와 같게 두어 모든 파티션으로 분산)
+    @Value("${coupon.kafka.issue-partitions:6}")
+    private int keySalts = 6;
 
+    /**
+     * 발급 요청을 로컬 스풀에 기록 (Kafka 전송은 CouponIssueSpoolRelay 가 비동기로 처리)
+     * 스풀을 끄면 바로 Kafka 로 전송하며, 이 경우 전송 실패는 로그로만 남는다.
+     */
     public void sendCouponIssueRequest(CouponDto.IssueMessage message) {
-        kafkaTemplate.send(TOPIC, String.valueOf(message.getPolicyId()), message)
+        if (!couponIssueSpool.isEnabled()) {
+            sendCouponIssueRequestAsync(VERSION, message);
+            return;
+        }
+        spoolCouponIssueRequest(VERSION, message);
+    }
+
+    /**
+     * 발급 요청을 로컬 스풀에 기록 (Kafka 전송은 CouponIssueSpoolRelay 가 비동기로 처리)
+     * @param version 스풀 기록 시간(spool_append 구간)을 기록할 API 버전
+     */
+    public void spoolCouponIssueRequest(String version, CouponDto.IssueMessage message) {
+
+        long startTime = System.nanoTime();
+        try {
+            couponIssueSpool.append(message);
+        } catch (RuntimeException e) {
+            log.error("Unable to spool message=[{}] due to : {}", message, e.getMessage());
+            throw new CouponIssueException("쿠폰 발급 요청을 저장하지 못했습니다. 잠시 후 다시 시도해주세요.");
+        } finally {
+            couponIssueMetrics.recordPhase(version, CouponIssueMetrics.Phase.SPOOL_APPEND, System.nanoTime() - startTime);
+        }
+    }
+
+    public boolean isSpoolEnabled() {
+        return couponIssueSpool.isEnabled();
+    }
+
+    /**
+     * 전송 결과를 기다리지 않고 future 로 반환 (v4 reactive 경로에서 사용)
+     * @param version 브로커 응답까지 걸린 시간(kafka_send 구간)을 기록할 API 버전
+     */
+    public CompletableFuture<SendResult<String, CouponDto.IssueMessage>> sendCouponIssueRequestAsync(String version, CouponDto.IssueMessage message) {
+        long startTime = System.nanoTime();
+        String key = CouponIssuePartitioner.key(message.getPolicyId(), message.getUserId(), keySalts);
+        return kafkaTemplate.send(TOPIC, key, message)
             .whenComplete((result, ex) -> {
+                couponIssueMetrics.recordPhase(version, CouponIssueMetrics.Phase.KAFKA_SEND, System.nanoTime() - startTime);
                 if (ex == null) {
                     log.info("Sent message=[{}] with offset=[{}]", message, result.getRecordMetadata().offset());
                 } else {
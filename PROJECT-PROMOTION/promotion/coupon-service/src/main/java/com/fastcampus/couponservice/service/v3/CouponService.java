@@ -1,24 +1,41 @@
 package com.fastcampus.couponservice.service.v3;
 
+import com.fastcampus.couponservice.aop.CouponIssueMetrics;
 import com.fastcampus.couponservice.aop.CouponMetered;
 import com.fastcampus.couponservice.config.UserIdInterceptor;
 import com.fastcampus.couponservice.domain.Coupon;
 import com.fastcampus.couponservice.domain.CouponPolicy;
 import com.fastcampus.couponservice.dto.v3.CouponDto;
 import com.fastcampus.couponservice.exception.CouponIssueException;
+import com.fastcampus.couponservice.exception.CouponSoldOutException;
 import com.fastcampus.couponservice.exception.CouponNotFoundException;
 import com.fastcampus.couponservice.repository.CouponRepository;
+import com.fastcampus.couponservice.repository.CouponWalletItem;
+import com.fastcampus.couponservice.service.TransactionCallbacks;
+import com.fastcampus.couponservice.service.code.CouponCodeFilter;
+import com.fastcampus.couponservice.service.code.CouponCodeGenerator;
+import com.fastcampus.couponservice.service.v2.CouponIssueMode;
 import com.fastcampus.couponservice.service.v2.CouponPolicyService;
 import com.fastcampus.couponservice.service.v2.CouponStateService;
+import com.fastcampus.couponservice.service.v2.CouponStockKeys;
+import com.fastcampus.couponservice.service.v2.CouponStockService;
+import com.fastcampus.couponservice.service.v2.CouponUsageService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RAtomicLong;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -26,29 +43,82 @@ import java.util.concurrent.TimeUnit;
 @Service("couponServiceV3")
 @RequiredArgsConstructor
 public class CouponService {
-    private static final String COUPON_QUANTITY_KEY = "coupon:quantity:";
+    private static final String VERSION = "v3";
     private static final String COUPON_LOCK_KEY = "coupon:lock:";
     private static final long LOCK_WAIT_TIME = 3L;
     private static final long LOCK_LEASE_TIME = 5L;
+    private static final int MAX_WALLET_PAGE_SIZE = 100;
 
     private final RedissonClient redissonClient;
     private final CouponRepository couponRepository;
     private final CouponProducer couponProducer;
     private final CouponStateService couponStateService;
     private final CouponPolicyService couponPolicyService;
+    private final CouponStockService couponStockService;
+    private final CouponIssueMetrics couponIssueMetrics;
+    private final CouponWalletService couponWalletService;
+    private final CouponCodeGenerator couponCodeGenerator;
+    private final CouponCodeFilter couponCodeFilter;
+    private final CouponUsageService couponUsageService;
 
+    @Value("${coupon.issue.mode:SCRIPT}")
+    private CouponIssueMode issueMode = CouponIssueMode.SCRIPT;
+
+    /**
+     * 발급 요청을 접수하고 티켓 ID 를 반환 (처리 결과는 티켓 ID 로 조회)
+     */
     @Transactional(readOnly = true)
-    @CouponMetered(version = "v3")
-    public void requestCouponIssue(CouponDto.IssueRequest request) {
-        String quantityKey = COUPON_QUANTITY_KEY + request.getCouponPolicyId();
+    @CouponMetered(version = VERSION)
+    public String requestCouponIssue(CouponDto.IssueRequest request) {
+        String requestId = UUID.randomUUID().toString();
+        if (issueMode == CouponIssueMode.LOCK) {
+            requestCouponIssueWithLock(request, requestId);
+        } else {
+            requestCouponIssueWithoutLock(request, requestId);
+        }
+        return requestId;
+    }
+
+    /**
+     * 분산 락 없이 수량을 차감(SCRIPT: Lua 스크립트, LEASE: 인스턴스 임대 수량)한 뒤 Kafka로 발급 요청 전송
+     */
+    private void requestCouponIssueWithoutLock(CouponDto.IssueRequest request, String requestId) {
+        CouponPolicy couponPolicy = couponPolicyService.getCouponPolicy(request.getCouponPolicyId());
+        Long userId = UserIdInterceptor.getCurrentUserId();
+
+        couponStockService.reserve(VERSION, couponPolicy, userId);
+
+        try {
+            couponProducer.sendCouponIssueRequest(
+                CouponDto.IssueMessage.builder()
+                    .requestId(requestId)
+                    .policyId(request.getCouponPolicyId())
+                    .userId(userId)
+                    .build()
+            );
+        } catch (CouponIssueException e) {
+            // 스풀에 기록하지 못한 요청은 발급되지 않으므로 차감한 수량을 되돌린다
+            couponStockService.release(couponPolicy, userId);
+            throw e;
+        }
+    }
+
+    private void requestCouponIssueWithLock(CouponDto.IssueRequest request, String requestId) {
+        couponStockService.checkSoldOut(request.getCouponPolicyId());
+
+        String quantityKey = CouponStockKeys.quantity(request.getCouponPolicyId());
         String lockKey = COUPON_LOCK_KEY + request.getCouponPolicyId();
         RLock lock = redissonClient.getLock(lockKey);
+        long startTime = System.nanoTime();
+        long lockedAt = 0L;
         
         try {
             boolean isLocked = lock.tryLock(LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
+            couponIssueMetrics.recordLockWait(VERSION, isLocked, System.nanoTime() - startTime);
             if (!isLocked) {
                 throw new CouponIssueException("쿠폰 발급 요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해주세요.");
             }
+            lockedAt = System.nanoTime();
             
             CouponPolicy couponPolicy = couponPolicyService.getCouponPolicy(request.getCouponPolicyId());
             if (couponPolicy == null) {
@@ -61,21 +131,33 @@ public class CouponService {
             }
             
             // 수량 체크 및 감소
+            long redisStartTime = System.nanoTime();
             RAtomicLong atomicQuantity = redissonClient.getAtomicLong(quantityKey);
             long remainingQuantity = atomicQuantity.decrementAndGet();
+            couponIssueMetrics.recordPhase(VERSION, CouponIssueMetrics.Phase.REDIS, System.nanoTime() - redisStartTime);
             
+            if (remainingQuantity <= 0) {
+                couponStockService.markSoldOut(request.getCouponPolicyId());
+            }
             if (remainingQuantity < 0) {
                 atomicQuantity.incrementAndGet();
-                throw new CouponIssueException("쿠폰이 모두 소진되었습니다.");
+                throw new CouponSoldOutException("쿠폰이 모두 소진되었습니다.");
             }
+            couponIssueMetrics.recordStockDuration(VERSION, CouponIssueMode.LOCK, System.nanoTime() - startTime);
 
             // Kafka로 쿠폰 발급 요청 전송
-            couponProducer.sendCouponIssueRequest(
-                CouponDto.IssueMessage.builder()
-                    .policyId(request.getCouponPolicyId())
-                    .userId(UserIdInterceptor.getCurrentUserId())
-                    .build()
-            );
+            try {
+                couponProducer.sendCouponIssueRequest(
+                    CouponDto.IssueMessage.builder()
+                        .requestId(requestId)
+                        .policyId(request.getCouponPolicyId())
+                        .userId(UserIdInterceptor.getCurrentUserId())
+                        .build()
+                );
+            } catch (CouponIssueException e) {
+                atomicQuantity.incrementAndGet();
+                throw e;
+            }
             
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
@@ -83,59 +165,169 @@ public class CouponService {
         } finally {
             if (lock.isHeldByCurrentThread()) {
                 lock.unlock();
+                couponIssueMetrics.recordPhase(VERSION, CouponIssueMetrics.Phase.LOCK_HOLD, System.nanoTime() - lockedAt);
             }
         }
     }
 
     @Transactional
-    public void issueCoupon(CouponDto.IssueMessage message) {
+    public Coupon issueCoupon(CouponDto.IssueMessage message) {
         try {
             CouponPolicy policy = couponPolicyService.getCouponPolicy(message.getPolicyId());
             if (policy == null) {
                 throw new IllegalArgumentException("쿠폰 정책을 찾을 수 없습니다.");
             }
             
+            long dbStartTime = System.nanoTime();
             Coupon coupon = couponRepository.save(Coupon.builder()
                     .couponPolicy(policy)
                     .userId(message.getUserId())
-                    .couponCode(generateCouponCode())
+                    .couponCode(couponCodeGenerator.generate())
                     .build());
+            couponIssueMetrics.recordPhase(VERSION, CouponIssueMetrics.Phase.DB_WRITE, System.nanoTime() - dbStartTime);
             
+            TransactionCallbacks.afterCommit(() -> {
+                couponWalletService.addCoupon(coupon);
+                couponCodeFilter.add(coupon.getCouponCode());
+            });
             log.info("Coupon issued successfully: policyId={}, userId={}", message.getPolicyId(), message.getUserId());
-            
+            return coupon;
+
         } catch (Exception e) {
             log.error("Failed to issue coupon: {}", e.getMessage());
             throw e;
         }
     }
 
+    /**
+     * poll 단위로 받은 발급 요청을 한 트랜잭션에서 저장
+     * 정책은 요청에 포함된 정책 ID 별로 한 번만 조회하고, 쿠폰은 saveAll 로 JDBC 배치 INSERT 한다.
+     */
+    @Transactional
+    public List<Coupon> issueCoupons(List<CouponDto.IssueMessage> messages) {
+        Map<Long, CouponPolicy> policies = new HashMap<>();
+        List<Coupon> coupons = messages.stream()
+                .map(message -> Coupon.builder()
+                        .couponPolicy(policies.computeIfAbsent(message.getPolicyId(), this::getCouponPolicy))
+                        .userId(message.getUserId())
+                        .couponCode(couponCodeGenerator.generate())
+                        .build())
+                .toList();
+
+        long dbStartTime = System.nanoTime();
+        List<Coupon> savedCoupons = couponRepository.saveAll(coupons);
+        couponIssueMetrics.recordPhase(VERSION, CouponIssueMetrics.Phase.DB_WRITE, System.nanoTime() - dbStartTime);
+        TransactionCallbacks.afterCommit(() -> {
+            couponWalletService.addCoupons(savedCoupons);
+            couponCodeFilter.addAll(savedCoupons.stream().map(Coupon::getCouponCode).toList());
+        });
+        log.info("Coupons issued successfully: count={}, policies={}", coupons.size(), policies.keySet());
+        return savedCoupons;
+    }
+
+    private CouponPolicy getCouponPolicy(Long policyId) {
+        CouponPolicy policy = couponPolicyService.getCouponPolicy(policyId);
+        if (policy == null) {
+            throw new IllegalArgumentException("쿠폰 정책을 찾을 수 없습니다.");
+        }
+        return policy;
+    }
+
     @Transactional
     public Coupon useCoupon(Long couponId, Long orderId) {
-        Coupon coupon = couponRepository.findByIdWithLock(couponId)
-                .orElseThrow(() -> new CouponNotFoundException("쿠폰을 찾을 수 없습니다."));
+        return use(couponId, orderId);
+    }
+
+    /**
+     * 쿠폰 코드 입력으로 사용
+     * 형식이 틀리거나 발급된 적 없는 코드는 Bloom filter 에서 Redis/DB 조회 없이 거절한다.
+     * 다른 사용자의 코드는 존재 여부를 드러내지 않도록 없는 코드와 같은 응답을 준다.
+     */
+    @Transactional
+    public Coupon redeemCoupon(String couponCode, Long orderId) {
+        String normalizedCode = couponCode == null ? null : couponCode.trim().toUpperCase(Locale.ROOT);
+        if (!couponCodeFilter.mightContain(normalizedCode)) {
+            throw new CouponNotFoundException("쿠폰을 찾을 수 없습니다.");
+        }
 
-        coupon.use(orderId);
-        couponStateService.updateCouponState(coupon);
+        // v1/v2 에서 발급된 이전 코드는 소문자로 저장되어 있음
+        Optional<Coupon> found = couponRepository.findByCouponCode(normalizedCode)
+                .or(() -> CouponCodeFilter.isLegacy(normalizedCode)
+                        ? couponRepository.findByCouponCode(normalizedCode.toLowerCase(Locale.ROOT))
+                        : Optional.empty());
+        if (found.isEmpty()) {
+            couponCodeFilter.recordFalsePositive();
+            throw new CouponNotFoundException("쿠폰을 찾을 수 없습니다.");
+        }
+
+        Coupon coupon = found.get();
+        if (!coupon.getUserId().equals(UserIdInterceptor.getCurrentUserId())) {
+            throw new CouponNotFoundException("쿠폰을 찾을 수 없습니다.");
+        }
+        return use(coupon.getId(), orderId);
+    }
+
+    // 상태 캐시와 쿠폰함은 조건부 UPDATE 가 성공하고 트랜잭션이 커밋된 경우에만 갱신 (롤백된 사용/취소가 캐시에 남지 않도록)
+    private Coupon use(Long couponId, Long orderId) {
+        Coupon coupon = couponUsageService.use(couponId, UserIdInterceptor.getCurrentUserId(), orderId);
+        TransactionCallbacks.afterCommit(() -> {
+            couponStateService.updateCouponState(coupon);
+            couponWalletService.removeCoupon(coupon);
+        });
 
         return coupon;
     }
 
     @Transactional
     public Coupon cancelCoupon(Long couponId) {
-        Coupon coupon = couponRepository.findByIdAndUserId(couponId, UserIdInterceptor.getCurrentUserId())
-                .orElseThrow(() -> new IllegalArgumentException("쿠폰을 찾을 수 없습니다."));
+        Coupon coupon = couponUsageService.cancel(couponId, UserIdInterceptor.getCurrentUserId());
+        TransactionCallbacks.afterCommit(() -> {
+            couponStateService.updateCouponState(coupon);
+            couponWalletService.addCoupon(coupon);
+        });
+
+        return coupon;
+    }
+
+    /**
+     * 커서 기반 쿠폰함 조회
+     * 다음 페이지 존재 여부를 알기 위해 size + 1 건을 조회한다.
+     */
+    @Transactional(readOnly = true)
+    public CouponDto.WalletResponse getCoupons(Coupon.Status status, String cursor, int size) {
+        if (size < 1 || size > MAX_WALLET_PAGE_SIZE) {
+            throw new IllegalArgumentException("페이지 크기는 1 이상 " + MAX_WALLET_PAGE_SIZE + " 이하여야 합니다.");
+        }
 
-        if (!coupon.isUsed()) {
-            throw new IllegalStateException("사용되지 않은 쿠폰은 취소할 수 없습니다.");
+        Long userId = UserIdInterceptor.getCurrentUserId();
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<CouponWalletItem> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = couponRepository.findWalletFirstPage(userId, status, limit);
+        } else {
+            CouponDto.WalletCursor walletCursor = CouponDto.WalletCursor.decode(cursor);
+            items = couponRepository.findWalletPageAfter(userId, status, walletCursor.getCreatedAt(), walletCursor.getId(), limit);
         }
 
-        coupon.cancel();
-        couponStateService.updateCouponState(coupon);
+        boolean hasNext = items.size() > size;
+        List<CouponWalletItem> page = hasNext ? items.subList(0, size) : items;
+        String nextCursor = null;
+        if (hasNext) {
+            CouponWalletItem last = page.get(page.size() - 1);
+            nextCursor = new CouponDto.WalletCursor(last.getCreatedAt(), last.getId()).encode();
+        }
 
-        return coupon;
+        return CouponDto.WalletResponse.builder()
+                .coupons(page.stream().map(CouponDto.WalletItem::from).toList())
+                .nextCursor(nextCursor)
+                .hasNext(hasNext)
+                .build();
     }
 
-    private String generateCouponCode() {
-        return UUID.randomUUID().toString().replace("-", "").substring(0, 12).toUpperCase();
+    /**
+     * 결제 화면용 사용 가능 쿠폰 목록 (Redis 쿠폰함 read model)
+     */
+    public List<CouponDto.WalletItem> getUsableCoupons() {
+        return couponWalletService.getUsableCoupons(UserIdInterceptor.getCurrentUserId());
     }
 }
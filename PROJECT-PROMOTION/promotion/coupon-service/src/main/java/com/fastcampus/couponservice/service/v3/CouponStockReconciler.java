@@ -0,0 +1,268 @@
+package com.fastcampus.couponservice.service.v3;
+
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.job.CouponGrantLauncher;
+import com.fastcampus.couponservice.repository.CouponIssuedCount;
+import com.fastcampus.couponservice.repository.CouponPolicyRepository;
+import com.fastcampus.couponservice.repository.CouponRepository;
+import com.fastcampus.couponservice.service.v2.CouponIssueMode;
+import com.fastcampus.couponservice.service.v2.CouponIssueScript;
+import com.fastcampus.couponservice.service.v2.CouponSoldOutRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Redis 쿠폰 수량과 DB 발급 쿠폰 수 대사
+ * Redis 재시작/장애 조치로 수량 키가 사라지거나, 차감 후 발급이 실패했는데 수량을 되돌리지 못하면 두 값이 어긋난다.
+ * 발급 기간이 끝나지 않은 정책을 ID 커서로 batchSize 개씩 돌아가며 확인하므로 한 번의 비용은 전체 정책/쿠폰 수와 관계없다.
+ * - 정상 범위: 총 수량 - 발급 수 - 처리 중인 수량(Kafka lag, 모든 인스턴스의 스풀, 진행 중인 대량 발급) <= 잔여 수량 <= 총 수량 - 발급 수
+ * - 상한을 넘으면 상한으로 줄인다. 처리 중인 수량은 토픽 전체 값이라 다른 정책의 트래픽에 따라 커지므로 줄일 때는 사용하지 않는다.
+ * - 하한보다 적거나 키가 없으면 하한으로 맞춘다.
+ * - 확인한 값이 그대로일 때만 바꾸므로(compare-and-set) 그 사이의 발급과 충돌하지 않는다.
+ * - 수량을 늘리는 보정은 직전 대사 때와 잔여 수량이 같은(발급이 멈춘) 정책에만 적용한다. (DB 저장 전인 v1/v2 요청은 lag 에 잡히지 않음)
+ * - 기동 시에는 트래픽을 받기 전에 모든 정책을 한 번 확인해 사라진 수량 키를 다시 만든다.
+ * LEASE 모드는 다른 인스턴스의 임대 수량을 알 수 없으므로 수량을 줄이는 보정만 한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CouponStockReconciler {
+    private final CouponPolicyRepository couponPolicyRepository;
+    private final CouponRepository couponRepository;
+    private final CouponIssueScript couponIssueScript;
+    private final CouponSoldOutRegistry couponSoldOutRegistry;
+    private final CouponIssueBacklog couponIssueBacklog;
+    private final CouponGrantLauncher couponGrantLauncher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${coupon.issue.mode:SCRIPT}")
+    private CouponIssueMode issueMode = CouponIssueMode.SCRIPT;
+
+    @Value("${coupon.stock.reconcile.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${coupon.stock.reconcile.interval:30s}")
+    private Duration interval = Duration.ofSeconds(30);
+
+    @Value("${coupon.stock.reconcile.batch-size:100}")
+    private int batchSize = 100;
+
+    private final ScheduledExecutorService reconcileExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "coupon-stock-reconcile");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // 수량이 하한보다 적었던 정책의 당시 잔여 수량 (기동 시 호출 스레드, 이후 대사 스레드에서만 접근)
+    private final Map<Long, Long> shortfalls = new HashMap<>();
+    private long cursor;
+    // 한 바퀴(커서가 처음부터 끝까지) 동안 재사용하는 처리 중인 수량 (Kafka admin, Batch 메타데이터 조회는 바퀴당 한 번)
+    private OptionalLong passInFlight = OptionalLong.empty();
+    private Map<Long, Long> passGrantReservations = Map.of();
+
+    private enum Result {
+        REBUILT, LOWERED, RAISED, CONFLICT, SKIPPED
+    }
+
+    /**
+     * 모든 진행 중인 정책을 한 번 대사한 뒤 주기적인 대사를 시작
+     * 빈 초기화 단계에서 실행되므로 웹 서버와 Kafka 리스너가 시작되기 전에 끝난다.
+     */
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        long startTime = System.nanoTime();
+        boolean finished;
+        do {
+            finished = reconcileNextBatch();
+        } while (!finished);
+        log.info("Coupon stock reconciled on startup: elapsedMs={}", (System.nanoTime() - startTime) / 1_000_000);
+
+        long intervalMillis = interval.toMillis();
+        reconcileExecutor.scheduleWithFixedDelay(this::reconcile, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        reconcileExecutor.shutdownNow();
+    }
+
+    void reconcile() {
+        try {
+            reconcileNextBatch();
+        } catch (Exception e) {
+            log.error("Failed to reconcile coupon stock: cursor={}", cursor, e);
+        }
+    }
+
+    /**
+     * 커서 다음의 정책 batchSize 개를 대사
+     * @return 마지막 정책까지 확인해 커서가 처음으로 돌아갔으면 true
+     */
+    boolean reconcileNextBatch() {
+        boolean firstBatch = cursor == 0L;
+        List<CouponPolicy> policies = couponPolicyRepository.findActiveAfter(
+                cursor, LocalDateTime.now(), PageRequest.of(0, batchSize));
+        boolean lastBatch = policies.size() < batchSize;
+        cursor = lastBatch ? 0L : policies.get(policies.size() - 1).getId();
+        if (policies.isEmpty()) {
+            return true;
+        }
+
+        if (firstBatch) {
+            passInFlight = couponIssueBacklog.getInFlight();
+            passGrantReservations = couponGrantLauncher.getOutstandingReservations();
+        }
+        OptionalLong inFlight = passInFlight;
+        Map<Long, Long> grantReservations = passGrantReservations;
+
+        List<Long> policyIds = policies.stream().map(CouponPolicy::getId).toList();
+        // Redis 수량 -> DB 발급 수 순서로 읽는다. 처리 중인 수량은 바퀴 시작 때 값이지만,
+        // 수량을 늘리는 보정은 두 바퀴 연속 잔여 수량이 같을 때만 하므로 그 정책의 처리 중인 요청은 이번 바퀴 시작 전에 보낸 것이다.
+        Map<Long, Long[]> quantities = couponIssueScript.readQuantities(policyIds);
+        Map<Long, Long> issuedCounts = couponRepository.countIssuedByPolicyIds(policyIds).stream()
+                .collect(Collectors.toMap(CouponIssuedCount::getPolicyId, CouponIssuedCount::getIssuedCount));
+
+        for (CouponPolicy policy : policies) {
+            Long policyId = policy.getId();
+            OptionalLong policyInFlight = inFlight.isPresent()
+                    ? OptionalLong.of(inFlight.getAsLong() + grantReservations.getOrDefault(policyId, 0L))
+                    : OptionalLong.empty();
+            try {
+                reconcile(policy, quantities.get(policyId), issuedCounts.getOrDefault(policyId, 0L), policyInFlight);
+            } catch (Exception e) {
+                log.error("Failed to reconcile coupon stock: policyId={}", policyId, e);
+            }
+        }
+        return lastBatch;
+    }
+
+    /**
+     * @param quantities 샤드별 잔여 수량 (키가 없으면 null)
+     * @param issued DB 에 저장된 발급 쿠폰 수
+     * @param inFlight 처리 중인 수량 상한 (알 수 없으면 empty)
+     */
+    private void reconcile(CouponPolicy policy, Long[] quantities, long issued, OptionalLong inFlight) {
+        Long policyId = policy.getId();
+        long upper = Math.max(0L, policy.getTotalQuantity() - issued);
+        long lower = Math.max(0L, upper - inFlight.orElse(upper));
+        long remaining = Arrays.stream(quantities).filter(Objects::nonNull).mapToLong(Long::longValue).sum();
+        boolean missing = Arrays.stream(quantities).anyMatch(Objects::isNull);
+        boolean canRaise = inFlight.isPresent() && issueMode != CouponIssueMode.LEASE;
+
+        Result result;
+        long target;
+        if (remaining > upper) {
+            result = Result.LOWERED;
+            target = upper;
+        } else if (missing) {
+            if (!canRaise) {
+                log.warn("Coupon stock key missing but in-flight quantity unknown: policyId={}, mode={}", policyId, issueMode);
+                record(Result.SKIPPED);
+                return;
+            }
+            result = Result.REBUILT;
+            target = Math.max(lower, remaining);
+        } else if (remaining < lower && canRaise) {
+            Long previous = shortfalls.put(policyId, remaining);
+            if (previous == null || previous != remaining) {
+                return;
+            }
+            result = Result.RAISED;
+            target = lower;
+        } else {
+            shortfalls.remove(policyId);
+            return;
+        }
+        shortfalls.remove(policyId);
+
+        if (!apply(policyId, quantities, target)) {
+            log.info("Coupon stock changed while reconciling, retrying next pass: policyId={}", policyId);
+            record(Result.CONFLICT);
+            return;
+        }
+        if (target == 0) {
+            couponSoldOutRegistry.markSoldOut(policyId);
+        } else if (couponSoldOutRegistry.isSoldOut(policyId)) {
+            couponSoldOutRegistry.clearSoldOut(policyId);
+        }
+        record(result);
+        log.warn("Corrected coupon stock: policyId={}, result={}, remaining={}, target={}, total={}, issued={}, inFlight={}",
+                policyId, result, missing ? null : remaining, target, policy.getTotalQuantity(), issued, inFlight);
+    }
+
+    /**
+     * 샤드마다 확인한 값과 같을 때만 새 수량으로 변경
+     * @return 모든 샤드를 바꿨으면 true (일부만 바뀌어도 각 샤드가 목표 방향으로만 움직이므로 다음 대사에서 이어서 맞춘다)
+     */
+    private boolean apply(Long policyId, Long[] quantities, long target) {
+        long[] values = distribute(quantities, target);
+        boolean applied = true;
+        for (int shard = 0; shard < quantities.length; shard++) {
+            if (quantities[shard] != null && quantities[shard] == values[shard]) {
+                continue;
+            }
+            applied &= couponIssueScript.compareAndSetQuantity(policyId, shard, quantities[shard], values[shard]);
+        }
+        return applied;
+    }
+
+    /**
+     * 목표 합계가 되도록 샤드별 수량 계산
+     * 줄일 때는 많이 남은 샤드부터 빼고, 늘릴 때는 고르게 나누어 더한다.
+     */
+    static long[] distribute(Long[] quantities, long target) {
+        int shards = quantities.length;
+        long[] values = new long[shards];
+        long remaining = 0;
+        for (int shard = 0; shard < shards; shard++) {
+            values[shard] = quantities[shard] != null ? Math.max(0L, quantities[shard]) : 0L;
+            remaining += values[shard];
+        }
+
+        if (target < remaining) {
+            long excess = remaining - target;
+            List<Integer> order = IntStream.range(0, shards).boxed()
+                    .sorted(Comparator.comparingLong((Integer shard) -> values[shard]).reversed())
+                    .toList();
+            for (int shard : order) {
+                long taken = Math.min(values[shard], excess);
+                values[shard] -= taken;
+                excess -= taken;
+            }
+        } else {
+            long deficit = target - remaining;
+            for (int shard = 0; shard < shards; shard++) {
+                values[shard] += deficit / shards + (shard < deficit % shards ? 1 : 0);
+            }
+        }
+        return values;
+    }
+
+    private void record(Result result) {
+        meterRegistry.counter("coupon.stock.reconcile", "result", result.name().toLowerCase()).increment();
+    }
+}
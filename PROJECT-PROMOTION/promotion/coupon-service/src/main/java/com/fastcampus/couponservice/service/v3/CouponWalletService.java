@@ -0,0 +1,252 @@
+package com.fastcampus.couponservice.service.v3;
+
+import com.fastcampus.couponservice.domain.Coupon;
+import com.fastcampus.couponservice.dto.v3.CouponDto;
+import com.fastcampus.couponservice.repository.CouponRepository;
+import com.fastcampus.couponservice.repository.CouponWalletItem;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 사용자별 쿠폰함 read model
+ * 사용 가능한(AVAILABLE, CANCELLED) 쿠폰을 발급 시각 순 sorted set 과 요약 정보 hash 로 Redis 에 보관해
+ * 결제 화면에서 한 번의 Redis 호출로 쿠폰함을 조회한다.
+ *
+ * 발급/사용/취소 시 증분 갱신하며, 갱신에 실패하거나 로드 표시가 없는 사용자는 다음 조회 때 DB 에서 다시 만든다.
+ * 증분 갱신마다 사용자별 버전을 올리고, DB 에서 다시 만들 때는 DB 조회 전에 읽은 버전이 그대로인 경우에만 덮어쓴다.
+ * (조회와 덮어쓰기 사이에 발급/사용된 쿠폰이 지워지거나 되살아나지 않도록)
+ * 유효기간이 지난 쿠폰은 조회 시 제외한다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CouponWalletService {
+    private static final String WALLET_KEY = "coupon:wallet:";
+    private static final Duration WALLET_TTL = Duration.ofDays(7);
+    private static final List<Coupon.Status> USABLE_STATUSES = List.of(Coupon.Status.AVAILABLE, Coupon.Status.CANCELLED);
+
+    // KEYS: 쿠폰 sorted set, 요약 hash, 로드 표시, 버전 / ARGV: 조회 전 버전, TTL(ms), (쿠폰 ID, 발급 시각, 요약 JSON) 반복
+    private static final String REBUILD_SCRIPT = """
+            if tonumber(redis.call('GET', KEYS[4]) or '0') ~= tonumber(ARGV[1]) then
+                return 0
+            end
+            redis.call('DEL', KEYS[1], KEYS[2])
+            for i = 3, #ARGV, 3 do
+                redis.call('ZADD', KEYS[1], ARGV[i + 1], ARGV[i])
+                redis.call('HSET', KEYS[2], ARGV[i], ARGV[i + 2])
+            end
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            redis.call('PEXPIRE', KEYS[2], ARGV[2])
+            redis.call('SET', KEYS[3], '1', 'PX', ARGV[2])
+            return 1
+            """;
+
+    private final RedissonClient redissonClient;
+    private final CouponRepository couponRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 사용자의 사용 가능한 쿠폰 목록 (최근 발급 순)
+     * @param userId 사용자 ID
+     */
+    public List<CouponDto.WalletItem> getUsableCoupons(Long userId) {
+        try {
+            return readWallet(userId);
+        } catch (Exception e) {
+            log.error("Failed to read coupon wallet from Redis, falling back to DB: {}", e.getMessage(), e);
+            return loadFromDb(userId);
+        }
+    }
+
+    private List<CouponDto.WalletItem> readWallet(Long userId) {
+        RBatch batch = redissonClient.createBatch();
+        batch.getBucket(loadedKey(userId), StringCodec.INSTANCE).isExistsAsync();
+        batch.getScoredSortedSet(couponsKey(userId), StringCodec.INSTANCE).valueRangeReversedAsync(0, -1);
+        batch.getMap(itemsKey(userId), StringCodec.INSTANCE).readAllMapAsync();
+        batch.getAtomicLong(versionKey(userId)).getAsync();
+        List<?> responses = batch.execute().getResponses();
+
+        if (!Boolean.TRUE.equals(responses.get(0))) {
+            return rebuild(userId, (Long) responses.get(3));
+        }
+
+        @SuppressWarnings("unchecked")
+        Collection<String> couponIds = (Collection<String>) responses.get(1);
+        @SuppressWarnings("unchecked")
+        Map<String, String> items = (Map<String, String>) responses.get(2);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<CouponDto.WalletItem> wallet = new ArrayList<>(couponIds.size());
+        for (String couponId : couponIds) {
+            String json = items.get(couponId);
+            if (json == null) {
+                continue;
+            }
+            CouponDto.WalletItem item = fromJson(json);
+            if (isValid(item, now)) {
+                wallet.add(item);
+            }
+        }
+        return wallet;
+    }
+
+    /**
+     * 발급되었거나 사용 취소된 쿠폰을 쿠폰함에 추가
+     */
+    public void addCoupons(List<Coupon> coupons) {
+        if (coupons.isEmpty()) {
+            return;
+        }
+        try {
+            RBatch batch = redissonClient.createBatch();
+            for (Coupon coupon : coupons) {
+                addAsync(batch, coupon.getUserId(), CouponDto.WalletItem.from(coupon));
+            }
+            batch.execute();
+        } catch (Exception e) {
+            log.error("Failed to add coupons to wallet: {}", e.getMessage(), e);
+            coupons.forEach(coupon -> invalidate(coupon.getUserId()));
+        }
+    }
+
+    public void addCoupon(Coupon coupon) {
+        addCoupons(List.of(coupon));
+    }
+
+    /**
+     * 사용된 쿠폰을 쿠폰함에서 제거
+     */
+    public void removeCoupon(Coupon coupon) {
+        Long userId = coupon.getUserId();
+        try {
+            RBatch batch = redissonClient.createBatch();
+            batch.getScoredSortedSet(couponsKey(userId), StringCodec.INSTANCE).removeAsync(String.valueOf(coupon.getId()));
+            batch.getMap(itemsKey(userId), StringCodec.INSTANCE).fastRemoveAsync(String.valueOf(coupon.getId()));
+            incrementVersionAsync(batch, userId);
+            batch.execute();
+        } catch (Exception e) {
+            log.error("Failed to remove coupon from wallet: {}", e.getMessage(), e);
+            invalidate(userId);
+        }
+    }
+
+    /**
+     * DB 에서 쿠폰함을 다시 만들고, 조회 전에 읽은 버전 이후 증분 갱신이 없었던 경우에만 Redis 에 저장
+     * 저장하지 못하면 로드 표시가 남지 않아 다음 조회 때 다시 만든다.
+     */
+    private List<CouponDto.WalletItem> rebuild(Long userId, long version) {
+        List<CouponDto.WalletItem> wallet = loadFromDb(userId);
+
+        List<Object> args = new ArrayList<>(2 + wallet.size() * 3);
+        args.add(String.valueOf(version));
+        args.add(String.valueOf(WALLET_TTL.toMillis()));
+        for (CouponDto.WalletItem item : wallet) {
+            args.add(String.valueOf(item.getId()));
+            args.add(String.valueOf(score(item)));
+            args.add(toJson(item));
+        }
+        Long rebuilt = redissonClient.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                REBUILD_SCRIPT,
+                RScript.ReturnType.INTEGER,
+                List.of(couponsKey(userId), itemsKey(userId), loadedKey(userId), versionKey(userId)),
+                args.toArray());
+
+        if (rebuilt != null && rebuilt == 1L) {
+            log.info("Coupon wallet rebuilt: userId={}, size={}", userId, wallet.size());
+        } else {
+            log.info("Coupon wallet changed while rebuilding, skipped: userId={}", userId);
+        }
+        return wallet;
+    }
+
+    private List<CouponDto.WalletItem> loadFromDb(Long userId) {
+        LocalDateTime now = LocalDateTime.now();
+        return couponRepository.findWalletByStatuses(userId, USABLE_STATUSES).stream()
+                .map(CouponDto.WalletItem::from)
+                .filter(item -> isValid(item, now))
+                .toList();
+    }
+
+    // 유효기간이 지난 쿠폰은 사용할 수 없으므로 쿠폰함에서 제외
+    private static boolean isValid(CouponDto.WalletItem item, LocalDateTime now) {
+        return item.getValidUntil() == null || !now.isAfter(item.getValidUntil());
+    }
+
+    private void addAsync(RBatch batch, Long userId, CouponDto.WalletItem item) {
+        String couponId = String.valueOf(item.getId());
+        batch.getScoredSortedSet(couponsKey(userId), StringCodec.INSTANCE).addAsync(score(item), couponId);
+        batch.getScoredSortedSet(couponsKey(userId), StringCodec.INSTANCE).expireAsync(WALLET_TTL);
+        batch.getMap(itemsKey(userId), StringCodec.INSTANCE).fastPutAsync(couponId, toJson(item));
+        batch.getMap(itemsKey(userId), StringCodec.INSTANCE).expireAsync(WALLET_TTL);
+        incrementVersionAsync(batch, userId);
+    }
+
+    private void incrementVersionAsync(RBatch batch, Long userId) {
+        batch.getAtomicLong(versionKey(userId)).incrementAndGetAsync();
+        batch.getAtomicLong(versionKey(userId)).expireAsync(WALLET_TTL);
+    }
+
+    private static long score(CouponDto.WalletItem item) {
+        return item.getIssuedAt() == null ? 0 : item.getIssuedAt().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private void invalidate(Long userId) {
+        try {
+            RBatch batch = redissonClient.createBatch();
+            batch.getBucket(loadedKey(userId), StringCodec.INSTANCE).deleteAsync();
+            incrementVersionAsync(batch, userId);
+            batch.execute();
+        } catch (Exception e) {
+            log.error("Failed to invalidate wallet: userId={}", userId, e);
+        }
+    }
+
+    private String toJson(CouponDto.WalletItem item) {
+        try {
+            return objectMapper.writeValueAsString(item);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("쿠폰함 정보를 JSON으로 변환하는 중 오류가 발생했습니다.", e);
+        }
+    }
+
+    private CouponDto.WalletItem fromJson(String json) {
+        try {
+            return objectMapper.readValue(json, CouponDto.WalletItem.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("쿠폰함 정보를 JSON으로 파싱하는 중 오류가 발생했습니다.", e);
+        }
+    }
+
+    // 같은 사용자의 키는 hash tag 로 같은 슬롯에 두어 배치 한 번으로 읽는다
+    private String couponsKey(Long userId) {
+        return WALLET_KEY + "{" + userId + "}";
+    }
+
+    private String itemsKey(Long userId) {
+        return WALLET_KEY + "{" + userId + "}:items";
+    }
+
+    private String loadedKey(Long userId) {
+        return WALLET_KEY + "{" + userId + "}:loaded";
+    }
+
+    private String versionKey(Long userId) {
+        return WALLET_KEY + "{" + userId + "}:version";
+    }
+}
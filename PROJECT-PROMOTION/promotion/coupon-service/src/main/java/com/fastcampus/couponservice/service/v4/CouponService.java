@@ -0,0 +1,112 @@
+package com.fastcampus.couponservice.service.v4;
+
+import com.fastcampus.couponservice.aop.CouponMetered;
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.dto.v3.CouponDto;
+import com.fastcampus.couponservice.exception.CouponSoldOutException;
+import com.fastcampus.couponservice.service.v2.CouponIssueScript;
+import com.fastcampus.couponservice.service.v2.CouponPolicyCache;
+import com.fastcampus.couponservice.service.v2.CouponPolicyService;
+import com.fastcampus.couponservice.service.v2.CouponStockService;
+import com.fastcampus.couponservice.service.v3.CouponProducer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.UUID;
+
+/**
+ * 논블로킹 쿠폰 발급 요청 (v3 와 같은 흐름을 Mono 로 구성)
+ * 정책 조회, 수량 차감(Lua 스크립트), 스풀 기록/Kafka 전송 모두 호출 스레드를 점유하지 않는다.
+ * coupon.issue.mode 와 관계없이 수량 차감은 항상 Lua 스크립트(SCRIPT)로 처리한다.
+ */
+@Slf4j
+@Service("couponServiceV4")
+@RequiredArgsConstructor
+public class CouponService {
+    private static final String VERSION = "v4";
+    private static final String COUPON_POLICY_KEY = "coupon:policy:";
+
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+    private final CouponPolicyCache couponPolicyCache;
+    private final CouponPolicyService couponPolicyService;
+    private final CouponIssueScript couponIssueScript;
+    private final CouponStockService couponStockService;
+    private final CouponProducer couponProducer;
+
+    @CouponMetered(version = VERSION)
+    public Mono<Void> requestCouponIssue(CouponDto.IssueRequest request, Long userId) {
+        Long policyId = request.getCouponPolicyId();
+        return Mono.defer(() -> {
+                    couponStockService.checkSoldOut(policyId);
+                    return getCouponPolicy(policyId);
+                })
+                .flatMap(couponPolicy -> reserve(couponPolicy, userId))
+                .then(Mono.defer(() -> send(policyId, userId)));
+    }
+
+    private Mono<Long> reserve(CouponPolicy couponPolicy, Long userId) {
+        Long policyId = couponPolicy.getId();
+        return couponIssueScript.issueReactive(couponPolicy, userId)
+                .doOnNext(remaining -> {
+                    if (remaining == 0 && couponIssueScript.getStockShards() <= 1) {
+                        couponStockService.markSoldOut(policyId);
+                    }
+                })
+                .doOnError(CouponSoldOutException.class, e -> couponStockService.markSoldOut(policyId));
+    }
+
+    private Mono<Void> send(Long policyId, Long userId) {
+        CouponDto.IssueMessage message = CouponDto.IssueMessage.builder()
+                .requestId(UUID.randomUUID().toString())
+                .policyId(policyId)
+                .userId(userId)
+                .build();
+        return publish(message)
+                // 스풀 기록(파일 I/O)과 KafkaTemplate.send(메타데이터 대기 시 max.block.ms 까지 블로킹)가
+                // Redisson 이벤트 루프 스레드를 점유하지 않도록 boundedElastic 에서 실행한다
+                .subscribeOn(Schedulers.boundedElastic())
+                .onErrorResume(e -> couponIssueScript.releaseReactive(policyId, userId)
+                        .then(Mono.error(e)));
+    }
+
+    /**
+     * 스풀을 사용하면 v3 와 같이 스풀에 기록하고 relay 가 전송 (브로커 장애 중에도 요청이 유실되지 않는다)
+     * 스풀을 끄면 브로커 응답까지 기다려 실패 시 수량을 되돌린다.
+     */
+    private Mono<Void> publish(CouponDto.IssueMessage message) {
+        if (couponProducer.isSpoolEnabled()) {
+            return Mono.fromRunnable(() -> couponProducer.spoolCouponIssueRequest(VERSION, message));
+        }
+        return Mono.fromFuture(() -> couponProducer.sendCouponIssueRequestAsync(VERSION, message)).then();
+    }
+
+    /**
+     * near cache -> Redis(reactive) -> DB 순서로 정책 조회
+     * DB 조회는 JDBC 가 블로킹이므로 boundedElastic 에서 실행한다.
+     */
+    private Mono<CouponPolicy> getCouponPolicy(Long policyId) {
+        CouponPolicy cached = couponPolicyCache.getIfPresent(policyId);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+
+        return redissonClient.reactive()
+                .<String>getBucket(COUPON_POLICY_KEY + policyId, StringCodec.INSTANCE)
+                .get()
+                .flatMap(json -> Mono.fromCallable(() -> objectMapper.readValue(json, CouponPolicy.class))
+                        .onErrorResume(e -> {
+                            log.error("쿠폰 정책 정보를 JSON으로 파싱하는 중 오류가 발생했습니다.", e);
+                            return Mono.empty();
+                        }))
+                .doOnNext(couponPolicy -> couponPolicyCache.put(policyId, couponPolicy))
+                .switchIfEmpty(Mono.fromCallable(() -> couponPolicyService.getCouponPolicy(policyId))
+                        .subscribeOn(Schedulers.boundedElastic()));
+    }
+}
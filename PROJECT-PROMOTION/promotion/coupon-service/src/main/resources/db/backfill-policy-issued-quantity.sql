@@ -0,0 +1,9 @@
+-- coupon_policies.issued_quantity 컬럼이 추가된(ddl-auto update) 뒤 한 번 실행
+-- 기존 정책은 0 으로 시작하므로 그대로 두면 v1 COUNTER 모드가 이미 발급된 수만큼 더 발급한다.
+-- 정책별 발급 쿠폰 수로 채우며, 실행하는 동안에는 v1 발급을 멈춘다.
+UPDATE coupon_policies
+SET issued_quantity = (
+    SELECT COUNT(*)
+    FROM coupon c
+    WHERE c.coupon_policy_id = coupon_policies.id
+);
@@ -0,0 +1,13 @@
+-- uk_coupon_code 유니크 인덱스를 만들기 전에 한 번 실행
+-- 이전 코드(UUID 앞 8자리, v3 의 UUID 12자리)는 중복될 수 있어 중복이 남아 있으면 인덱스 생성(ddl-auto update)이 실패한다.
+-- 같은 코드 중 가장 먼저 저장된 쿠폰은 그대로 두고, 나머지는 "코드-쿠폰ID" 로 바꾼다. ('-' 가 들어가 새 형식 코드와 겹치지 않음)
+-- 바뀐 코드는 해당 사용자에게 다시 안내해야 한다.
+UPDATE coupon
+SET coupon_code = CONCAT(coupon_code, '-', id)
+WHERE id IN (
+    SELECT id FROM (
+        SELECT c.id
+        FROM coupon c
+        WHERE EXISTS (SELECT 1 FROM coupon o WHERE o.coupon_code = c.coupon_code AND o.id < c.id)
+    ) duplicated
+);
@@ -0,0 +1,55 @@
+package com.fastcampus.couponservice.aop;
+
+import com.fastcampus.couponservice.service.v2.CouponIssueMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CouponIssueMetricsTest {
+
+    private MeterRegistry registry;
+    private CouponIssueMetrics couponIssueMetrics;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        couponIssueMetrics = new CouponIssueMetrics(registry);
+    }
+
+    @Test
+    @DisplayName("태그가 같은 기록은 처음 등록한 meter 에 누적되고 이후에는 새로 등록하지 않는다")
+    void record_ReusesMeters() {
+        // Given
+        recordAll();
+        int meterCount = registry.getMeters().size();
+
+        // When
+        recordAll();
+
+        // Then
+        assertThat(registry.getMeters()).hasSize(meterCount);
+        assertThat(registry.get("coupon.issue.lock.wait").tags("version", "v2", "acquired", "true").timer().count()).isEqualTo(2L);
+        assertThat(registry.get("coupon.issue.lock.wait").tags("version", "v2", "acquired", "false").timer().count()).isZero();
+        assertThat(registry.get("coupon.issue.phase").tags("version", "v2", "phase", "lock_wait").timer().count()).isEqualTo(2L);
+        assertThat(registry.get("coupon.issue.stock.duration").tags("version", "v2", "mode", "script").timer().count()).isEqualTo(2L);
+        assertThat(registry.get("coupon.issue.admission").tags("policyId", "1", "result", "queued").counter().count()).isEqualTo(2.0);
+        assertThat(registry.get("coupon.issue.admission.queue.wait").tags("policyId", "1").timer().count()).isEqualTo(2L);
+        assertThat(registry.get("coupon.stock.lease.leased").tags("policyId", "1").counter().count()).isEqualTo(20.0);
+        assertThat(registry.get("coupon.stock.lease.served").tags("policyId", "1").counter().count()).isEqualTo(2.0);
+        assertThat(registry.get("coupon.stock.lease.returned").tags("policyId", "1").counter().count()).isEqualTo(6.0);
+    }
+
+    private void recordAll() {
+        couponIssueMetrics.recordLockWait("v2", true, 1_000L);
+        couponIssueMetrics.recordStockDuration("v2", CouponIssueMode.SCRIPT, 1_000L);
+        couponIssueMetrics.recordAdmission(1L, "queued");
+        couponIssueMetrics.recordAdmissionQueueWait(1L, 1_000L);
+        couponIssueMetrics.recordLeaseLeased(1L, 10L);
+        couponIssueMetrics.recordLeaseServed(1L);
+        couponIssueMetrics.recordLeaseReturned(1L, 3L);
+    }
+}
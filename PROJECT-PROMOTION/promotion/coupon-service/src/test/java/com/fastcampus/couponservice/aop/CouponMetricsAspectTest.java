@@ -0,0 +1,86 @@
+package com.fastcampus.couponservice.aop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CouponMetricsAspectTest {
+
+    private MeterRegistry registry;
+    private MeteredTarget target;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new MeteredTarget());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAspect(new CouponMetricsAspect(registry));
+        target = proxyFactory.getProxy();
+    }
+
+    @Test
+    @DisplayName("성공 호출은 같은 Counter/Timer 에 누적")
+    void measure_Success() {
+        // When
+        target.issue();
+        target.issue();
+
+        // Then
+        assertThat(registry.get("coupon.operation.success")
+                .tags("version", "v2", "operation", "issue").counter().count()).isEqualTo(2.0);
+        assertThat(registry.get("coupon.operation.duration")
+                .tags("version", "v2", "operation", "issue").timer().count()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("실패 호출은 예외 타입별로 기록")
+    void measure_Failure() {
+        // When
+        assertThatThrownBy(() -> target.fail()).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> target.fail()).isInstanceOf(IllegalStateException.class);
+
+        // Then
+        assertThat(registry.get("coupon.operation.failure")
+                .tags("version", "v2", "operation", "fail", "error", "IllegalStateException")
+                .counter().count()).isEqualTo(2.0);
+        assertThat(registry.get("coupon.operation.success")
+                .tags("version", "v2", "operation", "fail").counter().count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Mono 반환 메서드는 구독이 끝난 뒤 기록")
+    void measure_Mono() {
+        // When
+        Mono<Void> result = target.issueReactive();
+
+        // Then
+        assertThat(registry.get("coupon.operation.success")
+                .tags("version", "v4", "operation", "issueReactive").counter().count()).isZero();
+        result.block();
+        assertThat(registry.get("coupon.operation.success")
+                .tags("version", "v4", "operation", "issueReactive").counter().count()).isEqualTo(1.0);
+    }
+
+    static class MeteredTarget {
+        @CouponMetered(version = "v2")
+        public void issue() {
+        }
+
+        @CouponMetered(version = "v2")
+        public void fail() {
+            throw new IllegalStateException("쿠폰 발급 기간이 아닙니다.");
+        }
+
+        @CouponMetered(version = "v4")
+        public Mono<Void> issueReactive() {
+            return Mono.empty();
+        }
+    }
+}
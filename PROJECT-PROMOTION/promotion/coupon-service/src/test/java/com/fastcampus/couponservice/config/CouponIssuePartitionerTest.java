@@ -0,0 +1,69 @@
+package com.fastcampus.couponservice.config;
+
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CouponIssuePartitionerTest {
+    private static final String TOPIC = "coupon-issue-requests";
+    private static final int PARTITIONS = 6;
+
+    private final CouponIssuePartitioner partitioner = new CouponIssuePartitioner();
+    private final Cluster cluster = new Cluster("test", List.of(),
+            IntStream.range(0, PARTITIONS)
+                    .mapToObj(partition -> new PartitionInfo(TOPIC, partition, null, new Node[0], new Node[0]))
+                    .toList(),
+            Set.of(), Set.of());
+
+    @Test
+    @DisplayName("인기 정책 하나의 요청이 모든 파티션으로 분산")
+    void spreadHotPolicy() {
+        // Given
+        Set<Integer> partitions = new HashSet<>();
+
+        // When
+        for (long userId = 1; userId <= 1000; userId++) {
+            partitions.add(partition(CouponIssuePartitioner.key(1L, userId, PARTITIONS)));
+        }
+
+        // Then
+        assertThat(partitions).hasSize(PARTITIONS);
+    }
+
+    @Test
+    @DisplayName("같은 사용자의 요청은 항상 같은 파티션")
+    void sameUserSamePartition() {
+        // When
+        int first = partition(CouponIssuePartitioner.key(1L, 42L, PARTITIONS));
+        int second = partition(CouponIssuePartitioner.key(1L, 42L, PARTITIONS));
+
+        // Then
+        assertThat(first).isEqualTo(second);
+    }
+
+    @Test
+    @DisplayName("salt 가 1 이하면 정책 ID 만 키로 사용")
+    void noSalt() {
+        // When
+        String key = CouponIssuePartitioner.key(1L, 42L, 1);
+
+        // Then
+        assertThat(key).isEqualTo("1");
+        assertThat(partition(key)).isBetween(0, PARTITIONS - 1);
+    }
+
+    private int partition(String key) {
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        return partitioner.partition(TOPIC, key, keyBytes, null, null, cluster);
+    }
+}
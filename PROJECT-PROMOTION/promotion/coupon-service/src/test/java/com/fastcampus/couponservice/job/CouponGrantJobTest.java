@@ -0,0 +1,250 @@
+package com.fastcampus.couponservice.job;
+
+import com.fastcampus.couponservice.domain.Coupon;
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.repository.CouponPolicyRepository;
+import com.fastcampus.couponservice.repository.CouponRepository;
+import com.fastcampus.couponservice.service.code.CouponCodeFilter;
+import com.fastcampus.couponservice.service.code.CouponCodeGenerator;
+import com.fastcampus.couponservice.service.v2.CouponIssueScript;
+import com.fastcampus.couponservice.service.v2.CouponStockService;
+import com.fastcampus.couponservice.service.v3.CouponWalletService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.JobLauncherTestUtils;
+import org.springframework.batch.test.JobRepositoryTestUtils;
+import org.springframework.batch.test.context.SpringBatchTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.batch.BatchAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 대량 발급 Job 을 실제 DB(H2)와 Batch 메타데이터로 실행
+ * Redis 를 쓰는 수량/캐시 서비스는 mock 으로 두고 호출 시점과 인자만 확인한다.
+ * Job 은 자체 청크 트랜잭션을 쓰므로 테스트 트랜잭션은 사용하지 않는다.
+ */
+@SpringBatchTest
+@DataJpaTest(properties = {
+        "spring.batch.job.enabled=false",
+        "coupon.grant.grid-size=1",
+        "coupon.grant.chunk-size=2"
+})
+@ImportAutoConfiguration(BatchAutoConfiguration.class)
+@Import({CouponGrantJobConfig.class, CouponGrantSource.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CouponGrantJobTest {
+    private static Path baseDir;
+
+    @Autowired
+    private JobLauncherTestUtils jobLauncherTestUtils;
+
+    @Autowired
+    private JobRepositoryTestUtils jobRepositoryTestUtils;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponPolicyRepository couponPolicyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private CouponCodeGenerator couponCodeGenerator;
+
+    @MockBean
+    private CouponCodeFilter couponCodeFilter;
+
+    @MockBean
+    private CouponWalletService couponWalletService;
+
+    @MockBean
+    private CouponIssueScript couponIssueScript;
+
+    @MockBean
+    private CouponStockService couponStockService;
+
+    private final AtomicInteger generatedCodes = new AtomicInteger();
+    private final AtomicBoolean failSecondChunk = new AtomicBoolean();
+
+    @DynamicPropertySource
+    static void grantProperties(DynamicPropertyRegistry registry) throws IOException {
+        baseDir = Files.createTempDirectory("coupon-grant");
+        registry.add("coupon.grant.base-dir", baseDir::toString);
+    }
+
+    @BeforeEach
+    void setUp() {
+        // failSecondChunk 가 켜져 있으면 두 번째 청크의 첫 코드(세 번째 코드) 생성에서 한 번 실패
+        when(couponCodeGenerator.generate()).thenAnswer(invocation -> {
+            int sequence = generatedCodes.incrementAndGet();
+            if (sequence == 3 && failSecondChunk.compareAndSet(true, false)) {
+                throw new IllegalStateException("code generator unavailable");
+            }
+            return String.format("GRANT%05d", sequence);
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        jobRepositoryTestUtils.removeJobExecutions();
+        couponRepository.deleteAllInBatch();
+        couponPolicyRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("실패한 Job 을 다시 실행하면 수량 차감 없이 마지막으로 커밋된 청크 다음부터 발급")
+    void restart_ResumesFromLastCommittedChunk() throws Exception {
+        // Given
+        CouponPolicy policy = savePolicy();
+        JobParameters parameters = parameters(policy, writeFile("restart.txt", "1\n2\n3\n4\n5\n"));
+        failSecondChunk.set(true);
+
+        // When
+        JobExecution failed = jobLauncherTestUtils.launchJob(parameters);
+
+        // Then
+        assertThat(failed.getStatus()).isEqualTo(BatchStatus.FAILED);
+        assertThat(grantedUserIds(policy)).containsExactly(1L, 2L);
+        verify(couponStockService).reserveBulk(policy.getId(), 5L);
+
+        // When
+        JobExecution restarted = jobLauncherTestUtils.launchJob(parameters);
+
+        // Then
+        assertThat(restarted.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(restarted.getStepExecutions()).extracting(StepExecution::getStepName)
+                .doesNotContain("couponGrantReserveStep");
+        assertThat(grantedUserIds(policy)).containsExactly(1L, 2L, 3L, 4L, 5L);
+        verify(couponStockService, times(1)).reserveBulk(anyLong(), anyLong());
+        verify(couponStockService).releaseBulk(policy.getId(), 0L);
+    }
+
+    @Test
+    @DisplayName("쿠폰함/발급 이력/코드 필터는 청크가 커밋된 뒤에만, 커밋된 쿠폰만 갱신")
+    void write_UpdatesCachesAfterCommit() throws Exception {
+        // Given
+        CouponPolicy policy = savePolicy();
+        JobParameters parameters = parameters(policy, writeFile("cache.txt", "1\n2\n3\n"));
+        failSecondChunk.set(true);
+        List<Long> visibleOnUpdate = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            // 다른 커넥션에서 조회해 커밋된 쿠폰만 보이는지 확인
+            Collection<Coupon> coupons = invocation.getArgument(0);
+            List<Long> ids = coupons.stream().map(Coupon::getId).toList();
+            visibleOnUpdate.add(CompletableFuture.supplyAsync(() -> countCoupons(ids)).get());
+            return null;
+        }).when(couponWalletService).addCoupons(anyList());
+
+        // When
+        jobLauncherTestUtils.launchJob(parameters);
+
+        // Then
+        verify(couponWalletService, times(1)).addCoupons(anyList());
+        verify(couponIssueScript).markIssued(any(CouponPolicy.class), eq(List.of(1L, 2L)));
+        verify(couponCodeFilter, times(1)).addAll(anyList());
+        assertThat(visibleOnUpdate).containsExactly(2L);
+
+        // When
+        jobLauncherTestUtils.launchJob(parameters);
+
+        // Then
+        verify(couponIssueScript).markIssued(any(CouponPolicy.class), eq(List.of(3L)));
+        verify(couponWalletService, times(2)).addCoupons(anyList());
+        assertThat(visibleOnUpdate).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("중복 줄과 이미 받은 사용자는 발급하지 않고, 차감했던 수량은 완료 시 반환")
+    void complete_ReleasesUnusedReservation() throws Exception {
+        // Given
+        CouponPolicy policy = savePolicy();
+        couponRepository.save(Coupon.builder()
+                .couponPolicy(policy)
+                .userId(4L)
+                .couponCode("EXISTING")
+                .build());
+        JobParameters parameters = parameters(policy, writeFile("duplicates.txt", "1\n2\n2\n3\n# holders\n4\n"));
+
+        // When
+        JobExecution execution = jobLauncherTestUtils.launchJob(parameters);
+
+        // Then
+        assertThat(execution.getStatus()).isEqualTo(BatchStatus.COMPLETED);
+        assertThat(grantedUserIds(policy)).containsExactly(1L, 2L, 3L, 4L);
+        verify(couponStockService).reserveBulk(policy.getId(), 5L);
+        verify(couponStockService).releaseBulk(policy.getId(), 2L);
+        assertThat(CouponGrantJobListener.countGranted(List.of(execution))).isEqualTo(3L);
+    }
+
+    private CouponPolicy savePolicy() {
+        return couponPolicyRepository.save(CouponPolicy.builder()
+                .name("grant")
+                .discountType(CouponPolicy.DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(0)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(100)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build());
+    }
+
+    private String writeFile(String name, String content) throws IOException {
+        Files.writeString(baseDir.resolve(name), content);
+        return name;
+    }
+
+    private JobParameters parameters(CouponPolicy policy, String userFiles) {
+        return new JobParametersBuilder()
+                .addLong(CouponGrantJobConfig.POLICY_ID, policy.getId())
+                .addLong(CouponGrantJobConfig.REQUESTED_AT, System.nanoTime())
+                .addString(CouponGrantJobConfig.USER_FILES, userFiles)
+                .toJobParameters();
+    }
+
+    private List<Long> grantedUserIds(CouponPolicy policy) {
+        return jdbcTemplate.queryForList(
+                "SELECT user_id FROM coupon WHERE coupon_policy_id = ? ORDER BY user_id", Long.class, policy.getId());
+    }
+
+    private long countCoupons(List<Long> ids) {
+        return ids.stream()
+                .mapToLong(id -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM coupon WHERE id = ?", Long.class, id))
+                .sum();
+    }
+}
@@ -0,0 +1,62 @@
+package com.fastcampus.couponservice.job;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CouponGrantPartitionerTest {
+
+    @Mock
+    private CouponGrantSource couponGrantSource;
+
+    @Test
+    @DisplayName("사용자 ID 구간 파티션 분할 - 빈틈과 겹침 없이 gridSize 개로 나눈다")
+    void partitionUserRange() {
+        // Given
+        when(couponGrantSource.sourceUserRange(10L)).thenReturn(new long[]{1L, 1_000_001L});
+        CouponGrantPartitioner partitioner = new CouponGrantPartitioner(couponGrantSource, null, 10L);
+
+        // When
+        Map<String, ExecutionContext> partitions = partitioner.partition(4);
+
+        // Then
+        List<ExecutionContext> ranges = partitions.values().stream()
+                .sorted(Comparator.comparingLong(context -> context.getLong(CouponGrantPartitioner.MIN_USER_ID)))
+                .toList();
+        assertThat(ranges).hasSize(4);
+        assertThat(ranges.get(0).getLong(CouponGrantPartitioner.MIN_USER_ID)).isEqualTo(1L);
+        assertThat(ranges.get(3).getLong(CouponGrantPartitioner.MAX_USER_ID)).isEqualTo(1_000_001L);
+        for (int i = 1; i < ranges.size(); i++) {
+            assertThat(ranges.get(i).getLong(CouponGrantPartitioner.MIN_USER_ID))
+                    .isEqualTo(ranges.get(i - 1).getLong(CouponGrantPartitioner.MAX_USER_ID) + 1);
+        }
+    }
+
+    @Test
+    @DisplayName("사용자 ID 구간 파티션 분할 - 원천 사용자가 없으면 빈 구간 하나")
+    void partitionEmptyUserRange() {
+        // Given
+        when(couponGrantSource.sourceUserRange(10L)).thenReturn(null);
+        CouponGrantPartitioner partitioner = new CouponGrantPartitioner(couponGrantSource, null, 10L);
+
+        // When
+        Map<String, ExecutionContext> partitions = partitioner.partition(4);
+
+        // Then
+        assertThat(partitions).hasSize(1);
+        ExecutionContext context = partitions.values().iterator().next();
+        assertThat(context.getLong(CouponGrantPartitioner.MIN_USER_ID))
+                .isGreaterThan(context.getLong(CouponGrantPartitioner.MAX_USER_ID));
+    }
+}
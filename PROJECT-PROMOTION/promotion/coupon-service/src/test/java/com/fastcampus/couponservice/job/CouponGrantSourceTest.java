@@ -0,0 +1,103 @@
+package com.fastcampus.couponservice.job;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CouponGrantSourceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path baseDir;
+    private CouponGrantSource couponGrantSource;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        baseDir = Files.createDirectory(tempDir.resolve("grant"));
+        Files.createDirectory(baseDir.resolve("segment"));
+        Files.writeString(baseDir.resolve("segment/users-1.txt"), "1\n2\n");
+        Files.writeString(baseDir.resolve("segment/users-2.txt"), "3\n");
+        Files.writeString(tempDir.resolve("secret.txt"), "4\n");
+
+        couponGrantSource = new CouponGrantSource(new PathMatchingResourcePatternResolver(), null);
+        ReflectionTestUtils.setField(couponGrantSource, "baseDir", baseDir.toString());
+    }
+
+    @Test
+    @DisplayName("대상 파일 - 기본 디렉터리 기준 상대 경로 패턴으로 조회")
+    void resolveFiles() {
+        // When
+        List<Resource> resources = couponGrantSource.resolveFiles("segment/users-*.txt");
+
+        // Then
+        assertThat(resources).hasSize(2);
+        assertThat(couponGrantSource.countFileUsers(resources)).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("대상 파일 - URL, 절대 경로, 상위 디렉터리 경로는 거절")
+    void resolveFiles_Fail_OutsideBaseDir() {
+        for (String userFiles : List.of("../secret.txt", "segment/../../secret.txt", tempDir.resolve("secret.txt").toString(),
+                "file:" + tempDir.resolve("secret.txt"), "http://169.254.169.254/latest/meta-data", "classpath*:**/*.yml")) {
+            assertThatThrownBy(() -> couponGrantSource.resolveFiles(userFiles))
+                    .as(userFiles)
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("대상 파일 - 기본 디렉터리 밖을 가리키는 심볼릭 링크는 거절")
+    void resolveFiles_Fail_SymbolicLink() throws IOException {
+        // Given
+        Files.createSymbolicLink(baseDir.resolve("link.txt"), tempDir.resolve("secret.txt"));
+
+        // When & Then
+        assertThatThrownBy(() -> couponGrantSource.resolveFiles("link.txt"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("대상 파일 - 기본 디렉터리가 설정되지 않으면 파일 원천을 사용할 수 없음")
+    void resolveFiles_Fail_BaseDirNotConfigured() {
+        // Given
+        ReflectionTestUtils.setField(couponGrantSource, "baseDir", "");
+
+        // When & Then
+        assertThatThrownBy(() -> couponGrantSource.resolveFiles("segment/users-1.txt"))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("대상 파일 - 일치하는 파일이 없으면 실패")
+    void resolveFiles_Fail_NotFound() {
+        assertThatThrownBy(() -> couponGrantSource.resolveFiles("segment/missing.txt"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("파일 사용자 수 - 주석 줄은 건너뛰고 잘못된 줄이 있으면 실패")
+    void countFileUsers() {
+        // Given
+        Resource valid = new ByteArrayResource("# users\n1\n2\n 3 \n".getBytes());
+        Resource invalid = new ByteArrayResource("1\nabc\n".getBytes());
+
+        // When & Then
+        assertThat(couponGrantSource.countFileUsers(List.of(valid))).isEqualTo(3L);
+        assertThatThrownBy(() -> couponGrantSource.countFileUsers(List.of(invalid)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,98 @@
+package com.fastcampus.couponservice.service.code;
+
+import com.fastcampus.couponservice.domain.Coupon;
+import com.fastcampus.couponservice.repository.CouponCodeSequenceRepository;
+import com.fastcampus.couponservice.repository.CouponRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * DB 시퀀스 기반 번호 구간 할당을 실제 DB(H2)로 검증
+ */
+@DataJpaTest
+@Import(CouponCodeBlockAllocator.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CouponCodeBlockAllocatorTest {
+
+    @Autowired
+    private CouponCodeBlockAllocator couponCodeBlockAllocator;
+
+    @Autowired
+    private CouponCodeSequenceRepository couponCodeSequenceRepository;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @MockBean
+    private RedissonClient redissonClient;
+
+    @AfterEach
+    void tearDown() {
+        couponRepository.deleteAllInBatch();
+        couponCodeSequenceRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("시퀀스가 없으면 발급된 코드의 최대 번호 + 여유분부터 할당하고 이후 구간은 겹치지 않음")
+    void allocate_SeedFromIssuedCodes() {
+        // Given
+        RAtomicLong legacySequence = mock(RAtomicLong.class);
+        when(redissonClient.getAtomicLong(CouponCodeBlockAllocator.LEGACY_SEQUENCE_KEY)).thenReturn(legacySequence);
+        when(legacySequence.get()).thenReturn(0L);
+        couponRepository.saveAll(List.of(
+                coupon(SequenceCouponCodeGenerator.encode(1_500L)),
+                coupon(SequenceCouponCodeGenerator.encode(42L)),
+                coupon("1a2b3c4d"),
+                // 검증 문자까지 맞아 큰 번호로 해석되는 이전 v3 코드
+                coupon("0F4B6322D8EB")));
+
+        // When
+        long first = couponCodeBlockAllocator.allocate(100L);
+        long second = couponCodeBlockAllocator.allocate(100L);
+
+        // Then
+        long expected = 1_501L + CouponCodeBlockAllocator.SEED_MARGIN;
+        assertThat(first).isEqualTo(expected);
+        assertThat(second).isEqualTo(expected + 100L);
+        assertThat(couponCodeSequenceRepository.findById(CouponCodeBlockAllocator.SEQUENCE_NAME).orElseThrow()
+                .getNextValue()).isEqualTo(expected + 200L);
+    }
+
+    @Test
+    @DisplayName("이전 Redis 시퀀스가 발급된 코드보다 앞서 있으면 그 값부터 할당")
+    void allocate_SeedFromLegacySequence() {
+        // Given
+        RAtomicLong legacySequence = mock(RAtomicLong.class);
+        when(redissonClient.getAtomicLong(CouponCodeBlockAllocator.LEGACY_SEQUENCE_KEY)).thenReturn(legacySequence);
+        when(legacySequence.get()).thenReturn(3_000_000L);
+        couponRepository.save(coupon(SequenceCouponCodeGenerator.encode(1_500L)));
+
+        // When
+        long start = couponCodeBlockAllocator.allocate(100L);
+
+        // Then
+        assertThat(start).isEqualTo(3_000_000L);
+    }
+
+    private Coupon coupon(String couponCode) {
+        return Coupon.builder()
+                .userId(1L)
+                .couponCode(couponCode)
+                .build();
+    }
+}
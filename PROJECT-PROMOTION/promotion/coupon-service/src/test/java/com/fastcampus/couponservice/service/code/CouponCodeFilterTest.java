@@ -0,0 +1,141 @@
+package com.fastcampus.couponservice.service.code;
+
+import com.fastcampus.couponservice.repository.CouponRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.client.codec.Codec;
+
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponCodeFilterTest {
+    private static final int ISSUED_CODES = 10_000;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    @Mock
+    private RTopic rTopic;
+
+    private SimpleMeterRegistry meterRegistry;
+    private CouponCodeFilter couponCodeFilter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        couponCodeFilter = new CouponCodeFilter(redissonClient, couponRepository,
+                new SequenceCouponCodeGenerator(mock(CouponCodeBlockAllocator.class)), meterRegistry, ISSUED_CODES, 0.01);
+    }
+
+    @Test
+    @DisplayName("재구성 후 발급된 코드는 통과하고 발급되지 않은 코드는 대부분 거절")
+    void rebuild_RejectsUnknownCodes() {
+        // Given
+        when(couponRepository.streamAllCouponCodes()).thenReturn(codes(0, ISSUED_CODES).stream());
+
+        // When
+        couponCodeFilter.rebuild();
+
+        // Then
+        assertThat(codes(0, ISSUED_CODES)).allMatch(couponCodeFilter::mightContain);
+        long falsePositives = codes(ISSUED_CODES, ISSUED_CODES * 2).stream()
+                .filter(couponCodeFilter::mightContain)
+                .count();
+        assertThat(falsePositives).isLessThan(ISSUED_CODES / 50);
+        assertThat(meterRegistry.get("coupon.code.filter.checks").tag("result", "rejected").counter().count())
+                .isEqualTo((double) (ISSUED_CODES - falsePositives));
+        assertThat(meterRegistry.get("coupon.code.filter.insertions").gauge().value()).isEqualTo((double) ISSUED_CODES);
+        assertThat(couponCodeFilter.expectedFpp()).isLessThan(0.02);
+    }
+
+    @Test
+    @DisplayName("형식이 잘못된 코드는 필터 조회 전에 거절")
+    void mightContain_RejectsMalformedCode() {
+        // When & Then
+        assertThat(couponCodeFilter.mightContain(null)).isFalse();
+        assertThat(couponCodeFilter.mightContain("TEST123")).isFalse();
+        assertThat(meterRegistry.get("coupon.code.filter.checks").tag("result", "malformed").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("이전 형식 코드는 형식 검사 없이 필터로 판단")
+    void mightContain_LegacyCode() {
+        // Given
+        when(couponRepository.streamAllCouponCodes()).thenReturn(Stream.of("1a2b3c4d", "9F8E7D6C5B4A", "5e6f7a8b-17"));
+
+        // When
+        couponCodeFilter.rebuild();
+
+        // Then
+        assertThat(couponCodeFilter.mightContain("1A2B3C4D")).isTrue();
+        assertThat(couponCodeFilter.mightContain("9F8E7D6C5B4A")).isTrue();
+        assertThat(couponCodeFilter.mightContain("5E6F7A8B-17")).isTrue();
+        assertThat(couponCodeFilter.mightContain("0A0B0C0D")).isFalse();
+        assertThat(meterRegistry.get("coupon.code.filter.checks").tag("result", "malformed").counter().count())
+                .isZero();
+    }
+
+    @Test
+    @DisplayName("재구성 전에는 형식이 맞는 코드를 모두 통과시켜 DB 에서 판단")
+    void mightContain_PassesBeforeRebuild() {
+        // When & Then
+        assertThat(couponCodeFilter.isReady()).isFalse();
+        assertThat(couponCodeFilter.mightContain(SequenceCouponCodeGenerator.encode(42L))).isTrue();
+    }
+
+    @Test
+    @DisplayName("발급된 코드를 로컬 필터에 추가하고 다른 인스턴스에서 받은 코드만 반영")
+    @SuppressWarnings("unchecked")
+    void addAll_PublishesAndAppliesEvents() {
+        // Given
+        when(redissonClient.getTopic(anyString(), any(Codec.class))).thenReturn(rTopic);
+        when(couponRepository.streamAllCouponCodes()).thenReturn(Stream.empty());
+        ArgumentCaptor<MessageListener<String>> listener = ArgumentCaptor.forClass(MessageListener.class);
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        couponCodeFilter.subscribe();
+        couponCodeFilter.rebuild();
+        verify(rTopic).addListener(eq(String.class), listener.capture());
+        List<String> localCodes = codes(0, 2);
+        List<String> remoteCodes = codes(2, 4);
+        List<String> previousVersionCodes = codes(4, 6);
+
+        // When
+        couponCodeFilter.addAll(localCodes);
+        verify(rTopic).publishAsync(published.capture());
+        listener.getValue().onMessage("coupon:code:issued", published.getValue());
+        listener.getValue().onMessage("coupon:code:issued", "other-instance|" + String.join(",", remoteCodes));
+        listener.getValue().onMessage("coupon:code:issued", String.join(",", previousVersionCodes));
+
+        // Then
+        assertThat(published.getValue()).endsWith("|" + String.join(",", localCodes));
+        assertThat(localCodes).allMatch(couponCodeFilter::mightContain);
+        assertThat(remoteCodes).allMatch(couponCodeFilter::mightContain);
+        assertThat(previousVersionCodes).allMatch(couponCodeFilter::mightContain);
+        assertThat(meterRegistry.get("coupon.code.filter.insertions").gauge().value()).isEqualTo(6.0);
+    }
+
+    private List<String> codes(long from, long to) {
+        return LongStream.range(from, to).mapToObj(SequenceCouponCodeGenerator::encode).toList();
+    }
+}
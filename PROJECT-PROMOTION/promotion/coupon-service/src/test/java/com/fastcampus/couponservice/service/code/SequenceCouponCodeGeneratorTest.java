@@ -0,0 +1,123 @@
+package com.fastcampus.couponservice.service.code;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class SequenceCouponCodeGeneratorTest {
+
+    @InjectMocks
+    private SequenceCouponCodeGenerator couponCodeGenerator;
+
+    @Mock
+    private CouponCodeBlockAllocator couponCodeBlockAllocator;
+
+    private final AtomicLong allocatedSequence = new AtomicLong();
+    private final List<String> allocatingThreads = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(couponCodeGenerator, "blockSize", 100L);
+        ReflectionTestUtils.setField(couponCodeGenerator, "prefetchThreshold", 20L);
+        when(couponCodeBlockAllocator.allocate(anyLong())).thenAnswer(invocation -> {
+            allocatingThreads.add(Thread.currentThread().getName());
+            return allocatedSequence.getAndAdd(invocation.getArgument(0));
+        });
+    }
+
+    @Test
+    @DisplayName("여러 구간에 걸쳐 생성한 코드는 중복되지 않음")
+    void generate_Unique() {
+        // When
+        Set<String> codes = new HashSet<>();
+        for (int i = 0; i < 1_000; i++) {
+            codes.add(couponCodeGenerator.generate());
+        }
+
+        // Then
+        assertThat(codes).hasSize(1_000);
+        assertThat(allocatedSequence.get()).isBetween(1_000L, 1_100L);
+        assertThat(codes).allSatisfy(code -> {
+            assertThat(code).hasSize(12);
+            assertThat(couponCodeGenerator.isWellFormed(code)).isTrue();
+        });
+    }
+
+    @Test
+    @DisplayName("남은 번호가 prefetchThreshold 가 되면 현재 구간이 끝나기 전에 다음 구간을 비동기로 할당")
+    void generate_PrefetchesNextBlock() {
+        // When
+        for (int i = 0; i < 80; i++) {
+            couponCodeGenerator.generate();
+        }
+
+        // Then
+        verify(couponCodeBlockAllocator, times(1)).allocate(100L);
+
+        // When (남은 번호가 20개가 되는 81번째 코드)
+        couponCodeGenerator.generate();
+
+        // Then
+        verify(couponCodeBlockAllocator, timeout(1_000).times(2)).allocate(100L);
+        assertThat(allocatingThreads).containsExactly(Thread.currentThread().getName(), "coupon-code-prefetch");
+
+        // When (현재 구간의 나머지와 다음 구간의 첫 코드)
+        for (int i = 0; i < 19; i++) {
+            couponCodeGenerator.generate();
+        }
+        String next = couponCodeGenerator.generate();
+
+        // Then
+        assertThat(next).isEqualTo(SequenceCouponCodeGenerator.encode(100L));
+        verify(couponCodeBlockAllocator, times(2)).allocate(100L);
+    }
+
+    @Test
+    @DisplayName("한 글자 오타나 인접 글자 자리 바뀜은 형식 검사에서 거름")
+    void isWellFormed_DetectsTypo() {
+        // Given
+        String code = couponCodeGenerator.generate();
+        char replaced = code.charAt(3) == 'A' ? 'B' : 'A';
+        String typo = code.substring(0, 3) + replaced + code.substring(4);
+        String swapped = code.charAt(4) == code.charAt(5)
+                ? null
+                : code.substring(0, 4) + code.charAt(5) + code.charAt(4) + code.substring(6);
+
+        // Then
+        assertThat(couponCodeGenerator.isWellFormed(code.toLowerCase())).isTrue();
+        assertThat(couponCodeGenerator.isWellFormed(typo)).isFalse();
+        if (swapped != null) {
+            assertThat(couponCodeGenerator.isWellFormed(swapped)).isFalse();
+        }
+        assertThat(couponCodeGenerator.isWellFormed("TEST123")).isFalse();
+        assertThat(couponCodeGenerator.isWellFormed(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("코드를 시퀀스 번호로 되돌리고, 형식이 잘못된 코드는 -1")
+    void decode() {
+        assertThat(SequenceCouponCodeGenerator.decode(SequenceCouponCodeGenerator.encode(0L))).isZero();
+        assertThat(SequenceCouponCodeGenerator.decode(SequenceCouponCodeGenerator.encode(123_456_789L).toLowerCase()))
+                .isEqualTo(123_456_789L);
+        assertThat(SequenceCouponCodeGenerator.decode("1A2B3C4D")).isEqualTo(-1L);
+    }
+}
@@ -0,0 +1,152 @@
+package com.fastcampus.couponservice.service.v1;
+
+import com.fastcampus.couponservice.aop.CouponIssueMetrics;
+import com.fastcampus.couponservice.config.UserIdInterceptor;
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.dto.v1.CouponDto;
+import com.fastcampus.couponservice.repository.CouponPolicyRepository;
+import com.fastcampus.couponservice.repository.CouponRepository;
+import com.fastcampus.couponservice.service.code.CouponCodeFilter;
+import com.fastcampus.couponservice.service.v3.CouponWalletService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * v1 발급 경로의 COUNT 방식과 COUNTER 방식 지연 시간 비교
+ * 일반 test 태스크에서는 제외되며 ./gradlew :coupon-service:benchmark 로 실행한다.
+ */
+@Tag("benchmark")
+@DataJpaTest
+class CouponIssueBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(CouponIssueBenchmarkTest.class);
+    private static final int SMALL_ISSUED_COUPONS = 10_000;
+    private static final int LARGE_ISSUED_COUPONS = 1_000_000;
+    // COUNTER 는 발급 수와 무관하게 정책 행 하나만 갱신하므로, 측정 잡음을 감안한 허용 증가 배율
+    private static final double MAX_COUNTER_GROWTH = 3.0;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURE_ITERATIONS = 1_000;
+    private static final long SEEDED_COUPON_ID_OFFSET = 1_000_000_000L;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponPolicyRepository couponPolicyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private final UserIdInterceptor userIdInterceptor = new UserIdInterceptor();
+    private final AtomicLong codeSequence = new AtomicLong();
+    private CouponService couponService;
+
+    @BeforeEach
+    void setUp() {
+        couponService = new CouponService(couponRepository, couponPolicyRepository,
+                new CouponIssueMetrics(new SimpleMeterRegistry()), () -> "BENCH" + codeSequence.incrementAndGet(),
+                mock(CouponCodeFilter.class), mock(CouponWalletService.class));
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-USER-ID", "1");
+        userIdInterceptor.preHandle(request, new MockHttpServletResponse(), null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userIdInterceptor.afterCompletion(new MockHttpServletRequest(), new MockHttpServletResponse(), null, null);
+    }
+
+    @ParameterizedTest(name = "issued coupons = {0}")
+    @ValueSource(ints = {SMALL_ISSUED_COUPONS, 100_000, LARGE_ISSUED_COUPONS})
+    void compareIssueLatency(int issuedCoupons) {
+        double countMicros = measure(CouponStockMode.COUNT, issuedCoupons);
+        double counterMicros = measure(CouponStockMode.COUNTER, issuedCoupons);
+
+        log.info("issued={} count={}us/op counter={}us/op", issuedCoupons,
+                String.format("%.1f", countMicros), String.format("%.1f", counterMicros));
+        // 발급 수가 많으면 COUNT 는 쿠폰 COUNT 비용이 커지므로 COUNTER 가 더 빨라야 한다
+        if (issuedCoupons >= LARGE_ISSUED_COUPONS) {
+            assertThat(counterMicros).isLessThan(countMicros);
+        }
+    }
+
+    @Test
+    void counterLatencyIndependentOfIssuedCoupons() {
+        double smallMicros = measure(CouponStockMode.COUNTER, SMALL_ISSUED_COUPONS);
+        double largeMicros = measure(CouponStockMode.COUNTER, LARGE_ISSUED_COUPONS);
+
+        log.info("counter issued={} {}us/op, issued={} {}us/op",
+                SMALL_ISSUED_COUPONS, String.format("%.1f", smallMicros),
+                LARGE_ISSUED_COUPONS, String.format("%.1f", largeMicros));
+        assertThat(largeMicros).isLessThanOrEqualTo(smallMicros * MAX_COUNTER_GROWTH);
+    }
+
+    private double measure(CouponStockMode mode, int issuedCoupons) {
+        ReflectionTestUtils.setField(couponService, "stockMode", mode);
+        CouponPolicy couponPolicy = seedPolicy(issuedCoupons);
+        CouponDto.IssueRequest request = CouponDto.IssueRequest.builder()
+                .couponPolicyId(couponPolicy.getId())
+                .build();
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            issue(request);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURE_ITERATIONS; i++) {
+            issue(request);
+        }
+        return (double) TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start) / MEASURE_ITERATIONS;
+    }
+
+    private void issue(CouponDto.IssueRequest request) {
+        couponService.issueCoupon(request);
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private CouponPolicy seedPolicy(int issuedCoupons) {
+        CouponPolicy couponPolicy = couponPolicyRepository.saveAndFlush(CouponPolicy.builder()
+                .name("benchmark")
+                .discountType(CouponPolicy.DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(0)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(issuedCoupons + WARMUP_ITERATIONS + MEASURE_ITERATIONS)
+                .issuedQuantity(issuedCoupons)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build());
+
+        long idOffset = SEEDED_COUPON_ID_OFFSET + couponPolicy.getId() * 10_000_000L;
+        jdbcTemplate.update("""
+                INSERT INTO coupon (id, coupon_policy_id, user_id, coupon_code, status)
+                SELECT X + ?, ?, X, CONCAT('SEED', X + ?), 'AVAILABLE' FROM SYSTEM_RANGE(1, ?)
+                """, idOffset, couponPolicy.getId(), idOffset, issuedCoupons);
+        return couponPolicy;
+    }
+}
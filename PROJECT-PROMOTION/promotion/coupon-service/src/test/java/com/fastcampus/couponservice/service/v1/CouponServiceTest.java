@@ -1,12 +1,17 @@
 package com.fastcampus.couponservice.service.v1;
 
+import com.fastcampus.couponservice.aop.CouponIssueMetrics;
 import com.fastcampus.couponservice.config.UserIdInterceptor;
 import com.fastcampus.couponservice.domain.Coupon;
 import com.fastcampus.couponservice.domain.CouponPolicy;
 import com.fastcampus.couponservice.dto.v1.CouponDto;
+import com.fastcampus.couponservice.exception.CouponIssueException;
 import com.fastcampus.couponservice.exception.CouponNotFoundException;
 import com.fastcampus.couponservice.repository.CouponPolicyRepository;
 import com.fastcampus.couponservice.repository.CouponRepository;
+import com.fastcampus.couponservice.service.code.CouponCodeFilter;
+import com.fastcampus.couponservice.service.code.CouponCodeGenerator;
+import com.fastcampus.couponservice.service.v3.CouponWalletService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,6 +23,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -41,6 +47,18 @@ class CouponServiceTest {
     @Mock
     private CouponPolicyRepository couponPolicyRepository;
 
+    @Mock
+    private CouponIssueMetrics couponIssueMetrics;
+
+    @Mock
+    private CouponCodeGenerator couponCodeGenerator;
+
+    @Mock
+    private CouponCodeFilter couponCodeFilter;
+
+    @Mock
+    private CouponWalletService couponWalletService;
+
     private CouponPolicy couponPolicy;
     private Coupon coupon;
     private static final Long TEST_USER_ID = 1L;
@@ -67,6 +85,8 @@ class CouponServiceTest {
                 .couponPolicy(couponPolicy)
                 .couponCode("TEST123")
                 .build();
+
+        ReflectionTestUtils.setField(couponService, "stockMode", CouponStockMode.COUNT);
     }
 
     @Test
@@ -79,7 +99,7 @@ class CouponServiceTest {
 
         when(couponPolicyRepository.findByIdWithLock(any())).thenReturn(Optional.of(couponPolicy));
         when(couponRepository.countByCouponPolicyId(any())).thenReturn(0L);
-        when(couponRepository.save(any())).thenReturn(coupon);
+        when(couponRepository.saveAndFlush(any())).thenReturn(coupon);
 
         try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
             mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
@@ -90,10 +110,55 @@ class CouponServiceTest {
             // Then
             assertThat(response.getId()).isEqualTo(TEST_COUPON_ID);
             assertThat(response.getUserId()).isEqualTo(TEST_USER_ID);
-            verify(couponRepository).save(any());
+            verify(couponRepository).saveAndFlush(any());
+        }
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 성공 - 발급 수량 컬럼 증가")
+    void issueCoupon_Counter_Success() {
+        // Given
+        ReflectionTestUtils.setField(couponService, "stockMode", CouponStockMode.COUNTER);
+        CouponDto.IssueRequest request = CouponDto.IssueRequest.builder()
+                .couponPolicyId(1L)
+                .build();
+
+        when(couponPolicyRepository.increaseIssuedQuantity(eq(1L), any())).thenReturn(1);
+        when(couponPolicyRepository.findById(1L)).thenReturn(Optional.of(couponPolicy));
+        when(couponRepository.saveAndFlush(any())).thenReturn(coupon);
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+
+            // When
+            Coupon result = couponService.issueCoupon(request);
+
+            // Then
+            assertThat(result).isEqualTo(coupon);
+            verify(couponRepository, never()).countByCouponPolicyId(any());
+            verify(couponPolicyRepository, never()).findByIdWithLock(any());
         }
     }
 
+    @Test
+    @DisplayName("쿠폰 발급 실패 - 발급 수량 컬럼 기준 소진")
+    void issueCoupon_Counter_Fail_SoldOut() {
+        // Given
+        ReflectionTestUtils.setField(couponService, "stockMode", CouponStockMode.COUNTER);
+        CouponDto.IssueRequest request = CouponDto.IssueRequest.builder()
+                .couponPolicyId(1L)
+                .build();
+
+        when(couponPolicyRepository.increaseIssuedQuantity(eq(1L), any())).thenReturn(0);
+        when(couponPolicyRepository.findById(1L)).thenReturn(Optional.of(couponPolicy));
+
+        // When & Then
+        assertThatThrownBy(() -> couponService.issueCoupon(request))
+                .isInstanceOf(CouponIssueException.class)
+                .hasMessage("쿠폰이 모두 소진되었습니다.");
+        verify(couponRepository, never()).saveAndFlush(any());
+    }
+
     @Test
     @DisplayName("쿠폰 사용 성공")
     void useCoupon_Success() {
@@ -111,6 +176,7 @@ class CouponServiceTest {
             assertThat(response.getId()).isEqualTo(TEST_COUPON_ID);
             assertThat(response.getOrderId()).isEqualTo(TEST_ORDER_ID);
             assertThat(response.getStatus()).isEqualTo(Coupon.Status.USED);
+            verify(couponWalletService).removeCoupon(coupon);
         }
     }
 
@@ -0,0 +1,160 @@
+package com.fastcampus.couponservice.service.v2;
+
+import com.fastcampus.couponservice.aop.CouponIssueMetrics;
+import com.fastcampus.couponservice.exception.CouponAdmissionRejectedException;
+import com.fastcampus.couponservice.exception.CouponPolicyNotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CouponIssueAdmissionTest {
+
+    private CouponIssueAdmission couponIssueAdmission;
+    private SimpleMeterRegistry meterRegistry;
+    private CouponIssueMetrics couponIssueMetrics;
+    private CouponPolicyService couponPolicyService;
+    private ExecutorService executor;
+
+    private static final Long TEST_POLICY_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        couponPolicyService = mock(CouponPolicyService.class);
+        couponIssueMetrics = new CouponIssueMetrics(meterRegistry);
+        couponIssueAdmission = new CouponIssueAdmission(couponIssueMetrics, couponPolicyService);
+        couponIssueAdmission.init();
+        ReflectionTestUtils.setField(couponIssueAdmission, "initialLimit", 1);
+        ReflectionTestUtils.setField(couponIssueAdmission, "minLimit", 1);
+        ReflectionTestUtils.setField(couponIssueAdmission, "targetLatency", Duration.ofSeconds(10));
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("한도와 대기열이 가득 차면 Retry-After 와 함께 바로 거절")
+    void execute_ShedWhenFull() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(couponIssueAdmission, "maxQueue", 0);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Future<?> running = executor.submit(() -> couponIssueAdmission.execute(TEST_POLICY_ID, () -> {
+            started.countDown();
+            await(finish);
+        }));
+        started.await(1, TimeUnit.SECONDS);
+
+        // When & Then
+        assertThatThrownBy(() -> couponIssueAdmission.execute(TEST_POLICY_ID, () -> "issued"))
+                .isInstanceOf(CouponAdmissionRejectedException.class)
+                .extracting("retryAfterSeconds").isEqualTo(1L);
+
+        finish.countDown();
+        running.get(1, TimeUnit.SECONDS);
+        assertThat(meterRegistry.counter("coupon.issue.admission", "policyId", "1", "result", "shed").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("대기열에 들어간 요청은 앞선 요청이 끝나면 처리")
+    void execute_QueuedUntilReleased() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(couponIssueAdmission, "maxQueue", 1);
+        ReflectionTestUtils.setField(couponIssueAdmission, "queueTimeout", Duration.ofSeconds(1));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        Future<?> running = executor.submit(() -> couponIssueAdmission.execute(TEST_POLICY_ID, () -> {
+            started.countDown();
+            await(finish);
+        }));
+        started.await(1, TimeUnit.SECONDS);
+
+        // When
+        Thread releaser = new Thread(() -> {
+            sleep(50);
+            finish.countDown();
+        });
+        releaser.start();
+        String result = couponIssueAdmission.execute(TEST_POLICY_ID, () -> "issued");
+
+        // Then
+        running.get(1, TimeUnit.SECONDS);
+        assertThat(result).isEqualTo("issued");
+        assertThat(meterRegistry.counter("coupon.issue.admission", "policyId", "1", "result", "queued").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("처리 시간이 목표를 넘으면 한도를 줄임")
+    void execute_DecreaseLimitOnSlowIssue() {
+        // Given
+        ReflectionTestUtils.setField(couponIssueAdmission, "initialLimit", 20);
+        ReflectionTestUtils.setField(couponIssueAdmission, "targetLatency", Duration.ZERO);
+
+        // When
+        couponIssueAdmission.execute(TEST_POLICY_ID, () -> sleep(1));
+
+        // Then
+        assertThat(couponIssueAdmission.getLimit(TEST_POLICY_ID)).isEqualTo(18);
+    }
+
+    @Test
+    @DisplayName("존재하지 않는 정책은 제한 상태와 meter 를 만들지 않고 거절")
+    void execute_Fail_UnknownPolicy() {
+        // Given
+        when(couponPolicyService.getCouponPolicy(999L))
+                .thenThrow(new CouponPolicyNotFoundException("쿠폰 정책을 찾을 수 없습니다."));
+
+        // When & Then
+        assertThatThrownBy(() -> couponIssueAdmission.execute(999L, () -> "issued"))
+                .isInstanceOf(CouponPolicyNotFoundException.class);
+        assertThat(meterRegistry.find("coupon.issue.admission.limit").meters()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("제한 상태를 정리한 정책의 meter 제거")
+    void removeAdmissionMeters() {
+        // Given
+        couponIssueAdmission.execute(TEST_POLICY_ID, () -> "issued");
+
+        // When
+        couponIssueMetrics.removeAdmissionMeters(TEST_POLICY_ID);
+
+        // Then
+        assertThat(meterRegistry.find("coupon.issue.admission.limit").tag("policyId", "1").meters()).isEmpty();
+        assertThat(meterRegistry.find("coupon.issue.admission").tag("policyId", "1").meters()).isEmpty();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(1, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
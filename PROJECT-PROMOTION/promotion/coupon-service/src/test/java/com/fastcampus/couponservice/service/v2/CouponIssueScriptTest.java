@@ -0,0 +1,119 @@
+package com.fastcampus.couponservice.service.v2;
+
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.exception.CouponIssueException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RAtomicLongAsync;
+import org.redisson.api.RBatch;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponIssueScriptTest {
+
+    @InjectMocks
+    private CouponIssueScript couponIssueScript;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RScript rScript;
+
+    @Mock
+    private RBatch rBatch;
+
+    @Mock
+    private RAtomicLongAsync atomicLongAsync;
+
+    private CouponPolicy couponPolicy;
+    private static final Long TEST_POLICY_ID = 1L;
+    private static final Long TEST_USER_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        couponPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+
+        ReflectionTestUtils.setField(couponIssueScript, "stockShards", 3);
+    }
+
+    @Test
+    @DisplayName("샤딩 시 총 수량을 샤드별로 나누어 설정")
+    void initialize_DistributesQuantityAcrossShards() {
+        // Given
+        when(redissonClient.createBatch()).thenReturn(rBatch);
+        when(rBatch.getAtomicLong(anyString())).thenReturn(atomicLongAsync);
+
+        // When
+        couponIssueScript.initialize(TEST_POLICY_ID, 100);
+
+        // Then
+        verify(rBatch).getAtomicLong(CouponStockKeys.quantity(TEST_POLICY_ID, 0));
+        verify(rBatch).getAtomicLong(CouponStockKeys.quantity(TEST_POLICY_ID, 2));
+        verify(atomicLongAsync).setAsync(34L);
+        verify(atomicLongAsync, times(2)).setAsync(33L);
+        verify(rBatch).execute();
+    }
+
+    @Test
+    @DisplayName("home shard 가 소진되면 다른 샤드에서 차감")
+    void issue_FallsOverToSiblingShard() {
+        // Given
+        int homeShard = Math.floorMod(Long.hashCode(TEST_USER_ID), 3);
+        int siblingShard = (homeShard + 1) % 3;
+        when(redissonClient.getScript(any(Codec.class))).thenReturn(rScript);
+        when(rScript.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any(), any(), any(), any()))
+                .thenReturn(-1L);
+        when(rScript.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class),
+                eq(List.of(CouponStockKeys.quantity(TEST_POLICY_ID, siblingShard)))))
+                .thenReturn(7L);
+        when(rScript.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any(), any()))
+                .thenReturn(1L);
+
+        // When
+        long remaining = couponIssueScript.issue(couponPolicy, TEST_USER_ID);
+
+        // Then
+        assertThat(remaining).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("모든 샤드가 소진되면 발급 실패")
+    void issue_Fail_AllShardsSoldOut() {
+        // Given
+        when(redissonClient.getScript(any(Codec.class))).thenReturn(rScript);
+        when(rScript.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any(), any(), any(), any()))
+                .thenReturn(-1L);
+        when(rScript.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList()))
+                .thenReturn(-1L);
+
+        // When & Then
+        assertThatThrownBy(() -> couponIssueScript.issue(couponPolicy, TEST_USER_ID))
+                .isInstanceOf(CouponIssueException.class)
+                .hasMessage("쿠폰이 모두 소진되었습니다.");
+        verify(rScript, times(2)).eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList());
+    }
+}
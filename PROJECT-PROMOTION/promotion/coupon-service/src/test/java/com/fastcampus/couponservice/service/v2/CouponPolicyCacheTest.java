@@ -0,0 +1,82 @@
+package com.fastcampus.couponservice.service.v2;
+
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponPolicyCacheTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RTopic rTopic;
+
+    private CouponPolicyCache couponPolicyCache;
+    private CouponPolicy couponPolicy;
+    private final AtomicInteger loadCount = new AtomicInteger();
+
+    private static final Long TEST_POLICY_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        couponPolicyCache = new CouponPolicyCache(redissonClient, new SimpleMeterRegistry(), 100, Duration.ofMinutes(1));
+        couponPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+    }
+
+    @Test
+    @DisplayName("캐시된 정책은 다시 읽어오지 않음")
+    void get_LoadsOnlyOnce() {
+        // When
+        CouponPolicy first = couponPolicyCache.get(TEST_POLICY_ID, this::load);
+        CouponPolicy second = couponPolicyCache.get(TEST_POLICY_ID, this::load);
+
+        // Then
+        assertThat(first).isSameAs(couponPolicy);
+        assertThat(second).isSameAs(couponPolicy);
+        assertThat(loadCount.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("무효화하면 다른 인스턴스에 전파하고 다음 조회 시 다시 읽어옴")
+    void invalidate_PublishesAndReloads() {
+        // Given
+        when(redissonClient.getTopic(anyString(), any(Codec.class))).thenReturn(rTopic);
+        couponPolicyCache.get(TEST_POLICY_ID, this::load);
+
+        // When
+        couponPolicyCache.invalidate(TEST_POLICY_ID);
+        couponPolicyCache.get(TEST_POLICY_ID, this::load);
+
+        // Then
+        verify(rTopic).publish(String.valueOf(TEST_POLICY_ID));
+        assertThat(loadCount.get()).isEqualTo(2);
+    }
+
+    private CouponPolicy load(Long policyId) {
+        loadCount.incrementAndGet();
+        return couponPolicy;
+    }
+}
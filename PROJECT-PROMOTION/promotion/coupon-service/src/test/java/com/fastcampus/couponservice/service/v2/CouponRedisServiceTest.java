@@ -1,5 +1,6 @@
 package com.fastcampus.couponservice.service.v2;
 
+import com.fastcampus.couponservice.aop.CouponIssueMetrics;
 import com.fastcampus.couponservice.config.UserIdInterceptor;
 import com.fastcampus.couponservice.domain.Coupon;
 import com.fastcampus.couponservice.domain.CouponPolicy;
@@ -7,6 +8,9 @@ import com.fastcampus.couponservice.dto.v1.CouponDto;
 import com.fastcampus.couponservice.exception.CouponIssueException;
 import com.fastcampus.couponservice.repository.CouponPolicyRepository;
 import com.fastcampus.couponservice.repository.CouponRepository;
+import com.fastcampus.couponservice.service.code.CouponCodeFilter;
+import com.fastcampus.couponservice.service.code.CouponCodeGenerator;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,8 +22,12 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.redisson.api.RAtomicLong;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
@@ -44,6 +52,18 @@ class CouponRedisServiceTest {
     @Mock
     private CouponPolicyService couponPolicyService;
 
+    @Mock
+    private CouponStockService couponStockService;
+
+    @Mock
+    private CouponIssueMetrics couponIssueMetrics;
+
+    @Mock
+    private CouponCodeGenerator couponCodeGenerator;
+
+    @Mock
+    private CouponCodeFilter couponCodeFilter;
+
     @Mock
     private RLock rLock;
 
@@ -75,6 +95,15 @@ class CouponRedisServiceTest {
                 .couponPolicy(couponPolicy)
                 .couponCode("TEST123")
                 .build();
+
+        ReflectionTestUtils.setField(couponRedisService, "issueMode", CouponIssueMode.LOCK);
+        // issueCoupon 은 @Transactional 이므로 트랜잭션 동기화가 활성화된 상태로 호출된다
+        TransactionSynchronizationManager.initSynchronization();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.clearSynchronization();
     }
 
     @Test
@@ -91,7 +120,7 @@ class CouponRedisServiceTest {
         when(redissonClient.getAtomicLong(anyString())).thenReturn(atomicLong);
         when(atomicLong.decrementAndGet()).thenReturn(99L);
         when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
-        when(couponRepository.save(any(Coupon.class))).thenReturn(coupon);
+        when(couponRepository.saveAndFlush(any(Coupon.class))).thenReturn(coupon);
 
         try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
             mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
@@ -102,7 +131,7 @@ class CouponRedisServiceTest {
             // Then
             assertThat(coupon.getId()).isEqualTo(TEST_COUPON_ID);
             assertThat(coupon.getUserId()).isEqualTo(TEST_USER_ID);
-            verify(couponRepository).save(any(Coupon.class));
+            verify(couponRepository).saveAndFlush(any(Coupon.class));
             verify(rLock).unlock();
         }
     }
@@ -174,4 +203,149 @@ class CouponRedisServiceTest {
 
         verify(rLock).unlock();
     }
+
+    @Test
+    @DisplayName("락 미사용 쿠폰 발급 성공 - 락을 사용하지 않음")
+    void issueCoupon_WithoutLock_Success() {
+        // Given
+        ReflectionTestUtils.setField(couponRedisService, "issueMode", CouponIssueMode.SCRIPT);
+        CouponDto.IssueRequest request = CouponDto.IssueRequest.builder()
+                .couponPolicyId(TEST_POLICY_ID)
+                .build();
+
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponRepository.saveAndFlush(any(Coupon.class))).thenReturn(coupon);
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+
+            // When
+            Coupon coupon = couponRedisService.issueCoupon(request);
+
+            // Then
+            assertThat(coupon.getId()).isEqualTo(TEST_COUPON_ID);
+            verify(couponRepository).saveAndFlush(any(Coupon.class));
+            verify(redissonClient, never()).getLock(anyString());
+            verify(couponStockService).reserve("v2", couponPolicy, TEST_USER_ID);
+            verify(couponCodeFilter, never()).add(anyString());
+
+            completeTransaction(TransactionSynchronization.STATUS_COMMITTED);
+            verify(couponStockService, never()).release(any(), any());
+            verify(couponCodeFilter).add("TEST123");
+        }
+    }
+
+    @Test
+    @DisplayName("락 미사용 쿠폰 발급 실패 - 수량 소진")
+    void issueCoupon_WithoutLock_Fail_NoQuantityLeft() {
+        // Given
+        ReflectionTestUtils.setField(couponRedisService, "issueMode", CouponIssueMode.SCRIPT);
+        CouponDto.IssueRequest request = CouponDto.IssueRequest.builder()
+                .couponPolicyId(TEST_POLICY_ID)
+                .build();
+
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        doThrow(new CouponIssueException("쿠폰이 모두 소진되었습니다."))
+                .when(couponStockService).reserve("v2", couponPolicy, TEST_USER_ID);
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+
+            // When & Then
+            assertThatThrownBy(() -> couponRedisService.issueCoupon(request))
+                    .isInstanceOf(CouponIssueException.class)
+                    .hasMessage("쿠폰이 모두 소진되었습니다.");
+
+            verify(couponRepository, never()).saveAndFlush(any(Coupon.class));
+        }
+    }
+
+    @Test
+    @DisplayName("락 미사용 쿠폰 발급 실패 - 저장 실패로 롤백되면 수량 복구")
+    void issueCoupon_WithoutLock_Fail_ReleaseOnSaveError() {
+        // Given
+        ReflectionTestUtils.setField(couponRedisService, "issueMode", CouponIssueMode.SCRIPT);
+        CouponDto.IssueRequest request = CouponDto.IssueRequest.builder()
+                .couponPolicyId(TEST_POLICY_ID)
+                .build();
+
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponRepository.saveAndFlush(any(Coupon.class))).thenThrow(new IllegalStateException("DB error"));
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+
+            // When & Then
+            assertThatThrownBy(() -> couponRedisService.issueCoupon(request))
+                    .isInstanceOf(IllegalStateException.class);
+            completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            verify(couponStockService).release(couponPolicy, TEST_USER_ID);
+            verify(couponCodeFilter, never()).add(anyString());
+        }
+    }
+
+    @Test
+    @DisplayName("락 미사용 쿠폰 발급 실패 - 저장 후 커밋이 실패해도 수량 복구")
+    void issueCoupon_WithoutLock_Fail_ReleaseOnCommitError() {
+        // Given
+        ReflectionTestUtils.setField(couponRedisService, "issueMode", CouponIssueMode.SCRIPT);
+        CouponDto.IssueRequest request = CouponDto.IssueRequest.builder()
+                .couponPolicyId(TEST_POLICY_ID)
+                .build();
+
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponRepository.saveAndFlush(any(Coupon.class))).thenReturn(coupon);
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+
+            // When
+            couponRedisService.issueCoupon(request);
+            completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            // Then
+            verify(couponStockService).release(couponPolicy, TEST_USER_ID);
+            verify(couponCodeFilter, never()).add(anyString());
+        }
+    }
+
+    @Test
+    @DisplayName("락 사용 쿠폰 발급 실패 - 롤백되면 차감한 수량 복구")
+    void issueCoupon_Fail_RestoreQuantityOnRollback() throws InterruptedException {
+        // Given
+        CouponDto.IssueRequest request = CouponDto.IssueRequest.builder()
+                .couponPolicyId(TEST_POLICY_ID)
+                .build();
+
+        when(redissonClient.getLock(anyString())).thenReturn(rLock);
+        when(rLock.tryLock(anyLong(), anyLong(), any(TimeUnit.class))).thenReturn(true);
+        when(rLock.isHeldByCurrentThread()).thenReturn(true);
+        when(redissonClient.getAtomicLong(anyString())).thenReturn(atomicLong);
+        when(atomicLong.decrementAndGet()).thenReturn(0L);
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponRepository.saveAndFlush(any(Coupon.class))).thenThrow(new IllegalStateException("DB error"));
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+
+            // When
+            assertThatThrownBy(() -> couponRedisService.issueCoupon(request))
+                    .isInstanceOf(IllegalStateException.class);
+            completeTransaction(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+            // Then
+            verify(atomicLong).incrementAndGet();
+            verify(couponStockService).clearSoldOut(TEST_POLICY_ID);
+            verify(rLock).unlock();
+        }
+    }
+
+    private void completeTransaction(int status) {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+    }
 }
@@ -0,0 +1,81 @@
+package com.fastcampus.couponservice.service.v2;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBatch;
+import org.redisson.api.RSet;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.client.codec.Codec;
+
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponSoldOutRegistryTest {
+
+    @InjectMocks
+    private CouponSoldOutRegistry couponSoldOutRegistry;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RTopic rTopic;
+
+    @Mock
+    private RSet<Object> rSet;
+
+    private static final Long TEST_POLICY_ID = 1L;
+
+    @Test
+    @DisplayName("시작 시 Redis 의 소진 정책 집합으로 로컬 상태를 맞추고 이벤트를 반영")
+    @SuppressWarnings("unchecked")
+    void sync_LoadsSoldOutPoliciesAndAppliesEvents() {
+        // Given
+        when(redissonClient.getTopic(anyString(), any(Codec.class))).thenReturn(rTopic);
+        when(redissonClient.getSet(anyString(), any(Codec.class))).thenReturn(rSet);
+        when(rSet.readAll()).thenReturn(Set.of("1"));
+        ArgumentCaptor<MessageListener<String>> listener = ArgumentCaptor.forClass(MessageListener.class);
+
+        // When
+        couponSoldOutRegistry.sync();
+
+        // Then
+        verify(rTopic).addListener(eq(String.class), listener.capture());
+        assertThat(couponSoldOutRegistry.isSoldOut(TEST_POLICY_ID)).isTrue();
+
+        listener.getValue().onMessage("coupon:sold-out:events", "SOLD_OUT:2");
+        listener.getValue().onMessage("coupon:sold-out:events", "AVAILABLE:1");
+        assertThat(couponSoldOutRegistry.isSoldOut(2L)).isTrue();
+        assertThat(couponSoldOutRegistry.isSoldOut(TEST_POLICY_ID)).isFalse();
+    }
+
+    @Test
+    @DisplayName("소진 표시는 한 번만 전파")
+    void markSoldOut_BroadcastsOnce() {
+        // Given
+        RBatch rBatch = mock(RBatch.class, RETURNS_DEEP_STUBS);
+        when(redissonClient.createBatch()).thenReturn(rBatch);
+
+        // When
+        couponSoldOutRegistry.markSoldOut(TEST_POLICY_ID);
+        couponSoldOutRegistry.markSoldOut(TEST_POLICY_ID);
+
+        // Then
+        assertThat(couponSoldOutRegistry.isSoldOut(TEST_POLICY_ID)).isTrue();
+        verify(redissonClient, times(1)).createBatch();
+        verify(rBatch, times(1)).executeAsync();
+    }
+}
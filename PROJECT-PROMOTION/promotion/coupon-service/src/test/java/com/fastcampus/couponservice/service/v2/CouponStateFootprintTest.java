@@ -0,0 +1,70 @@
+package com.fastcampus.couponservice.service.v2;
+
+import com.fastcampus.couponservice.domain.Coupon;
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.dto.v1.CouponDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 쿠폰 상태 캐시의 쿠폰당 payload 크기 비교 (기존 JSON 문자열 vs 필드 hash)
+ * Redis 객체 헤더/인코딩 오버헤드는 제외한 값이다.
+ */
+class CouponStateFootprintTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    @DisplayName("필드 hash 는 쿠폰당 payload 가 기존 JSON 의 1/4 미만")
+    void compareBytesPerCoupon() throws Exception {
+        CouponPolicy policy = CouponPolicy.builder()
+                .id(1L)
+                .name("테스트 쿠폰")
+                .discountType(CouponPolicy.DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(1_000_000)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(30))
+                .build();
+
+        Coupon available = Coupon.builder()
+                .id(123_456_789L)
+                .couponPolicy(policy)
+                .userId(98_765_432L)
+                .couponCode("A1B2C3D4E5F6")
+                .build();
+        Coupon used = Coupon.builder()
+                .id(123_456_790L)
+                .couponPolicy(policy)
+                .userId(98_765_432L)
+                .couponCode("A1B2C3D4E5F7")
+                .build();
+        used.use(555_555L);
+
+        for (Coupon coupon : new Coupon[]{available, used}) {
+            int jsonBytes = objectMapper.writeValueAsString(CouponDto.Response.from(coupon))
+                    .getBytes(StandardCharsets.UTF_8).length;
+            int hashBytes = CouponStateService.encode(coupon).entrySet().stream()
+                    .mapToInt(this::entryBytes)
+                    .sum();
+
+            assertThat(hashBytes * 4)
+                    .as("status=%s json=%dB hash=%dB", coupon.getStatus(), jsonBytes, hashBytes)
+                    .isLessThan(jsonBytes);
+        }
+    }
+
+    private int entryBytes(Map.Entry<String, String> entry) {
+        return entry.getKey().getBytes(StandardCharsets.UTF_8).length
+                + entry.getValue().getBytes(StandardCharsets.UTF_8).length;
+    }
+}
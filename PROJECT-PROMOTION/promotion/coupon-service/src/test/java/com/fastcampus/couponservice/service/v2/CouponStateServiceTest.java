@@ -0,0 +1,60 @@
+package com.fastcampus.couponservice.service.v2;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.Codec;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponStateServiceTest {
+
+    @InjectMocks
+    private CouponStateService couponStateService;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private CouponPolicyService couponPolicyService;
+
+    @Mock
+    private RMap<Object, Object> state;
+
+    @Test
+    @DisplayName("이전 형식(JSON 문자열)으로 남은 키는 캐시 미스로 처리")
+    void getCouponState_LegacyKey_Miss() {
+        // Given
+        when(redissonClient.getMap(eq("coupon:state:1"), any(Codec.class))).thenReturn(state);
+        when(state.readAllMap())
+                .thenThrow(new RedisException("WRONGTYPE Operation against a key holding the wrong kind of value"));
+
+        // When & Then
+        assertThat(couponStateService.getCouponState(1L)).isNull();
+        verifyNoInteractions(couponPolicyService);
+    }
+
+    @Test
+    @DisplayName("그 밖의 Redis 오류는 그대로 실패")
+    void getCouponState_Fail_RedisError() {
+        // Given
+        when(redissonClient.getMap(eq("coupon:state:1"), any(Codec.class))).thenReturn(state);
+        when(state.readAllMap()).thenThrow(new RedisException("LOADING Redis is loading the dataset in memory"));
+
+        // When & Then
+        assertThatThrownBy(() -> couponStateService.getCouponState(1L))
+                .isInstanceOf(RuntimeException.class)
+                .hasCauseInstanceOf(RedisException.class);
+    }
+}
@@ -0,0 +1,163 @@
+package com.fastcampus.couponservice.service.v2;
+
+import com.fastcampus.couponservice.aop.CouponIssueMetrics;
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.exception.CouponIssueException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponStockLeaseManagerTest {
+
+    @InjectMocks
+    private CouponStockLeaseManager couponStockLeaseManager;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private CouponIssueMetrics couponIssueMetrics;
+
+    @Mock
+    private CouponSoldOutRegistry couponSoldOutRegistry;
+
+    @Mock
+    private RScript rScript;
+
+    @Mock
+    private RAtomicLong atomicLong;
+
+    private CouponPolicy couponPolicy;
+    private static final Long TEST_POLICY_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        couponPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+
+        ReflectionTestUtils.setField(couponStockLeaseManager, "leaseSize", 5L);
+        // 비동기 추가 임대가 일어나지 않도록 설정
+        ReflectionTestUtils.setField(couponStockLeaseManager, "refillThreshold", -1L);
+    }
+
+    @Test
+    @DisplayName("임대받은 수량 내에서는 Redis 호출 없이 발급")
+    void acquire_ServedFromLease() {
+        // Given
+        when(redissonClient.getScript(any(Codec.class))).thenReturn(rScript);
+        when(rScript.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any()))
+                .thenReturn(5L);
+
+        // When
+        for (int i = 0; i < 5; i++) {
+            couponStockLeaseManager.acquire(couponPolicy);
+        }
+
+        // Then
+        verify(rScript, times(1)).eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any());
+        verify(couponIssueMetrics).recordLeaseLeased(TEST_POLICY_ID, 5L);
+        verify(couponIssueMetrics, times(5)).recordLeaseServed(TEST_POLICY_ID);
+        assertThat(couponStockLeaseManager.getAvailable(TEST_POLICY_ID)).isZero();
+    }
+
+    @Test
+    @DisplayName("Redis 수량이 모두 소진되면 발급 실패")
+    void acquire_Fail_NoQuantityLeft() {
+        // Given
+        when(redissonClient.getScript(any(Codec.class))).thenReturn(rScript);
+        when(rScript.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any()))
+                .thenReturn(0L);
+
+        // When & Then
+        assertThatThrownBy(() -> couponStockLeaseManager.acquire(couponPolicy))
+                .isInstanceOf(CouponIssueException.class)
+                .hasMessage("쿠폰이 모두 소진되었습니다.");
+
+        // 소진 직후 요청은 Redis를 다시 조회하지 않음
+        assertThatThrownBy(() -> couponStockLeaseManager.acquire(couponPolicy))
+                .isInstanceOf(CouponIssueException.class);
+        verify(rScript, times(1)).eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any());
+    }
+
+    @Test
+    @DisplayName("발급 기간이 아니면 임대하지 않음")
+    void acquire_Fail_InvalidPeriod() {
+        // Given
+        CouponPolicy expiredPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .startTime(LocalDateTime.now().minusDays(2))
+                .endTime(LocalDateTime.now().minusDays(1))
+                .build();
+
+        // When & Then
+        assertThatThrownBy(() -> couponStockLeaseManager.acquire(expiredPolicy))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("쿠폰 발급 기간이 아닙니다.");
+        verifyNoInteractions(redissonClient);
+    }
+
+    @Test
+    @DisplayName("종료 시 사용하지 않은 임대 수량을 Redis로 반환")
+    void returnAllLeases_ReturnsUnusedQuantity() {
+        // Given
+        when(redissonClient.getScript(any(Codec.class))).thenReturn(rScript);
+        when(rScript.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any()))
+                .thenReturn(5L);
+        when(redissonClient.getAtomicLong(anyString())).thenReturn(atomicLong);
+        couponStockLeaseManager.acquire(couponPolicy);
+
+        // When
+        couponStockLeaseManager.returnAllLeases();
+
+        // Then
+        verify(atomicLong).addAndGet(4L);
+        verify(couponIssueMetrics).recordLeaseReturned(TEST_POLICY_ID, 4L);
+        verify(couponSoldOutRegistry).clearSoldOut(TEST_POLICY_ID);
+        assertThat(couponStockLeaseManager.getAvailable(TEST_POLICY_ID)).isZero();
+    }
+
+    @Test
+    @DisplayName("임대받는 사이 임대가 정리되면 임대받은 수량을 Redis로 반환")
+    void acquire_ReturnsLeasedQuantity_WhenLeaseRemoved() {
+        // Given
+        when(redissonClient.getScript(any(Codec.class))).thenReturn(rScript);
+        when(redissonClient.getAtomicLong(anyString())).thenReturn(atomicLong);
+        when(rScript.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class), anyList(), any()))
+                .thenAnswer(invocation -> {
+                    // Redis 에서 임대받는 동안 정리 작업이 임대를 제거
+                    couponStockLeaseManager.returnAllLeases();
+                    return 5L;
+                });
+
+        // When & Then
+        assertThatThrownBy(() -> couponStockLeaseManager.acquire(couponPolicy))
+                .isInstanceOf(CouponIssueException.class);
+        verify(atomicLong).addAndGet(5L);
+        verify(couponIssueMetrics, never()).recordLeaseLeased(anyLong(), anyLong());
+        verify(couponIssueMetrics, never()).recordLeaseServed(anyLong());
+        assertThat(couponStockLeaseManager.getAvailable(TEST_POLICY_ID)).isZero();
+    }
+}
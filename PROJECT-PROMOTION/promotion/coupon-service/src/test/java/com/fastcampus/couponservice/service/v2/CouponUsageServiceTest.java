@@ -0,0 +1,153 @@
+package com.fastcampus.couponservice.service.v2;
+
+import com.fastcampus.couponservice.domain.Coupon;
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.exception.CouponAlreadyUsedException;
+import com.fastcampus.couponservice.exception.CouponExpiredException;
+import com.fastcampus.couponservice.exception.CouponNotFoundException;
+import com.fastcampus.couponservice.repository.CouponPolicyRepository;
+import com.fastcampus.couponservice.repository.CouponRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * 조건부 UPDATE 기반 사용/취소를 실제 DB(H2)로 검증
+ * 각 스레드가 자기 트랜잭션으로 커밋해야 하므로 테스트 트랜잭션은 사용하지 않는다.
+ */
+@DataJpaTest
+@Import(CouponUsageService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CouponUsageServiceTest {
+    private static final Long TEST_USER_ID = 1L;
+    private static final int CONCURRENT_REQUESTS = 16;
+
+    @Autowired
+    private CouponUsageService couponUsageService;
+
+    @Autowired
+    private CouponRepository couponRepository;
+
+    @Autowired
+    private CouponPolicyRepository couponPolicyRepository;
+
+    @AfterEach
+    void tearDown() {
+        couponRepository.deleteAllInBatch();
+        couponPolicyRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @DisplayName("같은 쿠폰을 동시에 사용하면 하나의 주문만 성공")
+    void use_ConcurrentDoubleSpend() throws Exception {
+        // Given
+        Coupon coupon = saveCoupon(LocalDateTime.now().plusDays(1));
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CONCURRENT_REQUESTS);
+
+        // When
+        List<Future<Coupon>> results;
+        try {
+            List<Callable<Coupon>> tasks = IntStream.rangeClosed(1, CONCURRENT_REQUESTS)
+                    .mapToObj(orderId -> (Callable<Coupon>) () -> {
+                        start.await();
+                        return couponUsageService.use(coupon.getId(), TEST_USER_ID, (long) orderId);
+                    })
+                    .toList();
+            results = tasks.stream().map(executor::submit).toList();
+            start.countDown();
+        } finally {
+            executor.shutdown();
+        }
+
+        int succeeded = 0;
+        int alreadyUsed = 0;
+        for (Future<Coupon> result : results) {
+            try {
+                result.get();
+                succeeded++;
+            } catch (Exception e) {
+                assertThat(e).hasCauseInstanceOf(CouponAlreadyUsedException.class);
+                alreadyUsed++;
+            }
+        }
+
+        // Then
+        assertThat(succeeded).isEqualTo(1);
+        assertThat(alreadyUsed).isEqualTo(CONCURRENT_REQUESTS - 1);
+        Coupon used = couponRepository.findById(coupon.getId()).orElseThrow();
+        assertThat(used.getStatus()).isEqualTo(Coupon.Status.USED);
+        assertThat(used.getOrderId()).isBetween(1L, (long) CONCURRENT_REQUESTS);
+    }
+
+    @Test
+    @DisplayName("취소한 쿠폰은 다시 사용할 수 있고, 사용되지 않은 쿠폰은 취소할 수 없음")
+    void cancel_ThenUseAgain() {
+        // Given
+        Coupon coupon = saveCoupon(LocalDateTime.now().plusDays(1));
+        couponUsageService.use(coupon.getId(), TEST_USER_ID, 100L);
+
+        // When
+        Coupon cancelled = couponUsageService.cancel(coupon.getId(), TEST_USER_ID);
+        Coupon reused = couponUsageService.use(coupon.getId(), TEST_USER_ID, 200L);
+
+        // Then
+        assertThat(cancelled.getStatus()).isEqualTo(Coupon.Status.CANCELLED);
+        assertThat(cancelled.getOrderId()).isNull();
+        assertThat(reused.getOrderId()).isEqualTo(200L);
+        couponUsageService.cancel(coupon.getId(), TEST_USER_ID);
+        assertThatThrownBy(() -> couponUsageService.cancel(coupon.getId(), TEST_USER_ID))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("만료된 쿠폰이나 다른 사용자의 쿠폰은 사용할 수 없음")
+    void use_Fail_ExpiredOrOtherUser() {
+        // Given
+        Coupon expired = saveCoupon(LocalDateTime.now().minusMinutes(1));
+        Coupon available = saveCoupon(LocalDateTime.now().plusDays(1));
+
+        // When & Then
+        assertThatThrownBy(() -> couponUsageService.use(expired.getId(), TEST_USER_ID, 100L))
+                .isInstanceOf(CouponExpiredException.class);
+        assertThatThrownBy(() -> couponUsageService.use(available.getId(), 2L, 100L))
+                .isInstanceOf(CouponNotFoundException.class);
+        assertThat(couponRepository.findById(available.getId()).orElseThrow().getStatus())
+                .isEqualTo(Coupon.Status.AVAILABLE);
+    }
+
+    private Coupon saveCoupon(LocalDateTime endTime) {
+        CouponPolicy couponPolicy = couponPolicyRepository.save(CouponPolicy.builder()
+                .name("usage")
+                .discountType(CouponPolicy.DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(0)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(100)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(endTime)
+                .build());
+        return couponRepository.save(Coupon.builder()
+                .couponPolicy(couponPolicy)
+                .userId(TEST_USER_ID)
+                .couponCode("USAGE" + System.nanoTime())
+                .build());
+    }
+}
@@ -0,0 +1,107 @@
+package com.fastcampus.couponservice.service.v3;
+
+import com.fastcampus.couponservice.dto.v3.CouponDto;
+import com.fastcampus.couponservice.domain.Coupon;
+import com.fastcampus.couponservice.exception.CouponPolicyNotFoundException;
+import com.fastcampus.couponservice.service.v2.CouponStockService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponConsumerTest {
+
+    @Mock
+    private CouponService couponService;
+
+    @Mock
+    private CouponIssueTicketService couponIssueTicketService;
+
+    @Mock
+    private CouponIssueDeduplicator couponIssueDeduplicator;
+
+    @Mock
+    private CouponStockService couponStockService;
+
+    private CouponConsumer couponConsumer;
+
+    @BeforeEach
+    void setUp() {
+        couponConsumer = new CouponConsumer(couponService, couponIssueTicketService, couponIssueDeduplicator,
+                couponStockService, new SimpleMeterRegistry());
+        when(couponIssueDeduplicator.filterDuplicates(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Test
+    @DisplayName("건별 재처리에서 실패한 요청은 예외 메시지 대신 고정된 사유 코드로 저장")
+    void consume_FailureReasonCodes() {
+        // Given
+        CouponDto.IssueMessage missingPolicy = message("r1", 99L);
+        CouponDto.IssueMessage invalid = message("r2", 1L);
+        CouponDto.IssueMessage broken = message("r3", 1L);
+        when(couponService.issueCoupons(anyList())).thenThrow(new IllegalStateException("batch failed"));
+        when(couponService.issueCoupon(missingPolicy)).thenThrow(new CouponPolicyNotFoundException("쿠폰 정책을 찾을 수 없습니다."));
+        when(couponService.issueCoupon(invalid)).thenThrow(new IllegalArgumentException("쿠폰 정책을 찾을 수 없습니다."));
+        when(couponService.issueCoupon(broken))
+                .thenThrow(new DataIntegrityViolationException("could not execute statement [insert into coupon ...]"));
+
+        // When
+        couponConsumer.consumeCouponIssueRequests(List.of(missingPolicy, invalid, broken), List.of(0, 0, 0));
+
+        // Then
+        ArgumentCaptor<List<CouponDto.IssueResult>> results = ArgumentCaptor.forClass(List.class);
+        verify(couponIssueTicketService).saveResults(results.capture());
+        assertThat(results.getValue()).extracting(CouponDto.IssueResult::getStatus)
+                .containsOnly(CouponDto.IssueStatus.FAILED);
+        assertThat(results.getValue()).extracting(CouponDto.IssueResult::getReason)
+                .containsExactly("POLICY_NOT_FOUND", "INVALID_REQUEST", "INTERNAL_ERROR");
+        verify(couponIssueDeduplicator).markProcessed(List.of());
+        verify(couponStockService).release(99L, 1L);
+        verify(couponStockService, times(2)).release(1L, 1L);
+    }
+
+    @Test
+    @DisplayName("일시적인 DB 장애는 수량을 되돌리지 않고, 앞선 요청만 기록한 뒤 실패한 요청부터 재전달")
+    void consume_TransientFailure_Redeliver() {
+        // Given
+        CouponDto.IssueMessage issued = message("r1", 1L);
+        CouponDto.IssueMessage timedOut = message("r2", 1L);
+        CouponDto.IssueMessage pending = message("r3", 1L);
+        Coupon coupon = mock(Coupon.class);
+        when(coupon.getId()).thenReturn(10L);
+        when(couponService.issueCoupons(anyList())).thenThrow(new QueryTimeoutException("batch timed out"));
+        when(couponService.issueCoupon(issued)).thenReturn(coupon);
+        when(couponService.issueCoupon(timedOut)).thenThrow(new QueryTimeoutException("insert timed out"));
+
+        // When & Then
+        assertThatThrownBy(() -> couponConsumer.consumeCouponIssueRequests(List.of(issued, timedOut, pending), List.of(0, 0, 0)))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        e -> assertThat(e.getIndex()).isEqualTo(1));
+        verify(couponIssueDeduplicator).markProcessed(List.of("r1"));
+        verify(couponService, never()).issueCoupon(pending);
+        verifyNoInteractions(couponStockService);
+    }
+
+    private CouponDto.IssueMessage message(String requestId, Long policyId) {
+        return CouponDto.IssueMessage.builder()
+                .requestId(requestId)
+                .policyId(policyId)
+                .userId(1L)
+                .build();
+    }
+}
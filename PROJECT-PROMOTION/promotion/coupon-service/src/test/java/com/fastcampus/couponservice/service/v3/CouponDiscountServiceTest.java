@@ -0,0 +1,109 @@
+package com.fastcampus.couponservice.service.v3;
+
+import com.fastcampus.couponservice.config.UserIdInterceptor;
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.dto.v3.CouponDto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockedStatic;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponDiscountServiceTest {
+
+    @InjectMocks
+    private CouponDiscountService couponDiscountService;
+
+    @Mock
+    private CouponWalletService couponWalletService;
+
+    private static final Long TEST_USER_ID = 1L;
+
+    @Test
+    @DisplayName("최소 주문 금액과 유효 기간을 만족하는 쿠폰을 할인 금액 순으로 반환")
+    void getBestDiscount_RanksApplicableCoupons() {
+        // Given
+        List<CouponDto.WalletItem> wallet = List.of(
+                item(1L, CouponPolicy.DiscountType.FIXED_AMOUNT, 3000, 10000, 0, 1),
+                item(2L, CouponPolicy.DiscountType.PERCENTAGE, 10, 0, 5000, 1),
+                item(3L, CouponPolicy.DiscountType.PERCENTAGE, 50, 0, 4000, 1),
+                item(4L, CouponPolicy.DiscountType.FIXED_AMOUNT, 9000, 50000, 0, 1),
+                item(5L, CouponPolicy.DiscountType.FIXED_AMOUNT, 9000, 0, 0, -1));
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+            when(couponWalletService.getUsableCoupons(TEST_USER_ID)).thenReturn(wallet);
+
+            // When
+            CouponDto.BestDiscountResponse response = couponDiscountService.getBestDiscount(20000L);
+
+            // Then
+            // 4: 최소 주문 금액 미달, 5: 만료
+            assertThat(response.getDiscounts())
+                    .extracting(CouponDto.DiscountItem::getCouponId)
+                    .containsExactly(3L, 1L, 2L);
+            assertThat(response.getDiscounts())
+                    .extracting(CouponDto.DiscountItem::getDiscountAmount)
+                    .containsExactly(4000L, 3000L, 2000L);
+            assertThat(response.getDiscounts().get(0).getPaymentAmount()).isEqualTo(16000L);
+            assertThat(response.getRecommendedCouponId()).isEqualTo(3L);
+        }
+    }
+
+    @Test
+    @DisplayName("여러 주문에는 같은 쿠폰을 중복 추천하지 않음")
+    void getBestDiscounts_RecommendsDistinctCoupons() {
+        // Given
+        List<CouponDto.WalletItem> wallet = List.of(
+                item(1L, CouponPolicy.DiscountType.FIXED_AMOUNT, 5000, 0, 0, 1),
+                item(2L, CouponPolicy.DiscountType.FIXED_AMOUNT, 1000, 0, 0, 1));
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+            when(couponWalletService.getUsableCoupons(TEST_USER_ID)).thenReturn(wallet);
+
+            // When
+            List<CouponDto.BestDiscountResponse> responses = couponDiscountService.getBestDiscounts(List.of(30000L, 40000L, 50000L));
+
+            // Then
+            assertThat(responses).extracting(CouponDto.BestDiscountResponse::getRecommendedCouponId)
+                    .containsExactly(1L, 2L, null);
+            assertThat(responses).allSatisfy(response -> assertThat(response.getDiscounts()).hasSize(2));
+            verify(couponWalletService, times(1)).getUsableCoupons(TEST_USER_ID);
+        }
+    }
+
+    @Test
+    @DisplayName("주문 금액이 음수이면 쿠폰함을 조회하지 않고 실패")
+    void getBestDiscounts_Fail_NegativeAmount() {
+        // When & Then
+        assertThatThrownBy(() -> couponDiscountService.getBestDiscounts(List.of(1000L, -1L)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("주문 금액은 0 이상이어야 합니다.");
+        verifyNoInteractions(couponWalletService);
+    }
+
+    private CouponDto.WalletItem item(Long id, CouponPolicy.DiscountType discountType, int discountValue,
+                                      int minimumOrderAmount, int maximumDiscountAmount, int validDays) {
+        return CouponDto.WalletItem.builder()
+                .id(id)
+                .couponCode("CODE" + id)
+                .discountType(discountType)
+                .discountValue(discountValue)
+                .minimumOrderAmount(minimumOrderAmount)
+                .maximumDiscountAmount(maximumDiscountAmount)
+                .validFrom(LocalDateTime.now().minusDays(2))
+                .validUntil(LocalDateTime.now().plusDays(validDays))
+                .build();
+    }
+}
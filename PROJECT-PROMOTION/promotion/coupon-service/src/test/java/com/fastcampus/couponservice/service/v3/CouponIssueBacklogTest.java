@@ -0,0 +1,76 @@
+package com.fastcampus.couponservice.service.v3;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.kafka.core.KafkaAdmin;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CouponIssueBacklogTest {
+    private static final String SPOOL_ID = "spool-a";
+
+    @Mock
+    private KafkaAdmin kafkaAdmin;
+
+    @Mock
+    private CouponIssueSpool couponIssueSpool;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RMapCache<Object, Object> spoolPending;
+
+    private CouponIssueBacklog couponIssueBacklog;
+
+    @BeforeEach
+    void setUp() {
+        couponIssueBacklog = new CouponIssueBacklog(kafkaAdmin, couponIssueSpool, redissonClient);
+        when(redissonClient.getMapCache(anyString(), any(Codec.class))).thenReturn(spoolPending);
+        when(couponIssueSpool.getSpoolId()).thenReturn(SPOOL_ID);
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스가 기록한 스풀 대기 건수를 합산하고 이 인스턴스는 현재 값을 사용")
+    void getSpoolPending_SumsAllInstances() {
+        // Given
+        when(couponIssueSpool.getPendingRecords()).thenReturn(3L);
+        when(spoolPending.readAllMap()).thenReturn(Map.of(SPOOL_ID, "100", "spool-b", "40", "spool-c", "0"));
+
+        // When
+        long pending = couponIssueBacklog.getSpoolPending();
+
+        // Then
+        assertThat(pending).isEqualTo(43L);
+    }
+
+    @Test
+    @DisplayName("스풀 대기 건수는 만료 시간과 함께 기록")
+    void reportSpoolPending() {
+        // Given
+        when(couponIssueSpool.getPendingRecords()).thenReturn(7L);
+
+        // When
+        couponIssueBacklog.reportSpoolPending();
+
+        // Then
+        verify(spoolPending).fastPut(eq(SPOOL_ID), eq("7"), anyLong(), eq(TimeUnit.MILLISECONDS));
+    }
+}
@@ -0,0 +1,97 @@
+package com.fastcampus.couponservice.service.v3;
+
+import com.fastcampus.couponservice.dto.v3.CouponDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
+import org.redisson.client.codec.Codec;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CouponIssueDeduplicatorTest {
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RScript rScript;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CouponIssueDeduplicator couponIssueDeduplicator;
+
+    @BeforeEach
+    void setUp() {
+        couponIssueDeduplicator = new CouponIssueDeduplicator(redissonClient, meterRegistry);
+        when(redissonClient.getScript(any(Codec.class))).thenReturn(rScript);
+    }
+
+    @Test
+    @DisplayName("같은 poll 안에서 중복된 요청은 한 번만 처리")
+    void filterDuplicates_InBatch() {
+        // Given
+        when(rScript.eval(eq(RScript.Mode.READ_ONLY), anyString(), eq(RScript.ReturnType.MULTI), anyList(), any(Object[].class)))
+                .thenReturn(List.of());
+        List<CouponDto.IssueMessage> messages = List.of(message("r1", 1L), message("r1", 1L), message("r2", 2L));
+
+        // When
+        List<CouponDto.IssueMessage> unique = couponIssueDeduplicator.filterDuplicates(messages);
+
+        // Then
+        assertThat(unique).extracting(CouponDto.IssueMessage::getRequestId).containsExactly("r1", "r2");
+        assertThat(meterRegistry.counter("coupon.issue.consumer.duplicates").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("window 안에서 이미 처리된 요청은 제외")
+    void filterDuplicates_AlreadyProcessed() {
+        // Given
+        when(rScript.eval(eq(RScript.Mode.READ_ONLY), anyString(), eq(RScript.ReturnType.MULTI), anyList(), any(Object[].class)))
+                .thenReturn(List.of("r1"));
+        List<CouponDto.IssueMessage> messages = List.of(message("r1", 1L), message("r2", 2L), message(null, 3L));
+
+        // When
+        List<CouponDto.IssueMessage> unique = couponIssueDeduplicator.filterDuplicates(messages);
+
+        // Then
+        assertThat(unique).extracting(CouponDto.IssueMessage::getUserId).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(meterRegistry.counter("coupon.issue.consumer.duplicates").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Redis 를 사용할 수 없으면 중복 확인 없이 처리")
+    void filterDuplicates_RedisUnavailable() {
+        // Given
+        when(rScript.eval(eq(RScript.Mode.READ_ONLY), anyString(), eq(RScript.ReturnType.MULTI), anyList(), any(Object[].class)))
+                .thenThrow(new RedisConnectionException("connection refused"));
+        List<CouponDto.IssueMessage> messages = List.of(message("r1", 1L), message("r2", 2L));
+
+        // When
+        List<CouponDto.IssueMessage> unique = couponIssueDeduplicator.filterDuplicates(messages);
+
+        // Then
+        assertThat(unique).hasSize(2);
+        assertThat(meterRegistry.counter("coupon.issue.dedupe.unavailable").count()).isEqualTo(1);
+    }
+
+    private CouponDto.IssueMessage message(String requestId, Long userId) {
+        return CouponDto.IssueMessage.builder()
+                .requestId(requestId)
+                .policyId(1L)
+                .userId(userId)
+                .build();
+    }
+}
@@ -0,0 +1,113 @@
+package com.fastcampus.couponservice.service.v3;
+
+import com.fastcampus.couponservice.dto.v3.CouponDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponIssueSpoolRelayTest {
+    private static final String VERSION = "v3";
+
+    @Mock
+    private CouponIssueSpool couponIssueSpool;
+
+    @Mock
+    private CouponProducer couponProducer;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CouponIssueSpoolRelay couponIssueSpoolRelay;
+
+    private final CouponDto.IssueMessage first = message(1L);
+    private final CouponDto.IssueMessage second = message(2L);
+    private final CouponIssueSpool.Batch batch = new CouponIssueSpool.Batch(List.of(first, second), 128L);
+
+    @BeforeEach
+    void setUp() {
+        couponIssueSpoolRelay = new CouponIssueSpoolRelay(couponIssueSpool, couponProducer, meterRegistry);
+        ReflectionTestUtils.setField(couponIssueSpoolRelay, "relayedCounter", meterRegistry.counter("coupon.spool.relay", "result", "relayed"));
+        ReflectionTestUtils.setField(couponIssueSpoolRelay, "failedCounter", meterRegistry.counter("coupon.spool.relay", "result", "failed"));
+        when(couponIssueSpool.read(anyInt())).thenReturn(batch);
+    }
+
+    @Test
+    @DisplayName("묶음의 모든 전송이 확인된 뒤에만 checkpoint 를 옮긴다")
+    void relayBatch_CommitsAfterAllAcks() throws Exception {
+        // Given
+        CompletableFuture<SendResult<String, CouponDto.IssueMessage>> firstAck = new CompletableFuture<>();
+        CompletableFuture<SendResult<String, CouponDto.IssueMessage>> secondAck = new CompletableFuture<>();
+        when(couponProducer.sendCouponIssueRequestAsync(VERSION, first)).thenReturn(firstAck);
+        when(couponProducer.sendCouponIssueRequestAsync(VERSION, second)).thenReturn(secondAck);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            // When
+            Future<Boolean> relayed = executor.submit(() -> couponIssueSpoolRelay.relayBatch());
+            firstAck.complete(null);
+
+            // Then
+            verify(couponIssueSpool, after(200).never()).commit(any());
+
+            // When
+            secondAck.complete(null);
+
+            // Then
+            assertThat(relayed.get(5, TimeUnit.SECONDS)).isFalse();
+            verify(couponIssueSpool).commit(batch);
+            assertThat(meterRegistry.counter("coupon.spool.relay", "result", "relayed").count()).isEqualTo(2.0);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("전송에 실패한 묶음은 commit 하지 않고 다음 주기에 같은 묶음을 다시 보낸다")
+    void relayBatch_ResendsAfterFailure() throws Exception {
+        // Given
+        when(couponProducer.sendCouponIssueRequestAsync(VERSION, first))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        when(couponProducer.sendCouponIssueRequestAsync(VERSION, second))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker unavailable")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // When & Then
+        assertThatThrownBy(() -> couponIssueSpoolRelay.relayBatch()).isInstanceOf(ExecutionException.class);
+        verify(couponIssueSpool, never()).commit(any());
+        assertThat(meterRegistry.counter("coupon.spool.relay", "result", "failed").count()).isEqualTo(2.0);
+
+        // When
+        couponIssueSpoolRelay.relayBatch();
+
+        // Then
+        verify(couponProducer, times(2)).sendCouponIssueRequestAsync(VERSION, first);
+        verify(couponProducer, times(2)).sendCouponIssueRequestAsync(VERSION, second);
+        verify(couponIssueSpool).commit(batch);
+    }
+
+    private static CouponDto.IssueMessage message(Long userId) {
+        return CouponDto.IssueMessage.builder()
+                .requestId("request-" + userId)
+                .policyId(1L)
+                .userId(userId)
+                .build();
+    }
+}
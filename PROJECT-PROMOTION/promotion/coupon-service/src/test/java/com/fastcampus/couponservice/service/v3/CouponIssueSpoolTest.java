@@ -0,0 +1,177 @@
+package com.fastcampus.couponservice.service.v3;
+
+import com.fastcampus.couponservice.dto.v3.CouponDto;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CouponIssueSpoolTest {
+
+    @TempDir
+    Path dir;
+
+    private final List<CouponIssueSpool> spools = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        spools.forEach(CouponIssueSpool::close);
+    }
+
+    @Test
+    @DisplayName("기록한 순서대로 읽고, commit 한 요청은 다시 읽지 않음")
+    void appendReadCommit() throws IOException {
+        // Given
+        CouponIssueSpool spool = openSpool(DataSize.ofKilobytes(4));
+        for (long userId = 1; userId <= 5; userId++) {
+            spool.append(message(userId));
+        }
+
+        // When
+        CouponIssueSpool.Batch first = spool.read(3);
+        spool.commit(first);
+        CouponIssueSpool.Batch second = spool.read(10);
+
+        // Then
+        assertThat(first.messages()).extracting(CouponDto.IssueMessage::getUserId).containsExactly(1L, 2L, 3L);
+        assertThat(second.messages()).extracting(CouponDto.IssueMessage::getUserId).containsExactly(4L, 5L);
+        assertThat(spool.getPendingRecords()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("재시작 시 commit 되지 않은 요청부터 다시 전달")
+    void replayAfterRestart() throws IOException {
+        // Given
+        CouponIssueSpool spool = openSpool(DataSize.ofKilobytes(4));
+        for (long userId = 1; userId <= 5; userId++) {
+            spool.append(message(userId));
+        }
+        spool.commit(spool.read(2));
+        spool.close();
+        spools.remove(spool);
+
+        // When
+        CouponIssueSpool reopened = openSpool(DataSize.ofKilobytes(4));
+        reopened.append(message(6L));
+
+        // Then
+        assertThat(reopened.read(10).messages()).extracting(CouponDto.IssueMessage::getUserId)
+                .containsExactly(3L, 4L, 5L, 6L);
+    }
+
+    @Test
+    @DisplayName("세그먼트가 가득 차면 다음 세그먼트로 넘어가고, 모두 전달된 세그먼트는 삭제")
+    void rollAndDeleteSegments() throws IOException {
+        // Given
+        CouponIssueSpool spool = openSpool(DataSize.ofBytes(256));
+        for (long userId = 1; userId <= 100; userId++) {
+            spool.append(message(userId));
+        }
+        long segmentsBefore = countSegments();
+
+        // When
+        CouponIssueSpool.Batch batch = spool.read(1000);
+        spool.commit(batch);
+
+        // Then
+        assertThat(segmentsBefore).isGreaterThan(1);
+        assertThat(batch.messages()).hasSize(100);
+        assertThat(batch.messages().get(99).getUserId()).isEqualTo(100L);
+        assertThat(countSegments()).isEqualTo(1);
+        assertThat(spool.getPendingRecords()).isZero();
+    }
+
+    @Test
+    @DisplayName("CRC 는 맞지만 역직렬화할 수 없는 레코드는 건너뛰고 다음 레코드부터 전달")
+    void skipUnreadableRecord() throws IOException {
+        // Given
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObjectMapper objectMapper = new ObjectMapper() {
+            @Override
+            public <T> T readValue(byte[] src, Class<T> valueType) throws IOException {
+                if (new String(src, StandardCharsets.UTF_8).contains("\"userId\":2")) {
+                    throw new JsonMappingException(null, "unreadable");
+                }
+                return super.readValue(src, valueType);
+            }
+        };
+        CouponIssueSpool spool = openSpool(DataSize.ofKilobytes(4), objectMapper, meterRegistry);
+        for (long userId = 1; userId <= 3; userId++) {
+            spool.append(message(userId));
+        }
+
+        // When
+        CouponIssueSpool.Batch batch = spool.read(10);
+        spool.commit(batch);
+
+        // Then
+        assertThat(batch.messages()).extracting(CouponDto.IssueMessage::getUserId).containsExactly(1L, 3L);
+        assertThat(batch.records()).isEqualTo(3);
+        assertThat(spool.getPendingRecords()).isZero();
+        assertThat(spool.read(10).isEmpty()).isTrue();
+        assertThat(meterRegistry.counter("coupon.spool.skipped").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("다른 프로세스가 사용 중인 디렉터리는 열지 않음")
+    void open_Fail_DirectoryLocked() throws IOException {
+        // Given
+        openSpool(DataSize.ofKilobytes(4));
+
+        // When & Then
+        assertThatThrownBy(() -> openSpool(DataSize.ofKilobytes(4)))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("디렉터리를 설정하지 않으면 열지 않음")
+    void open_Fail_DirectoryNotConfigured() {
+        // Given
+        CouponIssueSpool spool = new CouponIssueSpool(new ObjectMapper(), new SimpleMeterRegistry());
+
+        // When & Then
+        assertThatThrownBy(spool::open).isInstanceOf(IllegalStateException.class);
+    }
+
+    private CouponIssueSpool openSpool(DataSize segmentSize) throws IOException {
+        return openSpool(segmentSize, new ObjectMapper(), new SimpleMeterRegistry());
+    }
+
+    private CouponIssueSpool openSpool(DataSize segmentSize, ObjectMapper objectMapper, SimpleMeterRegistry meterRegistry) throws IOException {
+        CouponIssueSpool spool = new CouponIssueSpool(objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(spool, "dir", dir.toString());
+        ReflectionTestUtils.setField(spool, "segmentSize", segmentSize);
+        spool.open();
+        spools.add(spool);
+        return spool;
+    }
+
+    private long countSegments() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.toString().endsWith(".log")).count();
+        }
+    }
+
+    private CouponDto.IssueMessage message(Long userId) {
+        return CouponDto.IssueMessage.builder()
+                .policyId(1L)
+                .userId(userId)
+                .build();
+    }
+}
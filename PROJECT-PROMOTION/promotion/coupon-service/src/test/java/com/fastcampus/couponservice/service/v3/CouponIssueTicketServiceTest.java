@@ -0,0 +1,117 @@
+package com.fastcampus.couponservice.service.v3;
+
+import com.fastcampus.couponservice.dto.v3.CouponDto;
+import com.fastcampus.couponservice.exception.CouponNotFoundException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBucket;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.client.codec.Codec;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponIssueTicketServiceTest {
+    private static final String TICKET_ID = "ticket-1";
+    private static final Long USER_ID = 1L;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RBucket<Object> resultBucket;
+
+    @Mock
+    private RTopic rTopic;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private CouponIssueTicketService couponIssueTicketService;
+
+    @BeforeEach
+    void setUp() {
+        couponIssueTicketService = new CouponIssueTicketService(redissonClient, objectMapper);
+        when(redissonClient.getBucket(anyString(), any(Codec.class))).thenReturn(resultBucket);
+    }
+
+    @Test
+    @DisplayName("결과가 이미 저장되어 있으면 바로 응답")
+    void awaitResult_AlreadyIssued() throws Exception {
+        // Given
+        when(resultBucket.get()).thenReturn(objectMapper.writeValueAsString(issued(USER_ID)));
+
+        // When
+        DeferredResult<ResponseEntity<CouponDto.IssueTicketResponse>> result =
+                couponIssueTicketService.awaitResult(TICKET_ID, USER_ID, Duration.ofSeconds(10));
+
+        // Then
+        ResponseEntity<?> response = (ResponseEntity<?>) result.getResult();
+        CouponDto.IssueTicketResponse body = (CouponDto.IssueTicketResponse) response.getBody();
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(body.getStatus()).isEqualTo(CouponDto.IssueStatus.ISSUED);
+        assertThat(body.getCouponId()).isEqualTo(100L);
+    }
+
+    @Test
+    @DisplayName("대기 중인 요청은 결과 이벤트를 받는 즉시 응답")
+    @SuppressWarnings("unchecked")
+    void awaitResult_CompletedByEvent() throws Exception {
+        // Given
+        when(redissonClient.getTopic(anyString(), any(Codec.class))).thenReturn(rTopic);
+        ArgumentCaptor<MessageListener<String>> listener = ArgumentCaptor.forClass(MessageListener.class);
+        couponIssueTicketService.subscribe();
+        verify(rTopic).addListener(eq(String.class), listener.capture());
+        when(resultBucket.get()).thenReturn(null);
+        DeferredResult<ResponseEntity<CouponDto.IssueTicketResponse>> result =
+                couponIssueTicketService.awaitResult(TICKET_ID, USER_ID, Duration.ofSeconds(10));
+        assertThat(result.hasResult()).isFalse();
+
+        // When
+        listener.getValue().onMessage("coupon:issue-result:events",
+                objectMapper.writeValueAsString(List.of(issued(USER_ID))));
+
+        // Then
+        ResponseEntity<?> response = (ResponseEntity<?>) result.getResult();
+        assertThat(((CouponDto.IssueTicketResponse) response.getBody()).getStatus())
+                .isEqualTo(CouponDto.IssueStatus.ISSUED);
+    }
+
+    @Test
+    @DisplayName("다른 사용자의 티켓은 찾을 수 없음")
+    void awaitResult_OtherUser() throws Exception {
+        // Given
+        when(resultBucket.get()).thenReturn(objectMapper.writeValueAsString(issued(2L)));
+
+        // When
+        DeferredResult<ResponseEntity<CouponDto.IssueTicketResponse>> result =
+                couponIssueTicketService.awaitResult(TICKET_ID, USER_ID, Duration.ofSeconds(10));
+
+        // Then
+        assertThat(result.getResult()).isInstanceOf(CouponNotFoundException.class);
+    }
+
+    private CouponDto.IssueResult issued(Long userId) {
+        return CouponDto.IssueResult.issued(CouponDto.IssueMessage.builder()
+                .requestId(TICKET_ID)
+                .policyId(1L)
+                .userId(userId)
+                .build(), 100L);
+    }
+}
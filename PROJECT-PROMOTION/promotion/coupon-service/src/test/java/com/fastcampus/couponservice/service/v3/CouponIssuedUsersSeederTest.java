@@ -0,0 +1,111 @@
+package com.fastcampus.couponservice.service.v3;
+
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.repository.CouponPolicyRepository;
+import com.fastcampus.couponservice.repository.CouponRepository;
+import com.fastcampus.couponservice.service.v2.CouponIssueScript;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponIssuedUsersSeederTest {
+    private static final Long POLICY_ID = 1L;
+
+    @Mock
+    private CouponPolicyRepository couponPolicyRepository;
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    @Mock
+    private CouponIssueScript couponIssueScript;
+
+    private CouponIssuedUsersSeeder couponIssuedUsersSeeder;
+    private CouponPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        couponIssuedUsersSeeder = new CouponIssuedUsersSeeder(couponPolicyRepository, couponRepository, couponIssueScript);
+        ReflectionTestUtils.setField(couponIssuedUsersSeeder, "batchSize", 2);
+        policy = CouponPolicy.builder()
+                .id(POLICY_ID)
+                .totalQuantity(100)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+    }
+
+    @Test
+    @DisplayName("채운 적 없는 정책은 DB 보유 사용자를 나누어 채운 뒤 완료 표시")
+    void seed_FromDb() {
+        // Given
+        when(couponIssueScript.isIssuedUsersSeeded(POLICY_ID)).thenReturn(false);
+        when(couponRepository.findHolderUserIdsAfter(POLICY_ID, Long.MIN_VALUE, PageRequest.of(0, 2)))
+                .thenReturn(List.of(10L, 20L));
+        when(couponRepository.findHolderUserIdsAfter(POLICY_ID, 20L, PageRequest.of(0, 2)))
+                .thenReturn(List.of(30L));
+
+        // When
+        boolean seeded = couponIssuedUsersSeeder.seed(policy);
+
+        // Then
+        assertThat(seeded).isTrue();
+        InOrder inOrder = inOrder(couponIssueScript);
+        inOrder.verify(couponIssueScript).markIssued(policy, List.of(10L, 20L));
+        inOrder.verify(couponIssueScript).markIssued(policy, List.of(30L));
+        inOrder.verify(couponIssueScript).markIssuedUsersSeeded(policy);
+    }
+
+    @Test
+    @DisplayName("이미 채운 정책은 DB 를 조회하지 않음")
+    void seed_SkipSeeded() {
+        // Given
+        when(couponIssueScript.isIssuedUsersSeeded(POLICY_ID)).thenReturn(true);
+
+        // When
+        boolean seeded = couponIssuedUsersSeeder.seed(policy);
+
+        // Then
+        assertThat(seeded).isFalse();
+        verify(couponRepository, never()).findHolderUserIdsAfter(anyLong(), anyLong(), any());
+        verify(couponIssueScript, never()).markIssuedUsersSeeded(any());
+    }
+
+    @Test
+    @DisplayName("기동 시 발급 기간이 끝나지 않은 정책을 모두 확인")
+    void seed_AllActivePolicies() {
+        // Given
+        CouponPolicy other = CouponPolicy.builder()
+                .id(2L)
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+        when(couponPolicyRepository.findActiveAfter(eq(0L), any(), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of(policy, other));
+        when(couponPolicyRepository.findActiveAfter(eq(2L), any(), eq(PageRequest.of(0, 2))))
+                .thenReturn(List.of());
+        when(couponIssueScript.isIssuedUsersSeeded(anyLong())).thenReturn(true);
+
+        // When
+        couponIssuedUsersSeeder.seed();
+
+        // Then
+        verify(couponIssueScript).isIssuedUsersSeeded(POLICY_ID);
+        verify(couponIssueScript).isIssuedUsersSeeded(2L);
+    }
+}
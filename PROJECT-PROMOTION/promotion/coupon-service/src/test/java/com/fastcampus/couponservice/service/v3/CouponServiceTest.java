@@ -1,5 +1,6 @@
 package com.fastcampus.couponservice.service.v3;
 
+import com.fastcampus.couponservice.aop.CouponIssueMetrics;
 import com.fastcampus.couponservice.config.UserIdInterceptor;
 import com.fastcampus.couponservice.domain.Coupon;
 import com.fastcampus.couponservice.domain.CouponPolicy;
@@ -7,12 +8,19 @@ import com.fastcampus.couponservice.dto.v3.CouponDto;
 import com.fastcampus.couponservice.exception.CouponIssueException;
 import com.fastcampus.couponservice.exception.CouponNotFoundException;
 import com.fastcampus.couponservice.repository.CouponRepository;
+import com.fastcampus.couponservice.repository.CouponWalletItem;
+import com.fastcampus.couponservice.service.code.CouponCodeFilter;
+import com.fastcampus.couponservice.service.code.CouponCodeGenerator;
+import com.fastcampus.couponservice.service.v2.CouponIssueMode;
 import com.fastcampus.couponservice.service.v2.CouponPolicyService;
 import com.fastcampus.couponservice.service.v2.CouponStateService;
+import com.fastcampus.couponservice.service.v2.CouponStockService;
+import com.fastcampus.couponservice.service.v2.CouponUsageService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -20,13 +28,18 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.redisson.api.RAtomicLong;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.*;
@@ -52,6 +65,24 @@ class CouponServiceTest {
     @Mock
     private CouponStateService couponStateService;
 
+    @Mock
+    private CouponStockService couponStockService;
+
+    @Mock
+    private CouponIssueMetrics couponIssueMetrics;
+
+    @Mock
+    private CouponWalletService couponWalletService;
+
+    @Mock
+    private CouponCodeGenerator couponCodeGenerator;
+
+    @Mock
+    private CouponCodeFilter couponCodeFilter;
+
+    @Mock
+    private CouponUsageService couponUsageService;
+
     @Mock
     private RLock rLock;
 
@@ -79,6 +110,8 @@ class CouponServiceTest {
                 .couponPolicy(couponPolicy)
                 .couponCode("TEST123")
                 .build();
+
+        ReflectionTestUtils.setField(couponService, "issueMode", CouponIssueMode.LOCK);
     }
 
     @Test
@@ -169,29 +202,339 @@ class CouponServiceTest {
     }
 
     @Test
-    @DisplayName("쿠폰 사용 성공")
-    void useCoupon_Success() {
+    @DisplayName("락 미사용 쿠폰 발급 성공 - 락을 사용하지 않음")
+    void requestCouponIssue_WithoutLock_Success() {
         // Given
-        when(couponRepository.findByIdWithLock(TEST_COUPON_ID)).thenReturn(Optional.of(coupon));
+        ReflectionTestUtils.setField(couponService, "issueMode", CouponIssueMode.SCRIPT);
+        CouponDto.IssueRequest request = new CouponDto.IssueRequest(TEST_POLICY_ID);
+
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+
+            // When
+            String ticketId = couponService.requestCouponIssue(request);
+
+            // Then
+            ArgumentCaptor<CouponDto.IssueMessage> message = ArgumentCaptor.forClass(CouponDto.IssueMessage.class);
+            verify(couponStockService).reserve("v3", couponPolicy, TEST_USER_ID);
+            verify(couponProducer).sendCouponIssueRequest(message.capture());
+            verify(redissonClient, never()).getLock(anyString());
+            assertThat(ticketId).isNotBlank().isEqualTo(message.getValue().getRequestId());
+        }
+    }
+
+    @Test
+    @DisplayName("락 미사용 쿠폰 발급 실패 - 중복 발급")
+    void requestCouponIssue_WithoutLock_Fail_AlreadyIssued() {
+        // Given
+        ReflectionTestUtils.setField(couponService, "issueMode", CouponIssueMode.SCRIPT);
+        CouponDto.IssueRequest request = new CouponDto.IssueRequest(TEST_POLICY_ID);
+
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        doThrow(new CouponIssueException("이미 발급받은 쿠폰입니다."))
+                .when(couponStockService).reserve("v3", couponPolicy, TEST_USER_ID);
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+
+            // When & Then
+            assertThatThrownBy(() -> couponService.requestCouponIssue(request))
+                    .isInstanceOf(CouponIssueException.class)
+                    .hasMessage("이미 발급받은 쿠폰입니다.");
+
+            verify(couponProducer, never()).sendCouponIssueRequest(any(CouponDto.IssueMessage.class));
+        }
+    }
+
+    @Test
+    @DisplayName("쿠폰 일괄 발급 성공 - 정책은 한 번만 조회")
+    void issueCoupons_Success() {
+        // Given
+        List<CouponDto.IssueMessage> messages = List.of(
+                CouponDto.IssueMessage.builder().policyId(TEST_POLICY_ID).userId(1L).build(),
+                CouponDto.IssueMessage.builder().policyId(TEST_POLICY_ID).userId(2L).build(),
+                CouponDto.IssueMessage.builder().policyId(TEST_POLICY_ID).userId(3L).build());
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
 
         // When
-        Coupon result = couponService.useCoupon(TEST_COUPON_ID, 200L);
+        couponService.issueCoupons(messages);
 
         // Then
-        verify(couponStateService).updateCouponState(coupon);
-        assertThat(result).isEqualTo(coupon);
+        verify(couponPolicyService, times(1)).getCouponPolicy(TEST_POLICY_ID);
+        verify(couponRepository).saveAll(argThat(coupons -> ((List<Coupon>) coupons).size() == 3));
+    }
+
+    @Test
+    @DisplayName("쿠폰 일괄 발급 실패 - 정책 없음")
+    void issueCoupons_Fail_PolicyNotFound() {
+        // Given
+        List<CouponDto.IssueMessage> messages = List.of(
+                CouponDto.IssueMessage.builder().policyId(TEST_POLICY_ID).userId(TEST_USER_ID).build());
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(null);
+
+        // When & Then
+        assertThatThrownBy(() -> couponService.issueCoupons(messages))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("쿠폰 정책을 찾을 수 없습니다.");
+        verify(couponRepository, never()).saveAll(anyList());
+    }
+
+    @Test
+    @DisplayName("쿠폰함 조회 성공 - 다음 페이지 커서 반환")
+    void getCoupons_Success_HasNext() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        CouponWalletItem first = walletItem(3L, createdAt);
+        CouponWalletItem second = walletItem(2L, createdAt);
+        CouponWalletItem third = mock(CouponWalletItem.class);
+        when(couponRepository.findWalletFirstPage(eq(TEST_USER_ID), eq(Coupon.Status.AVAILABLE), any()))
+                .thenReturn(List.of(first, second, third));
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+
+            // When
+            CouponDto.WalletResponse response = couponService.getCoupons(Coupon.Status.AVAILABLE, null, 2);
+
+            // Then
+            assertThat(response.getCoupons()).hasSize(2);
+            assertThat(response.isHasNext()).isTrue();
+            CouponDto.WalletCursor cursor = CouponDto.WalletCursor.decode(response.getNextCursor());
+            assertThat(cursor.getCreatedAt()).isEqualTo(createdAt);
+            assertThat(cursor.getId()).isEqualTo(2L);
+        }
+    }
+
+    @Test
+    @DisplayName("쿠폰함 조회 - 커서 이후 페이지 조회")
+    void getCoupons_WithCursor() {
+        // Given
+        LocalDateTime createdAt = LocalDateTime.of(2024, 1, 1, 12, 0);
+        String cursor = new CouponDto.WalletCursor(createdAt, 2L).encode();
+        when(couponRepository.findWalletPageAfter(eq(TEST_USER_ID), eq(Coupon.Status.AVAILABLE), eq(createdAt), eq(2L), any()))
+                .thenReturn(List.of());
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+
+            // When
+            CouponDto.WalletResponse response = couponService.getCoupons(Coupon.Status.AVAILABLE, cursor, 20);
+
+            // Then
+            assertThat(response.getCoupons()).isEmpty();
+            assertThat(response.isHasNext()).isFalse();
+            assertThat(response.getNextCursor()).isNull();
+        }
+    }
+
+    @Test
+    @DisplayName("쿠폰함 조회 실패 - 잘못된 커서")
+    void getCoupons_Fail_InvalidCursor() {
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+
+            // When & Then
+            assertThatThrownBy(() -> couponService.getCoupons(Coupon.Status.AVAILABLE, "invalid", 20))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("잘못된 커서입니다.");
+        }
+    }
+
+    @Test
+    @DisplayName("쿠폰 사용 성공")
+    void useCoupon_Success() {
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            // Given
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+            when(couponUsageService.use(TEST_COUPON_ID, TEST_USER_ID, 200L)).thenReturn(coupon);
+
+            // When
+            Coupon result = couponService.useCoupon(TEST_COUPON_ID, 200L);
+
+            // Then
+            verify(couponStateService).updateCouponState(coupon);
+            verify(couponWalletService).removeCoupon(coupon);
+            assertThat(result).isEqualTo(coupon);
+        }
+    }
+
+    @Test
+    @DisplayName("쿠폰 사용 - 상태 캐시와 쿠폰함은 트랜잭션 커밋 후에 갱신")
+    void useCoupon_UpdatesCachesAfterCommit() {
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            // Given
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+            when(couponUsageService.use(TEST_COUPON_ID, TEST_USER_ID, 200L)).thenReturn(coupon);
+            TransactionSynchronizationManager.initSynchronization();
+
+            try {
+                // When
+                couponService.useCoupon(TEST_COUPON_ID, 200L);
+
+                // Then
+                verifyNoInteractions(couponStateService, couponWalletService);
+
+                // When
+                TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+                // Then
+                verify(couponStateService).updateCouponState(coupon);
+                verify(couponWalletService).removeCoupon(coupon);
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        }
     }
 
     @Test
-    @DisplayName("쿠폰 사용 실패 - 쿠폰 없음")
+    @DisplayName("쿠폰 일괄 발급 - 롤백되면 쿠폰함과 코드 필터를 갱신하지 않음")
+    void issueCoupons_RollbackSkipsWallet() {
+        // Given
+        List<CouponDto.IssueMessage> messages = List.of(
+                CouponDto.IssueMessage.builder().policyId(TEST_POLICY_ID).userId(1L).build());
+        when(couponPolicyService.getCouponPolicy(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        TransactionSynchronizationManager.initSynchronization();
+
+        try {
+            // When
+            couponService.issueCoupons(messages);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+            // Then
+            verifyNoInteractions(couponWalletService);
+            verify(couponCodeFilter, never()).addAll(anyList());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("쿠폰 사용 실패 - 쿠폰 없음이면 상태 캐시를 갱신하지 않음")
     void useCoupon_Fail_CouponNotFound() {
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            // Given
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+            when(couponUsageService.use(TEST_COUPON_ID, TEST_USER_ID, 200L))
+                    .thenThrow(new CouponNotFoundException("쿠폰을 찾을 수 없습니다."));
+
+            // When & Then
+            assertThatThrownBy(() -> couponService.useCoupon(TEST_COUPON_ID, 200L))
+                    .isInstanceOf(CouponNotFoundException.class)
+                    .hasMessage("쿠폰을 찾을 수 없습니다.");
+            verifyNoInteractions(couponStateService, couponWalletService);
+        }
+    }
+
+    @Test
+    @DisplayName("쿠폰 취소 성공")
+    void cancelCoupon_Success() {
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            // Given
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+            when(couponUsageService.cancel(TEST_COUPON_ID, TEST_USER_ID)).thenReturn(coupon);
+
+            // When
+            Coupon result = couponService.cancelCoupon(TEST_COUPON_ID);
+
+            // Then
+            verify(couponStateService).updateCouponState(coupon);
+            verify(couponWalletService).addCoupon(coupon);
+            assertThat(result).isEqualTo(coupon);
+        }
+    }
+
+    @Test
+    @DisplayName("쿠폰 코드 사용 실패 - 필터에서 거절된 코드는 DB 를 조회하지 않음")
+    void redeemCoupon_Fail_RejectedByFilter() {
         // Given
-        when(couponRepository.findByIdWithLock(TEST_COUPON_ID)).thenReturn(Optional.empty());
+        when(couponCodeFilter.mightContain("UNKNOWN")).thenReturn(false);
 
         // When & Then
-        assertThatThrownBy(() -> couponService.useCoupon(TEST_COUPON_ID, 200L))
+        assertThatThrownBy(() -> couponService.redeemCoupon(" unknown ", 200L))
                 .isInstanceOf(CouponNotFoundException.class)
                 .hasMessage("쿠폰을 찾을 수 없습니다.");
+        verifyNoInteractions(couponRepository, redissonClient);
+    }
+
+    @Test
+    @DisplayName("쿠폰 코드 사용 성공")
+    void redeemCoupon_Success() {
+        // Given
+        when(couponCodeFilter.mightContain("TEST123")).thenReturn(true);
+        when(couponRepository.findByCouponCode("TEST123")).thenReturn(Optional.of(coupon));
+        when(couponUsageService.use(TEST_COUPON_ID, TEST_USER_ID, 200L)).thenReturn(coupon);
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+
+            // When
+            Coupon result = couponService.redeemCoupon("test123", 200L);
+
+            // Then
+            assertThat(result).isEqualTo(coupon);
+            verify(couponStateService).updateCouponState(coupon);
+            verify(couponWalletService).removeCoupon(coupon);
+        }
+    }
+
+    @Test
+    @DisplayName("쿠폰 코드 사용 성공 - 소문자로 저장된 이전 형식 코드")
+    void redeemCoupon_Success_LegacyCode() {
+        // Given
+        when(couponCodeFilter.mightContain("1A2B3C4D")).thenReturn(true);
+        when(couponRepository.findByCouponCode("1A2B3C4D")).thenReturn(Optional.empty());
+        when(couponRepository.findByCouponCode("1a2b3c4d")).thenReturn(Optional.of(coupon));
+        when(couponUsageService.use(TEST_COUPON_ID, TEST_USER_ID, 200L)).thenReturn(coupon);
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(TEST_USER_ID);
+
+            // When
+            Coupon result = couponService.redeemCoupon("1a2b3c4d", 200L);
+
+            // Then
+            assertThat(result).isEqualTo(coupon);
+            verify(couponCodeFilter, never()).recordFalsePositive();
+        }
+    }
+
+    @Test
+    @DisplayName("쿠폰 코드 사용 실패 - 필터 오탐으로 통과한 코드는 오탐으로 기록")
+    void redeemCoupon_Fail_FalsePositive() {
+        // Given
+        when(couponCodeFilter.mightContain("TEST123")).thenReturn(true);
+        when(couponRepository.findByCouponCode("TEST123")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThatThrownBy(() -> couponService.redeemCoupon("TEST123", 200L))
+                .isInstanceOf(CouponNotFoundException.class);
+        verify(couponCodeFilter).recordFalsePositive();
     }
-}
 
+    @Test
+    @DisplayName("쿠폰 코드 사용 실패 - 다른 사용자의 코드")
+    void redeemCoupon_Fail_OtherUser() {
+        // Given
+        when(couponCodeFilter.mightContain("TEST123")).thenReturn(true);
+        when(couponRepository.findByCouponCode("TEST123")).thenReturn(Optional.of(coupon));
+
+        try (MockedStatic<UserIdInterceptor> mockedStatic = mockStatic(UserIdInterceptor.class)) {
+            mockedStatic.when(UserIdInterceptor::getCurrentUserId).thenReturn(2L);
+
+            // When & Then
+            assertThatThrownBy(() -> couponService.redeemCoupon("TEST123", 200L))
+                    .isInstanceOf(CouponNotFoundException.class);
+            verifyNoInteractions(couponUsageService, couponStateService);
+        }
+    }
+
+    private CouponWalletItem walletItem(Long id, LocalDateTime createdAt) {
+        CouponWalletItem item = mock(CouponWalletItem.class);
+        lenient().when(item.getId()).thenReturn(id);
+        lenient().when(item.getCreatedAt()).thenReturn(createdAt);
+        return item;
+    }
+}
@@ -0,0 +1,225 @@
+package com.fastcampus.couponservice.service.v3;
+
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.job.CouponGrantLauncher;
+import com.fastcampus.couponservice.repository.CouponIssuedCount;
+import com.fastcampus.couponservice.repository.CouponPolicyRepository;
+import com.fastcampus.couponservice.repository.CouponRepository;
+import com.fastcampus.couponservice.service.v2.CouponIssueScript;
+import com.fastcampus.couponservice.service.v2.CouponSoldOutRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponStockReconcilerTest {
+    private static final Long POLICY_ID = 1L;
+
+    @Mock
+    private CouponPolicyRepository couponPolicyRepository;
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    @Mock
+    private CouponIssueScript couponIssueScript;
+
+    @Mock
+    private CouponSoldOutRegistry couponSoldOutRegistry;
+
+    @Mock
+    private CouponIssueBacklog couponIssueBacklog;
+
+    @Mock
+    private CouponGrantLauncher couponGrantLauncher;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private CouponStockReconciler couponStockReconciler;
+
+    @BeforeEach
+    void setUp() {
+        couponStockReconciler = new CouponStockReconciler(couponPolicyRepository, couponRepository, couponIssueScript,
+                couponSoldOutRegistry, couponIssueBacklog, couponGrantLauncher, meterRegistry);
+
+        CouponPolicy couponPolicy = CouponPolicy.builder()
+                .id(POLICY_ID)
+                .totalQuantity(100)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+        lenient().when(couponPolicyRepository.findActiveAfter(anyLong(), any(LocalDateTime.class), any()))
+                .thenReturn(List.of(couponPolicy));
+        lenient().when(couponRepository.countIssuedByPolicyIds(List.of(POLICY_ID))).thenReturn(List.of(issuedCount(30L)));
+        lenient().when(couponGrantLauncher.getOutstandingReservations()).thenReturn(Map.of(POLICY_ID, 5L));
+        lenient().when(couponIssueBacklog.getInFlight()).thenReturn(OptionalLong.of(15L));
+    }
+
+    @Test
+    @DisplayName("수량 키가 없으면 총 수량 - 발급 수 - 처리 중인 수량으로 다시 만든다")
+    void reconcile_RebuildMissing() {
+        // Given
+        when(couponIssueScript.readQuantities(List.of(POLICY_ID))).thenReturn(Map.of(POLICY_ID, new Long[]{null}));
+        when(couponIssueScript.compareAndSetQuantity(POLICY_ID, 0, null, 50L)).thenReturn(true);
+
+        // When
+        boolean finished = couponStockReconciler.reconcileNextBatch();
+
+        // Then
+        assertThat(finished).isTrue();
+        verify(couponIssueScript).compareAndSetQuantity(POLICY_ID, 0, null, 50L);
+        assertThat(meterRegistry.counter("coupon.stock.reconcile", "result", "rebuilt").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("잔여 수량이 총 수량 - 발급 수보다 많으면 상한으로 줄인다")
+    void reconcile_LowerOverCount() {
+        // Given
+        when(couponIssueScript.readQuantities(List.of(POLICY_ID))).thenReturn(Map.of(POLICY_ID, new Long[]{80L}));
+        when(couponIssueScript.compareAndSetQuantity(POLICY_ID, 0, 80L, 70L)).thenReturn(true);
+
+        // When
+        couponStockReconciler.reconcileNextBatch();
+
+        // Then
+        verify(couponIssueScript).compareAndSetQuantity(POLICY_ID, 0, 80L, 70L);
+        assertThat(meterRegistry.counter("coupon.stock.reconcile", "result", "lowered").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("처리 중인 수량이 상한보다 커도 줄일 때는 상한까지만 줄이고 소진 처리하지 않는다")
+    void reconcile_LowerOverCount_LargeInFlight() {
+        // Given
+        when(couponIssueBacklog.getInFlight()).thenReturn(OptionalLong.of(1_000L));
+        when(couponIssueScript.readQuantities(List.of(POLICY_ID))).thenReturn(Map.of(POLICY_ID, new Long[]{80L}));
+        when(couponIssueScript.compareAndSetQuantity(POLICY_ID, 0, 80L, 70L)).thenReturn(true);
+
+        // When
+        couponStockReconciler.reconcileNextBatch();
+
+        // Then
+        verify(couponIssueScript).compareAndSetQuantity(POLICY_ID, 0, 80L, 70L);
+        verify(couponSoldOutRegistry, never()).markSoldOut(any());
+    }
+
+    @Test
+    @DisplayName("샌 수량은 다음 대사에서도 잔여 수량이 그대로일 때만 복구")
+    void reconcile_RaiseStableShortfall() {
+        // Given
+        when(couponIssueScript.readQuantities(List.of(POLICY_ID))).thenReturn(Map.of(POLICY_ID, new Long[]{40L}));
+        when(couponIssueScript.compareAndSetQuantity(POLICY_ID, 0, 40L, 50L)).thenReturn(true);
+        when(couponSoldOutRegistry.isSoldOut(POLICY_ID)).thenReturn(true);
+
+        // When
+        couponStockReconciler.reconcileNextBatch();
+
+        // Then
+        verify(couponIssueScript, never()).compareAndSetQuantity(any(), anyInt(), any(), anyLong());
+
+        // When
+        couponStockReconciler.reconcileNextBatch();
+
+        // Then
+        verify(couponIssueScript).compareAndSetQuantity(POLICY_ID, 0, 40L, 50L);
+        verify(couponSoldOutRegistry).clearSoldOut(POLICY_ID);
+        assertThat(meterRegistry.counter("coupon.stock.reconcile", "result", "raised").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Kafka lag 를 알 수 없으면 수량을 늘리지 않는다")
+    void reconcile_InFlightUnknown() {
+        // Given
+        when(couponIssueBacklog.getInFlight()).thenReturn(OptionalLong.empty());
+        when(couponIssueScript.readQuantities(List.of(POLICY_ID))).thenReturn(Map.of(POLICY_ID, new Long[]{null}));
+
+        // When
+        couponStockReconciler.reconcileNextBatch();
+
+        // Then
+        verify(couponIssueScript, never()).compareAndSetQuantity(any(), anyInt(), any(), anyLong());
+        assertThat(meterRegistry.counter("coupon.stock.reconcile", "result", "skipped").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("대사 중 발급으로 수량이 바뀌면 보정하지 않고 다음 대사로 넘긴다")
+    void reconcile_Conflict() {
+        // Given
+        when(couponIssueScript.readQuantities(List.of(POLICY_ID))).thenReturn(Map.of(POLICY_ID, new Long[]{80L}));
+        when(couponIssueScript.compareAndSetQuantity(eq(POLICY_ID), eq(0), eq(80L), anyLong())).thenReturn(false);
+
+        // When
+        couponStockReconciler.reconcileNextBatch();
+
+        // Then
+        verify(couponSoldOutRegistry, never()).markSoldOut(any());
+        assertThat(meterRegistry.counter("coupon.stock.reconcile", "result", "conflict").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("처리 중인 수량은 한 바퀴에 한 번만 조회")
+    void reconcile_InFlightOncePerPass() {
+        // Given
+        ReflectionTestUtils.setField(couponStockReconciler, "batchSize", 1);
+        CouponPolicy secondPolicy = CouponPolicy.builder()
+                .id(2L)
+                .totalQuantity(100)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+        when(couponPolicyRepository.findActiveAfter(eq(1L), any(LocalDateTime.class), any())).thenReturn(List.of(secondPolicy));
+        when(couponPolicyRepository.findActiveAfter(eq(2L), any(LocalDateTime.class), any())).thenReturn(List.of());
+        when(couponIssueScript.readQuantities(anyList())).thenAnswer(invocation -> {
+            List<Long> policyIds = invocation.getArgument(0);
+            return Map.of(policyIds.get(0), new Long[]{60L});
+        });
+
+        // When
+        boolean finished;
+        do {
+            finished = couponStockReconciler.reconcileNextBatch();
+        } while (!finished);
+
+        // Then
+        verify(couponIssueScript, times(2)).readQuantities(anyList());
+        verify(couponIssueBacklog, times(1)).getInFlight();
+        verify(couponGrantLauncher, times(1)).getOutstandingReservations();
+    }
+
+    @Test
+    @DisplayName("샤드 수량은 줄일 때 많이 남은 샤드부터, 늘릴 때 고르게 조정")
+    void distribute() {
+        assertThat(CouponStockReconciler.distribute(new Long[]{10L, 30L, 5L}, 20L)).containsExactly(10L, 5L, 5L);
+        assertThat(CouponStockReconciler.distribute(new Long[]{10L, null, 5L}, 22L)).containsExactly(13L, 2L, 7L);
+    }
+
+    private CouponIssuedCount issuedCount(Long count) {
+        return new CouponIssuedCount() {
+            @Override
+            public Long getPolicyId() {
+                return POLICY_ID;
+            }
+
+            @Override
+            public Long getIssuedCount() {
+                return count;
+            }
+        };
+    }
+}
@@ -0,0 +1,147 @@
+package com.fastcampus.couponservice.service.v3;
+
+import com.fastcampus.couponservice.domain.Coupon;
+import com.fastcampus.couponservice.dto.v3.CouponDto;
+import com.fastcampus.couponservice.repository.CouponRepository;
+import com.fastcampus.couponservice.repository.CouponWalletItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.BatchResult;
+import org.redisson.api.RBatch;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponWalletServiceTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private CouponRepository couponRepository;
+
+    @Mock
+    private RScript rScript;
+
+    private RBatch rBatch;
+    private CouponWalletService couponWalletService;
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private static final Long TEST_USER_ID = 1L;
+
+    @BeforeEach
+    void setUp() {
+        rBatch = mock(RBatch.class, RETURNS_DEEP_STUBS);
+        couponWalletService = new CouponWalletService(redissonClient, couponRepository, objectMapper);
+        when(redissonClient.createBatch()).thenReturn(rBatch);
+    }
+
+    @Test
+    @DisplayName("로드된 쿠폰함은 Redis 에서 발급 순서대로 조회")
+    void getUsableCoupons_FromRedis() throws Exception {
+        // Given
+        String newer = objectMapper.writeValueAsString(walletItem(2L));
+        String older = objectMapper.writeValueAsString(walletItem(1L));
+        when(rBatch.execute()).thenReturn(new BatchResult<>(
+                List.of(true, List.of("2", "1"), Map.of("1", older, "2", newer), 3L), 0));
+
+        // When
+        List<CouponDto.WalletItem> wallet = couponWalletService.getUsableCoupons(TEST_USER_ID);
+
+        // Then
+        assertThat(wallet).extracting(CouponDto.WalletItem::getId).containsExactly(2L, 1L);
+        verify(couponRepository, never()).findWalletByStatuses(anyLong(), anyList());
+    }
+
+    @Test
+    @DisplayName("유효기간이 지난 쿠폰은 조회에서 제외")
+    void getUsableCoupons_ExcludeExpired() throws Exception {
+        // Given
+        CouponDto.WalletItem expired = CouponDto.WalletItem.builder()
+                .id(2L)
+                .status(Coupon.Status.AVAILABLE)
+                .validUntil(LocalDateTime.now().minusMinutes(1))
+                .issuedAt(LocalDateTime.now())
+                .build();
+        when(rBatch.execute()).thenReturn(new BatchResult<>(List.of(true, List.of("2", "1"),
+                Map.of("1", objectMapper.writeValueAsString(walletItem(1L)), "2", objectMapper.writeValueAsString(expired)), 3L), 0));
+
+        // When
+        List<CouponDto.WalletItem> wallet = couponWalletService.getUsableCoupons(TEST_USER_ID);
+
+        // Then
+        assertThat(wallet).extracting(CouponDto.WalletItem::getId).containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("로드 표시가 없는 사용자는 조회 전 버전을 조건으로 DB 에서 쿠폰함을 다시 만듦")
+    void getUsableCoupons_RebuildForColdUser() {
+        // Given
+        CouponWalletItem item = mock(CouponWalletItem.class);
+        when(item.getId()).thenReturn(1L);
+        when(item.getStatus()).thenReturn(Coupon.Status.AVAILABLE);
+        when(item.getCreatedAt()).thenReturn(LocalDateTime.now());
+        when(rBatch.execute()).thenReturn(new BatchResult<>(List.of(false, List.of(), Map.of(), 7L), 0));
+        when(couponRepository.findWalletByStatuses(TEST_USER_ID, List.of(Coupon.Status.AVAILABLE, Coupon.Status.CANCELLED)))
+                .thenReturn(List.of(item));
+        when(redissonClient.getScript(StringCodec.INSTANCE)).thenReturn(rScript);
+        when(rScript.eval(eq(RScript.Mode.READ_WRITE), anyString(), eq(RScript.ReturnType.INTEGER), anyList(), any(Object[].class)))
+                .thenReturn(1L);
+
+        // When
+        List<CouponDto.WalletItem> wallet = couponWalletService.getUsableCoupons(TEST_USER_ID);
+
+        // Then
+        assertThat(wallet).extracting(CouponDto.WalletItem::getId).containsExactly(1L);
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(rScript).eval(eq(RScript.Mode.READ_WRITE), anyString(), eq(RScript.ReturnType.INTEGER),
+                eq(List.of("coupon:wallet:{1}", "coupon:wallet:{1}:items", "coupon:wallet:{1}:loaded", "coupon:wallet:{1}:version")),
+                args.capture());
+        assertThat(args.getValue()[0]).isEqualTo("7");
+        assertThat(args.getValue()[2]).isEqualTo("1");
+    }
+
+    @Test
+    @DisplayName("증분 갱신은 쿠폰함 버전을 올려 진행 중인 재구성이 덮어쓰지 않게 함")
+    void addCoupons_IncrementVersion() {
+        // Given
+        Coupon coupon = mock(Coupon.class, RETURNS_DEEP_STUBS);
+        when(coupon.getId()).thenReturn(1L);
+        when(coupon.getUserId()).thenReturn(TEST_USER_ID);
+
+        // When
+        couponWalletService.addCoupon(coupon);
+
+        // Then
+        verify(rBatch.getAtomicLong("coupon:wallet:{1}:version")).incrementAndGetAsync();
+        verify(rBatch).execute();
+    }
+
+    private CouponDto.WalletItem walletItem(Long id) {
+        return CouponDto.WalletItem.builder()
+                .id(id)
+                .status(Coupon.Status.AVAILABLE)
+                .issuedAt(LocalDateTime.now())
+                .build();
+    }
+}
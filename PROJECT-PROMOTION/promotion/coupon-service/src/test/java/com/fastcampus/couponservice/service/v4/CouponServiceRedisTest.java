@@ -0,0 +1,115 @@
+package com.fastcampus.couponservice.service.v4;
+
+import com.fastcampus.couponservice.aop.CouponIssueMetrics;
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.dto.v3.CouponDto;
+import com.fastcampus.couponservice.service.v2.CouponIssueScript;
+import com.fastcampus.couponservice.service.v2.CouponPolicyCache;
+import com.fastcampus.couponservice.service.v2.CouponPolicyService;
+import com.fastcampus.couponservice.service.v2.CouponSoldOutRegistry;
+import com.fastcampus.couponservice.service.v2.CouponStockLeaseManager;
+import com.fastcampus.couponservice.service.v2.CouponStockService;
+import com.fastcampus.couponservice.service.v3.CouponProducer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.config.Config;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * 실제 Redis 와 RedissonReactiveClient 로 v4 발급 흐름 확인
+ * 마지막 수량을 차감한 콜백은 Redisson netty 스레드에서 실행되므로, 그 안에서 동기 Redis 호출을 하면 요청이 실패한다.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class CouponServiceRedisTest {
+    private static final Long TEST_POLICY_ID = 1L;
+    private static final Long TEST_USER_ID = 1L;
+
+    @Container
+    private static final GenericContainer<?> REDIS = new GenericContainer<>("redis:7-alpine").withExposedPorts(6379);
+
+    private RedissonClient redissonClient;
+    private CouponSoldOutRegistry couponSoldOutRegistry;
+    private CouponSoldOutRegistry otherInstanceRegistry;
+    private CouponIssueScript couponIssueScript;
+    private CouponProducer couponProducer;
+    private CouponService couponService;
+    private CouponPolicy couponPolicy;
+
+    @BeforeEach
+    void setUp() {
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://" + REDIS.getHost() + ":" + REDIS.getMappedPort(6379));
+        redissonClient = Redisson.create(config);
+        redissonClient.getKeys().flushall();
+
+        couponSoldOutRegistry = new CouponSoldOutRegistry(redissonClient);
+        couponSoldOutRegistry.sync();
+        otherInstanceRegistry = new CouponSoldOutRegistry(redissonClient);
+        otherInstanceRegistry.sync();
+
+        couponIssueScript = new CouponIssueScript(redissonClient);
+        CouponStockService couponStockService = new CouponStockService(couponIssueScript,
+                mock(CouponStockLeaseManager.class), mock(CouponIssueMetrics.class), couponSoldOutRegistry);
+        couponPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .totalQuantity(1)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+        CouponPolicyCache couponPolicyCache = mock(CouponPolicyCache.class);
+        when(couponPolicyCache.getIfPresent(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        couponProducer = mock(CouponProducer.class);
+        when(couponProducer.sendCouponIssueRequestAsync(eq("v4"), any(CouponDto.IssueMessage.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        couponService = new CouponService(redissonClient, new ObjectMapper(), couponPolicyCache,
+                mock(CouponPolicyService.class), couponIssueScript, couponStockService, couponProducer);
+        couponStockService.initialize(TEST_POLICY_ID, 1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        couponSoldOutRegistry.unsubscribe();
+        otherInstanceRegistry.unsubscribe();
+        redissonClient.shutdown();
+    }
+
+    @Test
+    @DisplayName("마지막 수량을 발급한 요청도 성공하고 소진 상태가 다른 인스턴스에 전파된다")
+    void requestCouponIssue_LastCoupon() {
+        // Given
+        CouponDto.IssueRequest request = CouponDto.IssueRequest.builder()
+                .couponPolicyId(TEST_POLICY_ID)
+                .build();
+
+        // When & Then
+        StepVerifier.create(couponService.requestCouponIssue(request, TEST_USER_ID))
+                .verifyComplete();
+        verify(couponProducer).sendCouponIssueRequestAsync(eq("v4"), any(CouponDto.IssueMessage.class));
+        assertThat(couponIssueScript.getRemainingQuantity(TEST_POLICY_ID)).isZero();
+        assertThat(couponSoldOutRegistry.isSoldOut(TEST_POLICY_ID)).isTrue();
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> {
+            assertThat(otherInstanceRegistry.isSoldOut(TEST_POLICY_ID)).isTrue();
+            assertThat(redissonClient.getSet("coupon:sold-out", StringCodec.INSTANCE).contains("1")).isTrue();
+        });
+    }
+}
@@ -0,0 +1,180 @@
+package com.fastcampus.couponservice.service.v4;
+
+import com.fastcampus.couponservice.domain.CouponPolicy;
+import com.fastcampus.couponservice.dto.v3.CouponDto;
+import com.fastcampus.couponservice.exception.CouponIssueException;
+import com.fastcampus.couponservice.exception.CouponSoldOutException;
+import com.fastcampus.couponservice.service.v2.CouponIssueScript;
+import com.fastcampus.couponservice.service.v2.CouponPolicyCache;
+import com.fastcampus.couponservice.service.v2.CouponPolicyService;
+import com.fastcampus.couponservice.service.v2.CouponStockService;
+import com.fastcampus.couponservice.service.v3.CouponProducer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RedissonClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CouponServiceTest {
+
+    @InjectMocks
+    private CouponService couponService;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private ObjectMapper objectMapper;
+
+    @Mock
+    private CouponPolicyCache couponPolicyCache;
+
+    @Mock
+    private CouponPolicyService couponPolicyService;
+
+    @Mock
+    private CouponIssueScript couponIssueScript;
+
+    @Mock
+    private CouponStockService couponStockService;
+
+    @Mock
+    private CouponProducer couponProducer;
+
+    private static final Long TEST_USER_ID = 1L;
+    private static final Long TEST_POLICY_ID = 1L;
+
+    private CouponPolicy couponPolicy;
+    private CouponDto.IssueRequest request;
+
+    @BeforeEach
+    void setUp() {
+        couponPolicy = CouponPolicy.builder()
+                .id(TEST_POLICY_ID)
+                .name("테스트 쿠폰")
+                .discountType(CouponPolicy.DiscountType.FIXED_AMOUNT)
+                .discountValue(1000)
+                .minimumOrderAmount(10000)
+                .maximumDiscountAmount(1000)
+                .totalQuantity(100)
+                .startTime(LocalDateTime.now().minusDays(1))
+                .endTime(LocalDateTime.now().plusDays(1))
+                .build();
+
+        request = CouponDto.IssueRequest.builder()
+                .couponPolicyId(TEST_POLICY_ID)
+                .build();
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 요청 성공")
+    void requestCouponIssue_Success() {
+        // Given
+        when(couponPolicyCache.getIfPresent(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponIssueScript.issueReactive(couponPolicy, TEST_USER_ID)).thenReturn(Mono.just(10L));
+        when(couponProducer.sendCouponIssueRequestAsync(eq("v4"), any(CouponDto.IssueMessage.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // When & Then
+        StepVerifier.create(couponService.requestCouponIssue(request, TEST_USER_ID))
+                .verifyComplete();
+        verify(couponStockService).checkSoldOut(TEST_POLICY_ID);
+        verify(couponProducer).sendCouponIssueRequestAsync(eq("v4"), any(CouponDto.IssueMessage.class));
+        verify(couponIssueScript, never()).releaseReactive(any(), any());
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 요청 성공 - 스풀을 사용하면 스풀에 기록")
+    void requestCouponIssue_Success_Spool() {
+        // Given
+        when(couponPolicyCache.getIfPresent(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponIssueScript.issueReactive(couponPolicy, TEST_USER_ID)).thenReturn(Mono.just(10L));
+        when(couponProducer.isSpoolEnabled()).thenReturn(true);
+
+        // When & Then
+        StepVerifier.create(couponService.requestCouponIssue(request, TEST_USER_ID))
+                .verifyComplete();
+        verify(couponProducer).spoolCouponIssueRequest(eq("v4"), any(CouponDto.IssueMessage.class));
+        verify(couponProducer, never()).sendCouponIssueRequestAsync(any(), any());
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 요청 실패 - 스풀 기록 실패 시 수량 복구")
+    void requestCouponIssue_Fail_SpoolFailed() {
+        // Given
+        when(couponPolicyCache.getIfPresent(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponIssueScript.issueReactive(couponPolicy, TEST_USER_ID)).thenReturn(Mono.just(10L));
+        when(couponProducer.isSpoolEnabled()).thenReturn(true);
+        doThrow(new CouponIssueException("쿠폰 발급 요청을 저장하지 못했습니다. 잠시 후 다시 시도해주세요."))
+                .when(couponProducer).spoolCouponIssueRequest(eq("v4"), any(CouponDto.IssueMessage.class));
+        when(couponIssueScript.releaseReactive(TEST_POLICY_ID, TEST_USER_ID)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(couponService.requestCouponIssue(request, TEST_USER_ID))
+                .expectError(CouponIssueException.class)
+                .verify();
+        verify(couponIssueScript).releaseReactive(TEST_POLICY_ID, TEST_USER_ID);
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 요청 실패 - 이미 발급받은 사용자")
+    void requestCouponIssue_Fail_AlreadyIssued() {
+        // Given
+        when(couponPolicyCache.getIfPresent(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponIssueScript.issueReactive(couponPolicy, TEST_USER_ID))
+                .thenReturn(Mono.error(new CouponIssueException("이미 발급받은 쿠폰입니다.")));
+
+        // When & Then
+        StepVerifier.create(couponService.requestCouponIssue(request, TEST_USER_ID))
+                .expectError(CouponIssueException.class)
+                .verify();
+        verify(couponProducer, never()).sendCouponIssueRequestAsync(any(), any());
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 요청 실패 - 수량 소진 시 매진 표시")
+    void requestCouponIssue_Fail_SoldOut() {
+        // Given
+        when(couponPolicyCache.getIfPresent(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponIssueScript.issueReactive(couponPolicy, TEST_USER_ID))
+                .thenReturn(Mono.error(new CouponSoldOutException("쿠폰이 모두 소진되었습니다.")));
+
+        // When & Then
+        StepVerifier.create(couponService.requestCouponIssue(request, TEST_USER_ID))
+                .expectError(CouponSoldOutException.class)
+                .verify();
+        verify(couponStockService).markSoldOut(TEST_POLICY_ID);
+        verify(couponProducer, never()).sendCouponIssueRequestAsync(any(), any());
+    }
+
+    @Test
+    @DisplayName("쿠폰 발급 요청 실패 - Kafka 전송 실패 시 수량 복구")
+    void requestCouponIssue_Fail_SendFailed() {
+        // Given
+        when(couponPolicyCache.getIfPresent(TEST_POLICY_ID)).thenReturn(couponPolicy);
+        when(couponIssueScript.issueReactive(couponPolicy, TEST_USER_ID)).thenReturn(Mono.just(10L));
+        when(couponProducer.sendCouponIssueRequestAsync(eq("v4"), any(CouponDto.IssueMessage.class)))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("broker unavailable")));
+        when(couponIssueScript.releaseReactive(TEST_POLICY_ID, TEST_USER_ID)).thenReturn(Mono.empty());
+
+        // When & Then
+        StepVerifier.create(couponService.requestCouponIssue(request, TEST_USER_ID))
+                .expectError(RuntimeException.class)
+                .verify();
+        verify(couponIssueScript).releaseReactive(TEST_POLICY_ID, TEST_USER_ID);
+    }
+}
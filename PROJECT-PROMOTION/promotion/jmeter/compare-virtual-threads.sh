@@ -0,0 +1,48 @@
+#!/usr/bin/env bash
+# 플랫폼 스레드 / 가상 스레드 모드의 쿠폰 발급 처리량과 p99 비교
+#
+# 같은 인프라(Redis, Kafka)를 바라보는 coupon-service 두 개를 JDK 21 로 띄운 뒤 실행한다.
+#   java -jar coupon-service.jar                                   (platform, 8080)
+#   java -jar coupon-service.jar --spring.profiles.active=virtual-threads \
+#        --server.port=8180 --management.server.port=8180            (virtual, 8180)
+#
+# 사용법: ./compare-virtual-threads.sh [version] [policyId] [threads]
+set -euo pipefail
+
+VERSION=${1:-2}
+POLICY_ID=${2:-1}
+THREADS=${3:-1000}
+PLATFORM_PORT=${PLATFORM_PORT:-8080}
+VIRTUAL_PORT=${VIRTUAL_PORT:-8180}
+PLAN="$(dirname "$0")/coupon-performance-test.jmx"
+OUT="$(dirname "$0")/results/$(date +%Y%m%d-%H%M%S)"
+mkdir -p "$OUT"
+
+run() {
+  local mode=$1 port=$2
+  jmeter -n -t "$PLAN" \
+    -Jport="$port" -Jversion="$VERSION" -JpolicyId="$POLICY_ID" -Jthreads="$THREADS" \
+    -Jjmeter.save.saveservice.output_format=csv \
+    -l "$OUT/$mode.jtl" -e -o "$OUT/$mode-report" > "$OUT/$mode.log"
+}
+
+# jtl(csv): timeStamp,elapsed,... 두 번째 컬럼이 응답 시간(ms)
+# 응답 시간 정렬은 sort 로 하고 awk 는 POSIX 기능만 사용 (gawk 의 asort 없이 mawk/BSD awk 에서도 동작)
+summarize() {
+  local mode=$1
+  tail -n +2 "$OUT/$mode.jtl" | cut -d, -f1,2 | sort -t, -k2,2n | awk -F, -v mode="$mode" '
+    { t[NR] = $2; if (min == "" || $1 < min) min = $1; if ($1 > max) max = $1 }
+    END {
+      n = NR
+      p = int(n * 0.99); if (p < n * 0.99) p++; if (p < 1) p = 1
+      seconds = (max - min) / 1000
+      printf "%-8s samples=%d throughput=%.1f/s p99=%dms\n", mode, n, (seconds > 0 ? n / seconds : n), t[p]
+    }'
+}
+
+run platform "$PLATFORM_PORT"
+run virtual "$VIRTUAL_PORT"
+
+summarize platform | tee "$OUT/summary.txt"
+summarize virtual | tee -a "$OUT/summary.txt"
+echo "HTML reports: $OUT/platform-report, $OUT/virtual-report"
@@ -5,6 +5,11 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+/**
+ * X-USER-ID 헤더의 사용자 ID를 요청 스레드에 보관
+ * 가상 스레드 모드에서는 요청마다 새 스레드가 만들어지므로 ThreadLocal 값이 다른 요청으로 새지 않으며,
+ * afterCompletion 에서 항상 제거해 플랫폼 스레드 풀에서도 재사용되지 않도록 한다.
+ */
 @Component
 public class UserIdInterceptor implements HandlerInterceptor {
     private static final String USER_ID_HEADER = "X-USER-ID";
@@ -1,6 +1,7 @@
 package com.fastcampus.pointservice.service.v2;
 
 import com.fastcampus.pointservice.aop.PointMetered;
+import com.fastcampus.pointservice.aop.PointOperationMetrics;
 import com.fastcampus.pointservice.domain.Point;
 import com.fastcampus.pointservice.domain.PointBalance;
 import com.fastcampus.pointservice.domain.PointType;
@@ -28,10 +29,12 @@ public class PointRedisService {
     private static final String POINT_LOCK_PREFIX = "point:lock:";
     private static final long LOCK_WAIT_TIME = 3L;
     private static final long LOCK_LEASE_TIME = 3L;
+    private static final String VERSION = "v2";
 
     private final PointBalanceRepository pointBalanceRepository;
     private final PointRepository pointRepository;
     private final RedissonClient redissonClient;
+    private final PointOperationMetrics pointOperationMetrics;
 
     /**
      * 포인트 적립 처리
@@ -42,17 +45,19 @@ public class PointRedisService {
      * 5. 포인트 이력 저장
      */
     @Transactional
-    @PointMetered(version = "v2")
+    @PointMetered(version = VERSION)
     public Point earnPoints(Long userId, Long amount, String description) {
         // 분산 락 획득
         RLock lock = redissonClient.getLock(POINT_LOCK_PREFIX + userId);
+        long lockedAt = 0L;
         try {
             // 락 획득 시도
-            boolean locked = lock.tryLock(LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
+            boolean locked = tryLock(lock);
             if (!locked) {
                 // 락 획득 실패
                 throw new IllegalStateException("Failed to acquire lock for user: " + userId);
             }
+            lockedAt = System.nanoTime();
 
             // 캐시된 잔액 조회
             Long currentBalance = getBalanceFromCache(userId);
@@ -71,7 +76,7 @@ public class PointRedisService {
                             .build());
 
             pointBalance.addBalance(amount);
-            pointBalance = pointBalanceRepository.save(pointBalance);
+            pointBalance = saveBalance(pointBalance);
             // 캐시 업데이트
             updateBalanceCache(userId, pointBalance.getBalance());
 
@@ -84,16 +89,14 @@ public class PointRedisService {
                     .balanceSnapshot(pointBalance.getBalance())
                     .pointBalance(pointBalance)
                     .build();
-            return pointRepository.save(point);
+            return savePoint(point);
         } catch (InterruptedException e) {
             // 락 획득 중 인터럽트 발생
             Thread.currentThread().interrupt();
             throw new IllegalStateException("Lock acquisition was interrupted", e);
         } finally {
             // 락 해제
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
-            }
+            unlock(lock, lockedAt);
         }
     }
 
@@ -107,17 +110,19 @@ public class PointRedisService {
      * 6. 포인트 이력 저장
      */
     @Transactional
-    @PointMetered(version = "v2")
+    @PointMetered(version = VERSION)
     public Point usePoints(Long userId, Long amount, String description) {
         // 분산 락 획득
         RLock lock = redissonClient.getLock(POINT_LOCK_PREFIX + userId);
+        long lockedAt = 0L;
         try {
             // 락 획득 시도
-            boolean locked = lock.tryLock(LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
+            boolean locked = tryLock(lock);
             if (!locked) {
                 // 락 획득 실패
                 throw new IllegalStateException("Failed to acquire lock for user: " + userId);
             }
+            lockedAt = System.nanoTime();
 
             // 캐시된 잔액 조회 및 체크
             Long currentBalance = getBalanceFromCache(userId);
@@ -138,7 +143,7 @@ public class PointRedisService {
                     .orElseThrow(() -> new IllegalArgumentException("User not found"));
 
             pointBalance.subtractBalance(amount);
-            pointBalance = pointBalanceRepository.save(pointBalance);
+            pointBalance = saveBalance(pointBalance);
             // 캐시 업데이트
             updateBalanceCache(userId, pointBalance.getBalance());
 
@@ -151,16 +156,14 @@ public class PointRedisService {
                     .balanceSnapshot(pointBalance.getBalance())
                     .pointBalance(pointBalance)
                     .build();
-            return pointRepository.save(point);
+            return savePoint(point);
         } catch (InterruptedException e) {
             // 락 획득 중 인터럽트 발생
             Thread.currentThread().interrupt();
             throw new IllegalStateException("Lock acquisition was interrupted", e);
         } finally {
             // 락 해제
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
-            }
+            unlock(lock, lockedAt);
         }
     }
 
@@ -182,14 +185,16 @@ public class PointRedisService {
         Long userId = originalPoint.getUserId();
         // 분산 락 획득
         RLock lock = redissonClient.getLock(POINT_LOCK_PREFIX + userId);
-        
+        long lockedAt = 0L;
+
         try {
             // 락 획득 시도
-            boolean locked = lock.tryLock(LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
+            boolean locked = tryLock(lock);
             if (!locked) {
                 // 락 획득 실패
                 throw new IllegalStateException("Failed to acquire lock for user: " + userId);
             }
+            lockedAt = System.nanoTime();
 
             if (originalPoint.getType() == PointType.CANCELED) {
                 // 이미 취소된 포인트
@@ -204,7 +209,7 @@ public class PointRedisService {
                 pointBalance.addBalance(originalPoint.getAmount());
             }
 
-            pointBalance = pointBalanceRepository.save(pointBalance);
+            pointBalance = saveBalance(pointBalance);
             // 캐시 업데이트
             updateBalanceCache(userId, pointBalance.getBalance());
 
@@ -217,16 +222,14 @@ public class PointRedisService {
                     .balanceSnapshot(pointBalance.getBalance())
                     .pointBalance(pointBalance)
                     .build();
-            return pointRepository.save(point);
+            return savePoint(point);
         } catch (InterruptedException e) {
             // 락 획득 중 인터럽트 발생
             Thread.currentThread().interrupt();
             throw new IllegalStateException("Lock acquisition was interrupted", e);
         } finally {
             // 락 해제
-            if (lock.isHeldByCurrentThread()) {
-                lock.unlock();
-            }
+            unlock(lock, lockedAt);
         }
     }
 
@@ -247,12 +250,57 @@ public class PointRedisService {
         return dbBalance;
     }
 
+    /**
+     * 분산 락 획득 (대기 시간 기록)
+     */
+    private boolean tryLock(RLock lock) throws InterruptedException {
+        long startTime = System.nanoTime();
+        try {
+            return lock.tryLock(LOCK_WAIT_TIME, LOCK_LEASE_TIME, TimeUnit.SECONDS);
+        } finally {
+            pointOperationMetrics.recordPhase(VERSION, PointOperationMetrics.Phase.LOCK_WAIT, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * 분산 락 해제 (보유 시간 기록)
+     */
+    private void unlock(RLock lock, long lockedAt) {
+        if (lock.isHeldByCurrentThread()) {
+            lock.unlock();
+            pointOperationMetrics.recordPhase(VERSION, PointOperationMetrics.Phase.LOCK_HOLD, System.nanoTime() - lockedAt);
+        }
+    }
+
+    private PointBalance saveBalance(PointBalance pointBalance) {
+        long startTime = System.nanoTime();
+        try {
+            return pointBalanceRepository.save(pointBalance);
+        } finally {
+            pointOperationMetrics.recordPhase(VERSION, PointOperationMetrics.Phase.DB_WRITE, System.nanoTime() - startTime);
+        }
+    }
+
+    private Point savePoint(Point point) {
+        long startTime = System.nanoTime();
+        try {
+            return pointRepository.save(point);
+        } finally {
+            pointOperationMetrics.recordPhase(VERSION, PointOperationMetrics.Phase.DB_WRITE, System.nanoTime() - startTime);
+        }
+    }
+
     /**
      * Redis 캐시에서 잔액 조회
      */
     private Long getBalanceFromCache(Long userId) {
-        RMap<String, Long> balanceMap = redissonClient.getMap(POINT_BALANCE_MAP);
-        return balanceMap.get(String.valueOf(userId));
+        long startTime = System.nanoTime();
+        try {
+            RMap<String, Long> balanceMap = redissonClient.getMap(POINT_BALANCE_MAP);
+            return balanceMap.get(String.valueOf(userId));
+        } finally {
+            pointOperationMetrics.recordPhase(VERSION, PointOperationMetrics.Phase.REDIS, System.nanoTime() - startTime);
+        }
     }
 
     /**
@@ -269,7 +317,12 @@ public class PointRedisService {
      * Redis 캐시 잔액 업데이트
      */
     private void updateBalanceCache(Long userId, Long balance) {
-        RMap<String, Long> balanceMap = redissonClient.getMap(POINT_BALANCE_MAP);
-        balanceMap.fastPut(String.valueOf(userId), balance);
+        long startTime = System.nanoTime();
+        try {
+            RMap<String, Long> balanceMap = redissonClient.getMap(POINT_BALANCE_MAP);
+            balanceMap.fastPut(String.valueOf(userId), balance);
+        } finally {
+            pointOperationMetrics.recordPhase(VERSION, PointOperationMetrics.Phase.REDIS, System.nanoTime() - startTime);
+        }
     }
 }
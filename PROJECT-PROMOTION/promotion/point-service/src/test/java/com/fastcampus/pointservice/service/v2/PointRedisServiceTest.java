@@ -1,5 +1,6 @@
 package com.fastcampus.pointservice.service.v2;
 
+import com.fastcampus.pointservice.aop.PointOperationMetrics;
 import com.fastcampus.pointservice.domain.Point;
 import com.fastcampus.pointservice.domain.PointBalance;
 import com.fastcampus.pointservice.domain.PointType;
@@ -37,6 +38,9 @@ class PointRedisServiceTest {
     @Mock
     private RedissonClient redissonClient;
 
+    @Mock
+    private PointOperationMetrics pointOperationMetrics;
+
     @Mock
     private RLock rLock;
 
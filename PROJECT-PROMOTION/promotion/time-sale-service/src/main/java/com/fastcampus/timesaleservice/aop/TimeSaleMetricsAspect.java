@@ -10,54 +10,76 @@ import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.reflect.MethodSignature;
 import org.springframework.stereotype.Component;
 
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @TimeSaleMetered 메서드의 time.sale.operation.success/failure/duration (coupon-service CouponMetricsAspect 와 같은 태그)
+ */
 @Aspect
 @Component
 @RequiredArgsConstructor
 public class TimeSaleMetricsAspect {
     private final MeterRegistry registry;
+    private final Map<Method, OperationMeters> meters = new ConcurrentHashMap<>();
 
     @Around("@annotation(TimeSaleMetered)")
     public Object measureTimeSaleOperation(ProceedingJoinPoint joinPoint) throws Throwable {
-        Timer.Sample sample = Timer.start();
-        String version = extractVersion(joinPoint);
-        String operation = extractOperation(joinPoint);
-        
+        long startTime = System.nanoTime();
+        OperationMeters operationMeters = meters.computeIfAbsent(
+            ((MethodSignature) joinPoint.getSignature()).getMethod(), this::createMeters);
+
         try {
             Object result = joinPoint.proceed();
-            
-            // 타임세일 처리 성공 메트릭
-            Counter.builder("time.sale.operation.success")
-                .tag("version", version)
-                .tag("operation", operation)
-                .register(registry)
-                .increment();
-                
-            sample.stop(Timer.builder("time.sale.operation.duration")
-                .tag("version", version)
-                .tag("operation", operation)
-                .register(registry));
-                
+            operationMeters.success(startTime);
             return result;
         } catch (Exception e) {
-            // 타임세일 처리 실패 메트릭
-            Counter.builder("time.sale.operation.failure")
-                .tag("version", version)
-                .tag("operation", operation)
-                .tag("error", e.getClass().getSimpleName())
-                .register(registry)
-                .increment();
+            operationMeters.failure(e);
             throw e;
         }
     }
-    
-    private String extractVersion(ProceedingJoinPoint joinPoint) {
-        TimeSaleMetered annotation = ((MethodSignature) joinPoint.getSignature())
-            .getMethod()
-            .getAnnotation(TimeSaleMetered.class);
-        return annotation.version();
+
+    private OperationMeters createMeters(Method method) {
+        return new OperationMeters(registry, method.getAnnotation(TimeSaleMetered.class).version(), method.getName());
     }
-    
-    private String extractOperation(ProceedingJoinPoint joinPoint) {
-        return joinPoint.getSignature().getName();
+
+    private static class OperationMeters {
+        private final MeterRegistry registry;
+        private final String version;
+        private final String operation;
+        private final Counter success;
+        private final Timer duration;
+        private final Map<Class<?>, Counter> failures = new ConcurrentHashMap<>();
+
+        private OperationMeters(MeterRegistry registry, String version, String operation) {
+            this.registry = registry;
+            this.version = version;
+            this.operation = operation;
+            this.success = Counter.builder("time.sale.operation.success")
+                .tag("version", version)
+                .tag("operation", operation)
+                .register(registry);
+            this.duration = Timer.builder("time.sale.operation.duration")
+                .tag("version", version)
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(registry);
+        }
+
+        private void success(long startTime) {
+            success.increment();
+            duration.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+
+        private void failure(Throwable e) {
+            failures.computeIfAbsent(e.getClass(), type -> Counter.builder("time.sale.operation.failure")
+                    .tag("version", version)
+                    .tag("operation", operation)
+                    .tag("error", type.getSimpleName())
+                    .register(registry))
+                .increment();
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,57 @@
+package com.fastcampus.timesaleservice.aop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 타임세일 처리 구간별 소요 시간 (time.sale.operation.phase)
+ */
+@Component
+@RequiredArgsConstructor
+public class TimeSaleOperationMetrics {
+    private final MeterRegistry registry;
+
+    // version 별 구간 Timer (Phase.ordinal() 순서)
+    private final Map<String, Timer[]> phaseTimers = new ConcurrentHashMap<>();
+
+    /**
+     * 타임세일 처리 구간
+     */
+    public enum Phase {
+        LOCK_WAIT("lock_wait"),
+        LOCK_HOLD("lock_hold"),
+        REDIS("redis"),
+        DB_WRITE("db_write"),
+        KAFKA_SEND("kafka_send");
+
+        private final String tag;
+
+        Phase(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    public void recordPhase(String version, Phase phase, long nanos) {
+        phaseTimers.computeIfAbsent(version, this::createPhaseTimers)[phase.ordinal()]
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer[] createPhaseTimers(String version) {
+        Phase[] phases = Phase.values();
+        Timer[] timers = new Timer[phases.length];
+        for (Phase phase : phases) {
+            timers[phase.ordinal()] = Timer.builder("time.sale.operation.phase")
+                    .tag("version", version)
+                    .tag("phase", phase.tag)
+                    .publishPercentileHistogram()
+                    .register(registry);
+        }
+        return timers;
+    }
+}
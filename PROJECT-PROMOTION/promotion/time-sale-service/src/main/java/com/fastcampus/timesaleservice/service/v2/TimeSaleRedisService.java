@@ -1,6 +1,8 @@
 package com.fastcampus.timesaleservice.service.v2;
 
 import com.fastcampus.timesaleservice.aop.TimeSaleMetered;
+import com.fastcampus.timesaleservice.aop.TimeSaleOperationMetrics;
+import com.fastcampus.timesaleservice.aop.TimeSaleOperationMetrics.Phase;
 import com.fastcampus.timesaleservice.domain.Product;
 import com.fastcampus.timesaleservice.domain.TimeSale;
 import com.fastcampus.timesaleservice.domain.TimeSaleOrder;
@@ -35,12 +37,14 @@ public class TimeSaleRedisService {
     private static final String TIME_SALE_LOCK = "time-sale-lock:";
     private static final long WAIT_TIME = 3L;
     private static final long LEASE_TIME = 3L;
+    private static final String VERSION = "v2";
 
     private final TimeSaleRepository timeSaleRepository;
     private final ProductRepository productRepository;
     private final TimeSaleOrderRepository timeSaleOrderRepository;
     private final RedissonClient redissonClient;
     private final ObjectMapper objectMapper;
+    private final TimeSaleOperationMetrics timeSaleOperationMetrics;
 
     @Transactional
     public TimeSale createTimeSale(TimeSaleDto.CreateRequest request) {
@@ -75,7 +79,7 @@ public class TimeSaleRedisService {
     }
 
     @Transactional
-    @TimeSaleMetered(version = "v2")
+    @TimeSaleMetered(version = VERSION)
     public TimeSale purchaseTimeSale(Long timeSaleId, TimeSaleDto.PurchaseRequest request) {
         RLock lock = redissonClient.getLock(TIME_SALE_LOCK + timeSaleId);
         if (lock == null) {
@@ -83,16 +87,23 @@ public class TimeSaleRedisService {
         }
 
         boolean isLocked = false;
+        long lockedAt = 0L;
         try {
+            long lockStartTime = System.nanoTime();
             isLocked = lock.tryLock(WAIT_TIME, LEASE_TIME, TimeUnit.SECONDS);
+            timeSaleOperationMetrics.recordPhase(VERSION, Phase.LOCK_WAIT, System.nanoTime() - lockStartTime);
             if (!isLocked) {
                 throw new TimeSaleException("Failed to acquire lock");
             }
+            lockedAt = System.nanoTime();
 
+            long redisStartTime = System.nanoTime();
             TimeSale timeSale = getFromRedis(timeSaleId);
+            timeSaleOperationMetrics.recordPhase(VERSION, Phase.REDIS, System.nanoTime() - redisStartTime);
             timeSale.purchase(request.getQuantity());
             
             // Save changes to DB
+            long dbStartTime = System.nanoTime();
             timeSale = timeSaleRepository.save(timeSale);
             
             TimeSaleOrder order = TimeSaleOrder.builder()
@@ -103,7 +114,11 @@ public class TimeSaleRedisService {
                     .build();
 
             timeSaleOrderRepository.save(order);
+            timeSaleOperationMetrics.recordPhase(VERSION, Phase.DB_WRITE, System.nanoTime() - dbStartTime);
+
+            redisStartTime = System.nanoTime();
             saveToRedis(timeSale);
+            timeSaleOperationMetrics.recordPhase(VERSION, Phase.REDIS, System.nanoTime() - redisStartTime);
             
             return timeSale;
 
@@ -114,6 +129,7 @@ public class TimeSaleRedisService {
             if (isLocked) {
                 try {
                     lock.unlock();
+                    timeSaleOperationMetrics.recordPhase(VERSION, Phase.LOCK_HOLD, System.nanoTime() - lockedAt);
                 } catch (Exception e) {
                     log.error("Failed to unlock", e);
                 }
@@ -1,5 +1,7 @@
 package com.fastcampus.timesaleservice.service.v3;
 
+import com.fastcampus.timesaleservice.aop.TimeSaleOperationMetrics;
+import com.fastcampus.timesaleservice.aop.TimeSaleOperationMetrics.Phase;
 import com.fastcampus.timesaleservice.dto.PurchaseRequestMessage;
 import lombok.RequiredArgsConstructor;
 import org.redisson.api.RAtomicLong;
@@ -25,9 +27,11 @@ public class TimeSaleProducer {
     private static final String QUEUE_KEY = "time-sale-queue:";
     private static final String TOTAL_REQUESTS_KEY = "time-sale-total-requests:";
     private static final String RESULT_PREFIX = "purchase-result:";
+    private static final String VERSION = "v3";
 
     private final KafkaTemplate<String, PurchaseRequestMessage> kafkaTemplate;
     private final RedissonClient redissonClient;
+    private final TimeSaleOperationMetrics timeSaleOperationMetrics;
 
     /**
      * 타임세일 구매 요청을 처리
@@ -49,6 +53,7 @@ public class TimeSaleProducer {
                 .build();
 
         // Redis에 초기 상태 저장
+        long redisStartTime = System.nanoTime();
         RBucket<String> resultBucket = redissonClient.getBucket(RESULT_PREFIX + requestId);
         resultBucket.set("PENDING");
 
@@ -59,9 +64,13 @@ public class TimeSaleProducer {
         queueBucket.set(requestId);
         RAtomicLong totalCounter = redissonClient.getAtomicLong(totalKey);
         totalCounter.incrementAndGet();
+        timeSaleOperationMetrics.recordPhase(VERSION, Phase.REDIS, System.nanoTime() - redisStartTime);
 
-        // Kafka로 메시지 전송
-        kafkaTemplate.send(TOPIC, requestId, message);
+        // Kafka로 메시지 전송 (브로커 응답까지의 시간을 기록)
+        long sendStartTime = System.nanoTime();
+        kafkaTemplate.send(TOPIC, requestId, message)
+                .whenComplete((result, ex) -> timeSaleOperationMetrics.recordPhase(
+                        VERSION, Phase.KAFKA_SEND, System.nanoTime() - sendStartTime));
         return requestId;
     }
 
@@ -1,5 +1,6 @@
 package com.fastcampus.timesaleservice.service.v2;
 
+import com.fastcampus.timesaleservice.aop.TimeSaleOperationMetrics;
 import com.fastcampus.timesaleservice.domain.Product;
 import com.fastcampus.timesaleservice.domain.TimeSale;
 import com.fastcampus.timesaleservice.domain.TimeSaleOrder;
@@ -53,6 +54,8 @@ class TimeSaleRedisServiceTest {
     @Mock
     private RLock rLock;
     @Mock
+    private TimeSaleOperationMetrics timeSaleOperationMetrics;
+    @Mock
     private RBucket<String> rBucket;
 
     private TimeSale timeSale;
@@ -1,5 +1,6 @@
 package com.fastcampus.timesaleservice.service.v3;
 
+import com.fastcampus.timesaleservice.aop.TimeSaleOperationMetrics;
 import com.fastcampus.timesaleservice.dto.PurchaseRequestMessage;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -12,6 +13,8 @@ import org.redisson.api.RBucket;
 import org.redisson.api.RedissonClient;
 import org.springframework.kafka.core.KafkaTemplate;
 
+import java.util.concurrent.CompletableFuture;
+
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.verify;
@@ -35,6 +38,9 @@ class TimeSaleProducerTest {
     @Mock
     private RAtomicLong totalCounter;
 
+    @Mock
+    private TimeSaleOperationMetrics timeSaleOperationMetrics;
+
     @InjectMocks
     private TimeSaleProducer timeSaleProducer;
 
@@ -48,6 +54,8 @@ class TimeSaleProducerTest {
         when(redissonClient.<String>getBucket(matches("purchase-result:.*"))).thenReturn(resultBucket);
         when(redissonClient.<String>getBucket(matches("time-sale-queue:.*"))).thenReturn(queueBucket);
         when(redissonClient.getAtomicLong(anyString())).thenReturn(totalCounter);
+        when(kafkaTemplate.send(eq("time-sale-requests"), anyString(), any(PurchaseRequestMessage.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
 
         // when
         String requestId = timeSaleProducer.sendPurchaseRequest(timeSaleId, userId, quantity);